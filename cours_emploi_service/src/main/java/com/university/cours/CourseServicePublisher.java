@@ -1,9 +1,34 @@
 package com.university.cours;
 
 import com.university.cours.config.MongoDBConfig;
+import com.university.cours.config.RequestExecutor;
+import com.university.cours.http.AsyncCourseFilter;
+import com.university.cours.http.CatalogResponseCache;
+import com.university.cours.http.CatalogResponseFilter;
+import com.university.cours.http.CompressionFilter;
+import com.university.cours.http.CourseJsonHandler;
+import com.university.cours.http.HealthHandler;
+import com.university.cours.http.MetricsHandler;
+import com.university.cours.metrics.OperationTimingHandler;
+import com.university.cours.metrics.ServiceMetrics;
+import com.university.cours.metrics.SlowEventSummary;
+import com.university.cours.repository.CourseCatalog;
+import com.university.cours.repository.ReactiveCourseRepository;
+import com.university.cours.security.JWTValidator;
+import com.university.cours.security.TokenCache;
 import com.university.cours.service.CourseServiceImpl;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.xml.ws.api.fastinfoset.FastInfosetFeature;
 import jakarta.xml.ws.Endpoint;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
 public class CourseServicePublisher {
     public static void main(String[] args) {
         // Support environment variables for Docker
@@ -23,14 +48,84 @@ public class CourseServicePublisher {
         }
 
         String url = "http://" + host + ":" + port + path;
+        boolean responseCacheEnabled = Boolean.parseBoolean(
+                MongoDBConfig.getProperty("catalog.response.cache.enabled", "true"));
+        boolean jsonEnabled = Boolean.parseBoolean(MongoDBConfig.getProperty("json.enabled", "true"));
+        boolean gzipEnabled = Boolean.parseBoolean(MongoDBConfig.getProperty("soap.gzip.enabled", "true"));
+        boolean fastInfosetEnabled = Boolean.parseBoolean(
+                MongoDBConfig.getProperty("soap.fastinfoset.enabled", "true"));
+        boolean asyncMode = "async".equalsIgnoreCase(MongoDBConfig.getProperty("service.mode", "sync"));
+        boolean metricsEnabled = Boolean.parseBoolean(MongoDBConfig.getProperty("metrics.enabled", "true"));
 
         System.out.println("Starting Course Service...");
         System.out.println("Service URL: " + url);
         System.out.println("WSDL URL: " + url + "?wsdl");
+        if (jsonEnabled) {
+            System.out.println("JSON URL: " + url + "/json");
+        }
+        if (metricsEnabled) {
+            System.out.println("Metrics URL: http://" + host + ":" + port + "/metrics");
+            System.out.println("Health URL: http://" + host + ":" + port + "/health");
+        }
 
         try {
-            Endpoint endpoint = Endpoint.publish(url, new CourseServiceImpl());
+            // Serve requests off the HTTP dispatcher thread so they can run in parallel
+            RequestExecutor executor = RequestExecutor.fromProperties();
+            if (Boolean.parseBoolean(MongoDBConfig.getProperty("mongodb.pool.prewarm", "true"))) {
+                MongoDBConfig.prewarm();
+            }
+            CourseServiceImpl service = new CourseServiceImpl();
+
+            // The endpoint is published on our own server so filters can run in front of it
+            HttpServer server = HttpServer.create(new InetSocketAddress(host, Integer.parseInt(port)), 0);
+            server.setExecutor(executor);
+            HttpContext context = server.createContext(path);
+            if (gzipEnabled) {
+                // First, so the filters behind it and JAX-WS only see uncompressed bodies
+                context.getFilters().add(new CompressionFilter());
+            }
+            CatalogResponseCache responseCache = null;
+            if (responseCacheEnabled && service.getCatalog().isEnabled()) {
+                responseCache = new CatalogResponseCache(service.getCatalog(),
+                        Boolean.parseBoolean(MongoDBConfig.getProperty("catalog.response.gzip", "true")),
+                        fastInfosetEnabled,
+                        Long.parseLong(MongoDBConfig.getProperty("catalog.response.rebuildMillis", "1000")));
+                responseCache.start();
+            }
+            if (asyncMode) {
+                // Course reads complete from callbacks; everything else still goes to JAX-WS
+                context.getFilters().add(new AsyncCourseFilter(service.getCatalog(), responseCache,
+                        new ReactiveCourseRepository(), fastInfosetEnabled));
+            } else if (responseCache != null) {
+                context.getFilters().add(new CatalogResponseFilter(responseCache));
+            }
 
+            if (jsonEnabled) {
+                // More specific than the SOAP context, so the server routes /json here
+                server.createContext(path + "/json", new CourseJsonHandler(service));
+            }
+            if (metricsEnabled) {
+                server.createContext("/metrics", new MetricsHandler());
+                server.createContext("/health", new HealthHandler(service.getCatalog()));
+                registerGauges(executor, service);
+            }
+
+            // With Fast Infoset on, clients sending Accept: application/fastinfoset get binary XML
+            Endpoint endpoint = Endpoint.create(service, new FastInfosetFeature(fastInfosetEnabled));
+            if (metricsEnabled) {
+                endpoint.getBinding().setHandlerChain(List.of(new OperationTimingHandler()));
+            }
+            endpoint.publish(context);
+            server.start();
+            CatalogResponseCache cacheToClose = responseCache;
+            SlowEventSummary slowEvents = startSlowEventSummary();
+
+            System.out.println("Request executor: " + executor.getMode());
+            System.out.println("Service mode: " + (asyncMode ? "async" : "sync"));
+            System.out.println("SOAP encodings: xml" + (fastInfosetEnabled ? ", fastinfoset" : "")
+                    + (gzipEnabled ? ", gzip" : ""));
+            System.out.println("Course catalog: " + service.getCatalog().getMode()
+                    + (responseCache != null ? ", cached catalog responses" : ""));
             System.out.println("Course Service is running!");
             System.out.println("Press Ctrl+C to stop the service.");
 
@@ -38,6 +133,15 @@ public class CourseServicePublisher {
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 System.out.println("\nShutting down Course Service...");
                 endpoint.stop();
+                server.stop(0);
+                executor.shutdown();
+                if (cacheToClose != null) {
+                    cacheToClose.close();
+                }
+                if (slowEvents != null) {
+                    slowEvents.close();
+                }
+                service.close();
                 MongoDBConfig.close();
                 System.out.println("Course Service stopped.");
             }));
@@ -47,4 +151,49 @@ public class CourseServicePublisher {
             System.exit(1);
         }
     }
+
+    // Optional in-process Flight Recorder consumer; the events themselves are always compiled in
+    private static SlowEventSummary startSlowEventSummary() {
+        if (!Boolean.parseBoolean(MongoDBConfig.getProperty("jfr.summary.enabled", "false"))) {
+            return null;
+        }
+        int top = Integer.parseInt(MongoDBConfig.getProperty("jfr.summary.top", "10"));
+        long intervalSeconds = Long.parseLong(MongoDBConfig.getProperty("jfr.summary.intervalSeconds", "60"));
+        long thresholdMillis = Long.parseLong(MongoDBConfig.getProperty("jfr.summary.thresholdMillis", "1"));
+        SlowEventSummary summary = new SlowEventSummary(top, Duration.ofSeconds(intervalSeconds),
+                Duration.ofMillis(thresholdMillis));
+        summary.start();
+        System.out.println("Slow event summary: top " + top + " every " + intervalSeconds + "s, over "
+                + thresholdMillis + " ms");
+        return summary;
+    }
+
+    private static void registerGauges(RequestExecutor executor, CourseServiceImpl service) {
+        ServiceMetrics.gauge("course_executor_pending", "Requests queued or running on the request executor",
+                executor::getPendingCount);
+        ServiceMetrics.gauge("course_enrollment_pending", "Surge-mode enrollments not yet written",
+                service::getPendingEnrollmentCount);
+
+        CourseCatalog catalog = service.getCatalog();
+        ServiceMetrics.gauge("course_catalog_size", "Courses held by the in-memory catalog", catalog::size);
+        ServiceMetrics.counter("course_catalog_version", "Changes applied to the in-memory catalog",
+                catalog::getVersion);
+
+        TokenCache cache = JWTValidator.getCache();
+        if (cache != null) {
+            ServiceMetrics.gauge("course_token_cache_size", "Tokens in the validation cache", cache::size);
+            ServiceMetrics.counter("course_token_cache_requests_total{result=\"hit\"}",
+                    "Token cache lookups", cache::getHitCount);
+            ServiceMetrics.counter("course_token_cache_requests_total{result=\"miss\"}",
+                    "Token cache lookups", cache::getMissCount);
+            ServiceMetrics.counter("course_token_cache_evictions_total", "Tokens dropped from the cache",
+                    cache::getEvictionCount);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ServiceMetrics.gauge("jvm_memory_heap_used_bytes", "Heap in use",
+                () -> memory.getHeapMemoryUsage().getUsed());
+        ServiceMetrics.gauge("jvm_threads_live", "Live platform threads", threads::getThreadCount);
+    }
 }
@@ -0,0 +1,212 @@
+package com.university.cours.codec;
+
+import com.university.cours.model.Course;
+import com.university.cours.model.TimeSlot;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reads and writes {@link Course} entities straight from the BSON stream,
+ * without an intermediate {@link org.bson.Document}.
+ */
+public class CourseCodec implements CollectibleCodec<Course> {
+    static final CourseDecoder<Course, TimeSlot> DECODER = new CourseDecoder<>() {
+        @Override
+        Course newCourse() {
+            return new Course();
+        }
+
+        @Override
+        TimeSlot newTimeSlot() {
+            return new TimeSlot();
+        }
+
+        @Override
+        void setId(Course course, ObjectId id) {
+            course.setId(id);
+        }
+
+        @Override
+        void setCourseId(Course course, String courseId) {
+            course.setCourseId(courseId);
+        }
+
+        @Override
+        void setCourseName(Course course, String courseName) {
+            course.setCourseName(courseName);
+        }
+
+        @Override
+        void setCourseCode(Course course, String courseCode) {
+            course.setCourseCode(courseCode);
+        }
+
+        @Override
+        void setCredits(Course course, int credits) {
+            course.setCredits(credits);
+        }
+
+        @Override
+        void setDescription(Course course, String description) {
+            course.setDescription(description);
+        }
+
+        @Override
+        void setProfessorId(Course course, String professorId) {
+            course.setProfessorId(professorId);
+        }
+
+        @Override
+        void setProfessorName(Course course, String professorName) {
+            course.setProfessorName(professorName);
+        }
+
+        @Override
+        void setMaxStudents(Course course, int maxStudents) {
+            course.setMaxStudents(maxStudents);
+        }
+
+        @Override
+        void setEnrolledStudents(Course course, int enrolledStudents) {
+            course.setEnrolledStudents(enrolledStudents);
+        }
+
+        @Override
+        void setSemester(Course course, String semester) {
+            course.setSemester(semester);
+        }
+
+        @Override
+        void setActive(Course course, boolean active) {
+            course.setActive(active);
+        }
+
+        @Override
+        void setTimeSlots(Course course, List<TimeSlot> timeSlots) {
+            course.setTimeSlots(timeSlots);
+        }
+
+        @Override
+        void setPrerequisites(Course course, List<String> prerequisites) {
+            course.setPrerequisites(prerequisites);
+        }
+
+        @Override
+        void setVersion(Course course, long version) {
+            course.setVersion(version);
+        }
+
+        @Override
+        void setRevision(Course course, long revision) {
+            course.setRevision(revision);
+        }
+
+        @Override
+        void setLastModified(Course course, Date lastModified) {
+            course.setLastModified(lastModified);
+        }
+
+        @Override
+        void setDayOfWeek(TimeSlot timeSlot, String dayOfWeek) {
+            timeSlot.setDayOfWeek(dayOfWeek);
+        }
+
+        @Override
+        void setStartTime(TimeSlot timeSlot, String startTime) {
+            timeSlot.setStartTime(startTime);
+        }
+
+        @Override
+        void setEndTime(TimeSlot timeSlot, String endTime) {
+            timeSlot.setEndTime(endTime);
+        }
+
+        @Override
+        void setRoom(TimeSlot timeSlot, String room) {
+            timeSlot.setRoom(room);
+        }
+    };
+
+    @Override
+    public void encode(BsonWriter writer, Course course, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (course.getId() != null) {
+            writer.writeObjectId("_id", course.getId());
+        }
+        BsonFields.writeString(writer, "courseId", course.getCourseId());
+        BsonFields.writeString(writer, "courseName", course.getCourseName());
+        BsonFields.writeString(writer, "courseCode", course.getCourseCode());
+        writer.writeInt32("credits", course.getCredits());
+        BsonFields.writeString(writer, "description", course.getDescription());
+        BsonFields.writeString(writer, "professorId", course.getProfessorId());
+        BsonFields.writeString(writer, "professorName", course.getProfessorName());
+        writer.writeInt32("maxStudents", course.getMaxStudents());
+        writer.writeInt32("enrolledStudents", course.getEnrolledStudents());
+        BsonFields.writeString(writer, "semester", course.getSemester());
+        writer.writeBoolean("active", course.isActive());
+        writer.writeInt64("version", course.getVersion());
+        writer.writeInt64("revision", course.getRevision());
+        if (course.getLastModified() != null) {
+            writer.writeDateTime("lastModified", course.getLastModified().getTime());
+        }
+
+        writer.writeStartArray("timeSlots");
+        for (TimeSlot ts : course.getTimeSlots()) {
+            writer.writeStartDocument();
+            BsonFields.writeString(writer, "dayOfWeek", ts.getDayOfWeek());
+            BsonFields.writeString(writer, "startTime", ts.getStartTime());
+            BsonFields.writeString(writer, "endTime", ts.getEndTime());
+            BsonFields.writeString(writer, "room", ts.getRoom());
+            writer.writeEndDocument();
+        }
+        writer.writeEndArray();
+
+        writer.writeStartArray("prerequisites");
+        for (String prerequisite : course.getPrerequisites()) {
+            writer.writeString(prerequisite);
+        }
+        writer.writeEndArray();
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Course decode(BsonReader reader, DecoderContext decoderContext) {
+        return DECODER.decode(reader);
+    }
+
+    @Override
+    public Class<Course> getEncoderClass() {
+        return Course.class;
+    }
+
+    @Override
+    public Course generateIdIfAbsentFromDocument(Course course) {
+        if (course.getId() == null) {
+            course.setId(new ObjectId());
+        }
+        return course;
+    }
+
+    @Override
+    public boolean documentHasId(Course course) {
+        return course.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(Course course) {
+        if (course.getId() == null) {
+            throw new IllegalStateException("Course has no _id");
+        }
+        return new BsonObjectId(course.getId());
+    }
+}
@@ -0,0 +1,195 @@
+package com.university.cours.codec;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.TimeSlotDTO;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Decodes course documents straight into response DTOs for read-only operations,
+ * skipping the Document and Course entity that the write path goes through.
+ * Encoding writes the same document as {@link CourseCodec}, so DTOs can also be
+ * used as filters, update values or test fixtures.
+ */
+public class CourseDTOCodec implements Codec<CourseDTO> {
+    private static final CourseDecoder<CourseDTO, TimeSlotDTO> DECODER = new CourseDecoder<>() {
+        @Override
+        CourseDTO newCourse() {
+            return new CourseDTO();
+        }
+
+        @Override
+        TimeSlotDTO newTimeSlot() {
+            return new TimeSlotDTO();
+        }
+
+        @Override
+        void setId(CourseDTO course, ObjectId id) {
+            course.setId(id.toHexString());
+        }
+
+        @Override
+        void setCourseId(CourseDTO course, String courseId) {
+            course.setCourseId(courseId);
+        }
+
+        @Override
+        void setCourseName(CourseDTO course, String courseName) {
+            course.setCourseName(courseName);
+        }
+
+        @Override
+        void setCourseCode(CourseDTO course, String courseCode) {
+            course.setCourseCode(courseCode);
+        }
+
+        @Override
+        void setCredits(CourseDTO course, int credits) {
+            course.setCredits(credits);
+        }
+
+        @Override
+        void setDescription(CourseDTO course, String description) {
+            course.setDescription(description);
+        }
+
+        @Override
+        void setProfessorId(CourseDTO course, String professorId) {
+            course.setProfessorId(professorId);
+        }
+
+        @Override
+        void setProfessorName(CourseDTO course, String professorName) {
+            course.setProfessorName(professorName);
+        }
+
+        @Override
+        void setMaxStudents(CourseDTO course, int maxStudents) {
+            course.setMaxStudents(maxStudents);
+        }
+
+        @Override
+        void setEnrolledStudents(CourseDTO course, int enrolledStudents) {
+            course.setEnrolledStudents(enrolledStudents);
+        }
+
+        @Override
+        void setSemester(CourseDTO course, String semester) {
+            course.setSemester(semester);
+        }
+
+        @Override
+        void setActive(CourseDTO course, boolean active) {
+            course.setActive(active);
+        }
+
+        @Override
+        void setTimeSlots(CourseDTO course, List<TimeSlotDTO> timeSlots) {
+            course.setTimeSlots(timeSlots);
+        }
+
+        @Override
+        void setPrerequisites(CourseDTO course, List<String> prerequisites) {
+            course.setPrerequisites(prerequisites);
+        }
+
+        @Override
+        void setVersion(CourseDTO course, long version) {
+            course.setVersion(version);
+        }
+
+        @Override
+        void setRevision(CourseDTO course, long revision) {
+            course.setRevision(revision);
+        }
+
+        @Override
+        void setLastModified(CourseDTO course, Date lastModified) {
+            course.setLastModified(lastModified);
+        }
+
+        @Override
+        void setDayOfWeek(TimeSlotDTO timeSlot, String dayOfWeek) {
+            timeSlot.setDayOfWeek(dayOfWeek);
+        }
+
+        @Override
+        void setStartTime(TimeSlotDTO timeSlot, String startTime) {
+            timeSlot.setStartTime(startTime);
+        }
+
+        @Override
+        void setEndTime(TimeSlotDTO timeSlot, String endTime) {
+            timeSlot.setEndTime(endTime);
+        }
+
+        @Override
+        void setRoom(TimeSlotDTO timeSlot, String room) {
+            timeSlot.setRoom(room);
+        }
+    };
+
+    @Override
+    public CourseDTO decode(BsonReader reader, DecoderContext decoderContext) {
+        return DECODER.decode(reader);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, CourseDTO course, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (course.getId() != null && ObjectId.isValid(course.getId())) {
+            writer.writeObjectId("_id", new ObjectId(course.getId()));
+        }
+        BsonFields.writeString(writer, "courseId", course.getCourseId());
+        BsonFields.writeString(writer, "courseName", course.getCourseName());
+        BsonFields.writeString(writer, "courseCode", course.getCourseCode());
+        writer.writeInt32("credits", course.getCredits());
+        BsonFields.writeString(writer, "description", course.getDescription());
+        BsonFields.writeString(writer, "professorId", course.getProfessorId());
+        BsonFields.writeString(writer, "professorName", course.getProfessorName());
+        writer.writeInt32("maxStudents", course.getMaxStudents());
+        writer.writeInt32("enrolledStudents", course.getEnrolledStudents());
+        BsonFields.writeString(writer, "semester", course.getSemester());
+        writer.writeBoolean("active", course.isActive());
+        writer.writeInt64("version", course.getVersion() != null ? course.getVersion() : 0L);
+        writer.writeInt64("revision", course.getRevision() != null ? course.getRevision() : 0L);
+        if (course.getLastModified() != null) {
+            writer.writeDateTime("lastModified", course.getLastModified().getTime());
+        }
+
+        writer.writeStartArray("timeSlots");
+        if (course.getTimeSlots() != null) {
+            for (TimeSlotDTO ts : course.getTimeSlots()) {
+                writer.writeStartDocument();
+                BsonFields.writeString(writer, "dayOfWeek", ts.getDayOfWeek());
+                BsonFields.writeString(writer, "startTime", ts.getStartTime());
+                BsonFields.writeString(writer, "endTime", ts.getEndTime());
+                BsonFields.writeString(writer, "room", ts.getRoom());
+                writer.writeEndDocument();
+            }
+        }
+        writer.writeEndArray();
+
+        writer.writeStartArray("prerequisites");
+        if (course.getPrerequisites() != null) {
+            for (String prerequisite : course.getPrerequisites()) {
+                writer.writeString(prerequisite);
+            }
+        }
+        writer.writeEndArray();
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<CourseDTO> getEncoderClass() {
+        return CourseDTO.class;
+    }
+}
@@ -0,0 +1,188 @@
+package com.university.cours.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reads a course document field by field, for {@link CourseCodec} (into Course and TimeSlot)
+ * and {@link CourseDTOCodec} (into CourseDTO and TimeSlotDTO). The field names and the
+ * tolerance for missing or mistyped fields live here; subclasses only set the values.
+ *
+ * @param <C> the course type
+ * @param <S> the time slot type
+ */
+abstract class CourseDecoder<C, S> {
+
+    abstract C newCourse();
+
+    abstract S newTimeSlot();
+
+    abstract void setId(C course, ObjectId id);
+
+    abstract void setCourseId(C course, String courseId);
+
+    abstract void setCourseName(C course, String courseName);
+
+    abstract void setCourseCode(C course, String courseCode);
+
+    abstract void setCredits(C course, int credits);
+
+    abstract void setDescription(C course, String description);
+
+    abstract void setProfessorId(C course, String professorId);
+
+    abstract void setProfessorName(C course, String professorName);
+
+    abstract void setMaxStudents(C course, int maxStudents);
+
+    abstract void setEnrolledStudents(C course, int enrolledStudents);
+
+    abstract void setSemester(C course, String semester);
+
+    abstract void setActive(C course, boolean active);
+
+    abstract void setTimeSlots(C course, List<S> timeSlots);
+
+    abstract void setPrerequisites(C course, List<String> prerequisites);
+
+    abstract void setVersion(C course, long version);
+
+    abstract void setRevision(C course, long revision);
+
+    abstract void setLastModified(C course, Date lastModified);
+
+    abstract void setDayOfWeek(S timeSlot, String dayOfWeek);
+
+    abstract void setStartTime(S timeSlot, String startTime);
+
+    abstract void setEndTime(S timeSlot, String endTime);
+
+    abstract void setRoom(S timeSlot, String room);
+
+    /**
+     * A course missing "active" is active; one missing "version" or "revision" is at 0.
+     */
+    final C decode(BsonReader reader) {
+        C course = newCourse();
+        setActive(course, true);
+        setVersion(course, 0);
+        setRevision(course, 0);
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            switch (name) {
+                case "_id":
+                    if (reader.getCurrentBsonType() == BsonType.OBJECT_ID) {
+                        setId(course, reader.readObjectId());
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "courseId":
+                    setCourseId(course, BsonFields.readString(reader));
+                    break;
+                case "courseName":
+                    setCourseName(course, BsonFields.readString(reader));
+                    break;
+                case "courseCode":
+                    setCourseCode(course, BsonFields.readString(reader));
+                    break;
+                case "credits":
+                    setCredits(course, BsonFields.readInt(reader));
+                    break;
+                case "description":
+                    setDescription(course, BsonFields.readString(reader));
+                    break;
+                case "professorId":
+                    setProfessorId(course, BsonFields.readString(reader));
+                    break;
+                case "professorName":
+                    setProfessorName(course, BsonFields.readString(reader));
+                    break;
+                case "maxStudents":
+                    setMaxStudents(course, BsonFields.readInt(reader));
+                    break;
+                case "enrolledStudents":
+                    setEnrolledStudents(course, BsonFields.readInt(reader));
+                    break;
+                case "semester":
+                    setSemester(course, BsonFields.readString(reader));
+                    break;
+                case "active":
+                    setActive(course, BsonFields.readBoolean(reader, true));
+                    break;
+                case "timeSlots":
+                    setTimeSlots(course, readTimeSlots(reader));
+                    break;
+                case "prerequisites":
+                    setPrerequisites(course, BsonFields.readStrings(reader));
+                    break;
+                case "version":
+                    setVersion(course, BsonFields.readLong(reader));
+                    break;
+                case "revision":
+                    setRevision(course, BsonFields.readLong(reader));
+                    break;
+                case "lastModified":
+                    setLastModified(course, BsonFields.readDate(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return course;
+    }
+
+    final S decodeTimeSlot(BsonReader reader) {
+        S timeSlot = newTimeSlot();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "dayOfWeek":
+                    setDayOfWeek(timeSlot, BsonFields.readString(reader));
+                    break;
+                case "startTime":
+                    setStartTime(timeSlot, BsonFields.readString(reader));
+                    break;
+                case "endTime":
+                    setEndTime(timeSlot, BsonFields.readString(reader));
+                    break;
+                case "room":
+                    setRoom(timeSlot, BsonFields.readString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return timeSlot;
+    }
+
+    // Anything that is not an array of documents reads as no time slots
+    private List<S> readTimeSlots(BsonReader reader) {
+        List<S> timeSlots = new ArrayList<>();
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return timeSlots;
+        }
+
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+                reader.skipValue();
+                continue;
+            }
+            timeSlots.add(decodeTimeSlot(reader));
+        }
+        reader.readEndArray();
+        return timeSlots;
+    }
+}
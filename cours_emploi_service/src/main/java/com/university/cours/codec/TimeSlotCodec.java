@@ -0,0 +1,34 @@
+package com.university.cours.codec;
+
+import com.university.cours.model.TimeSlot;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Lets time slots be used directly as update values, e.g. Updates.set("timeSlots", slots).
+ */
+public class TimeSlotCodec implements Codec<TimeSlot> {
+
+    @Override
+    public void encode(BsonWriter writer, TimeSlot ts, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonFields.writeString(writer, "dayOfWeek", ts.getDayOfWeek());
+        BsonFields.writeString(writer, "startTime", ts.getStartTime());
+        BsonFields.writeString(writer, "endTime", ts.getEndTime());
+        BsonFields.writeString(writer, "room", ts.getRoom());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public TimeSlot decode(BsonReader reader, DecoderContext decoderContext) {
+        return CourseCodec.DECODER.decodeTimeSlot(reader);
+    }
+
+    @Override
+    public Class<TimeSlot> getEncoderClass() {
+        return TimeSlot.class;
+    }
+}
@@ -1,16 +1,37 @@
 package com.university.cours.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.MongoException;
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
+import com.mongodb.WriteConcern;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import com.university.cours.codec.CourseCodec;
+import com.university.cours.codec.CourseDTOCodec;
+import com.university.cours.codec.TimeSlotCodec;
+import com.university.cours.metrics.MongoMetrics;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class MongoDBConfig {
-    private static MongoClient mongoClient;
-    private static MongoDatabase database;
+    private static volatile MongoClient mongoClient;
+    private static volatile MongoDatabase database;
+    private static volatile com.mongodb.reactivestreams.client.MongoClient reactiveClient;
+    private static volatile com.mongodb.reactivestreams.client.MongoDatabase reactiveDatabase;
+    private static volatile MongoMetrics syncMetrics;
+    private static volatile int syncPoolMinSize;
     private static final Properties properties = new Properties();
 
     static {
@@ -26,23 +47,181 @@ public class MongoDBConfig {
     }
 
     public static MongoDatabase getDatabase() {
-        if (database == null) {
-            // Support environment variable override for Docker
-            String uri = System.getenv("MONGODB_URI");
-            if (uri == null || uri.isEmpty()) {
-                uri = properties.getProperty("mongodb.uri", "mongodb://localhost:27017");
+        MongoDatabase db = database;
+        if (db != null) {
+            return db;
+        }
+        // Requests are served concurrently, so only one of them may create the client
+        synchronized (MongoDBConfig.class) {
+            if (database != null) {
+                return database;
             }
 
-            String dbName = System.getenv("MONGODB_DB_NAME");
-            if (dbName == null || dbName.isEmpty()) {
-                dbName = properties.getProperty("mongodb.database", "courses_db");
+            String uri = uri();
+            String dbName = databaseName();
+            syncMetrics = new MongoMetrics("sync");
+            MongoClientSettings settings = clientSettings(uri, syncMetrics);
+            syncPoolMinSize = settings.getConnectionPoolSettings().getMinSize();
+            mongoClient = MongoClients.create(settings);
+            database = mongoClient.getDatabase(dbName).withCodecRegistry(codecRegistry());
+            System.out.println("Connected to MongoDB: " + dbName + " at " + uri);
+            System.out.println("MongoDB client: pool " + settings.getConnectionPoolSettings().getMinSize()
+                    + ".." + settings.getConnectionPoolSettings().getMaxSize()
+                    + ", compressors " + settings.getCompressorList().stream().map(MongoCompressor::getName).toList()
+                    + ", writes " + settings.getWriteConcern().asDocument().toJson()
+                    + ", catalog reads " + getCatalogReadPreference());
+            return database;
+        }
+    }
+
+    /**
+     * Same database through the reactive-streams driver, for the asynchronous request path.
+     * It has its own connection pool, created on first use.
+     */
+    public static com.mongodb.reactivestreams.client.MongoDatabase getReactiveDatabase() {
+        com.mongodb.reactivestreams.client.MongoDatabase db = reactiveDatabase;
+        if (db != null) {
+            return db;
+        }
+        synchronized (MongoDBConfig.class) {
+            if (reactiveDatabase == null) {
+                reactiveClient = com.mongodb.reactivestreams.client.MongoClients.create(
+                        clientSettings(uri(), new MongoMetrics("reactive")));
+                reactiveDatabase = reactiveClient.getDatabase(databaseName()).withCodecRegistry(codecRegistry());
             }
+            return reactiveDatabase;
+        }
+    }
 
-            mongoClient = MongoClients.create(uri);
-            database = mongoClient.getDatabase(dbName);
-            System.out.println("Connected to MongoDB: " + dbName + " at " + uri);
+    /**
+     * Settings shared by both clients, from the mongodb.* properties. Options given in
+     * mongodb.uri are applied last, so they take precedence. Both clients report command
+     * timings and pool usage to the service metrics.
+     */
+    private static MongoClientSettings clientSettings(String uri, MongoMetrics metrics) {
+        return MongoClientSettings.builder()
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(intProperty("mongodb.pool.minSize", 10))
+                        .maxSize(intProperty("mongodb.pool.maxSize", 100))
+                        .maxConnecting(intProperty("mongodb.pool.maxConnecting", 2))
+                        .maxConnectionIdleTime(intProperty("mongodb.pool.maxIdleSeconds", 300), TimeUnit.SECONDS)
+                        // How long a request waits for a free connection before failing
+                        .maxWaitTime(intProperty("mongodb.pool.maxWaitMillis", 2000), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(metrics))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(intProperty("mongodb.socket.connectTimeoutMillis", 5000), TimeUnit.MILLISECONDS)
+                        .readTimeout(intProperty("mongodb.socket.readTimeoutMillis", 30000), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(
+                        intProperty("mongodb.serverSelectionTimeoutMillis", 5000), TimeUnit.MILLISECONDS))
+                .compressorList(compressors())
+                .writeConcern(writeConcern())
+                .readPreference(ReadPreference.valueOf(getProperty("mongodb.readPreference", "primary")))
+                .applyConnectionString(new ConnectionString(uri))
+                .addCommandListener(metrics)
+                .build();
+    }
+
+    // The server picks the first one it also supports; none of them is required
+    private static List<MongoCompressor> compressors() {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String name : getProperty("mongodb.compressors", "zstd,snappy,zlib").split(",")) {
+            switch (name.trim().toLowerCase()) {
+                case "zstd" -> compressors.add(MongoCompressor.createZstdCompressor());
+                case "snappy" -> compressors.add(MongoCompressor.createSnappyCompressor());
+                case "zlib" -> compressors.add(MongoCompressor.createZlibCompressor());
+                case "", "none" -> {
+                }
+                default -> throw new IllegalArgumentException("Unknown MongoDB compressor: " + name);
+            }
+        }
+        return compressors;
+    }
+
+    private static WriteConcern writeConcern() {
+        String w = getProperty("mongodb.writeConcern", "majority");
+        WriteConcern concern = w.equalsIgnoreCase("majority")
+                ? WriteConcern.MAJORITY
+                : new WriteConcern(Integer.parseInt(w));
+        return concern.withWTimeout(intProperty("mongodb.writeConcern.timeoutMillis", 5000), TimeUnit.MILLISECONDS)
+                .withJournal(Boolean.parseBoolean(getProperty("mongodb.writeConcern.journal", "true")));
+    }
+
+    /**
+     * Read preference for catalog reads that go to MongoDB (full listings, search, lookups
+     * and the reactive path), which tolerate a bounded lag so they can be spread over
+     * secondaries. Reads that must see the service's own writes stay on the client default.
+     */
+    public static ReadPreference getCatalogReadPreference() {
+        String mode = getProperty("mongodb.catalog.readPreference", "secondaryPreferred");
+        long maxStaleness = Long.parseLong(getProperty("mongodb.catalog.maxStalenessSeconds", "90"));
+        if (mode.equalsIgnoreCase("primary") || maxStaleness <= 0) {
+            return ReadPreference.valueOf(mode);
+        }
+        // The server requires at least 90 seconds
+        return ReadPreference.valueOf(mode, List.<TagSet>of(), Math.max(maxStaleness, 90), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens the sync client's minimum pool before the service takes traffic, so the first
+     * requests after a deploy do not pay for connection setup. Waits at most
+     * mongodb.pool.prewarmSeconds; the driver keeps filling the pool in the background after that.
+     */
+    public static void prewarm() {
+        MongoDatabase db = getDatabase();
+        long start = System.nanoTime();
+        try {
+            // Selects a server and opens the first connection
+            db.runCommand(new Document("ping", 1));
+        } catch (MongoException e) {
+            System.err.println("MongoDB pool prewarm skipped: " + e.getMessage());
+            return;
+        }
+
+        long deadline = start + TimeUnit.SECONDS.toNanos(intProperty("mongodb.pool.prewarmSeconds", 10));
+        // The driver opens them in the background once the server is known; wait for it
+        while (syncMetrics.getOpenConnections() < syncPoolMinSize && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        System.out.println("MongoDB pool prewarmed: " + syncMetrics.getOpenConnections() + " connections in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    /**
+     * Whether the driver currently sees a server it can write to. Reads the driver's
+     * monitoring state, so it answers at once even when MongoDB is down.
+     */
+    public static boolean isPrimaryAvailable() {
+        MongoClient client = mongoClient;
+        return client != null && client.getClusterDescription().hasWritableServer();
+    }
+
+    // Support environment variable override for Docker
+    private static String uri() {
+        String uri = System.getenv("MONGODB_URI");
+        if (uri == null || uri.isEmpty()) {
+            uri = properties.getProperty("mongodb.uri", "mongodb://localhost:27017");
         }
-        return database;
+        return uri;
+    }
+
+    private static String databaseName() {
+        String dbName = System.getenv("MONGODB_DB_NAME");
+        if (dbName == null || dbName.isEmpty()) {
+            dbName = properties.getProperty("mongodb.database", "courses_db");
+        }
+        return dbName;
+    }
+
+    // Course codecs first so they take precedence, then the driver defaults for Document etc.
+    private static CodecRegistry codecRegistry() {
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(new CourseCodec(), new CourseDTOCodec(), new TimeSlotCodec()),
+                MongoClientSettings.getDefaultCodecRegistry());
     }
 
     public static String getProperty(String key) {
@@ -55,9 +234,21 @@ public class MongoDBConfig {
         return properties.getProperty(key);
     }
 
-    public static void close() {
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+    }
+
+    public static synchronized void close() {
         if (mongoClient != null) {
             mongoClient.close();
         }
+        if (reactiveClient != null) {
+            reactiveClient.close();
+        }
     }
 }
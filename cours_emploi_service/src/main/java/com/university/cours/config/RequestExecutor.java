@@ -0,0 +1,119 @@
+package com.university.cours.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor handed to the JAX-WS endpoint so requests are not served on the
+ * HTTP server's single dispatcher thread.
+ *
+ * Modes:
+ * - virtual: one virtual thread per request, with at most maxPending requests in flight
+ * - pool: a fixed pool of platform threads with a bounded queue of maxPending requests
+ *
+ * When the limit is reached the request is either rejected (the HTTP server closes
+ * the connection) or run on the dispatcher thread, which slows down accepting new ones.
+ */
+public class RequestExecutor implements Executor {
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final boolean callerRuns;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final String mode;
+
+    private RequestExecutor(ExecutorService delegate, Semaphore permits, boolean callerRuns, String mode) {
+        this.delegate = delegate;
+        this.permits = permits;
+        this.callerRuns = callerRuns;
+        this.mode = mode;
+    }
+
+    public static RequestExecutor fromProperties() {
+        String mode = MongoDBConfig.getProperty("service.executor.mode", "virtual");
+        int threads = Integer.parseInt(MongoDBConfig.getProperty("service.executor.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors() * 4)));
+        int maxPending = Integer.parseInt(MongoDBConfig.getProperty("service.executor.queue", "1000"));
+        boolean callerRuns = "caller-runs".equalsIgnoreCase(
+                MongoDBConfig.getProperty("service.executor.rejection", "abort"));
+
+        if ("pool".equalsIgnoreCase(mode)) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(maxPending),
+                    r -> new Thread(r, "course-request-" + counter.incrementAndGet()),
+                    new ThreadPoolExecutor.AbortPolicy());
+            return new RequestExecutor(pool, null, callerRuns, "pool(" + threads + " threads, queue " + maxPending + ")");
+        }
+
+        ExecutorService virtual = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("course-request-", 0).factory());
+        return new RequestExecutor(virtual, new Semaphore(maxPending), callerRuns,
+                "virtual(max " + maxPending + " in flight)");
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (permits != null && !permits.tryAcquire()) {
+            reject(command);
+            return;
+        }
+
+        pending.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    pending.decrementAndGet();
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+            reject(command);
+        }
+    }
+
+    private void reject(Runnable command) {
+        if (callerRuns && !delegate.isShutdown()) {
+            command.run();
+            return;
+        }
+        throw new RejectedExecutionException("Course service is at capacity");
+    }
+
+    /**
+     * Requests accepted but not yet finished (queued or running).
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(10, TimeUnit.SECONDS)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
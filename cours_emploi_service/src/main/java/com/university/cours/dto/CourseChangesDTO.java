@@ -0,0 +1,52 @@
+package com.university.cours.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CourseChangesDTO {
+    private List<CourseDTO> changed = new ArrayList<>();
+    private List<CourseTombstoneDTO> removed = new ArrayList<>();
+    private long highWaterMark; // pass as sinceRevision on the next call
+    private boolean fullResync; // sinceRevision was too old: changed is the whole catalog, replace the local copy
+
+    public CourseChangesDTO() {
+    }
+
+    public CourseChangesDTO(List<CourseDTO> changed, List<CourseTombstoneDTO> removed, long highWaterMark) {
+        this.changed = changed;
+        this.removed = removed;
+        this.highWaterMark = highWaterMark;
+    }
+
+    public List<CourseDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<CourseDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<CourseTombstoneDTO> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<CourseTombstoneDTO> removed) {
+        this.removed = removed;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(long highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    public boolean isFullResync() {
+        return fullResync;
+    }
+
+    public void setFullResync(boolean fullResync) {
+        this.fullResync = fullResync;
+    }
+}
@@ -1,6 +1,7 @@
 package com.university.cours.dto;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 public class CourseDTO {
@@ -13,10 +14,14 @@ public class CourseDTO {
     private String professorId;
     private String professorName;
     private List<TimeSlotDTO> timeSlots = new ArrayList<>();
+    private List<String> prerequisites = new ArrayList<>(); // courseIds
     private int maxStudents;
     private int enrolledStudents;
     private String semester;
     private boolean active;
+    private Long version;
+    private Long revision;
+    private Date lastModified;
 
     public CourseDTO() {
     }
@@ -93,6 +98,14 @@ public class CourseDTO {
         this.timeSlots = timeSlots;
     }
 
+    public List<String> getPrerequisites() {
+        return prerequisites;
+    }
+
+    public void setPrerequisites(List<String> prerequisites) {
+        this.prerequisites = prerequisites;
+    }
+
     public int getMaxStudents() {
         return maxStudents;
     }
@@ -124,4 +137,28 @@ public class CourseDTO {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -0,0 +1,61 @@
+package com.university.cours.dto;
+
+public class CourseFilterDTO {
+    private String semester;
+    private String professorId;
+    private Boolean active;
+    private Integer minCredits;
+    private Integer maxCredits;
+    private Boolean hasFreeSeats;
+
+    public CourseFilterDTO() {
+    }
+
+    public String getSemester() {
+        return semester;
+    }
+
+    public void setSemester(String semester) {
+        this.semester = semester;
+    }
+
+    public String getProfessorId() {
+        return professorId;
+    }
+
+    public void setProfessorId(String professorId) {
+        this.professorId = professorId;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public Integer getMinCredits() {
+        return minCredits;
+    }
+
+    public void setMinCredits(Integer minCredits) {
+        this.minCredits = minCredits;
+    }
+
+    public Integer getMaxCredits() {
+        return maxCredits;
+    }
+
+    public void setMaxCredits(Integer maxCredits) {
+        this.maxCredits = maxCredits;
+    }
+
+    public Boolean getHasFreeSeats() {
+        return hasFreeSeats;
+    }
+
+    public void setHasFreeSeats(Boolean hasFreeSeats) {
+        this.hasFreeSeats = hasFreeSeats;
+    }
+}
@@ -0,0 +1,33 @@
+package com.university.cours.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CoursePageDTO {
+    private List<CourseDTO> courses = new ArrayList<>();
+    private String nextCursor; // null when there are no more pages
+
+    public CoursePageDTO() {
+    }
+
+    public CoursePageDTO(List<CourseDTO> courses, String nextCursor) {
+        this.courses = courses;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<CourseDTO> courses) {
+        this.courses = courses;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
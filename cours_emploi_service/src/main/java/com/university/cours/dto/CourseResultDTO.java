@@ -0,0 +1,74 @@
+package com.university.cours.dto;
+
+/**
+ * Outcome of one item in a batch operation. Items are reported in request order;
+ * either course or error is set.
+ */
+public class CourseResultDTO {
+    private int index;
+    private String key; // courseId or id the item was addressed by
+    private boolean success;
+    private CourseDTO course;
+    private String error;
+
+    public CourseResultDTO() {
+    }
+
+    public static CourseResultDTO success(int index, String key, CourseDTO course) {
+        CourseResultDTO result = new CourseResultDTO();
+        result.index = index;
+        result.key = key;
+        result.success = true;
+        result.course = course;
+        return result;
+    }
+
+    public static CourseResultDTO failure(int index, String key, String error) {
+        CourseResultDTO result = new CourseResultDTO();
+        result.index = index;
+        result.key = key;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public CourseDTO getCourse() {
+        return course;
+    }
+
+    public void setCourse(CourseDTO course) {
+        this.course = course;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,62 @@
+package com.university.cours.dto;
+
+import java.util.Date;
+
+public class CourseTombstoneDTO {
+    private String id;
+    private String courseId;
+    private long revision;
+    private Date removedAt;
+    private String reason; // deleted or deactivated
+
+    public CourseTombstoneDTO() {
+    }
+
+    public CourseTombstoneDTO(String id, String courseId, long revision, Date removedAt, String reason) {
+        this.id = id;
+        this.courseId = courseId;
+        this.revision = revision;
+        this.removedAt = removedAt;
+        this.reason = reason;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public Date getRemovedAt() {
+        return removedAt;
+    }
+
+    public void setRemovedAt(Date removedAt) {
+        this.removedAt = removedAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,74 @@
+package com.university.cours.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Whether a student may take one course. Results are reported in request order;
+ * error is set for unknown courses.
+ */
+public class EligibilityDTO {
+    private String courseId;
+    private boolean eligible;
+    private List<String> missingPrerequisites = new ArrayList<>(); // direct prerequisites not satisfied
+    private List<String> remainingPrerequisites = new ArrayList<>(); // every course still to take first
+    private String error;
+
+    public EligibilityDTO() {
+    }
+
+    public EligibilityDTO(String courseId, boolean eligible, List<String> missingPrerequisites,
+            List<String> remainingPrerequisites) {
+        this.courseId = courseId;
+        this.eligible = eligible;
+        this.missingPrerequisites = missingPrerequisites;
+        this.remainingPrerequisites = remainingPrerequisites;
+    }
+
+    public static EligibilityDTO failure(String courseId, String error) {
+        EligibilityDTO result = new EligibilityDTO();
+        result.courseId = courseId;
+        result.error = error;
+        return result;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public boolean isEligible() {
+        return eligible;
+    }
+
+    public void setEligible(boolean eligible) {
+        this.eligible = eligible;
+    }
+
+    public List<String> getMissingPrerequisites() {
+        return missingPrerequisites;
+    }
+
+    public void setMissingPrerequisites(List<String> missingPrerequisites) {
+        this.missingPrerequisites = missingPrerequisites;
+    }
+
+    public List<String> getRemainingPrerequisites() {
+        return remainingPrerequisites;
+    }
+
+    public void setRemainingPrerequisites(List<String> remainingPrerequisites) {
+        this.remainingPrerequisites = remainingPrerequisites;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,65 @@
+package com.university.cours.dto;
+
+public class EnrollmentResultDTO {
+    public static final String ENROLLED = "ENROLLED";
+    public static final String WAITLISTED = "WAITLISTED";
+    public static final String FULL = "FULL";
+    public static final String UNENROLLED = "UNENROLLED";
+    public static final String WITHDRAWN = "WITHDRAWN"; // left the waitlist
+
+    private String id;
+    private String status;
+    private int enrolledStudents;
+    private int maxStudents;
+    private int waitlistPosition; // 1-based, 0 when not waitlisted
+
+    public EnrollmentResultDTO() {
+    }
+
+    public EnrollmentResultDTO(String id, String status, int enrolledStudents, int maxStudents) {
+        this.id = id;
+        this.status = status;
+        this.enrolledStudents = enrolledStudents;
+        this.maxStudents = maxStudents;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getEnrolledStudents() {
+        return enrolledStudents;
+    }
+
+    public void setEnrolledStudents(int enrolledStudents) {
+        this.enrolledStudents = enrolledStudents;
+    }
+
+    public int getMaxStudents() {
+        return maxStudents;
+    }
+
+    public void setMaxStudents(int maxStudents) {
+        this.maxStudents = maxStudents;
+    }
+
+    public int getWaitlistPosition() {
+        return waitlistPosition;
+    }
+
+    public void setWaitlistPosition(int waitlistPosition) {
+        this.waitlistPosition = waitlistPosition;
+    }
+}
@@ -0,0 +1,43 @@
+package com.university.cours.dto;
+
+/**
+ * A course of an import that was not written: its position in the input and why.
+ */
+public class ImportErrorDTO {
+    private int row; // 1 for the first course in the input
+    private String courseId;
+    private String error;
+
+    public ImportErrorDTO() {
+    }
+
+    public ImportErrorDTO(int row, String courseId, String error) {
+        this.row = row;
+        this.courseId = courseId;
+        this.error = error;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,37 @@
+package com.university.cours.dto;
+
+/**
+ * What rolloverSemester carries over from the source semester. Unset fields keep their defaults.
+ */
+public class RolloverOptionsDTO {
+    private boolean keepTimeSlots = true;
+    private boolean keepProfessors = true;
+    private boolean activate; // copies start inactive unless set, and only if they fit the schedule
+
+    public RolloverOptionsDTO() {
+    }
+
+    public boolean isKeepTimeSlots() {
+        return keepTimeSlots;
+    }
+
+    public void setKeepTimeSlots(boolean keepTimeSlots) {
+        this.keepTimeSlots = keepTimeSlots;
+    }
+
+    public boolean isKeepProfessors() {
+        return keepProfessors;
+    }
+
+    public void setKeepProfessors(boolean keepProfessors) {
+        this.keepProfessors = keepProfessors;
+    }
+
+    public boolean isActivate() {
+        return activate;
+    }
+
+    public void setActivate(boolean activate) {
+        this.activate = activate;
+    }
+}
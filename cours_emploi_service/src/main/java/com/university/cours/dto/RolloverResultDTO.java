@@ -0,0 +1,82 @@
+package com.university.cours.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RolloverResultDTO {
+    private String fromSemester;
+    private String toSemester;
+    private int sourceCount;
+    private int createdCount;
+    private int activeCount;
+    private long elapsedMillis;
+    private List<String> conflicts = new ArrayList<>(); // copies not created: courseId already taken
+    private List<String> scheduleConflicts = new ArrayList<>(); // copies created inactive instead of active
+
+    public RolloverResultDTO() {
+    }
+
+    public String getFromSemester() {
+        return fromSemester;
+    }
+
+    public void setFromSemester(String fromSemester) {
+        this.fromSemester = fromSemester;
+    }
+
+    public String getToSemester() {
+        return toSemester;
+    }
+
+    public void setToSemester(String toSemester) {
+        this.toSemester = toSemester;
+    }
+
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    public void setSourceCount(int sourceCount) {
+        this.sourceCount = sourceCount;
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(int createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public void setActiveCount(int activeCount) {
+        this.activeCount = activeCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<String> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public List<String> getScheduleConflicts() {
+        return scheduleConflicts;
+    }
+
+    public void setScheduleConflicts(List<String> scheduleConflicts) {
+        this.scheduleConflicts = scheduleConflicts;
+    }
+}
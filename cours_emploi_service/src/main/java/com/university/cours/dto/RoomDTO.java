@@ -0,0 +1,30 @@
+package com.university.cours.dto;
+
+public class RoomDTO {
+    private String name;
+    private int capacity; // 0 when the room is only known from course time slots
+
+    public RoomDTO() {
+    }
+
+    public RoomDTO(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,100 @@
+package com.university.cours.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimetableResultDTO {
+    private String semester;
+    private int courseCount;
+    private int sessionCount;
+    private int unassignedSessions;
+    private int penalty; // sessions sharing a day with another session of the same course
+    private long elapsedMillis;
+    private boolean applied;
+    private List<CourseDTO> courses = new ArrayList<>(); // id, courseId and the generated timeSlots
+    private List<String> unassignedCourseIds = new ArrayList<>();
+    private List<String> conflicts = new ArrayList<>(); // with apply, courses left as they were because they changed during the search
+
+    public TimetableResultDTO() {
+    }
+
+    public String getSemester() {
+        return semester;
+    }
+
+    public void setSemester(String semester) {
+        this.semester = semester;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public void setCourseCount(int courseCount) {
+        this.courseCount = courseCount;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(int sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public int getUnassignedSessions() {
+        return unassignedSessions;
+    }
+
+    public void setUnassignedSessions(int unassignedSessions) {
+        this.unassignedSessions = unassignedSessions;
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    public void setPenalty(int penalty) {
+        this.penalty = penalty;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<CourseDTO> courses) {
+        this.courses = courses;
+    }
+
+    public List<String> getUnassignedCourseIds() {
+        return unassignedCourseIds;
+    }
+
+    public void setUnassignedCourseIds(List<String> unassignedCourseIds) {
+        this.unassignedCourseIds = unassignedCourseIds;
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<String> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
@@ -0,0 +1,142 @@
+package com.university.cours.enrollment;
+
+import com.university.cours.dto.EnrollmentResultDTO;
+import com.university.cours.repository.ConflictException;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory admission state of one course during a registration surge: the free seats,
+ * who holds one, and a bounded FIFO waitlist. Granting a free seat only touches the
+ * striped counter; the waitlist lock is taken once the course is full.
+ *
+ * A student's seat is taken or given back, and the matching change queued, inside one
+ * compute on that student's entry, so concurrent requests of the same student are applied
+ * one after the other and their changes reach the writer in that order. The waitlist lock
+ * is always taken before an entry, never the other way round.
+ */
+class CourseAdmission {
+    private final String courseId;
+    private final int maxStudents;
+    private final SeatCounter seats;
+    // Students holding a seat; an entry only exists once its seat is taken
+    private final ConcurrentHashMap<String, Boolean> enrolled = new ConcurrentHashMap<>();
+    private final ArrayDeque<String> waitlist = new ArrayDeque<>();
+    private final int maxWaitlist;
+    private final Consumer<EnrollmentChange> changes;
+
+    CourseAdmission(String courseId, int maxStudents, Collection<String> enrolledStudents, int maxWaitlist,
+            int stripes, Consumer<EnrollmentChange> changes) {
+        this.courseId = courseId;
+        this.maxStudents = maxStudents;
+        for (String student : enrolledStudents) {
+            enrolled.put(student, Boolean.TRUE);
+        }
+        this.seats = new SeatCounter(Math.max(0, maxStudents - enrolledStudents.size()), stripes);
+        this.maxWaitlist = maxWaitlist;
+        this.changes = changes;
+    }
+
+    EnrollmentResultDTO enroll(String student) {
+        if (tryEnroll(student)) {
+            return result(EnrollmentResultDTO.ENROLLED);
+        }
+
+        synchronized (waitlist) {
+            // A seat may have been released since the first attempt; releases happen under this lock
+            if (tryEnroll(student)) {
+                return result(EnrollmentResultDTO.ENROLLED);
+            }
+            int position = positionOf(student);
+            if (position > 0) {
+                return waitlisted(position);
+            }
+            if (waitlist.size() >= maxWaitlist) {
+                return result(EnrollmentResultDTO.FULL);
+            }
+            waitlist.addLast(student);
+            return waitlisted(waitlist.size());
+        }
+    }
+
+    // Takes a seat for the student if one is free; false leaves no trace
+    private boolean tryEnroll(String student) {
+        boolean[] admitted = {false};
+        enrolled.compute(student, (s, current) -> {
+            if (current != null) {
+                throw new ConflictException("Already enrolled in course " + courseId);
+            }
+            if (!seats.tryAcquire()) {
+                return null;
+            }
+            changes.accept(new EnrollmentChange(courseId, student, true));
+            admitted[0] = true;
+            return Boolean.TRUE;
+        });
+        return admitted[0];
+    }
+
+    EnrollmentResultDTO unenroll(String student) {
+        synchronized (waitlist) {
+            if (waitlist.remove(student)) {
+                return result(EnrollmentResultDTO.WITHDRAWN);
+            }
+        }
+        enrolled.compute(student, (s, current) -> {
+            if (current == null) {
+                throw new ConflictException("Not enrolled in course " + courseId);
+            }
+            changes.accept(new EnrollmentChange(courseId, student, false));
+            return null;
+        });
+
+        synchronized (waitlist) {
+            // The seat goes to the head of the waitlist, or back to the counter. While anyone
+            // waits no seat is free, so the head cannot have taken one on its own meanwhile.
+            String next = waitlist.pollFirst();
+            if (next != null) {
+                enrolled.compute(next, (s, current) -> {
+                    changes.accept(new EnrollmentChange(courseId, next, true));
+                    return Boolean.TRUE;
+                });
+            } else {
+                seats.release();
+            }
+        }
+        return result(EnrollmentResultDTO.UNENROLLED);
+    }
+
+    int enrolledCount() {
+        return maxStudents - seats.available();
+    }
+
+    int waitlistSize() {
+        synchronized (waitlist) {
+            return waitlist.size();
+        }
+    }
+
+    private int positionOf(String student) {
+        int position = 1;
+        for (Iterator<String> it = waitlist.iterator(); it.hasNext(); position++) {
+            if (it.next().equals(student)) {
+                return position;
+            }
+        }
+        return 0;
+    }
+
+    private EnrollmentResultDTO waitlisted(int position) {
+        EnrollmentResultDTO result = result(EnrollmentResultDTO.WAITLISTED);
+        result.setWaitlistPosition(position);
+        return result;
+    }
+
+    private EnrollmentResultDTO result(String status) {
+        return new EnrollmentResultDTO(courseId, status, enrolledCount(), maxStudents);
+    }
+}
@@ -0,0 +1,11 @@
+package com.university.cours.enrollment;
+
+/**
+ * A student joining (enroll = true) or leaving a course, waiting to be written to MongoDB.
+ */
+public record EnrollmentChange(String courseId, String student, boolean enroll) {
+
+    String key() {
+        return courseId + '\u0000' + student;
+    }
+}
@@ -0,0 +1,59 @@
+package com.university.cours.enrollment;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Free seats of one course, split over several stripes so concurrent requests
+ * mostly decrement different cache lines. The stripes always add up to the free
+ * seats, so granting a seat never oversells.
+ */
+class SeatCounter {
+    // Stripes sit 16 ints (64 bytes) apart so two of them never share a cache line
+    private static final int PAD = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    SeatCounter(int freeSeats, int stripes) {
+        this.stripes = Math.max(1, Math.min(stripes, freeSeats));
+        this.cells = new AtomicIntegerArray(this.stripes * PAD);
+        for (int i = 0; i < freeSeats; i++) {
+            cells.incrementAndGet((i % this.stripes) * PAD);
+        }
+    }
+
+    /**
+     * Takes a seat, starting with the caller's own stripe and moving on to the others when it is empty.
+     */
+    boolean tryAcquire() {
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((home + i) % stripes) * PAD;
+            int free = cells.get(cell);
+            while (free > 0) {
+                if (cells.compareAndSet(cell, free, free - 1)) {
+                    return true;
+                }
+                free = cells.get(cell);
+            }
+        }
+        return false;
+    }
+
+    void release() {
+        cells.incrementAndGet(home() * PAD);
+    }
+
+    int available() {
+        int free = 0;
+        for (int i = 0; i < stripes; i++) {
+            free += cells.get(i * PAD);
+        }
+        return free;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id ^ (id >>> 16)) & Integer.MAX_VALUE) % stripes;
+    }
+}
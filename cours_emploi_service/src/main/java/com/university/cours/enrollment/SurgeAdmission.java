@@ -0,0 +1,200 @@
+package com.university.cours.enrollment;
+
+import com.university.cours.dto.EnrollmentResultDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Registration-surge mode: seats are granted from in-memory counters and the accepted
+ * enrollments are written to MongoDB in batches by a background flusher, instead of one
+ * conditional update per request.
+ *
+ * Each course is loaded once, on its first enrollment request, from its current enrollments.
+ * While surge mode is on, this process must be the only one changing enrollments.
+ *
+ * A batch that fails is written again, whole, before anything newer, so the writer must be
+ * idempotent. Once a batch is written, the ids of its courses go to the written callback,
+ * which is not retried.
+ */
+public class SurgeAdmission implements AutoCloseable {
+
+    /**
+     * Capacity and current students of a course, as loaded when it is first used.
+     */
+    public record CourseSeats(int maxStudents, Collection<String> students) {
+    }
+
+    private final Map<String, CourseAdmission> courses = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<EnrollmentChange> pending = new ConcurrentLinkedQueue<>();
+    private final Function<String, CourseSeats> loader;
+    private final Consumer<List<EnrollmentChange>> writer;
+    private final Consumer<Set<String>> written;
+    private final int maxWaitlist;
+    private final int stripes;
+    private final int batchSize;
+    private final long flushMillis;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    // Batch that failed to write, retried before anything newer; only touched by the flusher
+    private List<EnrollmentChange> retry = List.of();
+    // Changes queued so far, and how many of them (in queue order) have been written
+    private final AtomicLong submitted = new AtomicLong();
+    private volatile long flushed;
+    private int retryTaken;
+
+    public SurgeAdmission(Function<String, CourseSeats> loader, Consumer<List<EnrollmentChange>> writer,
+            Consumer<Set<String>> written, int maxWaitlist, int stripes, int batchSize, long flushMillis) {
+        this.loader = loader;
+        this.writer = writer;
+        this.written = written;
+        this.maxWaitlist = maxWaitlist;
+        this.stripes = stripes;
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.flusher = new Thread(this::flushLoop, "enrollment-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public EnrollmentResultDTO enroll(String courseId, String student) {
+        return admission(courseId).enroll(student);
+    }
+
+    public EnrollmentResultDTO unenroll(String courseId, String student) {
+        return admission(courseId).unenroll(student);
+    }
+
+    private CourseAdmission admission(String courseId) {
+        return courses.computeIfAbsent(courseId, id -> {
+            CourseSeats seats = loader.apply(id);
+            return new CourseAdmission(id, seats.maxStudents(), seats.students(), maxWaitlist, stripes, this::submit);
+        });
+    }
+
+    // Counted before it is queued, so awaitFlushed never waits for less than what is queued
+    private void submit(EnrollmentChange change) {
+        submitted.incrementAndGet();
+        pending.add(change);
+    }
+
+    /**
+     * Enrollments granted but not yet written.
+     */
+    public int getPendingCount() {
+        return pending.size() + retry.size();
+    }
+
+    /**
+     * Waits until every change granted before this call has been written. Returns false if
+     * that took longer than the timeout.
+     */
+    public boolean awaitFlushed(long timeoutMillis) {
+        long target = submitted.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (flushed < target) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return true;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            // Parked rather than sleeping so close() can wake it without interrupting a write
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushMillis));
+            flush();
+        }
+        flush();
+    }
+
+    private void flush() {
+        while (!retry.isEmpty() || !pending.isEmpty()) {
+            List<EnrollmentChange> batch = new ArrayList<>(retry);
+            int taken = retryTaken;
+            EnrollmentChange change;
+            while (batch.size() < batchSize && (change = pending.poll()) != null) {
+                batch.add(change);
+                taken++;
+            }
+            batch = collapse(batch);
+            try {
+                if (!batch.isEmpty()) {
+                    writer.accept(batch);
+                }
+                retry = List.of();
+                retryTaken = 0;
+                flushed += taken;
+            } catch (RuntimeException e) {
+                retry = batch;
+                retryTaken = taken;
+                System.err.println("Could not write " + batch.size() + " enrollment changes, retrying: "
+                        + e.getMessage());
+                return;
+            }
+            notifyWritten(batch);
+        }
+    }
+
+    private void notifyWritten(List<EnrollmentChange> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> courseIds = new HashSet<>();
+        for (EnrollmentChange change : batch) {
+            courseIds.add(change.courseId());
+        }
+        try {
+            written.accept(courseIds);
+        } catch (RuntimeException e) {
+            System.err.println("Enrollment changes written, but could not refresh " + courseIds.size()
+                    + " courses: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops pairs of changes that cancel out (enroll then unenroll of the same student,
+     * or the reverse), so each student appears at most once per batch.
+     */
+    static List<EnrollmentChange> collapse(List<EnrollmentChange> changes) {
+        Map<String, EnrollmentChange> net = new LinkedHashMap<>();
+        for (EnrollmentChange change : changes) {
+            EnrollmentChange previous = net.get(change.key());
+            if (previous != null && previous.enroll() != change.enroll()) {
+                net.remove(change.key());
+            } else {
+                net.put(change.key(), change);
+            }
+        }
+        return new ArrayList<>(net.values());
+    }
+
+    /**
+     * Stops the flusher after writing what is still pending.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.university.cours.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.metrics.OperationEvent;
+import com.university.cours.metrics.ServiceMetrics;
+import com.university.cours.repository.BadRequestException;
+import com.university.cours.repository.CourseCatalog;
+import com.university.cours.repository.ReactiveCourseRepository;
+import com.university.cours.security.JWTValidator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Serves the course read operations without holding a thread while they wait.
+ *
+ * The token is validated with {@link JWTValidator#validateTokenAsync}, the courses come
+ * from the catalog when it is enabled or from the {@link ReactiveCourseRepository}
+ * otherwise, and a course not found there is looked up in the archive. The response is
+ * written from whichever thread completes last. The request thread goes back to the
+ * executor as soon as the call is parsed. When a {@link CatalogResponseCache} is given,
+ * the catalog-wide operations are answered from it.
+ *
+ * Responses and faults carry the same content as the JAX-WS path. Cached responses are sent
+ * as Fast Infoset to clients that accept it; the single-course reads of such clients go
+ * through to JAX-WS when Fast Infoset is on, since this filter only writes XML for them.
+ */
+public class AsyncCourseFilter extends SoapOperationFilter {
+    private static final Set<String> OPERATIONS = Set.of(
+            "getAllCourses", "getActiveCourses", "getCourseById", "getCourseByCourseId");
+
+    private final CourseCatalog catalog;
+    private final CatalogResponseCache responseCache;
+    private final ReactiveCourseRepository repository;
+    private final boolean fastInfoset;
+
+    /**
+     * The repository's hot collection is only read when the catalog is disabled; its
+     * archive is read for courses not found in either.
+     *
+     * @param fastInfoset whether JAX-WS answers Fast Infoset to clients that accept it
+     */
+    public AsyncCourseFilter(CourseCatalog catalog, CatalogResponseCache responseCache,
+            ReactiveCourseRepository repository, boolean fastInfoset) {
+        this.catalog = catalog;
+        this.responseCache = responseCache;
+        this.repository = repository;
+        this.fastInfoset = fastInfoset;
+    }
+
+    @Override
+    protected boolean handle(HttpExchange exchange, SoapCall call) {
+        String operation = call.operation();
+        if (!OPERATIONS.contains(operation)) {
+            return false;
+        }
+        boolean cached = responseCache != null && responseCache.handles(operation);
+        if (!cached && fastInfoset && acceptsFastInfoset(exchange)) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        OperationEvent event = new OperationEvent();
+        event.begin();
+        CompletableFuture<JWTValidator.UserInfo> authenticated = authenticate(call.param("token"));
+        if (cached) {
+            authenticated.thenApply(userInfo -> responseCache.get(operation))
+                    .whenComplete((response, error) -> {
+                        respondCached(exchange, response, error);
+                        ServiceMetrics.OPERATIONS.record(System.nanoTime() - start, error != null, operation, "async");
+                        event.record(operation, "async", error != null, response != null ? response.body.length : 0);
+                    });
+        } else {
+            authenticated.thenCompose(userInfo -> execute(call))
+                    .whenComplete((body, error) -> {
+                        respond(exchange, body, error);
+                        ServiceMetrics.OPERATIONS.record(System.nanoTime() - start, error != null, operation, "async");
+                        event.record(operation, "async", error != null, body != null ? body.length : 0);
+                    });
+        }
+        return true;
+    }
+
+    private CompletableFuture<byte[]> execute(SoapCall call) {
+        String operation = call.operation();
+        switch (operation) {
+            case "getAllCourses":
+                return list(catalog.isEnabled()
+                        ? CompletableFuture.completedFuture(catalog.findAll())
+                        : repository.findAllDTOs(), operation);
+            case "getActiveCourses":
+                return list(catalog.isEnabled()
+                        ? CompletableFuture.completedFuture(catalog.findActive())
+                        : repository.findActiveDTOs(), operation);
+            case "getCourseById": {
+                String id = call.param("id");
+                if (id == null || id.trim().isEmpty()) {
+                    return CompletableFuture.failedFuture(new BadRequestException("Course id is required"));
+                }
+                return single(orArchived(catalog.isEnabled()
+                        ? CompletableFuture.completedFuture(catalog.findById(id))
+                        : repository.findDTOById(id), () -> repository.findArchivedDTOById(id)),
+                        operation, "Course not found with id: " + id);
+            }
+            default: {
+                String courseId = call.param("courseId");
+                if (courseId == null || courseId.trim().isEmpty()) {
+                    return CompletableFuture.failedFuture(new BadRequestException("courseId is required"));
+                }
+                return single(orArchived(catalog.isEnabled()
+                        ? CompletableFuture.completedFuture(catalog.findByCourseId(courseId))
+                        : repository.findDTOByCourseId(courseId), () -> repository.findArchivedDTOByCourseId(courseId)),
+                        operation, "Course not found with courseId: " + courseId);
+            }
+        }
+    }
+
+    private static CompletableFuture<byte[]> list(CompletableFuture<List<CourseDTO>> courses, String operation) {
+        return courses.thenApply(found -> SoapEnvelopes.response(operation, found));
+    }
+
+    private static CompletableFuture<CourseDTO> orArchived(CompletableFuture<CourseDTO> course,
+            Supplier<CompletableFuture<CourseDTO>> archived) {
+        return course.thenCompose(found -> found != null ? CompletableFuture.completedFuture(found) : archived.get());
+    }
+
+    private static CompletableFuture<byte[]> single(CompletableFuture<CourseDTO> course, String operation,
+            String notFound) {
+        return course.thenApply(found -> {
+            if (found == null) {
+                throw new RuntimeException(notFound);
+            }
+            return SoapEnvelopes.response(operation, found);
+        });
+    }
+
+    // Same checks and messages as CourseServiceImpl.validateAuthentication
+    private static CompletableFuture<JWTValidator.UserInfo> authenticate(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new SecurityException("Authentication token is required"));
+        }
+
+        CompletableFuture<JWTValidator.UserInfo> validation;
+        try {
+            validation = JWTValidator.validateTokenAsync(token);
+        } catch (RuntimeException e) {
+            validation = CompletableFuture.failedFuture(e);
+        }
+        return validation.handle((userInfo, error) -> {
+            if (error != null) {
+                throw new SecurityException("Authentication failed: " + unwrap(error).getMessage());
+            }
+            if (!JWTValidator.isAuthenticated(JWTValidator.extractRole(userInfo))) {
+                throw new SecurityException("Authentication failed: Invalid user role");
+            }
+            return userInfo;
+        });
+    }
+
+    private static void respondCached(HttpExchange exchange, CatalogResponseCache.CachedResponse response,
+            Throwable error) {
+        if (error != null) {
+            respond(exchange, null, error);
+            return;
+        }
+        try {
+            send(exchange, response);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body, Throwable error) {
+        try {
+            if (error == null) {
+                send(exchange, 200, body, null);
+            } else {
+                send(exchange, 500, SoapEnvelopes.fault(unwrap(error).getMessage()), null);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The client went away; nothing left to tell it
+            exchange.close();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    @Override
+    public String description() {
+        return "Serves course reads asynchronously";
+    }
+}
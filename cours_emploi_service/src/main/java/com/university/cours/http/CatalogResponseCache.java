@@ -0,0 +1,166 @@
+package com.university.cours.http;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.repository.CourseCatalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Complete SOAP responses for the catalog-wide operations, marshalled once per catalog version.
+ *
+ * Concurrent requests for a response that was never built wait for a single marshal.
+ * After that callers always get the last response built, even once the catalog has moved
+ * on: a change schedules one background rebuild of every response in use, coalescing the
+ * changes that arrive meanwhile and starting at most once per rebuild interval, so a burst
+ * of writes does not re-marshal the whole catalog for each of them.
+ */
+public class CatalogResponseCache {
+    public static final class CachedResponse {
+        final long version;
+        final byte[] body;
+        final byte[] gzipped;
+        // Fast Infoset copies, null when Fast Infoset is off
+        final byte[] fastInfoset;
+        final byte[] fastInfosetGzipped;
+
+        CachedResponse(long version, byte[] body, byte[] gzipped, byte[] fastInfoset, byte[] fastInfosetGzipped) {
+            this.version = version;
+            this.body = body;
+            this.gzipped = gzipped;
+            this.fastInfoset = fastInfoset;
+            this.fastInfosetGzipped = fastInfosetGzipped;
+        }
+    }
+
+    private final CourseCatalog catalog;
+    private final boolean gzip;
+    private final boolean fastInfoset;
+    private final long rebuildIntervalMillis;
+    private final Map<String, Supplier<List<CourseDTO>>> operations;
+    // Last response built for each operation, or the first build still in progress
+    private final ConcurrentHashMap<String, CompletableFuture<CachedResponse>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile long lastRebuildAt;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-response-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param fastInfoset also keep a Fast Infoset copy of each response, for clients that accept it
+     */
+    public CatalogResponseCache(CourseCatalog catalog, boolean gzip, boolean fastInfoset, long rebuildIntervalMillis) {
+        this.catalog = catalog;
+        this.gzip = gzip;
+        this.fastInfoset = fastInfoset;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+        this.operations = Map.of(
+                "getAllCourses", catalog::findAll,
+                "getActiveCourses", catalog::findActive);
+    }
+
+    /**
+     * Starts rebuilding the responses in use after each catalog change.
+     */
+    public void start() {
+        catalog.addChangeListener(this::scheduleRebuild);
+    }
+
+    public boolean handles(String operation) {
+        return catalog.isEnabled() && operations.containsKey(operation);
+    }
+
+    /**
+     * Returns the last response built, which may be older than the current catalog version
+     * while its rebuild is pending. Only the first call for an operation waits for a build.
+     */
+    public CachedResponse get(String operation) {
+        CompletableFuture<CachedResponse> entry = entries.get(operation);
+        if (entry == null) {
+            CompletableFuture<CachedResponse> created = new CompletableFuture<>();
+            entry = entries.putIfAbsent(operation, created);
+            if (entry == null) {
+                entry = created;
+                try {
+                    created.complete(build(operation));
+                } catch (RuntimeException e) {
+                    entries.remove(operation, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        CachedResponse response = entry.join();
+        if (response.version < catalog.getVersion()) {
+            scheduleRebuild();
+        }
+        return response;
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return; // the pending rebuild will see this change too
+        }
+        long delay = Math.max(0, lastRebuildAt + rebuildIntervalMillis - System.currentTimeMillis());
+        try {
+            rebuilder.schedule(this::rebuildUsed, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed
+        }
+    }
+
+    private void rebuildUsed() {
+        // Changes from here on schedule the next rebuild
+        rebuildScheduled.set(false);
+        lastRebuildAt = System.currentTimeMillis();
+        long version = catalog.getVersion();
+        for (Map.Entry<String, CompletableFuture<CachedResponse>> entry : entries.entrySet()) {
+            CompletableFuture<CachedResponse> current = entry.getValue();
+            if (!current.isDone() || current.isCompletedExceptionally() || current.join().version >= version) {
+                continue;
+            }
+            try {
+                entries.replace(entry.getKey(), current, CompletableFuture.completedFuture(build(entry.getKey())));
+            } catch (RuntimeException e) {
+                System.err.println("Could not rebuild " + entry.getKey() + " response: " + e.getMessage());
+            }
+        }
+    }
+
+    private CachedResponse build(String operation) {
+        // The data is read after the version, so it is at least as recent as the key
+        long version = catalog.getVersion();
+        List<CourseDTO> courses = operations.get(operation).get();
+        byte[] body = SoapEnvelopes.response(operation, courses);
+        byte[] binary = fastInfoset ? SoapEnvelopes.fastInfosetResponse(operation, courses) : null;
+        return new CachedResponse(version, body, gzip ? gzip(body) : null,
+                binary, gzip && binary != null ? gzip(binary) : null);
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+}
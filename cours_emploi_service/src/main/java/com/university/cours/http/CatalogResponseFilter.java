@@ -0,0 +1,55 @@
+package com.university.cours.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.university.cours.metrics.OperationEvent;
+import com.university.cours.metrics.ServiceMetrics;
+import com.university.cours.security.JWTValidator;
+
+import java.io.IOException;
+
+/**
+ * Answers getAllCourses and getActiveCourses from the {@link CatalogResponseCache}
+ * before the request reaches JAX-WS. Anything else, including requests whose token
+ * does not validate, goes through unchanged so the service produces the usual response
+ * or fault.
+ */
+public class CatalogResponseFilter extends SoapOperationFilter {
+    private final CatalogResponseCache cache;
+
+    public CatalogResponseFilter(CatalogResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean handle(HttpExchange exchange, SoapCall call) throws IOException {
+        long start = System.nanoTime();
+        OperationEvent event = new OperationEvent();
+        event.begin();
+        if (!cache.handles(call.operation()) || !isAuthenticated(call.param("token"))) {
+            return false;
+        }
+
+        CatalogResponseCache.CachedResponse response = cache.get(call.operation());
+        send(exchange, response);
+        ServiceMetrics.OPERATIONS.record(System.nanoTime() - start, false, call.operation(), "cached");
+        event.record(call.operation(), "cached", false, response.body.length);
+        return true;
+    }
+
+    private boolean isAuthenticated(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return false;
+        }
+        try {
+            JWTValidator.UserInfo userInfo = JWTValidator.validateToken(token);
+            return JWTValidator.isAuthenticated(JWTValidator.extractRole(userInfo));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Serves cached catalog responses";
+    }
+}
@@ -0,0 +1,213 @@
+package com.university.cours.http;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP compression for the SOAP endpoint, which JAX-WS does not do on its own.
+ *
+ * Requests sent with Content-Encoding: gzip are inflated before anything else reads them.
+ * Responses are gzipped when the client sends Accept-Encoding: gzip, unless they are
+ * small, empty or already encoded (the cached catalog responses carry their own gzip).
+ * Works the same for text/xml and application/fastinfoset bodies.
+ */
+public class CompressionFilter extends Filter {
+    // Below this the gzip header and trailer eat most of the gain
+    private static final int MIN_LENGTH = 1024;
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean gzipRequest = contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("gzip");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzipResponse = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        if (!gzipRequest && !gzipResponse) {
+            chain.doFilter(exchange);
+            return;
+        }
+        chain.doFilter(new CompressingExchange(exchange, gzipRequest, gzipResponse));
+    }
+
+    @Override
+    public String description() {
+        return "gzip request and response bodies";
+    }
+
+    /**
+     * Delegates to the server's exchange, inflating the request body and deciding
+     * on response compression when the headers are sent.
+     */
+    private static final class CompressingExchange extends HttpExchange {
+        private final HttpExchange delegate;
+        private final boolean gzipResponse;
+        private final Headers requestHeaders;
+        private InputStream requestBody;
+        private OutputStream responseBody;
+        private GZIPOutputStream gzip;
+
+        CompressingExchange(HttpExchange delegate, boolean gzipRequest, boolean gzipResponse) throws IOException {
+            this.delegate = delegate;
+            this.gzipResponse = gzipResponse;
+            if (gzipRequest) {
+                // Whatever reads the body next sees plain XML (or Fast Infoset)
+                this.requestHeaders = new Headers(delegate.getRequestHeaders());
+                requestHeaders.remove("Content-Encoding");
+            } else {
+                this.requestHeaders = delegate.getRequestHeaders();
+            }
+            this.requestBody = gzipRequest
+                    ? new GZIPInputStream(delegate.getRequestBody())
+                    : delegate.getRequestBody();
+        }
+
+        @Override
+        public void sendResponseHeaders(int code, long length) throws IOException {
+            Headers headers = delegate.getResponseHeaders();
+            if (gzipResponse) {
+                headers.add("Vary", "Accept-Encoding");
+            }
+            boolean compress = gzipResponse && length >= 0 && (length == 0 || length >= MIN_LENGTH)
+                    && code != 204 && code != 304 && !headers.containsKey("Content-Encoding");
+            if (!compress) {
+                delegate.sendResponseHeaders(code, length);
+                return;
+            }
+            headers.set("Content-Encoding", "gzip");
+            // The compressed length is not known up front, so the body goes out chunked
+            delegate.sendResponseHeaders(code, 0);
+            OutputStream raw = responseBody != null ? responseBody : delegate.getResponseBody();
+            gzip = new GZIPOutputStream(raw, 8192);
+            responseBody = gzip;
+        }
+
+        @Override
+        public InputStream getRequestBody() {
+            return requestBody;
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            if (responseBody == null) {
+                responseBody = delegate.getResponseBody();
+            }
+            // Callers may hold on to the stream from before the headers were sent
+            return new FilterOutputStream(responseBody) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    responseBody.write(b, off, len);
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    responseBody.write(b);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    responseBody.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    responseBody.close();
+                }
+            };
+        }
+
+        @Override
+        public void setStreams(InputStream i, OutputStream o) {
+            if (i != null) {
+                requestBody = i;
+            }
+            if (o != null) {
+                responseBody = o;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (gzip != null) {
+                    // Writes the gzip trailer if the handler did not close the body itself
+                    gzip.close();
+                }
+            } catch (IOException e) {
+                // The client went away; the exchange is closed below either way
+            }
+            delegate.close();
+        }
+
+        @Override
+        public Headers getRequestHeaders() {
+            return requestHeaders;
+        }
+
+        @Override
+        public Headers getResponseHeaders() {
+            return delegate.getResponseHeaders();
+        }
+
+        @Override
+        public URI getRequestURI() {
+            return delegate.getRequestURI();
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return delegate.getRequestMethod();
+        }
+
+        @Override
+        public HttpContext getHttpContext() {
+            return delegate.getHttpContext();
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return delegate.getRemoteAddress();
+        }
+
+        @Override
+        public int getResponseCode() {
+            return delegate.getResponseCode();
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return delegate.getLocalAddress();
+        }
+
+        @Override
+        public String getProtocol() {
+            return delegate.getProtocol();
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return delegate.getAttribute(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            delegate.setAttribute(name, value);
+        }
+
+        @Override
+        public HttpPrincipal getPrincipal() {
+            return delegate.getPrincipal();
+        }
+    }
+}
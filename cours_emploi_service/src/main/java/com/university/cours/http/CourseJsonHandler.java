@@ -0,0 +1,421 @@
+package com.university.cours.http;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.CourseFilterDTO;
+import com.university.cours.dto.CoursePatchDTO;
+import com.university.cours.dto.RolloverOptionsDTO;
+import com.university.cours.metrics.OperationEvent;
+import com.university.cours.metrics.ServiceMetrics;
+import com.university.cours.repository.BadRequestException;
+import com.university.cours.repository.ConflictException;
+import com.university.cours.repository.NotFoundException;
+import com.university.cours.service.CourseServiceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON over HTTP for web clients, next to the SOAP endpoint and backed by the same
+ * {@link CourseServiceImpl} calls, so access checks and errors are the same. The token
+ * is taken from an "Authorization: Bearer" header.
+ *
+ * Routes, relative to the context path:
+ * - GET    /                      all courses (?active=true for active ones only)
+ * - GET    /{id}                  one course
+ * - GET    /by-course-id/{courseId}
+ * - GET    /lookup?courseId=..    several courses by courseId
+ * - GET    /search?semester=..&pageSize=..&cursor=..&fields=a,b
+ * - GET    /text-search?q=..&limit=.. full-text search, same filters as /search
+ * - GET    /changes?since=..      delta sync
+ * - GET    /eligibility?completed=..&target=.. prerequisite check, both repeatable
+ * - PATCH  /{id}                  body: patch
+ * - POST   /batch                 body: array of courses to create
+ * - PUT    /batch                 body: array of courses to update
+ * - POST   /rollover?from=..&to=..  copy a semester (&keepTimeSlots=&keepProfessors=&activate=)
+ * - POST   /import?format=csv|xml  body: course export, streamed
+ * - POST   /archive/{semester}    archive a closed semester, returns the number of courses moved
+ *
+ * Course lists are written element by element as they are read, and responses are
+ * gzipped when the client accepts it.
+ */
+public class CourseJsonHandler implements HttpHandler {
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            // Let the generator fill its buffer instead of sending one chunk per course
+            .configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private static final TypeReference<List<CourseDTO>> COURSE_LIST = new TypeReference<>() {
+    };
+
+    private final CourseServiceImpl service;
+
+    public CourseJsonHandler(CourseServiceImpl service) {
+        this.service = service;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        OperationEvent event = new OperationEvent();
+        event.begin();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(exchange.getHttpContext().getPath().length());
+        List<String> segments = Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toList();
+        String operation = operationOf(method, segments);
+
+        ResponseStream out = new ResponseStream(exchange);
+        boolean failed = true;
+        try {
+            if (operation != null) {
+                execute(operation, exchange, segments, out);
+                failed = false;
+            } else if (operationOf("GET", segments) != null || operationOf("POST", segments) != null) {
+                methodNotAllowed(exchange, segments, out);
+            } else {
+                error(exchange, out, 404, "No route for " + method + " " + path);
+            }
+        } catch (JsonProcessingException e) {
+            error(exchange, out, 400, "Invalid JSON: " + e.getOriginalMessage());
+        } catch (UncheckedIOException e) {
+            // The client went away while a list was being written
+            exchange.close();
+        } catch (SecurityException e) {
+            String message = e.getMessage();
+            error(exchange, out, message != null && message.startsWith("Access denied") ? 403 : 401, message);
+        } catch (IllegalArgumentException e) {
+            error(exchange, out, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            int status = statusOf(e);
+            if (status == 500) {
+                // Driver and other internal failures: log them, but keep cluster details from clients
+                System.err.println("JSON " + method + " " + path + " failed: " + e);
+                error(exchange, out, status, "Internal server error");
+            } else {
+                error(exchange, out, status, e.getMessage());
+            }
+        } finally {
+            exchange.close();
+            if (operation != null) {
+                ServiceMetrics.OPERATIONS.record(System.nanoTime() - start, failed, operation, "json");
+                event.record(operation, "json", failed, out.getWritten());
+            }
+        }
+    }
+
+    // The service operation a route maps to, or null if there is none for this method
+    private static String operationOf(String method, List<String> segments) {
+        if (segments.isEmpty()) {
+            return method.equals("GET") ? "getAllCourses" : null;
+        }
+        String first = segments.get(0);
+        if (segments.size() == 2) {
+            return switch (first) {
+                case "by-course-id" -> method.equals("GET") ? "getCourseByCourseId" : null;
+                case "archive" -> method.equals("POST") ? "archiveSemester" : null;
+                default -> null;
+            };
+        }
+        if (segments.size() > 2) {
+            return null;
+        }
+        return switch (first) {
+            case "batch" -> method.equals("POST") ? "createCourses" : method.equals("PUT") ? "updateCourses" : null;
+            case "lookup" -> method.equals("GET") ? "getCoursesByCourseIds" : null;
+            case "search" -> method.equals("GET") ? "searchCourses" : null;
+            case "text-search" -> method.equals("GET") ? "searchCoursesText" : null;
+            case "changes" -> method.equals("GET") ? "getCoursesChangedSince" : null;
+            case "eligibility" -> method.equals("GET") ? "checkEligibility" : null;
+            case "rollover" -> method.equals("POST") ? "rolloverSemester" : null;
+            case "import" -> method.equals("POST") ? "importCourses" : null;
+            default -> method.equals("GET") ? "getCourseById" : method.equals("PATCH") ? "patchCourse" : null;
+        };
+    }
+
+    private void execute(String operation, HttpExchange exchange, List<String> segments, ResponseStream out)
+            throws IOException {
+        Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String token = bearerToken(exchange);
+
+        switch (operation) {
+            case "getAllCourses" -> streamCourses(out, token, Boolean.parseBoolean(first(query, "active")));
+            case "getCourseById" -> write(out, service.getCourseById(token, segments.get(0)));
+            case "getCourseByCourseId" -> write(out, service.getCourseByCourseId(token, segments.get(1)));
+            case "getCoursesByCourseIds" ->
+                    write(out, service.getCoursesByCourseIds(token, query.getOrDefault("courseId", List.of())));
+            case "searchCourses" -> write(out, service.searchCourses(token, toFilter(query),
+                    intParam(query, "pageSize", 0), first(query, "cursor"), listParam(query, "fields")));
+            case "searchCoursesText" -> write(out, service.searchCoursesText(token, first(query, "q"),
+                    toFilter(query), intParam(query, "limit", 0)));
+            case "getCoursesChangedSince" ->
+                    write(out, service.getCoursesChangedSince(token, longParam(query, "since", 0)));
+            case "checkEligibility" -> write(out, service.checkEligibility(token,
+                    query.getOrDefault("completed", List.of()), query.getOrDefault("target", List.of())));
+            case "patchCourse" ->
+                    write(out, service.patchCourse(token, segments.get(0), read(exchange, CoursePatchDTO.class)));
+            case "createCourses" -> write(out, service.createCourses(token, readCourses(exchange)));
+            case "updateCourses" -> write(out, service.updateCourses(token, readCourses(exchange)));
+            case "rolloverSemester" -> write(out, service.rolloverSemester(token, first(query, "from"),
+                    first(query, "to"), toRolloverOptions(query)));
+            case "importCourses" -> {
+                try (InputStream in = exchange.getRequestBody()) {
+                    write(out, service.importCourses(token, first(query, "format"), in));
+                }
+            }
+            case "archiveSemester" -> write(out, service.archiveSemester(token, segments.get(1)));
+            default -> throw new IllegalStateException("Unmapped operation " + operation);
+        }
+    }
+
+    private void streamCourses(ResponseStream out, String token, boolean activeOnly) throws IOException {
+        JsonGenerator json = MAPPER.getFactory().createGenerator(out);
+        json.writeStartArray();
+        service.forEachCourse(token, activeOnly, course -> {
+            try {
+                MAPPER.writeValue(json, course);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.writeEndArray();
+        json.close();
+        out.close();
+    }
+
+    private static void write(ResponseStream out, Object value) throws IOException {
+        MAPPER.writeValue(out, value);
+        out.close();
+    }
+
+    private static void error(HttpExchange exchange, ResponseStream out, int status, String message)
+            throws IOException {
+        if (out.isStarted()) {
+            // Part of a list is already out; all we can do is cut the response short
+            exchange.close();
+            return;
+        }
+        out.setStatus(status);
+        MAPPER.writeValue(out, Map.of("error", message != null ? message : "Unexpected error"));
+        out.close();
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, List<String> segments, ResponseStream out)
+            throws IOException {
+        List<String> allowed = new ArrayList<>();
+        for (String method : List.of("GET", "POST", "PUT", "PATCH")) {
+            if (operationOf(method, segments) != null) {
+                allowed.add(method);
+            }
+        }
+        exchange.getResponseHeaders().set("Allow", String.join(", ", allowed));
+        error(exchange, out, 405, "Method " + exchange.getRequestMethod() + " not allowed");
+    }
+
+    static int statusOf(RuntimeException e) {
+        if (e instanceof NotFoundException) {
+            return 404;
+        }
+        if (e instanceof ConflictException) {
+            return 409;
+        }
+        if (e instanceof BadRequestException) {
+            return 400;
+        }
+        return 500;
+    }
+
+    private static <T> T read(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return MAPPER.readValue(in, type);
+        }
+    }
+
+    private static List<CourseDTO> readCourses(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return MAPPER.readValue(in, COURSE_LIST);
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return authorization.substring(7).trim();
+    }
+
+    private static CourseFilterDTO toFilter(Map<String, List<String>> query) {
+        CourseFilterDTO filter = new CourseFilterDTO();
+        filter.setSemester(first(query, "semester"));
+        filter.setProfessorId(first(query, "professorId"));
+        filter.setActive(booleanParam(query, "active"));
+        filter.setMinCredits(integerParam(query, "minCredits"));
+        filter.setMaxCredits(integerParam(query, "maxCredits"));
+        filter.setHasFreeSeats(booleanParam(query, "hasFreeSeats"));
+        return filter;
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static String first(Map<String, List<String>> query, String name) {
+        List<String> values = query.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static List<String> listParam(Map<String, List<String>> query, String name) {
+        List<String> values = new ArrayList<>();
+        for (String value : query.getOrDefault(name, List.of())) {
+            Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(values::add);
+        }
+        return values;
+    }
+
+    private static RolloverOptionsDTO toRolloverOptions(Map<String, List<String>> query) {
+        RolloverOptionsDTO options = new RolloverOptionsDTO();
+        Boolean keepTimeSlots = booleanParam(query, "keepTimeSlots");
+        Boolean keepProfessors = booleanParam(query, "keepProfessors");
+        Boolean activate = booleanParam(query, "activate");
+        if (keepTimeSlots != null) {
+            options.setKeepTimeSlots(keepTimeSlots);
+        }
+        if (keepProfessors != null) {
+            options.setKeepProfessors(keepProfessors);
+        }
+        if (activate != null) {
+            options.setActivate(activate);
+        }
+        return options;
+    }
+
+    private static Boolean booleanParam(Map<String, List<String>> query, String name) {
+        String value = first(query, name);
+        return value == null ? null : Boolean.valueOf(value);
+    }
+
+    private static Integer integerParam(Map<String, List<String>> query, String name) {
+        String value = first(query, name);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static int intParam(Map<String, List<String>> query, String name, int defaultValue) {
+        Integer value = integerParam(query, name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static long longParam(Map<String, List<String>> query, String name, long defaultValue) {
+        String value = first(query, name);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Response body that sends the headers on the first write, so a request that fails
+     * before producing any output can still get an error status. Chunked, and gzipped
+     * when the client accepts it.
+     */
+    private static final class ResponseStream extends OutputStream {
+        private final HttpExchange exchange;
+        private int status = 200;
+        private OutputStream body;
+        private boolean closed;
+        private long written;
+
+        ResponseStream(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        void setStatus(int status) {
+            this.status = status;
+        }
+
+        boolean isStarted() {
+            return body != null;
+        }
+
+        // Bytes written before compression
+        long getWritten() {
+            return written;
+        }
+
+        private OutputStream body() throws IOException {
+            if (body == null) {
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                if (gzip) {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                }
+                exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+                exchange.sendResponseHeaders(status, 0);
+                body = gzip ? new GZIPOutputStream(exchange.getResponseBody(), 8192) : exchange.getResponseBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body().write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            body().write(b, off, len);
+            written += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            body().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                body().close();
+            }
+        }
+    }
+}
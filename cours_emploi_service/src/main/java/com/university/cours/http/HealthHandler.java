@@ -0,0 +1,45 @@
+package com.university.cours.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.repository.CourseCatalog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Health check for load balancers: 200 while the driver sees a writable MongoDB primary,
+ * 503 otherwise. It reads the driver's cluster state and never waits on the database.
+ */
+public class HealthHandler implements HttpHandler {
+    private final CourseCatalog catalog;
+
+    public HealthHandler(CourseCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            boolean up = MongoDBConfig.isPrimaryAvailable();
+            String json = "{\"status\":\"" + (up ? "UP" : "DOWN") + "\""
+                    + ",\"mongodb\":\"" + (up ? "primary available" : "no writable server") + "\""
+                    + ",\"catalog\":{\"mode\":\"" + catalog.getMode() + "\""
+                    + ",\"size\":" + catalog.size()
+                    + ",\"version\":" + catalog.getVersion() + "}}";
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(up ? 200 : 503, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(up ? 200 : 503, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.university.cours.http;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The operation of a SOAP request and its simple (text-only) parameters,
+ * read without going through JAX-WS.
+ */
+final class SoapCall {
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final String operation;
+    private final Map<String, String> params;
+
+    private SoapCall(String operation, Map<String, String> params) {
+        this.operation = operation;
+        this.params = params;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    String param(String name) {
+        return params.get(name);
+    }
+
+    /**
+     * Returns null if the body is not a SOAP envelope with an operation element,
+     * or if a parameter has child elements.
+     */
+    static SoapCall parse(byte[] body) {
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "Body".equals(reader.getLocalName())
+                            && SoapEnvelopes.SOAP_ENV.equals(reader.getNamespaceURI())) {
+                        return readOperation(reader);
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            return null;
+        }
+    }
+
+    private static SoapCall readOperation(XMLStreamReader reader) throws XMLStreamException {
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT) {
+            return null;
+        }
+        String operation = reader.getLocalName();
+        Map<String, String> params = new HashMap<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            // getElementText fails on nested elements, which we do not handle here
+            params.put(reader.getLocalName(), reader.getElementText());
+        }
+        return new SoapCall(operation, params);
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
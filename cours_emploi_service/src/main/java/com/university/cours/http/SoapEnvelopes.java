@@ -0,0 +1,163 @@
+package com.university.cours.http;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.metrics.ConversionEvent;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes SOAP 1.1 responses for the course service outside of JAX-WS, in the same
+ * shape JAX-WS produces: { operation }Response in the service namespace, with one
+ * unqualified return element per result.
+ */
+final class SoapEnvelopes {
+    static final String SOAP_ENV = "http://schemas.xmlsoap.org/soap/envelope/";
+    static final String SERVICE_NS = "http://service.cours.university.com/";
+    static final String CONTENT_TYPE = "text/xml; charset=utf-8";
+    static final String FAST_INFOSET_CONTENT_TYPE = "application/fastinfoset";
+
+    private static final QName RETURN = new QName("", "return");
+    private static final JAXBContext CONTEXT = createContext();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private SoapEnvelopes() {
+    }
+
+    static byte[] response(String operation, CourseDTO course) {
+        return response(operation, course != null ? List.of(course) : List.of());
+    }
+
+    static byte[] response(String operation, Collection<CourseDTO> courses) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(courses.size() * 512 + 256);
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writeResponse(writer, operation, courses);
+            writer.close();
+            event.record(ConversionEvent.DTO_TO_SOAP, operation, courses.size(), out.size());
+            return out.toByteArray();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot marshal " + operation + " response", e);
+        }
+    }
+
+    /**
+     * The same response as {@link #response(String, Collection)}, encoded as Fast Infoset.
+     */
+    static byte[] fastInfosetResponse(String operation, Collection<CourseDTO> courses) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(courses.size() * 128 + 128);
+            XMLStreamWriter writer = new StAXDocumentSerializer(out);
+            writer.writeStartDocument();
+            writeResponse(writer, operation, courses);
+            writer.close();
+            event.record(ConversionEvent.DTO_TO_SOAP, operation, courses.size(), out.size());
+            return out.toByteArray();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot marshal " + operation + " response", e);
+        }
+    }
+
+    /**
+     * Writes the envelope to any StAX writer, e.g. a Fast Infoset serializer.
+     * The caller starts the document and closes the writer.
+     */
+    static void writeResponse(XMLStreamWriter writer, String operation, Collection<CourseDTO> courses)
+            throws XMLStreamException {
+        startEnvelope(writer);
+        writer.writeStartElement("ns2", operation + "Response", SERVICE_NS);
+        writer.writeNamespace("ns2", SERVICE_NS);
+        try {
+            Marshaller marshaller = CONTEXT.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            for (CourseDTO course : courses) {
+                marshaller.marshal(new JAXBElement<>(RETURN, CourseDTO.class, course), writer);
+            }
+        } catch (JAXBException e) {
+            throw new XMLStreamException("Cannot marshal " + operation + " response", e);
+        }
+        // Closed one by one: not every StAX writer closes open elements at the end of the document
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+    }
+
+    /**
+     * Reads the courses of a response written by {@link #writeResponse}, from any StAX reader.
+     */
+    static List<CourseDTO> readResponse(XMLStreamReader reader) throws XMLStreamException {
+        List<CourseDTO> courses = new ArrayList<>();
+        try {
+            Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+            while (reader.hasNext()) {
+                if (reader.getEventType() == XMLStreamConstants.START_ELEMENT
+                        && RETURN.getLocalPart().equals(reader.getLocalName())) {
+                    courses.add(unmarshaller.unmarshal(reader, CourseDTO.class).getValue());
+                } else {
+                    reader.next();
+                }
+            }
+        } catch (JAXBException e) {
+            throw new XMLStreamException("Cannot unmarshal response", e);
+        }
+        return courses;
+    }
+
+    /**
+     * A Server fault carrying the message, as JAX-WS reports a RuntimeException.
+     */
+    static byte[] fault(String message) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            startEnvelope(writer);
+            writer.writeStartElement("S", "Fault", SOAP_ENV);
+            writer.writeStartElement("faultcode");
+            writer.writeCharacters("S:Server");
+            writer.writeEndElement();
+            writer.writeStartElement("faultstring");
+            writer.writeCharacters(message != null ? message : "");
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+            return out.toByteArray();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot write SOAP fault", e);
+        }
+    }
+
+    private static void startEnvelope(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement("S", "Envelope", SOAP_ENV);
+        writer.writeNamespace("S", SOAP_ENV);
+        writer.writeStartElement("S", "Body", SOAP_ENV);
+    }
+
+    private static JAXBContext createContext() {
+        try {
+            return JAXBContext.newInstance(CourseDTO.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Cannot create JAXB context for CourseDTO", e);
+        }
+    }
+}
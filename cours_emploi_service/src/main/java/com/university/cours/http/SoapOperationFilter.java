@@ -0,0 +1,81 @@
+package com.university.cours.http;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+
+/**
+ * Base for filters that answer some SOAP operations before the request reaches JAX-WS.
+ * Only small requests are inspected; everything a subclass does not take goes through
+ * unchanged, with the body replayed.
+ */
+abstract class SoapOperationFilter extends Filter {
+    // The operations served this way only carry a few scalar parameters
+    private static final int MAX_PEEK = 8 * 1024;
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        InputStream in = exchange.getRequestBody();
+        byte[] peek = in.readNBytes(MAX_PEEK);
+        if (peek.length < MAX_PEEK) {
+            SoapCall call = SoapCall.parse(peek);
+            if (call != null && handle(exchange, call)) {
+                return;
+            }
+        }
+
+        exchange.setStreams(new SequenceInputStream(new ByteArrayInputStream(peek), in), null);
+        chain.doFilter(exchange);
+    }
+
+    /**
+     * Answers the call and returns true, or returns false to let JAX-WS handle it.
+     * The response may be sent later from another thread.
+     */
+    protected abstract boolean handle(HttpExchange exchange, SoapCall call) throws IOException;
+
+    /**
+     * Sends a cached response, as Fast Infoset when the client accepts it and a Fast Infoset
+     * copy exists, and gzipped when the client accepts it and a gzipped copy exists.
+     */
+    static void send(HttpExchange exchange, CatalogResponseCache.CachedResponse response) throws IOException {
+        boolean binary = response.fastInfoset != null && acceptsFastInfoset(exchange);
+        byte[] body = binary ? response.fastInfoset : response.body;
+        byte[] gzipped = binary ? response.fastInfosetGzipped : response.gzipped;
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        send(exchange, 200, gzip ? gzipped : body,
+                binary ? SoapEnvelopes.FAST_INFOSET_CONTENT_TYPE : SoapEnvelopes.CONTENT_TYPE, gzip ? "gzip" : null);
+    }
+
+    static boolean acceptsFastInfoset(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains(SoapEnvelopes.FAST_INFOSET_CONTENT_TYPE);
+    }
+
+    static void send(HttpExchange exchange, int status, byte[] body, String contentEncoding) throws IOException {
+        send(exchange, status, body, SoapEnvelopes.CONTENT_TYPE, contentEncoding);
+    }
+
+    static void send(HttpExchange exchange, int status, byte[] body, String contentType, String contentEncoding)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (contentEncoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
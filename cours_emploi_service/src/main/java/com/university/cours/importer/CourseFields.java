@@ -0,0 +1,106 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.TimeSlotDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Sets CourseDTO fields from imported text, by field name in any case. Values are only
+ * converted here; the service checks them like any other course write.
+ */
+final class CourseFields {
+    private static final Set<String> NAMES = Set.of("courseid", "coursename", "coursecode", "credits",
+            "description", "professorid", "professorname", "maxstudents", "enrolledstudents", "semester",
+            "active", "timeslots", "prerequisites");
+
+    private CourseFields() {
+    }
+
+    static boolean isField(String name) {
+        return NAMES.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns false for names that are not an importable field. Throws IllegalArgumentException
+     * for a value that does not convert.
+     */
+    static boolean set(CourseDTO course, String name, String value) {
+        String text = value.trim();
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "courseid" -> course.setCourseId(text(text));
+            case "coursename" -> course.setCourseName(text(text));
+            case "coursecode" -> course.setCourseCode(text(text));
+            case "credits" -> course.setCredits(number(name, text));
+            case "description" -> course.setDescription(text(text));
+            case "professorid" -> course.setProfessorId(text(text));
+            case "professorname" -> course.setProfessorName(text(text));
+            case "maxstudents" -> course.setMaxStudents(number(name, text));
+            case "enrolledstudents" -> course.setEnrolledStudents(number(name, text));
+            case "semester" -> course.setSemester(text(text));
+            case "active" -> course.setActive(bool(name, text));
+            case "timeslots" -> course.setTimeSlots(timeSlots(text));
+            case "prerequisites" -> course.setPrerequisites(list(text));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String text(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int number(String name, String value) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // Empty means the default, active
+    private static boolean bool(String name, String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "", "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        };
+    }
+
+    private static List<String> list(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(";")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    // "MONDAY 09:00-10:30 Room 101; WEDNESDAY 09:00-10:30 Room 101"
+    private static List<TimeSlotDTO> timeSlots(String value) {
+        List<TimeSlotDTO> slots = new ArrayList<>();
+        for (String item : list(value)) {
+            String[] parts = item.split("\\s+", 3);
+            int dash = parts.length > 1 ? parts[1].indexOf('-') : -1;
+            if (parts.length < 2 || dash < 0) {
+                throw new IllegalArgumentException("Invalid time slot: " + item + " (expected DAY HH:mm-HH:mm room)");
+            }
+            TimeSlotDTO slot = new TimeSlotDTO();
+            slot.setDayOfWeek(parts[0].toUpperCase(Locale.ROOT));
+            slot.setStartTime(parts[1].substring(0, dash));
+            slot.setEndTime(parts[1].substring(dash + 1));
+            slot.setRoom(parts.length > 2 ? parts[2] : null);
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,163 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.CourseResultDTO;
+import com.university.cours.dto.ImportErrorDTO;
+import com.university.cours.dto.ImportResultDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams courses from a {@link CourseSource} into batched writes.
+ *
+ * The calling thread parses and groups courses into batches of batchSize; a writer thread
+ * writes them one at a time. At most maxPendingBatches batches wait between the two, and
+ * parsing blocks while they are all taken, so memory use depends on the batch size rather
+ * than on the size of the input. Rows that fail to convert or to write are reported in
+ * input order, up to maxErrors of them.
+ */
+public class CourseImporter {
+    /**
+     * Writes one batch and returns one result per course, in order, as createCourses does.
+     */
+    public interface BatchWriter {
+        List<CourseResultDTO> write(List<CourseDTO> courses);
+    }
+
+    // Tells the writer the input is done
+    private static final List<CourseRow> END = new ArrayList<>();
+
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final int maxErrors;
+
+    public CourseImporter(int batchSize, int maxPendingBatches, int maxErrors) {
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.maxErrors = maxErrors;
+    }
+
+    public ImportResultDTO run(String format, CourseSource source, BatchWriter writer) {
+        long start = System.nanoTime();
+        ImportResultDTO result = new ImportResultDTO();
+        result.setFormat(format);
+        BlockingQueue<List<CourseRow>> pending = new ArrayBlockingQueue<>(maxPendingBatches);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread writing = new Thread(() -> drain(pending, writer, result, failure), "course-import-writer");
+        writing.start();
+
+        try {
+            List<CourseRow> batch = new ArrayList<>(batchSize);
+            CourseRow row;
+            while (failure.get() == null && (row = source.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    pending.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                pending.put(batch);
+            }
+        } catch (IOException e) {
+            result.setError(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new RuntimeException("Import interrupted"));
+        } finally {
+            finish(pending, writing);
+        }
+
+        if (failure.get() != null) {
+            result.setError("Import stopped: " + failure.get().getMessage());
+        }
+        long nanos = System.nanoTime() - start;
+        result.setElapsedMillis(nanos / 1_000_000);
+        result.setRowsPerSecond(nanos > 0 ? result.getRowCount() * 1e9 / nanos : 0);
+        return result;
+    }
+
+    // Lets the writer finish what is queued; it discards batches once a write has failed
+    private static void finish(BlockingQueue<List<CourseRow>> pending, Thread writing) {
+        boolean interrupted = Thread.interrupted();
+        while (true) {
+            try {
+                pending.put(END);
+                writing.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain(BlockingQueue<List<CourseRow>> pending, BatchWriter writer, ImportResultDTO result,
+            AtomicReference<RuntimeException> failure) {
+        while (true) {
+            List<CourseRow> batch;
+            try {
+                batch = pending.take();
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, new RuntimeException("Import interrupted"));
+                return;
+            }
+            if (batch == END) {
+                return;
+            }
+            if (failure.get() != null) {
+                continue;
+            }
+            try {
+                write(batch, writer, result);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void write(List<CourseRow> batch, BatchWriter writer, ImportResultDTO result) {
+        String[] errors = new String[batch.size()];
+        List<CourseDTO> courses = new ArrayList<>(batch.size());
+        List<Integer> positions = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            CourseRow row = batch.get(i);
+            if (row.error() != null) {
+                errors[i] = row.error();
+            } else {
+                courses.add(row.course());
+                positions.add(i);
+            }
+        }
+        if (!courses.isEmpty()) {
+            List<CourseResultDTO> written = writer.write(courses);
+            for (int w = 0; w < written.size(); w++) {
+                if (!written.get(w).isSuccess()) {
+                    errors[positions.get(w)] = written.get(w).getError();
+                }
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors[i] == null) {
+                result.setImportedCount(result.getImportedCount() + 1);
+                continue;
+            }
+            result.setFailedCount(result.getFailedCount() + 1);
+            if (result.getErrors().size() < maxErrors) {
+                CourseRow row = batch.get(i);
+                result.getErrors().add(new ImportErrorDTO(row.row(), row.course().getCourseId(), errors[i]));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+        result.setRowCount(result.getRowCount() + batch.size());
+    }
+}
@@ -0,0 +1,10 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseDTO;
+
+/**
+ * One course read from an import. row counts courses from 1 in input order; error is set
+ * when a field could not be converted, and course then holds whatever was read.
+ */
+public record CourseRow(int row, CourseDTO course, String error) {
+}
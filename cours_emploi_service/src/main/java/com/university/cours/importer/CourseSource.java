@@ -0,0 +1,14 @@
+package com.university.cours.importer;
+
+import java.io.IOException;
+
+/**
+ * Courses read one at a time from an import, so only the current one is held in memory.
+ */
+public interface CourseSource {
+    /**
+     * Returns the next course, or null at the end of the input. An IOException means the
+     * input cannot be read any further, as opposed to a row with an error.
+     */
+    CourseRow next() throws IOException;
+}
@@ -0,0 +1,126 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseDTO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads courses from CSV (RFC 4180: comma separated, fields optionally in double quotes,
+ * quotes doubled inside them, quoted fields may span lines). The first record names the
+ * columns after the CourseDTO fields, in any case and order; columns with other names are
+ * ignored, and a courseId column is required. timeSlots and prerequisites hold lists
+ * separated by ';', time slots written as "MONDAY 09:00-10:30 Room 101". Blank lines are
+ * skipped.
+ *
+ * The input is parsed straight from a fixed-size buffer, a record at a time.
+ */
+public class CsvCourseSource implements CourseSource {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final String[] columns;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int row;
+
+    public CsvCourseSource(Reader reader) throws IOException {
+        this.reader = reader;
+        if (!readRecord()) {
+            throw new IOException("CSV input is empty");
+        }
+        columns = new String[fields.size()];
+        boolean hasCourseId = false;
+        for (int i = 0; i < columns.length; i++) {
+            String name = fields.get(i).trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // byte order mark
+            }
+            columns[i] = name.toLowerCase(Locale.ROOT);
+            hasCourseId |= columns[i].equals("courseid");
+        }
+        if (!hasCourseId) {
+            throw new IOException("CSV header has no courseId column");
+        }
+    }
+
+    @Override
+    public CourseRow next() throws IOException {
+        while (readRecord()) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            CourseDTO course = new CourseDTO();
+            course.setActive(true);
+            String error = null;
+            for (int i = 0; i < columns.length && i < fields.size(); i++) {
+                try {
+                    CourseFields.set(course, columns[i], fields.get(i));
+                } catch (IllegalArgumentException e) {
+                    error = error == null ? e.getMessage() : error;
+                }
+            }
+            if (error == null && fields.size() > columns.length) {
+                error = "Row has " + fields.size() + " fields, header has " + columns.length;
+            }
+            return new CourseRow(row, course, error);
+        }
+        return null;
+    }
+
+    // Reads one record into fields; false at the end of the input
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean started = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field in row " + (row + 1));
+                }
+                if (!started) {
+                    return false;
+                }
+                fields.add(field.toString());
+                return true;
+            }
+            char c = buffer[position++];
+            started = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if ((position < limit || fill()) && buffer[position] == '"') {
+                    position++;
+                    field.append('"');
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return true;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.TimeSlotDTO;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads courses from XML with StAX, one course element at a time. Each course element,
+ * at any depth, holds the CourseDTO fields as child elements, as in the SOAP messages:
+ * one timeSlots element (dayOfWeek, startTime, endTime, room) per slot and one
+ * prerequisites element per courseId. Other child elements, such as id or version,
+ * are skipped. DTDs and external entities are not processed.
+ */
+public class XmlCourseSource implements CourseSource {
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final XMLStreamReader xml;
+    private int row;
+
+    public XmlCourseSource(InputStream input) throws IOException {
+        try {
+            this.xml = FACTORY.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid XML: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CourseRow next() throws IOException {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("course")) {
+                    return readCourse(++row);
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid XML after row " + row + ": " + e.getMessage(), e);
+        }
+    }
+
+    private CourseRow readCourse(int row) throws XMLStreamException {
+        CourseDTO course = new CourseDTO();
+        course.setActive(true);
+        String error = null;
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = xml.getLocalName();
+            try {
+                switch (name) {
+                    case "timeSlots" -> course.getTimeSlots().add(readTimeSlot());
+                    case "prerequisites" -> course.getPrerequisites().add(xml.getElementText().trim());
+                    default -> {
+                        if (CourseFields.isField(name)) {
+                            CourseFields.set(course, name, xml.getElementText());
+                        } else {
+                            skipElement();
+                        }
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                error = error == null ? e.getMessage() : error;
+            }
+        }
+        return new CourseRow(row, course, error);
+    }
+
+    private TimeSlotDTO readTimeSlot() throws XMLStreamException {
+        TimeSlotDTO slot = new TimeSlotDTO();
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (xml.getLocalName()) {
+                case "dayOfWeek" -> slot.setDayOfWeek(xml.getElementText().trim());
+                case "startTime" -> slot.setStartTime(xml.getElementText().trim());
+                case "endTime" -> slot.setEndTime(xml.getElementText().trim());
+                case "room" -> slot.setRoom(xml.getElementText().trim());
+                default -> skipElement();
+            }
+        }
+        return slot;
+    }
+
+    // From a start tag to its matching end tag
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
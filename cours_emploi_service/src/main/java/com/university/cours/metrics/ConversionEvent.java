@@ -0,0 +1,51 @@
+package com.university.cours.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one batch of courses converted between representations:
+ * BSON read into DTOs, or DTOs marshalled into a SOAP response.
+ */
+@Name("com.university.cours.Conversion")
+@Label("Course Conversion")
+@Category({"Course Service", "Conversion"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class ConversionEvent extends Event {
+    public static final String BSON_TO_DTO = "bson-dto";
+    public static final String DTO_TO_SOAP = "dto-soap";
+
+    @Label("Conversion")
+    @Description("bson-dto or dto-soap")
+    String conversion;
+
+    @Label("Source")
+    @Description("Query or operation the batch belongs to")
+    String source;
+
+    @Label("Courses")
+    int count;
+
+    @Label("Size")
+    @Description("Bytes produced, 0 when not known")
+    @DataAmount
+    long bytes;
+
+    public void record(String conversion, String source, int count, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.conversion = conversion;
+            this.source = source;
+            this.count = count;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.university.cours.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies from 1 µs to 1 hour at 3 significant digits, recorded without locking.
+ * Covers everything since startup, like the counters next to it.
+ */
+public class LatencyHistogram {
+    private static final long MAX_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final ConcurrentHistogram histogram = new ConcurrentHistogram(1, MAX_MICROS, 3);
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(1, nanos / 1000));
+        histogram.recordValue(micros);
+        sumMicros.add(micros);
+    }
+
+    public void recordError(long nanos) {
+        record(nanos);
+        errors.increment();
+    }
+
+    Histogram snapshot() {
+        return histogram.copy();
+    }
+
+    long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+    long getErrorCount() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,49 @@
+package com.university.cours.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one MongoDB command, from the driver sending it to the reply.
+ */
+@Name("com.university.cours.MongoCommand")
+@Label("MongoDB Command")
+@Category({"Course Service", "MongoDB"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class MongoCommandEvent extends Event {
+    @Label("Client")
+    String client;
+
+    @Label("Command")
+    String command;
+
+    @Label("Database")
+    String database;
+
+    @Label("Server")
+    String server;
+
+    @Label("Documents")
+    int documents;
+
+    @Label("Failed")
+    boolean failed;
+
+    void record(String client, String command, String database, String server, int documents, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.client = client;
+            this.command = command;
+            this.database = database;
+            this.server = server;
+            this.documents = documents;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.university.cours.metrics;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Driver listeners for one MongoClient: command timings go to
+ * {@link ServiceMetrics#MONGO_COMMANDS}, and the connection pool is exposed as gauges.
+ * Counts are summed over all servers the client talks to. While a Flight Recorder
+ * recording is on, each command is also recorded as a {@link MongoCommandEvent}.
+ */
+public class MongoMetrics implements CommandListener, ConnectionPoolListener {
+    private final String client;
+    private final AtomicInteger maxSize = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    // Events begun in commandStarted, by request id; empty unless a recording enables them
+    private final ConcurrentHashMap<Integer, MongoCommandEvent> commands = new ConcurrentHashMap<>();
+
+    /**
+     * @param client label telling the clients apart, e.g. sync or reactive
+     */
+    public MongoMetrics(String client) {
+        this.client = client;
+        String labels = "{client=\"" + client + "\"}";
+        ServiceMetrics.gauge("course_mongo_pool_max_size" + labels,
+                "Maximum connections per server in the MongoDB pool", maxSize::get);
+        ServiceMetrics.gauge("course_mongo_pool_open" + labels,
+                "Open MongoDB connections", open::get);
+        ServiceMetrics.gauge("course_mongo_pool_in_use" + labels,
+                "MongoDB connections checked out by the service", inUse::get);
+        ServiceMetrics.gauge("course_mongo_pool_waiting" + labels,
+                "Operations waiting for a MongoDB connection", waiting::get);
+    }
+
+    /**
+     * Connections currently open to all servers, idle or in use.
+     */
+    public int getOpenConnections() {
+        return open.get();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        MongoCommandEvent command = new MongoCommandEvent();
+        if (command.isEnabled()) {
+            command.begin();
+            commands.put(event.getRequestId(), command);
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        ServiceMetrics.MONGO_COMMANDS.record(event.getElapsedTime(TimeUnit.NANOSECONDS), false,
+                client, event.getCommandName());
+        MongoCommandEvent command = commands.remove(event.getRequestId());
+        if (command != null) {
+            command.record(client, event.getCommandName(), event.getDatabaseName(), server(event),
+                    documents(event.getResponse()), false);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        ServiceMetrics.MONGO_COMMANDS.record(event.getElapsedTime(TimeUnit.NANOSECONDS), true,
+                client, event.getCommandName());
+        MongoCommandEvent command = commands.remove(event.getRequestId());
+        if (command != null) {
+            command.record(client, event.getCommandName(), event.getDatabaseName(), server(event), 0, true);
+        }
+    }
+
+    private static String server(CommandEvent event) {
+        return event.getConnectionDescription().getServerAddress().toString();
+    }
+
+    // Documents in a cursor batch (find, getMore, aggregate), otherwise the n of a write
+    private static int documents(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch");
+            if (batch == null) {
+                batch = cursor.asDocument().get("nextBatch");
+            }
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().intValue() : 0;
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        maxSize.set(event.getSettings().getMaxSize());
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        inUse.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        inUse.decrementAndGet();
+    }
+}
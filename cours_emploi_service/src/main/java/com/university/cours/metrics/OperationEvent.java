@@ -0,0 +1,48 @@
+package com.university.cours.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one course service operation, however it was served.
+ * Call {@link #begin()} when the request arrives and {@link #record} when it is answered.
+ */
+@Name("com.university.cours.Operation")
+@Label("Course Operation")
+@Category({"Course Service", "Operations"})
+@Description("A SOAP or JSON operation from request to response")
+@StackTrace(false)
+@Threshold("1 ms")
+public class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    @Description("jaxws, cached, async or json")
+    String path;
+
+    @Label("Failed")
+    boolean failed;
+
+    @Label("Response Size")
+    @Description("Uncompressed response body, 0 when not known")
+    @DataAmount
+    long responseBytes;
+
+    public void record(String operation, String path, boolean failed, long responseBytes) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.path = path;
+            this.failed = failed;
+            this.responseBytes = responseBytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.university.cours.metrics;
+
+import jakarta.xml.ws.handler.MessageContext;
+import jakarta.xml.ws.handler.soap.SOAPHandler;
+import jakarta.xml.ws.handler.soap.SOAPMessageContext;
+
+import javax.xml.namespace.QName;
+import java.util.Set;
+
+/**
+ * JAX-WS handler timing every operation that reaches the endpoint, from the moment the
+ * request enters the handler chain until the response or fault leaves it. It only reads
+ * context properties, so the message itself is never turned into a SAAJ tree.
+ */
+public class OperationTimingHandler implements SOAPHandler<SOAPMessageContext> {
+    private static final String STARTED = OperationTimingHandler.class.getName() + ".started";
+    private static final String EVENT = OperationTimingHandler.class.getName() + ".event";
+
+    @Override
+    public boolean handleMessage(SOAPMessageContext context) {
+        if (isOutbound(context)) {
+            record(context, false);
+        } else {
+            context.put(STARTED, System.nanoTime());
+            OperationEvent event = new OperationEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                context.put(EVENT, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(SOAPMessageContext context) {
+        record(context, true);
+        return true;
+    }
+
+    @Override
+    public void close(MessageContext context) {
+    }
+
+    @Override
+    public Set<QName> getHeaders() {
+        return Set.of();
+    }
+
+    private static void record(MessageContext context, boolean failed) {
+        Object started = context.get(STARTED);
+        if (started == null) {
+            return;
+        }
+        QName operation = (QName) context.get(MessageContext.WSDL_OPERATION);
+        String name = operation != null ? operation.getLocalPart() : "unknown";
+        ServiceMetrics.OPERATIONS.record(System.nanoTime() - (Long) started, failed, name, "jaxws");
+        OperationEvent event = (OperationEvent) context.get(EVENT);
+        if (event != null) {
+            // The serialized size is not known at this point
+            event.record(name, "jaxws", failed, 0);
+        }
+    }
+
+    private static boolean isOutbound(MessageContext context) {
+        return Boolean.TRUE.equals(context.get(MessageContext.MESSAGE_OUTBOUND_PROPERTY));
+    }
+}
@@ -0,0 +1,167 @@
+package com.university.cours.metrics;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide metrics of the course service, written out in the Prometheus text format.
+ *
+ * Timers are summaries (quantiles, _sum and _count in seconds) with an _errors_total
+ * counter next to them; gauges are read when the metrics are scraped.
+ */
+public final class ServiceMetrics {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * SOAP and JSON operations, labelled by how the request was served:
+     * jaxws, cached (pre-marshalled catalog response), async or json.
+     */
+    public static final TimerFamily OPERATIONS = new TimerFamily("course_operation_seconds",
+            "Time to serve a course service operation", "operation", "path");
+    public static final TimerFamily TOKEN_VALIDATION = new TimerFamily("course_token_validation_seconds",
+            "Time to validate a token, cache hits included", "call");
+    public static final TimerFamily MONGO_COMMANDS = new TimerFamily("course_mongo_command_seconds",
+            "MongoDB command round trips as reported by the driver", "client", "command");
+
+    private static final List<TimerFamily> TIMERS = List.of(OPERATIONS, TOKEN_VALIDATION, MONGO_COMMANDS);
+    private static final Map<String, Gauge> GAUGES = new ConcurrentSkipListMap<>();
+
+    private record Gauge(String help, String type, Supplier<? extends Number> value) {
+    }
+
+    private ServiceMetrics() {
+    }
+
+    /**
+     * Registers a value read at scrape time. The name may carry labels, e.g.
+     * mongo_pool_size{client="sync"}; entries sharing a base name share help and type.
+     */
+    public static void gauge(String name, String help, Supplier<? extends Number> value) {
+        GAUGES.put(name, new Gauge(help, "gauge", value));
+    }
+
+    /**
+     * Same as {@link #gauge}, for a value that only goes up.
+     */
+    public static void counter(String name, String help, Supplier<? extends Number> value) {
+        GAUGES.put(name, new Gauge(help, "counter", value));
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        for (TimerFamily family : TIMERS) {
+            family.write(out);
+        }
+
+        String previous = null;
+        for (Map.Entry<String, Gauge> entry : GAUGES.entrySet()) {
+            String name = entry.getKey();
+            int brace = name.indexOf('{');
+            String base = brace < 0 ? name : name.substring(0, brace);
+            if (!base.equals(previous)) {
+                out.append("# HELP ").append(base).append(' ').append(entry.getValue().help()).append('\n');
+                out.append("# TYPE ").append(base).append(' ').append(entry.getValue().type()).append('\n');
+                previous = base;
+            }
+            Number value;
+            try {
+                value = entry.getValue().value().get();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            out.append(name).append(' ').append(value).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Latency histograms of one metric, one per combination of label values.
+     */
+    public static final class TimerFamily {
+        private final String name;
+        private final String help;
+        private final String[] labelNames;
+        private final ConcurrentHashMap<List<String>, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+        TimerFamily(String name, String help, String... labelNames) {
+            this.name = name;
+            this.help = help;
+            this.labelNames = labelNames;
+        }
+
+        public LatencyHistogram timer(String... labelValues) {
+            if (labelValues.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " takes labels " + String.join(", ", labelNames));
+            }
+            return timers.computeIfAbsent(List.of(labelValues), key -> new LatencyHistogram());
+        }
+
+        public void record(long nanos, boolean failed, String... labelValues) {
+            LatencyHistogram timer = timer(labelValues);
+            if (failed) {
+                timer.recordError(nanos);
+            } else {
+                timer.record(nanos);
+            }
+        }
+
+        private void write(StringBuilder out) {
+            if (timers.isEmpty()) {
+                return;
+            }
+            List<Map.Entry<List<String>, LatencyHistogram>> entries = new ArrayList<>(timers.entrySet());
+            entries.sort(Map.Entry.comparingByKey((a, b) -> String.join("\0", a).compareTo(String.join("\0", b))));
+
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (Map.Entry<List<String>, LatencyHistogram> entry : entries) {
+                String labels = labels(entry.getKey());
+                Histogram histogram = entry.getValue().snapshot();
+                for (double quantile : QUANTILES) {
+                    out.append(name).append('{').append(labels).append(labels.isEmpty() ? "" : ",")
+                            .append("quantile=\"").append(quantile).append("\"} ")
+                            .append(seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+                }
+                String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+                out.append(name).append("_sum").append(suffix).append(' ')
+                        .append(seconds(entry.getValue().getSumMicros())).append('\n');
+                out.append(name).append("_count").append(suffix).append(' ')
+                        .append(histogram.getTotalCount()).append('\n');
+            }
+
+            String errors = name.replace("_seconds", "_errors_total");
+            out.append("# HELP ").append(errors).append(" Failed calls counted in ").append(name).append('\n');
+            out.append("# TYPE ").append(errors).append(" counter\n");
+            for (Map.Entry<List<String>, LatencyHistogram> entry : entries) {
+                String labels = labels(entry.getKey());
+                out.append(errors).append(labels.isEmpty() ? "" : "{" + labels + "}").append(' ')
+                        .append(entry.getValue().getErrorCount()).append('\n');
+            }
+        }
+
+        private String labels(List<String> values) {
+            StringBuilder labels = new StringBuilder();
+            for (int i = 0; i < labelNames.length; i++) {
+                if (i > 0) {
+                    labels.append(',');
+                }
+                labels.append(labelNames[i]).append("=\"").append(escape(values.get(i))).append('"');
+            }
+            return labels.toString();
+        }
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1_000_000.0);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,143 @@
+package com.university.cours.metrics;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * In-process consumer of the course service's Flight Recorder events that logs, every
+ * interval, the slowest operations, token validations, MongoDB commands and conversions
+ * seen since the last report.
+ *
+ * The events cost next to nothing while no recording enables them, so this is off by
+ * default; an incident can be profiled with jcmd JFR.start instead.
+ */
+public class SlowEventSummary implements AutoCloseable {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private record Slow(Duration duration, Instant start, String thread, String detail) {
+    }
+
+    private static final class Window {
+        final String label;
+        final PriorityQueue<Slow> slowest = new PriorityQueue<>(Comparator.comparing(Slow::duration));
+        long count;
+
+        Window(String label) {
+            this.label = label;
+        }
+    }
+
+    private final RecordingStream stream = new RecordingStream();
+    private final int top;
+    private final Duration interval;
+    // Only touched from the stream's dispatch thread
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    private Instant windowStart = Instant.now();
+
+    /**
+     * @param top       events listed per type in each report
+     * @param interval  time between reports
+     * @param threshold events shorter than this are not recorded at all
+     */
+    public SlowEventSummary(int top, Duration interval, Duration threshold) {
+        this.top = top;
+        this.interval = interval;
+
+        watch(OperationEvent.class, "Operations", e -> e.getString("operation") + " (" + e.getString("path") + ")"
+                + failed(e) + ", " + e.getLong("responseBytes") + " bytes", threshold);
+        watch(TokenValidationEvent.class, "Token validations", e -> e.getString("call") + ", "
+                + e.getString("source") + failed(e), threshold);
+        watch(MongoCommandEvent.class, "MongoDB commands", e -> e.getString("client") + " "
+                + e.getString("command") + " on " + e.getString("database") + " @ " + e.getString("server")
+                + failed(e) + ", " + e.getInt("documents") + " documents", threshold);
+        watch(ConversionEvent.class, "Conversions", e -> e.getString("conversion") + " " + e.getString("source")
+                + ", " + e.getInt("count") + " courses, " + e.getLong("bytes") + " bytes", threshold);
+
+        stream.setMaxAge(interval);
+        stream.onFlush(this::reportIfDue);
+    }
+
+    private void watch(Class<? extends Event> type, String label, Function<RecordedEvent, String> describe,
+            Duration threshold) {
+        String name = type.getAnnotation(Name.class).value();
+        Window window = new Window(label);
+        windows.put(name, window);
+        stream.enable(type).withThreshold(threshold);
+        stream.onEvent(name, event -> {
+            window.count++;
+            Duration duration = event.getDuration();
+            if (window.slowest.size() < top || duration.compareTo(window.slowest.peek().duration()) > 0) {
+                // Copied out: the stream may reuse the event object
+                window.slowest.add(new Slow(duration, event.getStartTime(), threadName(event), describe.apply(event)));
+                if (window.slowest.size() > top) {
+                    window.slowest.poll();
+                }
+            }
+        });
+    }
+
+    public void start() {
+        stream.startAsync();
+    }
+
+    private void reportIfDue() {
+        Instant now = Instant.now();
+        if (Duration.between(windowStart, now).compareTo(interval) < 0) {
+            return;
+        }
+
+        StringBuilder report = new StringBuilder();
+        for (Window window : windows.values()) {
+            if (window.count == 0) {
+                continue;
+            }
+            List<Slow> slowest = new ArrayList<>(window.slowest);
+            slowest.sort(Comparator.comparing(Slow::duration).reversed());
+            report.append(String.format("  %s (%d recorded):%n", window.label, window.count));
+            for (Slow slow : slowest) {
+                report.append(String.format("    %10.3f ms  %s  [%s]  %s%n", slow.duration().toNanos() / 1e6,
+                        TIME.format(slow.start()), slow.thread(), slow.detail()));
+            }
+            window.slowest.clear();
+            window.count = 0;
+        }
+        if (report.length() > 0) {
+            System.out.print("Slowest in the last " + Duration.between(windowStart, now).toSeconds() + "s:\n"
+                    + report);
+        }
+        windowStart = now;
+    }
+
+    private static String failed(RecordedEvent event) {
+        return event.getBoolean("failed") ? " FAILED" : "";
+    }
+
+    private static String threadName(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        if (thread == null) {
+            return "?";
+        }
+        return thread.getJavaName() != null ? thread.getJavaName() : thread.getOSName();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
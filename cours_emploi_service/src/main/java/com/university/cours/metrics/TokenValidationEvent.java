@@ -0,0 +1,48 @@
+package com.university.cours.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one token validation, telling cache hits apart from
+ * local verification and calls to the gateway.
+ */
+@Name("com.university.cours.TokenValidation")
+@Label("Token Validation")
+@Category({"Course Service", "Security"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class TokenValidationEvent extends Event {
+    public static final String CACHE = "cache";
+    public static final String LOCAL = "local";
+    public static final String REMOTE = "remote";
+
+    @Label("Call")
+    @Description("sync or async")
+    String call;
+
+    @Label("Source")
+    @Description("cache, local or remote; the last one tried when local verification falls back")
+    String source = CACHE;
+
+    @Label("Failed")
+    boolean failed;
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public void record(String call, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.call = call;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.university.cours.model;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 public class Course {
@@ -15,10 +16,14 @@ public class Course {
     private String professorId;
     private String professorName;
     private List<TimeSlot> timeSlots = new ArrayList<>();
+    private List<String> prerequisites = new ArrayList<>(); // courseIds to complete first
     private int maxStudents;
     private int enrolledStudents;
     private String semester;
     private boolean active;
+    private long version; // incremented by every write, for optimistic concurrency
+    private long revision; // catalog-wide change sequence, see getCoursesChangedSince
+    private Date lastModified;
 
     public Course() {
     }
@@ -112,6 +117,14 @@ public class Course {
         this.timeSlots = timeSlots;
     }
 
+    public List<String> getPrerequisites() {
+        return prerequisites;
+    }
+
+    public void setPrerequisites(List<String> prerequisites) {
+        this.prerequisites = prerequisites;
+    }
+
     public int getMaxStudents() {
         return maxStudents;
     }
@@ -143,4 +156,28 @@ public class Course {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
 }
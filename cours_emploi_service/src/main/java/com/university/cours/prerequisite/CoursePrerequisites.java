@@ -0,0 +1,173 @@
+package com.university.cours.prerequisite;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.EligibilityDTO;
+import com.university.cours.model.Course;
+import com.university.cours.repository.BadRequestException;
+import com.university.cours.repository.CourseCatalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the {@link PrerequisiteGraph} in step with the catalog and with the service's own
+ * writes, rejects prerequisites that would form a cycle, and answers eligibility checks
+ * from the current graph without any database access.
+ *
+ * The graph is rebuilt, off the query path, only when a course's courseId or
+ * prerequisites change; checks read whichever graph is current.
+ */
+public class CoursePrerequisites implements CourseCatalog.CourseListener {
+    private record Node(String courseId, List<String> prerequisites) {
+    }
+
+    private record Snapshot(PrerequisiteGraph graph, Set<String> courseIds) {
+    }
+
+    // By _id, guarded by this
+    private final Map<String, Node> nodes = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(PrerequisiteGraph.EMPTY, Set.of());
+
+    @Override
+    public void coursesChanged(Collection<String> ids, Map<String, CourseDTO> courses) {
+        if (ids == null) {
+            rebuild(courses.values());
+            return;
+        }
+        Map<String, Node> changed = new HashMap<>();
+        for (String id : ids) {
+            CourseDTO course = courses.get(id);
+            changed.put(id, course != null ? new Node(course.getCourseId(), copy(course.getPrerequisites())) : null);
+        }
+        apply(changed);
+    }
+
+    public synchronized void rebuild(Collection<CourseDTO> courses) {
+        nodes.clear();
+        for (CourseDTO course : courses) {
+            nodes.put(course.getId(), new Node(course.getCourseId(), copy(course.getPrerequisites())));
+        }
+        publish();
+    }
+
+    /**
+     * Records courses as just written by this service.
+     */
+    public void updateAll(Collection<Course> courses) {
+        Map<String, Node> changed = new HashMap<>();
+        for (Course course : courses) {
+            changed.put(course.getId().toHexString(), new Node(course.getCourseId(), copy(course.getPrerequisites())));
+        }
+        apply(changed);
+    }
+
+    public void update(Course course) {
+        updateAll(List.of(course));
+    }
+
+    public void remove(String id) {
+        removeAll(List.of(id));
+    }
+
+    public void removeAll(Collection<String> ids) {
+        Map<String, Node> changed = new HashMap<>();
+        for (String id : ids) {
+            changed.put(id, null);
+        }
+        apply(changed);
+    }
+
+    private synchronized void apply(Map<String, Node> changed) {
+        boolean modified = false;
+        for (Map.Entry<String, Node> entry : changed.entrySet()) {
+            Node previous = entry.getValue() != null
+                    ? nodes.put(entry.getKey(), entry.getValue())
+                    : nodes.remove(entry.getKey());
+            modified |= !Objects.equals(previous, entry.getValue());
+        }
+        if (modified) {
+            publish();
+        }
+    }
+
+    // Caller holds the lock
+    private void publish() {
+        Map<String, List<String>> edges = new HashMap<>();
+        Set<String> courseIds = new HashSet<>();
+        for (Node node : nodes.values()) {
+            if (node.courseId() == null) {
+                continue;
+            }
+            courseIds.add(node.courseId());
+            if (!node.prerequisites().isEmpty()) {
+                edges.put(node.courseId(), node.prerequisites());
+            }
+        }
+        PrerequisiteGraph graph = new PrerequisiteGraph(edges);
+        for (String cycle : graph.getCycles()) {
+            System.err.println("Prerequisite cycle ignored: " + cycle);
+        }
+        snapshot = new Snapshot(graph, courseIds);
+    }
+
+    /**
+     * Returns why the course cannot have these prerequisites, empty when it can.
+     */
+    public List<String> problems(Course course) {
+        PrerequisiteGraph graph = snapshot.graph();
+        List<String> problems = new ArrayList<>();
+        for (String prerequisite : course.getPrerequisites()) {
+            if (prerequisite == null || prerequisite.isEmpty()) {
+                problems.add("prerequisite courseId is empty");
+            } else if (prerequisite.equals(course.getCourseId())) {
+                problems.add(prerequisite + " cannot be its own prerequisite");
+            } else if (graph.requires(prerequisite, course.getCourseId())) {
+                problems.add(prerequisite + " already requires " + course.getCourseId());
+            }
+        }
+        return problems;
+    }
+
+    public void check(Course course) {
+        List<String> problems = problems(course);
+        if (!problems.isEmpty()) {
+            throw new BadRequestException("Invalid prerequisites: " + String.join("; ", problems));
+        }
+    }
+
+    /**
+     * One result per target, in order. A student is eligible for a course once every
+     * prerequisite, direct or not, is completed or required by a completed course.
+     */
+    public List<EligibilityDTO> checkEligibility(Collection<String> completedCourseIds, List<String> targetCourseIds) {
+        Snapshot current = snapshot;
+        PrerequisiteGraph graph = current.graph();
+        long[] satisfied = graph.satisfied(completedCourseIds);
+
+        List<EligibilityDTO> results = new ArrayList<>(targetCourseIds.size());
+        for (String target : targetCourseIds) {
+            if (!current.courseIds().contains(target)) {
+                results.add(EligibilityDTO.failure(target, "Course not found with courseId: " + target));
+            } else if (graph.isEligible(target, satisfied)) {
+                results.add(new EligibilityDTO(target, true, List.of(), List.of()));
+            } else {
+                results.add(new EligibilityDTO(target, false, graph.missing(target, satisfied),
+                        graph.remaining(target, satisfied)));
+            }
+        }
+        return results;
+    }
+
+    private static List<String> copy(List<String> prerequisites) {
+        if (prerequisites == null) {
+            return List.of();
+        }
+        return prerequisites.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
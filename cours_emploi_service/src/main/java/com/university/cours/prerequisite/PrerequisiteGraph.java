@@ -0,0 +1,278 @@
+package com.university.cours.prerequisite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prerequisite DAG over courseIds, with the transitive closure of every
+ * course's prerequisites held as a bitset over dense course ordinals.
+ *
+ * Courses with prerequisites get the low ordinals and are the only ones with a closure
+ * row. A row keeps only its non-zero 64-bit words, so checks cost one operation per word
+ * a course's prerequisites fall in rather than per 64 courses in the catalog. Edges that
+ * would close a cycle are left out and reported by {@link #getCycles()}.
+ */
+public final class PrerequisiteGraph {
+    static final PrerequisiteGraph EMPTY = new PrerequisiteGraph(Map.of());
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final String[] courseIds;
+    // Ordinals below this have prerequisites and a closure row
+    private final int dependents;
+    private final int words;
+    private final int[][] direct;
+    // Closure row of each course with prerequisites: indexes and values of its non-zero words
+    private final int[][] rowWords;
+    private final long[][] rowBits;
+    private final List<String> cycles = new ArrayList<>();
+
+    /**
+     * @param prerequisites direct prerequisites by courseId; courses without any may be left out
+     */
+    public PrerequisiteGraph(Map<String, ? extends Collection<String>> prerequisites) {
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, ? extends Collection<String>> entry : prerequisites.entrySet()) {
+            if (!entry.getValue().isEmpty() && ordinals.putIfAbsent(entry.getKey(), ids.size()) == null) {
+                ids.add(entry.getKey());
+            }
+        }
+        dependents = ids.size();
+        for (Collection<String> required : prerequisites.values()) {
+            for (String courseId : required) {
+                if (ordinals.putIfAbsent(courseId, ids.size()) == null) {
+                    ids.add(courseId);
+                }
+            }
+        }
+        courseIds = ids.toArray(new String[0]);
+        words = (courseIds.length + 63) >>> 6;
+
+        direct = new int[dependents][];
+        for (int node = 0; node < dependents; node++) {
+            Collection<String> listed = prerequisites.get(courseIds[node]);
+            int[] required = new int[listed.size()];
+            int count = 0;
+            for (String courseId : listed) {
+                int ordinal = ordinals.get(courseId);
+                if (ordinal == node) {
+                    cycles.add(courseIds[node] + " -> " + courseIds[node]);
+                } else if (!contains(required, count, ordinal)) {
+                    required[count++] = ordinal;
+                }
+            }
+            direct[node] = Arrays.copyOf(required, count);
+        }
+
+        rowWords = new int[dependents][];
+        rowBits = new long[dependents][];
+        close();
+    }
+
+    /*
+     * Depth-first over the prerequisites: a course's row is the union of its prerequisites
+     * and their rows, filled once all of them are done. An edge back to a course still
+     * on the stack closes a cycle and is dropped.
+     */
+    private void close() {
+        byte[] state = new byte[dependents]; // 0 new, 1 on the stack, 2 done
+        int[] stack = new int[dependents];
+        int[] next = new int[dependents];
+        long[] row = new long[words];
+        for (int root = 0; root < dependents; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            state[root] = 1;
+            while (depth > 0) {
+                int node = stack[depth - 1];
+                if (next[node] < direct[node].length) {
+                    int required = direct[node][next[node]++];
+                    if (required >= dependents || state[required] == 2) {
+                        continue;
+                    }
+                    if (state[required] == 1) {
+                        cycles.add(describeCycle(stack, depth, required));
+                        direct[node] = dropEdge(direct[node], --next[node]);
+                        continue;
+                    }
+                    state[required] = 1;
+                    stack[depth++] = required;
+                    continue;
+                }
+
+                for (int required : direct[node]) {
+                    row[required >>> 6] |= 1L << required;
+                    if (required < dependents) {
+                        orInto(row, required);
+                    }
+                }
+                compress(node, row);
+                state[node] = 2;
+                depth--;
+            }
+        }
+    }
+
+    private void orInto(long[] dense, int node) {
+        int[] indexes = rowWords[node];
+        long[] bits = rowBits[node];
+        for (int i = 0; i < indexes.length; i++) {
+            dense[indexes[i]] |= bits[i];
+        }
+    }
+
+    // Stores the dense row as node's closure and clears it for the next one
+    private void compress(int node, long[] row) {
+        int count = 0;
+        for (long bits : row) {
+            if (bits != 0) {
+                count++;
+            }
+        }
+        int[] indexes = new int[count];
+        long[] bits = new long[count];
+        for (int w = 0, i = 0; w < words; w++) {
+            if (row[w] != 0) {
+                indexes[i] = w;
+                bits[i++] = row[w];
+                row[w] = 0;
+            }
+        }
+        rowWords[node] = indexes;
+        rowBits[node] = bits;
+    }
+
+    private String describeCycle(int[] stack, int depth, int repeated) {
+        StringBuilder cycle = new StringBuilder();
+        int start = depth - 1;
+        while (stack[start] != repeated) {
+            start--;
+        }
+        for (int i = start; i < depth; i++) {
+            cycle.append(courseIds[stack[i]]).append(" -> ");
+        }
+        return cycle.append(courseIds[repeated]).toString();
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] dropEdge(int[] edges, int index) {
+        int[] kept = Arrays.copyOf(edges, edges.length - 1);
+        System.arraycopy(edges, index + 1, kept, index, edges.length - index - 1);
+        return kept;
+    }
+
+    /**
+     * Cycles found while building, each as "A -> B -> A"; the edge back to the first
+     * course is not part of the graph.
+     */
+    public List<String> getCycles() {
+        return cycles;
+    }
+
+    public int getCourseCount() {
+        return courseIds.length;
+    }
+
+    /**
+     * Whether course must be completed, directly or not, before target.
+     */
+    public boolean requires(String target, String course) {
+        Integer node = ordinals.get(target);
+        Integer required = ordinals.get(course);
+        if (node == null || required == null || node >= dependents) {
+            return false;
+        }
+        int i = Arrays.binarySearch(rowWords[node], required >>> 6);
+        return i >= 0 && (rowBits[node][i] & (1L << required)) != 0;
+    }
+
+    /**
+     * The completed courses and everything they required, which a student is taken
+     * to have satisfied, as a dense bitset.
+     */
+    public long[] satisfied(Collection<String> completed) {
+        long[] satisfied = new long[words];
+        for (String courseId : completed) {
+            Integer node = ordinals.get(courseId);
+            if (node == null) {
+                continue; // not a prerequisite of anything
+            }
+            satisfied[node >>> 6] |= 1L << node;
+            if (node < dependents) {
+                orInto(satisfied, node);
+            }
+        }
+        return satisfied;
+    }
+
+    /**
+     * Whether every prerequisite of target, direct or not, is in satisfied. Courses
+     * outside the graph have no prerequisites.
+     */
+    public boolean isEligible(String target, long[] satisfied) {
+        Integer node = ordinals.get(target);
+        if (node == null || node >= dependents) {
+            return true;
+        }
+        int[] indexes = rowWords[node];
+        long[] bits = rowBits[node];
+        for (int i = 0; i < indexes.length; i++) {
+            if ((bits[i] & ~satisfied[indexes[i]]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Direct prerequisites of target not in satisfied.
+     */
+    public List<String> missing(String target, long[] satisfied) {
+        Integer node = ordinals.get(target);
+        if (node == null || node >= dependents) {
+            return List.of();
+        }
+        List<String> missing = new ArrayList<>();
+        for (int required : direct[node]) {
+            if ((satisfied[required >>> 6] & (1L << required)) == 0) {
+                missing.add(courseIds[required]);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * All prerequisites of target, direct or not, not in satisfied.
+     */
+    public List<String> remaining(String target, long[] satisfied) {
+        Integer node = ordinals.get(target);
+        if (node == null || node >= dependents) {
+            return List.of();
+        }
+        List<String> remaining = new ArrayList<>();
+        int[] indexes = rowWords[node];
+        long[] bits = rowBits[node];
+        for (int i = 0; i < indexes.length; i++) {
+            long unmet = bits[i] & ~satisfied[indexes[i]];
+            while (unmet != 0) {
+                remaining.add(courseIds[(indexes[i] << 6) + Long.numberOfTrailingZeros(unmet)]);
+                unmet &= unmet - 1;
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,38 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.model.TimeSlot;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weekly availability of professors, one document per professor:
+ * { professorId, slots: [{ dayOfWeek, startTime, endTime }] }.
+ */
+public class AvailabilityRepository {
+    private final MongoCollection<Document> collection;
+
+    public AvailabilityRepository() {
+        MongoDatabase database = MongoDBConfig.getDatabase();
+        this.collection = database.getCollection("professor_availability");
+    }
+
+    public Map<String, List<TimeSlot>> findAll() {
+        Map<String, List<TimeSlot>> availability = new HashMap<>();
+        collection.find().forEach(doc -> {
+            List<TimeSlot> slots = new ArrayList<>();
+            for (Document slot : doc.getList("slots", Document.class, new ArrayList<>())) {
+                slots.add(new TimeSlot(slot.getString("dayOfWeek"), slot.getString("startTime"),
+                        slot.getString("endTime"), null));
+            }
+            availability.computeIfAbsent(doc.getString("professorId"), k -> new ArrayList<>()).addAll(slots);
+        });
+        return availability;
+    }
+}
@@ -0,0 +1,13 @@
+package com.university.cours.repository;
+
+/**
+ * A request the service rejects as given: a missing or malformed parameter, or values
+ * that fail validation.
+ */
+public class BadRequestException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.university.cours.repository;
+
+/**
+ * A write that clashes with what is stored: a duplicate courseId, a version that is no
+ * longer current, a booked slot, an enrollment that already exists (or does not), or a
+ * semester that is archived and read-only.
+ */
+public class ConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
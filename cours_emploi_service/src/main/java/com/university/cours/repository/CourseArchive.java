@@ -0,0 +1,178 @@
+package com.university.cours.repository;
+
+import com.university.cours.dto.CourseDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of the archived semesters.
+ *
+ * Archived courses never change, so the courses of the most recently read semesters are
+ * kept in memory whole (an LRU of archive.cache.semesters entries) and shared between
+ * requests; the DTOs must not be modified. Lookups by courseId, and by _id outside the
+ * cached semesters, go to courses_archive. Which semesters are archived is re-read from the
+ * database every archive.refresh.seconds, so archiving done by another instance is seen.
+ */
+public class CourseArchive {
+    private record View(List<CourseDTO> courses, Map<String, CourseDTO> byId) {
+        static View of(List<CourseDTO> courses) {
+            Map<String, CourseDTO> byId = new HashMap<>();
+            for (CourseDTO course : courses) {
+                byId.put(course.getId(), course);
+            }
+            return new View(List.copyOf(courses), Map.copyOf(byId));
+        }
+    }
+
+    private final CourseRepository repository;
+    private final long refreshMillis;
+    // Access-ordered, guarded by this
+    private final LinkedHashMap<String, View> views;
+    private volatile Map<String, String> states = Map.of();
+    private volatile long refreshedAt;
+
+    public CourseArchive(CourseRepository repository, int cachedSemesters, long refreshMillis) {
+        this.repository = repository;
+        this.refreshMillis = refreshMillis;
+        this.views = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+                return size() > cachedSemesters;
+            }
+        };
+        refresh();
+    }
+
+    public final void refresh() {
+        states = Map.copyOf(repository.findArchivedSemesters());
+        refreshedAt = System.currentTimeMillis();
+    }
+
+    private Map<String, String> states() {
+        if (System.currentTimeMillis() - refreshedAt > refreshMillis) {
+            refresh();
+        }
+        return states;
+    }
+
+    /**
+     * Whether the semester has been archived, or is being archived.
+     */
+    public boolean isArchived(String semester) {
+        return semester != null && states().containsKey(semester);
+    }
+
+    /**
+     * Archived semesters and whether each is archived or still archiving.
+     */
+    public Map<String, String> getSemesters() {
+        return states();
+    }
+
+    public void checkWritable(String semester) {
+        if (isArchived(semester)) {
+            throw new ConflictException("Semester " + semester + " is archived and read-only");
+        }
+    }
+
+    /**
+     * Every course of an archived semester, sorted by _id.
+     */
+    public List<CourseDTO> courses(String semester) {
+        return view(semester).courses();
+    }
+
+    private View view(String semester) {
+        synchronized (this) {
+            View cached = views.get(semester);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Loaded outside the lock; two readers of the same cold semester may both load it
+        View loaded = View.of(repository.findArchivedDTOs(semester));
+        if (!CourseRepository.ARCHIVED.equals(states().get(semester))) {
+            return loaded; // still being archived, not complete yet
+        }
+        synchronized (this) {
+            views.put(semester, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * {@link CourseRepository#search} over an archived semester: from the cached courses,
+     * or from courses_archive when only some fields are wanted.
+     */
+    public List<CourseDTO> search(CourseQuery query, int limit, List<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            return repository.searchArchive(query, limit, fields);
+        }
+        List<CourseDTO> found = new ArrayList<>();
+        for (CourseDTO course : courses(query.getSemester())) {
+            if (query.matches(course)) {
+                found.add(course);
+                if (found.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    public CourseDTO findById(String id) {
+        synchronized (this) {
+            for (View view : views.values()) {
+                CourseDTO course = view.byId().get(id);
+                if (course != null) {
+                    return course;
+                }
+            }
+        }
+        return states().isEmpty() ? null : repository.findArchivedDTOById(id);
+    }
+
+    // Always from courses_archive: a courseId reused across semesters resolves to the latest
+    public CourseDTO findByCourseId(String courseId) {
+        return states().isEmpty() ? null : repository.findArchivedDTOByCourseId(courseId);
+    }
+
+    /**
+     * Marks the semester archiving, so from now on this instance treats it as read-only.
+     * Other instances see it at their next refresh. Returns whether this call set the mark.
+     */
+    public boolean markArchiving(String semester) {
+        boolean marked = repository.markArchiving(semester);
+        refresh();
+        return marked;
+    }
+
+    /**
+     * Takes back a mark set by {@link #markArchiving} when archiving gives up before moving
+     * anything.
+     */
+    public void unmarkArchiving(String semester) {
+        repository.unmarkArchiving(semester);
+        refresh();
+    }
+
+    /**
+     * Moves the semester's courses out of the hot collection, once it has been marked with
+     * {@link #markArchiving}. Returns the ids moved.
+     */
+    public List<String> archive(String semester, int batchSize) {
+        if (!isArchived(semester)) {
+            throw new IllegalStateException("Semester " + semester + " must be marked archiving first");
+        }
+        List<String> moved = repository.archiveSemester(semester, batchSize);
+        synchronized (this) {
+            views.remove(semester);
+        }
+        refresh();
+        return moved;
+    }
+}
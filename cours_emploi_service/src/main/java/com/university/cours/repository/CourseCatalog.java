@@ -0,0 +1,431 @@
+package com.university.cours.repository;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.university.cours.dto.CourseDTO;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Read-through copy of the course catalog kept in memory.
+ *
+ * Reads go to an immutable snapshot (by _id, by courseId, all and active courses) published
+ * through a volatile field, so they take no lock and make no network call. Changes are applied
+ * by building a new snapshot: from a change stream when the server supports one, otherwise
+ * by reloading the whole catalog every poll interval. The service's own writes are applied
+ * right away through {@link #invalidate(Collection)}.
+ *
+ * A new snapshot copies the sorted map by _id (a linear copy, no re-sort) and builds the
+ * other views only when first read, so a burst of writes does not rebuild them each time.
+ * The change stream events already received are applied together, as one snapshot and one
+ * notification. A change is only published when it is newer than the course held (by
+ * version), so the stream's echo of the service's own write, and stale re-reads, are dropped.
+ *
+ * The DTOs in a snapshot are shared between requests and must not be modified.
+ * When disabled, every read goes straight to the repository.
+ */
+public class CourseCatalog implements AutoCloseable {
+    /**
+     * Told which courses a change touched, for keeping derived structures in step.
+     */
+    public interface CourseListener {
+        /**
+         * @param ids     the courses that were added, changed or removed, or null after a full reload
+         * @param courses the whole catalog after the change, by _id
+         */
+        void coursesChanged(Collection<String> ids, Map<String, CourseDTO> courses);
+    }
+
+    // Returned by servers that are not part of a replica set
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+
+    // Most events carry one course; a larger batch only comes from a burst of writes
+    private static final int MAX_EVENTS_PER_PUBLISH = 1000;
+
+    private static final class Snapshot {
+        final long version;
+        // Sorted by _id, the order a collection scan usually returns
+        final SortedMap<String, CourseDTO> byId;
+        // Built on first read; racing readers may both build them, which is harmless as
+        // they are immutable and equal
+        private Map<String, CourseDTO> byCourseId;
+        private List<CourseDTO> all;
+        private List<CourseDTO> active;
+
+        Snapshot(long version, TreeMap<String, CourseDTO> courses) {
+            this.version = version;
+            this.byId = Collections.unmodifiableSortedMap(courses);
+        }
+
+        /**
+         * This snapshot with the changes applied; a null course is removed.
+         */
+        Snapshot with(Map<String, CourseDTO> changes) {
+            TreeMap<String, CourseDTO> courses = new TreeMap<>(byId);
+            changes.forEach((id, course) -> {
+                if (course != null) {
+                    courses.put(id, course);
+                } else {
+                    courses.remove(id);
+                }
+            });
+            return new Snapshot(version + 1, courses);
+        }
+
+        Map<String, CourseDTO> byCourseId() {
+            Map<String, CourseDTO> view = byCourseId;
+            if (view == null) {
+                Map<String, CourseDTO> courses = new HashMap<>();
+                for (CourseDTO course : byId.values()) {
+                    if (course.getCourseId() != null) {
+                        courses.put(course.getCourseId(), course);
+                    }
+                }
+                view = Map.copyOf(courses);
+                byCourseId = view;
+            }
+            return view;
+        }
+
+        List<CourseDTO> all() {
+            List<CourseDTO> view = all;
+            if (view == null) {
+                view = List.copyOf(byId.values());
+                all = view;
+            }
+            return view;
+        }
+
+        List<CourseDTO> active() {
+            List<CourseDTO> view = active;
+            if (view == null) {
+                view = all().stream().filter(CourseDTO::isActive).toList();
+                active = view;
+            }
+            return view;
+        }
+    }
+
+    private final CourseRepository repository;
+    private final boolean enabled;
+    private final long pollMillis;
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(0, new TreeMap<>());
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final List<CourseListener> courseListeners = new CopyOnWriteArrayList<>();
+    private volatile String mode = "disabled";
+    private volatile boolean running;
+    private Thread watcher;
+
+    public CourseCatalog(CourseRepository repository, boolean enabled, long pollMillis) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.pollMillis = pollMillis;
+    }
+
+    /**
+     * Loads the catalog and starts following changes in the background.
+     */
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        mode = "starting";
+        running = true;
+        watcher = new Thread(this::follow, "course-catalog-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public List<CourseDTO> findAll() {
+        return enabled ? snapshot.all() : repository.findAllDTOs();
+    }
+
+    public List<CourseDTO> findActive() {
+        return enabled ? snapshot.active() : repository.findActiveDTOs();
+    }
+
+    /**
+     * Passes every course, or every active one, to the action. With the catalog disabled
+     * they are streamed from the database cursor instead of being collected first.
+     */
+    public void forEach(boolean activeOnly, Consumer<CourseDTO> action) {
+        if (!enabled) {
+            repository.forEachDTO(activeOnly, action);
+            return;
+        }
+        Snapshot current = snapshot;
+        (activeOnly ? current.active() : current.byId.values()).forEach(action);
+    }
+
+    public CourseDTO findById(String id) {
+        return enabled ? snapshot.byId.get(id) : repository.findDTOById(id);
+    }
+
+    public CourseDTO findByCourseId(String courseId) {
+        return enabled ? snapshot.byCourseId().get(courseId) : repository.findDTOByCourseId(courseId);
+    }
+
+    public List<CourseDTO> findByCourseIds(Collection<String> courseIds) {
+        if (!enabled) {
+            return repository.findDTOsByCourseIds(courseIds);
+        }
+        Snapshot current = snapshot;
+        Map<String, CourseDTO> byCourseId = current.byCourseId();
+        return courseIds.stream().map(byCourseId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Re-reads the given courses after the service wrote them, so the writer sees its own
+     * change without waiting for the change stream or the next poll.
+     */
+    public void invalidate(Collection<String> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<ObjectId> objectIds = ids.stream().filter(ObjectId::isValid).map(ObjectId::new).toList();
+        synchronized (writeLock) {
+            Map<String, CourseDTO> courses = new HashMap<>();
+            objectIds.forEach(id -> courses.put(id.toHexString(), null));
+            for (CourseDTO course : repository.findDTOsByIds(objectIds)) {
+                courses.put(course.getId(), course);
+            }
+            merge(courses, Set.of());
+        }
+    }
+
+    /**
+     * Applies a course returned by one of the service's own writes, unless a newer version is already held.
+     */
+    public void update(CourseDTO course) {
+        if (!enabled || course == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            merge(Collections.singletonMap(course.getId(), course), Set.of());
+        }
+    }
+
+    public void invalidate(String id) {
+        invalidate(List.of(id));
+    }
+
+    /**
+     * Replaces the catalog with what is in the database, if anything differs.
+     */
+    public void reload() {
+        synchronized (writeLock) {
+            TreeMap<String, CourseDTO> courses = new TreeMap<>();
+            for (CourseDTO course : repository.loadAllDTOs()) {
+                courses.put(course.getId(), course);
+            }
+            Map<String, CourseDTO> held = snapshot.byId;
+            boolean changed = held.size() != courses.size();
+            for (Iterator<CourseDTO> it = courses.values().iterator(); !changed && it.hasNext(); ) {
+                CourseDTO course = it.next();
+                changed = !sameWrite(held.get(course.getId()), course);
+            }
+            if (changed) {
+                publish(new Snapshot(snapshot.version + 1, courses), null);
+            }
+        }
+    }
+
+    // Caller holds writeLock. Keeps the changes newer than the courses held (a null course
+    // is a removal), or that insert a new document, and publishes them, if any, as one snapshot.
+    private void merge(Map<String, CourseDTO> changes, Set<String> inserted) {
+        Snapshot current = snapshot;
+        Map<String, CourseDTO> applied = new HashMap<>();
+        changes.forEach((id, course) -> {
+            CourseDTO held = current.byId.get(id);
+            if (course == null ? held != null
+                    : held == null || version(course) > version(held)
+                            || inserted.contains(id) && !sameWrite(held, course)) {
+                applied.put(id, course);
+            }
+        });
+        if (!applied.isEmpty()) {
+            publish(current.with(applied), applied.keySet());
+        }
+    }
+
+    // Caller holds writeLock; ids is null when everything may have changed
+    private void publish(Snapshot next, Collection<String> ids) {
+        snapshot = next;
+        for (CourseListener listener : courseListeners) {
+            listener.coursesChanged(ids, next.byId);
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Registers a callback run after every change of the catalog; it must not block.
+     */
+    public void addChangeListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a callback told about every change, in order, while the catalog's write lock
+     * is held; it must be quick and must not call back into the catalog's writers.
+     */
+    public void addCourseListener(CourseListener listener) {
+        courseListeners.add(listener);
+    }
+
+    /**
+     * Incremented on every change that is published. Data read after this call is at least this recent.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void follow() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<CourseDTO>> cursor = repository.watch()
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .cursor()) {
+                // Catch up on anything written before the stream was opened
+                reload();
+                mode = "change-stream";
+                List<ChangeStreamDocument<CourseDTO>> events = new ArrayList<>();
+                while (running) {
+                    ChangeStreamDocument<CourseDTO> event = cursor.tryNext();
+                    // Take whatever else is already received, without another round trip
+                    while (event != null) {
+                        events.add(event);
+                        event = events.size() < MAX_EVENTS_PER_PUBLISH && cursor.available() > 0
+                                ? cursor.tryNext() : null;
+                    }
+                    boolean open = apply(events);
+                    events.clear();
+                    if (!open) {
+                        break;
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    System.out.println("Change streams not supported, polling the course catalog every "
+                            + pollMillis + " ms");
+                    poll();
+                    return;
+                }
+                retryLater(e);
+            } catch (MongoException | IllegalStateException e) {
+                retryLater(e);
+            }
+        }
+    }
+
+    // Applies the events in order as one change; returns false when the stream has to be reopened
+    private boolean apply(List<ChangeStreamDocument<CourseDTO>> events) {
+        if (events.isEmpty()) {
+            return true;
+        }
+        // Later events of a course replace earlier ones; a null course is a removal
+        Map<String, CourseDTO> courses = new HashMap<>();
+        // Deleted and inserted again within the batch: the new document may have a lower version
+        Set<String> inserted = new HashSet<>();
+        boolean open = true;
+        for (ChangeStreamDocument<CourseDTO> event : events) {
+            OperationType type = event.getOperationType();
+            if (type != OperationType.INSERT && type != OperationType.UPDATE && type != OperationType.REPLACE
+                    && type != OperationType.DELETE) {
+                // drop, rename or invalidate: the stream is closed by the server
+                open = false;
+                break;
+            }
+            String id = event.getDocumentKey().get("_id").asObjectId().getValue().toHexString();
+            // Deleted, or deleted again before the update could be looked up, when there is no full document
+            courses.put(id, event.getFullDocument());
+            if (type == OperationType.INSERT) {
+                inserted.add(id);
+            } else if (type == OperationType.DELETE) {
+                inserted.remove(id);
+            }
+        }
+        synchronized (writeLock) {
+            merge(courses, inserted);
+        }
+        return open;
+    }
+
+    private void poll() {
+        mode = "polling";
+        while (running) {
+            try {
+                Thread.sleep(pollMillis);
+                reload();
+            } catch (InterruptedException e) {
+                return;
+            } catch (MongoException e) {
+                System.err.println("Course catalog refresh failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void retryLater(RuntimeException e) {
+        if (!running) {
+            return;
+        }
+        System.err.println("Course catalog change stream failed, reopening: " + e.getMessage());
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException ie) {
+            running = false;
+        }
+    }
+
+    private static long version(CourseDTO course) {
+        return course.getVersion() != null ? course.getVersion() : 0L;
+    }
+
+    private static boolean sameWrite(CourseDTO held, CourseDTO course) {
+        return held != null && version(held) == version(course)
+                && Objects.equals(held.getRevision(), course.getRevision());
+    }
+
+    public int size() {
+        return snapshot.byId.size();
+    }
+
+    /**
+     * How the catalog is kept up to date: change-stream, polling or disabled.
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.model.Filters;
+import com.university.cours.dto.CourseDTO;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters for a keyset-paginated course search. Results are ordered by _id, and
+ * each page starts strictly after the last _id of the previous one, so the cost
+ * of a page does not depend on how deep into the catalog it is.
+ */
+public class CourseQuery {
+    private String semester;
+    private String professorId;
+    private Boolean active;
+    private Integer minCredits;
+    private Integer maxCredits;
+    private Boolean hasFreeSeats;
+    private ObjectId after;
+
+    public CourseQuery semester(String semester) {
+        this.semester = semester;
+        return this;
+    }
+
+    public CourseQuery professorId(String professorId) {
+        this.professorId = professorId;
+        return this;
+    }
+
+    public CourseQuery active(Boolean active) {
+        this.active = active;
+        return this;
+    }
+
+    public CourseQuery credits(Integer min, Integer max) {
+        this.minCredits = min;
+        this.maxCredits = max;
+        return this;
+    }
+
+    public CourseQuery hasFreeSeats(Boolean hasFreeSeats) {
+        this.hasFreeSeats = hasFreeSeats;
+        return this;
+    }
+
+    public CourseQuery after(ObjectId after) {
+        this.after = after;
+        return this;
+    }
+
+    String getSemester() {
+        return semester;
+    }
+
+    /**
+     * Same test as {@link #toFilter()}, for courses already in memory.
+     */
+    boolean matches(CourseDTO course) {
+        return (semester == null || semester.equals(course.getSemester()))
+                && (professorId == null || professorId.equals(course.getProfessorId()))
+                && (active == null || active == course.isActive())
+                && (after == null || new ObjectId(course.getId()).compareTo(after) > 0)
+                && (minCredits == null || course.getCredits() >= minCredits)
+                && (maxCredits == null || course.getCredits() <= maxCredits)
+                && (hasFreeSeats == null || hasFreeSeats == (course.getEnrolledStudents() < course.getMaxStudents()));
+    }
+
+    Bson toFilter() {
+        // Equality fields first so they line up with the compound index prefixes
+        List<Bson> filters = new ArrayList<>();
+        if (semester != null) {
+            filters.add(Filters.eq("semester", semester));
+        }
+        if (professorId != null) {
+            filters.add(Filters.eq("professorId", professorId));
+        }
+        if (active != null) {
+            filters.add(Filters.eq("active", active));
+        }
+        if (after != null) {
+            filters.add(Filters.gt("_id", after));
+        }
+        if (minCredits != null) {
+            filters.add(Filters.gte("credits", minCredits));
+        }
+        if (maxCredits != null) {
+            filters.add(Filters.lte("credits", maxCredits));
+        }
+        if (hasFreeSeats != null) {
+            Document seats = new Document(hasFreeSeats ? "$lt" : "$gte",
+                    List.of("$enrolledStudents", "$maxStudents"));
+            filters.add(Filters.expr(seats));
+        }
+        return filters.isEmpty() ? new Document() : Filters.and(filters);
+    }
+}
@@ -1,129 +1,984 @@
 package com.university.cours.repository;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 import com.university.cours.config.MongoDBConfig;
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.CourseTombstoneDTO;
+import com.university.cours.metrics.ConversionEvent;
 import com.university.cours.model.Course;
 import com.university.cours.model.TimeSlot;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class CourseRepository {
+    public static final String ARCHIVING = "archiving";
+    public static final String ARCHIVED = "archived";
+    private static final String ARCHIVE_COLLECTION = "courses_archive";
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+
+    // Raw view, used for index management and explain()
     private final MongoCollection<Document> collection;
+    // Entity view for writes and service logic, decoded by CourseCodec
+    private final MongoCollection<Course> courses;
+    // Read-only view decoded straight into response DTOs by CourseDTOCodec
+    private final MongoCollection<CourseDTO> dtos;
+    // Same, for catalog reads that may be served by a secondary
+    private final MongoCollection<CourseDTO> catalogDtos;
+    // Deleted and deactivated courses, kept for delta readers
+    private final MongoCollection<Document> tombstones;
+    // Courses of closed semesters, moved out of courses by archiveSemester
+    private final MongoCollection<Document> archive;
+    private final MongoCollection<CourseDTO> archiveDtos;
+    // One document per archived semester: _id (the semester), state, courseCount, archivedAt
+    private final MongoCollection<Document> archivedSemesters;
+    private final RevisionClock revisions;
+    // How long tombstones are kept, 0 for ever
+    private final long tombstoneRetentionMillis;
 
     public CourseRepository() {
         MongoDatabase database = MongoDBConfig.getDatabase();
         this.collection = database.getCollection("courses");
+        this.courses = collection.withDocumentClass(Course.class);
+        this.dtos = collection.withDocumentClass(CourseDTO.class);
+        this.catalogDtos = dtos.withReadPreference(MongoDBConfig.getCatalogReadPreference());
+        this.tombstones = database.getCollection("course_tombstones");
+        ensureArchiveCollection(database);
+        this.archive = database.getCollection(ARCHIVE_COLLECTION);
+        this.archiveDtos = archive.withDocumentClass(CourseDTO.class)
+                .withReadPreference(MongoDBConfig.getCatalogReadPreference());
+        this.archivedSemesters = database.getCollection("archived_semesters");
+        this.tombstoneRetentionMillis = TimeUnit.DAYS.toMillis(
+                Long.parseLong(MongoDBConfig.getProperty("delta.tombstoneRetentionDays", "30")));
+        this.revisions = new RevisionClock(database,
+                Integer.parseInt(MongoDBConfig.getProperty("revision.leaseSize", "100")),
+                Long.parseLong(MongoDBConfig.getProperty("revision.leaseSeconds", "30")) * 1000,
+                tombstoneRetentionMillis);
+        ensureIndexes();
+        if (Boolean.parseBoolean(MongoDBConfig.getProperty("mongodb.indexes.verify", "false"))) {
+            verifyQueryPlans();
+        }
+    }
+
+    /**
+     * Creates the indexes every repository query relies on. createIndex is a no-op
+     * when the index already exists, so this is safe to run on every startup.
+     * The compound indexes also serve plain lookups on their leading field
+     * (semester, professorId, active), so those need no index of their own.
+     *
+     * @throws IllegalStateException if the unique courseId index cannot be created, since
+     *     inserts and updates rely on it to reject duplicate courseIds
+     */
+    public final void ensureIndexes() {
+        try {
+            collection.createIndex(Indexes.ascending("courseId"),
+                    new IndexOptions().name("courseId_unique").unique(true));
+        } catch (MongoException e) {
+            throw new IllegalStateException("Could not create unique index on courseId"
+                    + " (remove duplicate courseIds first): " + e.getMessage(), e);
+        }
+
+        // Compound indexes ending in _id so filtered searches can seek straight to the cursor position
+        collection.createIndex(Indexes.ascending("semester", "active", "_id"),
+                new IndexOptions().name("semester_active_id"));
+        collection.createIndex(Indexes.ascending("professorId", "active", "_id"),
+                new IndexOptions().name("professorId_active_id"));
+        collection.createIndex(Indexes.ascending("active", "_id"),
+                new IndexOptions().name("active_id"));
+        collection.createIndex(Indexes.ascending("revision"), new IndexOptions().name("revision"));
+        tombstones.createIndex(Indexes.ascending("revision"), new IndexOptions().name("revision"));
+        ensureTtlIndex(tombstones, "removedAt", TimeUnit.MILLISECONDS.toSeconds(tombstoneRetentionMillis));
+
+        // Archived courses are only read by semester, _id or courseId
+        archive.createIndex(Indexes.ascending("semester", "_id"), new IndexOptions().name("semester_id"));
+        // Also gives the latest course of a courseId without a sort
+        archive.createIndex(Indexes.ascending("courseId", "_id"), new IndexOptions().name("courseId_id"));
+    }
+
+    /**
+     * Expires documents expireAfterSeconds after the date in field, or never with 0. An
+     * existing TTL index on the field is changed to the new delay rather than failing.
+     */
+    static void ensureTtlIndex(MongoCollection<Document> collection, String field, long expireAfterSeconds) {
+        String name = field + "_ttl";
+        if (expireAfterSeconds <= 0) {
+            if (collection.listIndexes().into(new ArrayList<>()).stream().anyMatch(i -> name.equals(i.get("name")))) {
+                collection.dropIndex(name);
+            }
+            return;
+        }
+        try {
+            collection.createIndex(Indexes.ascending(field),
+                    new IndexOptions().name(name).expireAfter(expireAfterSeconds, TimeUnit.SECONDS));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != INDEX_OPTIONS_CONFLICT) {
+                throw e;
+            }
+            MongoDBConfig.getDatabase().runCommand(new Document("collMod", collection.getNamespace().getCollectionName())
+                    .append("index", new Document("name", name).append("expireAfterSeconds", expireAfterSeconds)));
+        }
+    }
+
+    /*
+     * The archive is written once and then only read, so it is created with a stronger
+     * block compressor than the server default (snappy). An existing collection keeps
+     * the settings it was created with.
+     */
+    private static void ensureArchiveCollection(MongoDatabase database) {
+        if (database.listCollectionNames().into(new ArrayList<>()).contains(ARCHIVE_COLLECTION)) {
+            return;
+        }
+        String compressor = MongoDBConfig.getProperty("archive.blockCompressor", "zstd");
+        try {
+            database.createCollection(ARCHIVE_COLLECTION, new CreateCollectionOptions().storageEngineOptions(
+                    new Document("wiredTiger", new Document("configString", "block_compressor=" + compressor))));
+        } catch (MongoException e) {
+            // Created concurrently by another instance, or a storage engine without that option
+            System.err.println("Could not create " + ARCHIVE_COLLECTION + " with " + compressor
+                    + " compression: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs explain() on every filtered repository query, built as the repository runs it
+     * (same filter, sort and limit), and fails if one of them would read the whole
+     * collection: a COLLSCAN, or a walk over the entire _id index that only filters and
+     * sorts. findAll is left out since it reads everything anyway, and so are the
+     * {@link #KNOWN_SCANS}.
+     */
+    public final void verifyQueryPlans() {
+        List<String> scans = new ArrayList<>();
+        Map<String, FindIterable<Document>> queries = queryShapes();
+        queries.forEach((name, query) -> {
+            if (!KNOWN_SCANS.contains(name) && readsWholeCollection(winningPlan(query))) {
+                scans.add(name);
+            }
+        });
+
+        if (!scans.isEmpty()) {
+            throw new IllegalStateException("Queries reading the whole collection (COLLSCAN or full _id scan): "
+                    + scans);
+        }
+        System.out.println("Verified query plans for " + queries.size() + " course queries, known scans: "
+                + KNOWN_SCANS);
+    }
+
+    /*
+     * Searches on credits or free seats alone have no index: a credits range cannot be read
+     * in _id order, and the seat test compares two fields of the same document. They walk
+     * the _id index in order and stop once a page is full, so a filter most courses pass
+     * stays cheap; a rare one reads much of the collection per page.
+     */
+    static final Set<String> KNOWN_SCANS = Set.of("search(credits)", "search(hasFreeSeats)");
+
+    /**
+     * Every filtered query the repository runs, by name. Aggregations are listed by their
+     * leading $match, which is planned like the same find.
+     */
+    final Map<String, FindIterable<Document>> queryShapes() {
+        ObjectId id = new ObjectId();
+        Map<String, FindIterable<Document>> queries = new LinkedHashMap<>();
+        queries.put("findActive", collection.find(Filters.eq("active", true)));
+        queries.put("findActiveBySemester, countActive",
+                collection.find(Filters.and(Filters.eq("semester", ""), Filters.eq("active", true))));
+        queries.put("findById, exists, delete", collection.find(Filters.eq("_id", id)));
+        queries.put("findByCourseId", collection.find(Filters.eq("courseId", "")));
+        queries.put("findDTOsByCourseIds, findExistingCourseIds", collection.find(Filters.in("courseId", "", "x")));
+        queries.put("findDTOsByIds, findExistingIds", collection.find(Filters.in("_id", id, new ObjectId())));
+        queries.put("search(semester)", searchQuery(collection, new CourseQuery().semester(""), 50));
+        queries.put("search(semester, active, cursor)",
+                searchQuery(collection, new CourseQuery().semester("").active(true).after(id), 50));
+        queries.put("search(semester, credits, hasFreeSeats)",
+                searchQuery(collection, new CourseQuery().semester("").credits(3, 6).hasFreeSeats(true), 50));
+        queries.put("search(professorId)", searchQuery(collection, new CourseQuery().professorId(""), 50));
+        queries.put("search(active, cursor)", searchQuery(collection, new CourseQuery().active(true).after(id), 50));
+        queries.put("search(cursor)", searchQuery(collection, new CourseQuery().after(id), 50));
+        queries.put("search(credits)", searchQuery(collection, new CourseQuery().credits(3, 6), 50));
+        queries.put("search(hasFreeSeats)", searchQuery(collection, new CourseQuery().hasFreeSeats(true), 50));
+        queries.put("findChangedSince", changedSinceQuery(collection, 1, 2));
+        queries.put("findChangedSince(0)", changedSinceQuery(collection, 0, 2));
+        queries.put("findRemovedSince", removedSinceQuery(1, 2));
+        queries.put("archiveSemester", collection.find(Filters.eq("semester", "")).sort(Sorts.ascending("_id"))
+                .limit(500));
+        queries.put("previewRollover, rolloverSemester", collection.find(Filters.eq("semester", "")));
+        queries.put("rolloverSemester(created)",
+                collection.find(Filters.and(Filters.eq("semester", ""), Filters.eq("revision", 1L))));
+        queries.put("searchArchive(semester), findArchivedDTOs",
+                searchQuery(archive, new CourseQuery().semester(""), 50));
+        queries.put("findArchivedDTOById", archive.find(Filters.eq("_id", id)));
+        queries.put("findArchivedDTOByCourseId", archivedByCourseIdQuery(archive, ""));
+        queries.put("previewRollover(fromArchive)", archive.find(Filters.eq("semester", "")));
+        return queries;
+    }
+
+    static Document winningPlan(FindIterable<Document> query) {
+        return query.explain().get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    // A COLLSCAN stage, or an IXSCAN over the whole _id index, anywhere in the plan
+    static boolean readsWholeCollection(Object plan) {
+        if (plan instanceof Document stage) {
+            if ("COLLSCAN".equals(stage.get("stage")) || isFullIdScan(stage)) {
+                return true;
+            }
+            return stage.values().stream().anyMatch(CourseRepository::readsWholeCollection);
+        }
+        if (plan instanceof List<?> stages) {
+            return stages.stream().anyMatch(CourseRepository::readsWholeCollection);
+        }
+        return false;
+    }
+
+    private static boolean isFullIdScan(Document stage) {
+        if (!"IXSCAN".equals(stage.get("stage")) || !"_id_".equals(stage.get("indexName"))) {
+            return false;
+        }
+        Document bounds = stage.get("indexBounds", Document.class);
+        return bounds != null && List.of("[MinKey, MaxKey]").equals(bounds.get("_id"));
     }
 
     public List<Course> findAll() {
-        List<Course> courses = new ArrayList<>();
-        collection.find().forEach(doc -> courses.add(documentToCourse(doc)));
-        return courses;
+        return courses.find().into(new ArrayList<>());
     }
 
     public List<Course> findActive() {
-        List<Course> courses = new ArrayList<>();
-        collection.find(Filters.eq("active", true))
-                .forEach(doc -> courses.add(documentToCourse(doc)));
+        return courses.find(Filters.eq("active", true)).into(new ArrayList<>());
+    }
+
+    public List<Course> findActiveBySemester(String semester) {
+        return courses.find(Filters.and(Filters.eq("semester", semester), Filters.eq("active", true)))
+                .into(new ArrayList<>());
+    }
+
+    public List<CourseDTO> findAllDTOs() {
+        return readDTOs("findAll", catalogDtos.find());
+    }
+
+    public List<CourseDTO> findActiveDTOs() {
+        return readDTOs("findActive", catalogDtos.find(Filters.eq("active", true)));
+    }
+
+    /**
+     * All courses from the primary, for loading the in-memory catalog, which must never
+     * go back to an older state than it already holds.
+     */
+    public List<CourseDTO> loadAllDTOs() {
+        return readDTOs("load", dtos.find());
+    }
+
+    // Reads the whole result, recorded as one conversion batch (round trips included)
+    private static List<CourseDTO> readDTOs(String source, MongoIterable<CourseDTO> find) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        List<CourseDTO> courses = find.into(new ArrayList<>());
+        event.record(ConversionEvent.BSON_TO_DTO, source, courses.size(), 0);
         return courses;
     }
 
+    /**
+     * Hands each course to the action as it comes off the cursor, without building a list.
+     */
+    public void forEachDTO(boolean activeOnly, Consumer<CourseDTO> action) {
+        (activeOnly ? catalogDtos.find(Filters.eq("active", true)) : catalogDtos.find()).forEach(action);
+    }
+
+    /**
+     * Returns up to limit courses matching the query, ordered by _id.
+     * When fields is not empty only those fields (plus _id) are loaded.
+     */
+    public List<CourseDTO> search(CourseQuery query, int limit, List<String> fields) {
+        return search(catalogDtos, "search", query, limit, fields);
+    }
+
+    /**
+     * Same as {@link #search}, over the archived courses.
+     */
+    public List<CourseDTO> searchArchive(CourseQuery query, int limit, List<String> fields) {
+        return search(archiveDtos, "searchArchive", query, limit, fields);
+    }
+
+    private static List<CourseDTO> search(MongoCollection<CourseDTO> from, String source, CourseQuery query,
+            int limit, List<String> fields) {
+        FindIterable<CourseDTO> find = searchQuery(from, query, limit);
+        if (fields != null && !fields.isEmpty()) {
+            find.projection(Projections.include(fields));
+        }
+
+        return readDTOs(source, find);
+    }
+
+    private static <T> FindIterable<T> searchQuery(MongoCollection<T> from, CourseQuery query, int limit) {
+        return from.find(query.toFilter())
+                .sort(Sorts.ascending("_id"))
+                .limit(limit);
+    }
+
     public Course findById(String id) {
-        Document doc = collection.find(Filters.eq("_id", new ObjectId(id))).first();
-        return doc != null ? documentToCourse(doc) : null;
+        return courses.find(Filters.eq("_id", new ObjectId(id))).first();
     }
 
     public Course findByCourseId(String courseId) {
-        Document doc = collection.find(Filters.eq("courseId", courseId)).first();
-        return doc != null ? documentToCourse(doc) : null;
+        return courses.find(Filters.eq("courseId", courseId)).first();
+    }
+
+    public CourseDTO findDTOById(String id) {
+        return dtos.find(Filters.eq("_id", new ObjectId(id))).first();
+    }
+
+    public CourseDTO findDTOByCourseId(String courseId) {
+        return dtos.find(Filters.eq("courseId", courseId)).first();
     }
 
-    public Course save(Course course) {
-        Document doc = courseToDocument(course);
-        if (course.getId() == null) {
-            collection.insertOne(doc);
-            course.setId(doc.getObjectId("_id"));
-        } else {
-            collection.replaceOne(Filters.eq("_id", course.getId()), doc);
+    /**
+     * Inserts a new course with a single command. Duplicate courseIds are rejected
+     * by the unique index rather than by a lookup beforehand.
+     */
+    public Course insert(Course course) {
+        course.setVersion(0);
+        long revision = revisions.reserve(1);
+        try {
+            course.setRevision(revision);
+            course.setLastModified(new Date());
+            // CourseCodec assigns the _id before the insert
+            courses.insertOne(course);
+        } catch (MongoException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                throw new ConflictException("Course with courseId " + course.getCourseId() + " already exists");
+            }
+            throw e;
+        } finally {
+            revisions.release(revision);
         }
         return course;
     }
 
+    /**
+     * Sets the given fields and increments the version in a single findOneAndUpdate.
+     * When expectedVersion is not null the update only applies if the course is still
+     * at that version. Returns the updated course, or null if nothing matched.
+     */
+    public CourseDTO updateFields(String id, Long expectedVersion, Map<String, Object> changes) {
+        long revision = revisions.reserve(1);
+        List<Bson> updates = new ArrayList<>();
+        changes.forEach((field, value) -> updates.add(Updates.set(field, value)));
+        updates.add(Updates.inc("version", 1L));
+        updates.add(Updates.set("revision", revision));
+        updates.add(Updates.set("lastModified", new Date()));
+
+        try {
+            CourseDTO updated = dtos.findOneAndUpdate(versionFilter(new ObjectId(id), expectedVersion),
+                    Updates.combine(updates),
+                    new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+            if (updated != null && !updated.isActive()) {
+                writeTombstone(updated.getId(), updated.getCourseId(), revision, "deactivated");
+            }
+            return updated;
+        } catch (MongoException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                throw new ConflictException("Course with courseId " + changes.get("courseId") + " already exists");
+            }
+            throw e;
+        } finally {
+            revisions.release(revision);
+        }
+    }
+
+    public boolean exists(String id) {
+        return collection.countDocuments(Filters.eq("_id", new ObjectId(id))) > 0;
+    }
+
     public boolean delete(String id) {
-        return collection.deleteOne(Filters.eq("_id", new ObjectId(id))).getDeletedCount() > 0;
+        long revision = revisions.reserve(1);
+        try {
+            Document deleted = collection.findOneAndDelete(Filters.eq("_id", new ObjectId(id)),
+                    new FindOneAndDeleteOptions().projection(Projections.include("courseId")));
+            if (deleted == null) {
+                return false;
+            }
+            writeTombstone(id, deleted.getString("courseId"), revision, "deleted");
+            return true;
+        } finally {
+            revisions.release(revision);
+        }
     }
 
-    public Course update(String id, Course course) {
-        Document doc = courseToDocument(course);
-        collection.replaceOne(Filters.eq("_id", new ObjectId(id)), doc);
-        course.setId(new ObjectId(id));
-        return course;
+    /**
+     * Takes one seat with a single conditional update that only matches an active course
+     * with enrolledStudents below maxStudents, so concurrent enrollments cannot oversell.
+     * Returns the course after the increment, or null if it is missing, inactive or full.
+     */
+    public CourseDTO reserveSeat(String id) {
+        return adjustSeats(Filters.and(Filters.eq("_id", new ObjectId(id)), Filters.eq("active", true),
+                Filters.expr(new Document("$lt", List.of("$enrolledStudents", "$maxStudents")))), 1);
+    }
+
+    /**
+     * Gives back one seat, never going below zero. Returns the course after the decrement, or null.
+     */
+    public CourseDTO releaseSeat(String id) {
+        return adjustSeats(Filters.and(Filters.eq("_id", new ObjectId(id)), Filters.gt("enrolledStudents", 0)), -1);
     }
 
-    private Document courseToDocument(Course course) {
-        Document doc = new Document();
-        if (course.getId() != null) {
-            doc.append("_id", course.getId());
-        }
-        doc.append("courseId", course.getCourseId())
-                .append("courseName", course.getCourseName())
-                .append("courseCode", course.getCourseCode())
-                .append("credits", course.getCredits())
-                .append("description", course.getDescription())
-                .append("professorId", course.getProfessorId())
-                .append("professorName", course.getProfessorName())
-                .append("maxStudents", course.getMaxStudents())
-                .append("enrolledStudents", course.getEnrolledStudents())
-                .append("semester", course.getSemester())
-                .append("active", course.isActive());
-
-        List<Document> timeSlotDocs = new ArrayList<>();
-        for (TimeSlot ts : course.getTimeSlots()) {
-            Document tsDoc = new Document()
-                    .append("dayOfWeek", ts.getDayOfWeek())
-                    .append("startTime", ts.getStartTime())
-                    .append("endTime", ts.getEndTime())
-                    .append("room", ts.getRoom());
-            timeSlotDocs.add(tsDoc);
-        }
-        doc.append("timeSlots", timeSlotDocs);
-
-        return doc;
-    }
-
-    private Course documentToCourse(Document doc) {
-        Course course = new Course();
-        course.setId(doc.getObjectId("_id"));
-        course.setCourseId(doc.getString("courseId"));
-        course.setCourseName(doc.getString("courseName"));
-        course.setCourseCode(doc.getString("courseCode"));
-        course.setCredits(doc.getInteger("credits", 0));
-        course.setDescription(doc.getString("description"));
-        course.setProfessorId(doc.getString("professorId"));
-        course.setProfessorName(doc.getString("professorName"));
-        course.setMaxStudents(doc.getInteger("maxStudents", 0));
-        course.setEnrolledStudents(doc.getInteger("enrolledStudents", 0));
-        course.setSemester(doc.getString("semester"));
-        course.setActive(doc.getBoolean("active", true));
-
-        List<Document> timeSlotDocs = doc.getList("timeSlots", Document.class, new ArrayList<>());
-        List<TimeSlot> timeSlots = new ArrayList<>();
-        for (Document tsDoc : timeSlotDocs) {
-            TimeSlot ts = new TimeSlot();
-            ts.setDayOfWeek(tsDoc.getString("dayOfWeek"));
-            ts.setStartTime(tsDoc.getString("startTime"));
-            ts.setEndTime(tsDoc.getString("endTime"));
-            ts.setRoom(tsDoc.getString("room"));
-            timeSlots.add(ts);
-        }
-        course.setTimeSlots(timeSlots);
+    private CourseDTO adjustSeats(Bson filter, int delta) {
+        long revision = revisions.reserve(1);
+        try {
+            return dtos.findOneAndUpdate(filter,
+                    Updates.combine(
+                            Updates.inc("enrolledStudents", delta),
+                            Updates.inc("version", 1L),
+                            Updates.set("revision", revision),
+                            Updates.set("lastModified", new Date())),
+                    new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        } finally {
+            revisions.release(revision);
+        }
+    }
 
-        return course;
+    /**
+     * Sets the enrolled count of many courses in a single unordered bulk write. Used by
+     * surge mode with counts taken from the enrollments collection, so writing the same
+     * counts again, after a failure, changes nothing: courses already at their count are
+     * left alone and keep their version.
+     */
+    public void setEnrollmentCounts(Map<ObjectId, Integer> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        long first = revisions.reserve(counts.size());
+        try {
+            Date now = new Date();
+            List<WriteModel<Course>> writes = new ArrayList<>(counts.size());
+            for (Map.Entry<ObjectId, Integer> count : counts.entrySet()) {
+                writes.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", count.getKey()), Filters.ne("enrolledStudents", count.getValue())),
+                        Updates.combine(
+                                Updates.set("enrolledStudents", count.getValue()),
+                                Updates.inc("version", 1L),
+                                Updates.set("revision", first + writes.size()),
+                                Updates.set("lastModified", now))));
+            }
+            courses.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } finally {
+            revisions.release(first);
+        }
+    }
+
+    private void writeTombstone(String id, String courseId, long revision, String reason) {
+        tombstones.replaceOne(Filters.eq("_id", new ObjectId(id)),
+                new Document("courseId", courseId)
+                        .append("revision", revision)
+                        .append("removedAt", new Date())
+                        .append("reason", reason),
+                new ReplaceOptions().upsert(true));
+    }
+
+    /**
+     * Moves every course of the semester from courses to courses_archive, batchSize at a
+     * time: each batch is copied (as upserts, so an interrupted run can simply be repeated),
+     * then deleted from courses and tombstoned with reason "archived" for delta readers.
+     * The semester must have been marked with {@link #markArchiving} first; it is marked
+     * archived after the last batch. Callers must keep writes to the semester out while this runs.
+     *
+     * Returns the ids of the courses moved by this call.
+     */
+    public List<String> archiveSemester(String semester, int batchSize) {
+        List<String> moved = new ArrayList<>();
+        while (true) {
+            List<Document> batch = collection.find(Filters.eq("semester", semester))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<WriteModel<Document>> copies = new ArrayList<>(batch.size());
+            List<ObjectId> ids = new ArrayList<>(batch.size());
+            for (Document course : batch) {
+                copies.add(new ReplaceOneModel<>(Filters.eq("_id", course.get("_id")), course,
+                        new ReplaceOptions().upsert(true)));
+                ids.add(course.getObjectId("_id"));
+            }
+            archive.bulkWrite(copies, new BulkWriteOptions().ordered(false));
+
+            long first = revisions.reserve(batch.size());
+            try {
+                collection.deleteMany(Filters.in("_id", ids));
+                List<WriteModel<Document>> removed = new ArrayList<>(batch.size());
+                Date now = new Date();
+                for (Document course : batch) {
+                    removed.add(new ReplaceOneModel<>(Filters.eq("_id", course.get("_id")),
+                            new Document("courseId", course.getString("courseId"))
+                                    .append("revision", first + removed.size())
+                                    .append("removedAt", now)
+                                    .append("reason", "archived"),
+                            new ReplaceOptions().upsert(true)));
+                }
+                tombstones.bulkWrite(removed, new BulkWriteOptions().ordered(false));
+            } finally {
+                revisions.release(first);
+            }
+            ids.forEach(id -> moved.add(id.toHexString()));
+        }
+
+        archivedSemesters.updateOne(Filters.eq("_id", semester), Updates.combine(
+                Updates.set("state", ARCHIVED),
+                Updates.set("archivedAt", new Date()),
+                Updates.inc("courseCount", moved.size())),
+                // Upserted in case another instance took back its mark after this one started
+                new UpdateOptions().upsert(true));
+        return moved;
+    }
+
+    /**
+     * Marks the semester archiving, which makes it read-only, unless it already is.
+     * Returns whether this call set the mark.
+     */
+    public boolean markArchiving(String semester) {
+        return archivedSemesters.updateOne(Filters.eq("_id", semester),
+                Updates.combine(Updates.setOnInsert("state", ARCHIVING), Updates.setOnInsert("courseCount", 0)),
+                new UpdateOptions().upsert(true)).getUpsertedId() != null;
+    }
+
+    /**
+     * Removes an archiving mark set by {@link #markArchiving} before any course was moved,
+     * so the semester takes writes again. A semester already archived keeps its mark.
+     */
+    public void unmarkArchiving(String semester) {
+        archivedSemesters.deleteOne(Filters.and(Filters.eq("_id", semester), Filters.eq("state", ARCHIVING)));
+    }
+
+    public long countActive(String semester) {
+        return collection.countDocuments(Filters.and(Filters.eq("semester", semester), Filters.eq("active", true)));
+    }
+
+    /**
+     * State of every semester archived or being archived, by semester.
+     */
+    public Map<String, String> findArchivedSemesters() {
+        Map<String, String> semesters = new HashMap<>();
+        archivedSemesters.find().forEach(doc -> semesters.put(doc.getString("_id"), doc.getString("state")));
+        return semesters;
+    }
+
+    public List<CourseDTO> findArchivedDTOs(String semester) {
+        return readDTOs("archive", archiveDtos.find(Filters.eq("semester", semester)).sort(Sorts.ascending("_id")));
+    }
+
+    public CourseDTO findArchivedDTOById(String id) {
+        if (!ObjectId.isValid(id)) {
+            return null;
+        }
+        return archiveDtos.find(Filters.eq("_id", new ObjectId(id))).first();
+    }
+
+    // courseIds may be reused once a semester is archived: the latest course wins
+    public CourseDTO findArchivedDTOByCourseId(String courseId) {
+        return archivedByCourseIdQuery(archiveDtos, courseId).first();
+    }
+
+    private static <T> FindIterable<T> archivedByCourseIdQuery(MongoCollection<T> from, String courseId) {
+        return from.find(Filters.eq("courseId", courseId)).sort(Sorts.descending("_id"));
+    }
+
+    /**
+     * The courses {@link #rolloverSemester} would create, read from the primary: _id is the
+     * source course's, courseId and semester are rewritten, and only courseId, semester,
+     * active, professorId and timeSlots are loaded.
+     */
+    public List<CourseDTO> previewRollover(String from, String to, boolean fromArchive, boolean keepTimeSlots,
+            boolean keepProfessors) {
+        List<Bson> pipeline = rolloverStages(from, to, keepTimeSlots, keepProfessors);
+        pipeline.add(Aggregates.project(Projections.include("courseId", "semester", "active", "professorId",
+                "timeSlots")));
+        return readDTOs("previewRollover", (fromArchive ? archive : collection).aggregate(pipeline, CourseDTO.class));
+    }
+
+    /**
+     * Copies every course of semester from (in courses_archive when fromArchive) into semester
+     * to with a single aggregation ending in $merge, so no course leaves the server. Copies
+     * get a new _id, no enrolled students, version 0 and one shared revision; they are active
+     * only if their source _id is in activeIds. Prerequisites naming a course of the source
+     * semester follow its courseId rewrite. A copy whose courseId is already taken is not
+     * written ($merge on the unique courseId index keeps the existing course).
+     *
+     * Returns the courses created.
+     */
+    public List<Course> rolloverSemester(String from, String to, boolean fromArchive, boolean keepTimeSlots,
+            boolean keepProfessors, Collection<String> activeIds) {
+        MongoCollection<Document> source = fromArchive ? archive : collection;
+        List<String> sourceCourseIds = source.distinct("courseId", Filters.eq("semester", from), String.class)
+                .into(new ArrayList<>());
+        List<ObjectId> active = activeIds.stream().map(ObjectId::new).toList();
+
+        long revision = revisions.reserve(1);
+        try {
+            List<Bson> pipeline = rolloverStages(from, to, keepTimeSlots, keepProfessors);
+            pipeline.add(Aggregates.set(
+                    new Field<>("prerequisites", new Document("$map", new Document("input",
+                            new Document("$ifNull", List.of("$prerequisites", List.of())))
+                            .append("as", "p")
+                            .append("in", new Document("$cond", List.of(
+                                    new Document("$in", List.of("$$p", new Document("$literal", sourceCourseIds))),
+                                    rolloverCourseId("$$p", from, to),
+                                    "$$p"))))),
+                    new Field<>("active", new Document("$in", List.of("$_id", new Document("$literal", active)))),
+                    new Field<>("enrolledStudents", 0),
+                    new Field<>("version", 0L),
+                    new Field<>("revision", revision),
+                    new Field<>("lastModified", "$$NOW")));
+            // Without an _id, $merge inserts each copy with a new one
+            pipeline.add(Aggregates.unset("_id"));
+            pipeline.add(Aggregates.merge("courses", new MergeOptions()
+                    .uniqueIdentifier("courseId")
+                    .whenMatched(MergeOptions.WhenMatched.KEEP_EXISTING)
+                    .whenNotMatched(MergeOptions.WhenNotMatched.INSERT)));
+            source.aggregate(pipeline).toCollection();
+        } finally {
+            revisions.release(revision);
+        }
+
+        return courses.find(Filters.and(Filters.eq("semester", to), Filters.eq("revision", revision)))
+                .into(new ArrayList<>());
+    }
+
+    private static List<Bson> rolloverStages(String from, String to, boolean keepTimeSlots, boolean keepProfessors) {
+        List<Bson> stages = new ArrayList<>();
+        stages.add(Aggregates.match(Filters.eq("semester", from)));
+        stages.add(Aggregates.set(
+                new Field<>("courseId", rolloverCourseId("$courseId", from, to)),
+                new Field<>("semester", new Document("$literal", to))));
+        if (!keepTimeSlots) {
+            stages.add(Aggregates.set(new Field<>("timeSlots", new Document("$literal", List.of()))));
+        }
+        if (!keepProfessors) {
+            stages.add(Aggregates.unset("professorId", "professorName"));
+        }
+        return stages;
+    }
+
+    // The source semester in a courseId is replaced by the target one, otherwise "-<to>" is appended
+    private static Document rolloverCourseId(String courseId, String from, String to) {
+        Document fromLiteral = new Document("$literal", from);
+        return new Document("$cond", List.of(
+                new Document("$gte", List.of(new Document("$indexOfCP", List.of(courseId, fromLiteral)), 0)),
+                new Document("$replaceOne", new Document("input", courseId)
+                        .append("find", fromLiteral)
+                        .append("replacement", new Document("$literal", to))),
+                new Document("$concat", List.of(courseId, new Document("$literal", "-" + to)))));
+    }
+
+    /**
+     * Revision up to which every course write has completed; delta reads stop there.
+     */
+    public long getRevisionHighWaterMark() {
+        return revisions.highWaterMark();
+    }
+
+    /**
+     * Lowest sinceRevision a delta read can answer: older tombstones may have expired
+     * (delta.tombstoneRetentionDays), so readers further behind must start over from 0.
+     */
+    public long getOldestDeltaRevision() {
+        return revisions.oldestCompleteSince();
+    }
+
+    /**
+     * Active courses written after sinceRevision, up to and including upToRevision, in revision order.
+     * With sinceRevision 0 this includes courses written before revisions were introduced.
+     */
+    public List<CourseDTO> findChangedSince(long sinceRevision, long upToRevision) {
+        return readDTOs("findChangedSince", changedSinceQuery(dtos, sinceRevision, upToRevision));
+    }
+
+    private static <T> FindIterable<T> changedSinceQuery(MongoCollection<T> from, long sinceRevision,
+            long upToRevision) {
+        Bson upTo = Filters.lte("revision", upToRevision);
+        Bson revision = sinceRevision <= 0
+                ? Filters.or(upTo, Filters.eq("revision", null))
+                : Filters.and(Filters.gt("revision", sinceRevision), upTo);
+        return from.find(Filters.and(revision, Filters.eq("active", true)))
+                .sort(Sorts.ascending("revision"));
+    }
+
+    /**
+     * Courses deleted or deactivated after sinceRevision, up to and including upToRevision.
+     */
+    public List<CourseTombstoneDTO> findRemovedSince(long sinceRevision, long upToRevision) {
+        List<CourseTombstoneDTO> removed = new ArrayList<>();
+        removedSinceQuery(sinceRevision, upToRevision).forEach(doc -> removed.add(new CourseTombstoneDTO(
+                        doc.getObjectId("_id").toHexString(),
+                        doc.getString("courseId"),
+                        ((Number) doc.get("revision")).longValue(),
+                        doc.getDate("removedAt"),
+                        doc.getString("reason"))));
+        return removed;
+    }
+
+    private FindIterable<Document> removedSinceQuery(long sinceRevision, long upToRevision) {
+        return tombstones.find(Filters.and(Filters.gt("revision", sinceRevision), Filters.lte("revision", upToRevision)))
+                .sort(Sorts.ascending("revision"));
+    }
+
+    /**
+     * All writable fields of a course, for a full update through {@link #updateFields}.
+     * enrolledStudents is left out: only {@link #reserveSeat}, {@link #releaseSeat} and
+     * {@link #setEnrollmentCounts} change it, so an update never overwrites a seat taken meanwhile.
+     */
+    public static Map<String, Object> fieldsOf(Course course) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("courseId", course.getCourseId());
+        fields.put("courseName", course.getCourseName());
+        fields.put("courseCode", course.getCourseCode());
+        fields.put("credits", course.getCredits());
+        fields.put("description", course.getDescription());
+        fields.put("professorId", course.getProfessorId());
+        fields.put("professorName", course.getProfessorName());
+        fields.put("timeSlots", course.getTimeSlots());
+        fields.put("prerequisites", course.getPrerequisites());
+        fields.put("maxStudents", course.getMaxStudents());
+        fields.put("semester", course.getSemester());
+        fields.put("active", course.isActive());
+        return fields;
+    }
+
+    // Documents written before versioning have no version field and count as version 0
+    private static Bson versionFilter(ObjectId id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Filters.eq("_id", id);
+        }
+        Bson version = expectedVersion == 0
+                ? Filters.or(Filters.eq("version", 0L), Filters.exists("version", false))
+                : Filters.eq("version", expectedVersion);
+        return Filters.and(Filters.eq("_id", id), version);
+    }
+
+    public List<CourseDTO> findDTOsByCourseIds(Collection<String> courseIds) {
+        return readDTOs("findByCourseIds", catalogDtos.find(Filters.in("courseId", courseIds)));
+    }
+
+    public List<CourseDTO> findDTOsByIds(Collection<ObjectId> ids) {
+        return readDTOs("findByIds", dtos.find(Filters.in("_id", ids)));
+    }
+
+    /**
+     * Change stream over the collection, with full documents decoded as CourseDTO.
+     */
+    public ChangeStreamIterable<CourseDTO> watch() {
+        return dtos.watch();
+    }
+
+    public Set<String> findExistingCourseIds(Collection<String> courseIds) {
+        Set<String> existing = new HashSet<>();
+        collection.find(Filters.in("courseId", courseIds))
+                .projection(Projections.include("courseId"))
+                .forEach(doc -> existing.add(doc.getString("courseId")));
+        return existing;
+    }
+
+    public Set<ObjectId> findExistingIds(Collection<ObjectId> ids) {
+        Set<ObjectId> existing = new HashSet<>();
+        collection.find(Filters.in("_id", ids))
+                .projection(Projections.include("_id"))
+                .forEach(doc -> existing.add(doc.getObjectId("_id")));
+        return existing;
+    }
+
+    /**
+     * Inserts all courses in a single unordered bulk write.
+     * Returns the error message for each position in the list that was not inserted.
+     */
+    public Map<Integer, String> insertAll(List<Course> toInsert) {
+        if (toInsert.isEmpty()) {
+            return new HashMap<>();
+        }
+        long first = revisions.reserve(toInsert.size());
+        try {
+            Date now = new Date();
+            List<WriteModel<Course>> writes = new ArrayList<>(toInsert.size());
+            for (int i = 0; i < toInsert.size(); i++) {
+                Course course = toInsert.get(i);
+                course.setVersion(0);
+                course.setRevision(first + i);
+                course.setLastModified(now);
+                writes.add(new InsertOneModel<>(course));
+            }
+            return bulkWrite(writes, toInsert);
+        } finally {
+            revisions.release(first);
+        }
+    }
+
+    /**
+     * Updates all courses (matched by their id and, where given, the expected version at the
+     * same position) in a single unordered bulk write, bumping each version. Returns the error
+     * message for each position in the list that was not written, including courses that were
+     * modified or removed concurrently.
+     */
+    public Map<Integer, String> updateAll(List<Course> toUpdate, List<Long> expectedVersions) {
+        if (toUpdate.isEmpty()) {
+            return new HashMap<>();
+        }
+        long first = revisions.reserve(toUpdate.size());
+        try {
+            Date now = new Date();
+            List<WriteModel<Course>> writes = new ArrayList<>(toUpdate.size());
+            for (int i = 0; i < toUpdate.size(); i++) {
+                Course course = toUpdate.get(i);
+                List<Bson> updates = new ArrayList<>();
+                fieldsOf(course).forEach((field, value) -> updates.add(Updates.set(field, value)));
+                updates.add(Updates.inc("version", 1L));
+                updates.add(Updates.set("revision", first + i));
+                updates.add(Updates.set("lastModified", now));
+                writes.add(new UpdateOneModel<>(versionFilter(course.getId(), expectedVersions.get(i)),
+                        Updates.combine(updates)));
+            }
+
+            Map<Integer, String> errors = new HashMap<>();
+            int matched;
+            try {
+                matched = courses.bulkWrite(writes, new BulkWriteOptions().ordered(false)).getMatchedCount();
+            } catch (MongoBulkWriteException e) {
+                errors.putAll(writeErrors(e, toUpdate));
+                matched = e.getWriteResult().getMatchedCount();
+            }
+            if (matched < toUpdate.size() - errors.size()) {
+                errors.putAll(unmatched(toUpdate, expectedVersions, first, errors));
+            }
+            for (int i = 0; i < toUpdate.size(); i++) {
+                Course course = toUpdate.get(i);
+                if (!course.isActive() && !errors.containsKey(i)) {
+                    writeTombstone(course.getId().toHexString(), course.getCourseId(), first + i, "deactivated");
+                }
+            }
+            return errors;
+        } finally {
+            revisions.release(first);
+        }
+    }
+
+    /**
+     * Sets the time slots of many courses in a single unordered bulk write, bumping each version.
+     * A course is only written while it is still active, in the semester and at the version
+     * given for it. Returns the courses as stored afterwards; removed courses are missing.
+     */
+    public List<Course> updateTimeSlots(String semester, Map<ObjectId, List<TimeSlot>> timeSlots,
+                                        Map<ObjectId, Long> expectedVersions) {
+        if (timeSlots.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long first = revisions.reserve(timeSlots.size());
+        try {
+            Date now = new Date();
+            List<WriteModel<Course>> writes = new ArrayList<>(timeSlots.size());
+            for (Map.Entry<ObjectId, List<TimeSlot>> entry : timeSlots.entrySet()) {
+                writes.add(new UpdateOneModel<>(
+                        Filters.and(versionFilter(entry.getKey(), expectedVersions.get(entry.getKey())),
+                                Filters.eq("active", true), Filters.eq("semester", semester)),
+                        Updates.combine(
+                                Updates.set("timeSlots", entry.getValue()),
+                                Updates.inc("version", 1L),
+                                Updates.set("revision", first + writes.size()),
+                                Updates.set("lastModified", now))));
+            }
+            courses.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            return courses.find(Filters.in("_id", timeSlots.keySet())).into(new ArrayList<>());
+        } finally {
+            revisions.release(first);
+        }
+    }
+
+    private Map<Integer, String> bulkWrite(List<WriteModel<Course>> writes, List<Course> targets) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (writes.isEmpty()) {
+            return errors;
+        }
+
+        try {
+            courses.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            errors.putAll(writeErrors(e, targets));
+        }
+        return errors;
+    }
+
+    private static Map<Integer, String> writeErrors(MongoBulkWriteException e, List<Course> targets) {
+        Map<Integer, String> errors = new HashMap<>();
+        for (BulkWriteError error : e.getWriteErrors()) {
+            String message = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                    ? "Course with courseId " + targets.get(error.getIndex()).getCourseId() + " already exists"
+                    : error.getMessage();
+            errors.put(error.getIndex(), message);
+        }
+        return errors;
+    }
+
+    // Each update stamps its own revision, so a course that does not carry it was not matched:
+    // it was removed, or its version moved on since the caller read it
+    private Map<Integer, String> unmatched(List<Course> toUpdate, List<Long> expectedVersions, long first,
+                                           Map<Integer, String> errors) {
+        Map<ObjectId, Long> revisionsById = new HashMap<>();
+        List<ObjectId> ids = new ArrayList<>(toUpdate.size());
+        toUpdate.forEach(course -> ids.add(course.getId()));
+        collection.find(Filters.in("_id", ids))
+                .projection(Projections.include("revision"))
+                .forEach(doc -> revisionsById.put(doc.getObjectId("_id"), doc.getLong("revision")));
+
+        Map<Integer, String> unmatched = new HashMap<>();
+        for (int i = 0; i < toUpdate.size(); i++) {
+            if (errors.containsKey(i)) {
+                continue;
+            }
+            ObjectId id = toUpdate.get(i).getId();
+            Long revision = revisionsById.get(id);
+            if (revision == null) {
+                unmatched.put(i, "Course not found with id: " + id.toHexString());
+            } else if (revision != first + i) {
+                unmatched.put(i, "Course " + id.toHexString() + " was modified concurrently, expected version "
+                        + expectedVersions.get(i));
+            }
+        }
+        return unmatched;
     }
 }
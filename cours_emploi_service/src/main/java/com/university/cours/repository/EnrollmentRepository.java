@@ -0,0 +1,143 @@
+package com.university.cours.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.WriteModel;
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.enrollment.EnrollmentChange;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Who is enrolled in which course, one document per student and course:
+ * { courseId (course _id as hex), student (email), enrolledAt }.
+ */
+public class EnrollmentRepository {
+    private final MongoCollection<Document> collection;
+
+    public EnrollmentRepository() {
+        MongoDatabase database = MongoDBConfig.getDatabase();
+        this.collection = database.getCollection("enrollments");
+        collection.createIndex(Indexes.ascending("courseId", "student"),
+                new IndexOptions().name("courseId_student_unique").unique(true));
+    }
+
+    public boolean exists(String courseId, String student) {
+        return collection.countDocuments(key(courseId, student)) > 0;
+    }
+
+    /**
+     * Returns false if the student was already enrolled.
+     */
+    public boolean insert(String courseId, String student) {
+        try {
+            collection.insertOne(document(courseId, student, new Date()));
+            return true;
+        } catch (MongoException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public boolean delete(String courseId, String student) {
+        return collection.deleteOne(key(courseId, student)).getDeletedCount() > 0;
+    }
+
+    public Set<String> findStudents(String courseId) {
+        Set<String> students = new HashSet<>();
+        collection.find(Filters.eq("courseId", courseId))
+                .projection(Projections.include("student"))
+                .forEach(doc -> students.add(doc.getString("student")));
+        return students;
+    }
+
+    /**
+     * Number of students enrolled in each of the courses, 0 for courses nobody is enrolled in.
+     */
+    public Map<String, Integer> countStudents(Collection<String> courseIds) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String courseId : courseIds) {
+            counts.put(courseId, 0);
+        }
+        collection.aggregate(List.of(
+                        Aggregates.match(Filters.in("courseId", courseIds)),
+                        Aggregates.group("$courseId", Accumulators.sum("count", 1))))
+                .forEach(doc -> counts.put(doc.getString("_id"), doc.getInteger("count")));
+        return counts;
+    }
+
+    /**
+     * Writes a batch of enrollment changes in one unordered bulk write. Each student must
+     * appear at most once per batch. Enrollments that already exist, and removals of ones
+     * that do not, are ignored, so a batch may be written again.
+     */
+    public void applyChanges(List<EnrollmentChange> changes) {
+        Date now = new Date();
+        List<WriteModel<Document>> writes = new ArrayList<>(changes.size());
+        for (EnrollmentChange change : changes) {
+            writes.add(change.enroll()
+                    ? new InsertOneModel<>(document(change.courseId(), change.student(), now))
+                    : new DeleteOneModel<>(key(change.courseId(), change.student())));
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Every filtered query the repository runs, by name, for explain().
+     */
+    Map<String, FindIterable<Document>> queryShapes() {
+        Map<String, FindIterable<Document>> queries = new LinkedHashMap<>();
+        queries.put("exists, delete, applyChanges", collection.find(key("", "")));
+        queries.put("findStudents", collection.find(Filters.eq("courseId", "")));
+        queries.put("countStudents", collection.find(Filters.in("courseId", "", "x")));
+        return queries;
+    }
+
+    private static Bson key(String courseId, String student) {
+        return Filters.and(Filters.eq("courseId", courseId), Filters.eq("student", student));
+    }
+
+    private static Document document(String courseId, String student, Date enrolledAt) {
+        return new Document("courseId", courseId)
+                .append("student", student)
+                .append("enrolledAt", enrolledAt);
+    }
+}
@@ -0,0 +1,12 @@
+package com.university.cours.repository;
+
+/**
+ * The course or semester a request names does not exist.
+ */
+public class NotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
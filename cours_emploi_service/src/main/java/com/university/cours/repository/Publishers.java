@@ -0,0 +1,53 @@
+package com.university.cours.repository;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bridges reactive-streams publishers from the MongoDB driver to CompletableFutures.
+ */
+final class Publishers {
+
+    private Publishers() {
+    }
+
+    static <T> CompletableFuture<List<T>> toList(Publisher<T> publisher) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        publisher.subscribe(new Subscriber<T>() {
+            private final List<T> items = new ArrayList<>();
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                result.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(items);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * First item, or null when the publisher completes empty.
+     */
+    static <T> CompletableFuture<T> first(Publisher<T> publisher) {
+        return toList(publisher).thenApply(items -> items.isEmpty() ? null : items.get(0));
+    }
+}
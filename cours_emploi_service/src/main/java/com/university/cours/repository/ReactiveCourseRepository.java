@@ -0,0 +1,65 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.dto.CourseDTO;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only course queries on the reactive-streams driver. Nothing here blocks:
+ * each method returns at once and completes on a driver thread. Reads follow the
+ * catalog read preference, so they may be served by a secondary.
+ */
+public class ReactiveCourseRepository {
+    private final MongoCollection<CourseDTO> dtos;
+    private final MongoCollection<CourseDTO> archiveDtos;
+
+    public ReactiveCourseRepository() {
+        this.dtos = MongoDBConfig.getReactiveDatabase().getCollection("courses", CourseDTO.class)
+                .withReadPreference(MongoDBConfig.getCatalogReadPreference());
+        this.archiveDtos = MongoDBConfig.getReactiveDatabase().getCollection("courses_archive", CourseDTO.class)
+                .withReadPreference(MongoDBConfig.getCatalogReadPreference());
+    }
+
+    public CompletableFuture<List<CourseDTO>> findAllDTOs() {
+        return Publishers.toList(dtos.find());
+    }
+
+    public CompletableFuture<List<CourseDTO>> findActiveDTOs() {
+        return Publishers.toList(dtos.find(Filters.eq("active", true)));
+    }
+
+    /**
+     * Completes with null when no course has this id, including ids that are not valid ObjectIds.
+     */
+    public CompletableFuture<CourseDTO> findDTOById(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return Publishers.first(dtos.find(Filters.eq("_id", new ObjectId(id))).first());
+    }
+
+    public CompletableFuture<CourseDTO> findDTOByCourseId(String courseId) {
+        return Publishers.first(dtos.find(Filters.eq("courseId", courseId)).first());
+    }
+
+    /**
+     * Same as {@link CourseRepository#findArchivedDTOById}.
+     */
+    public CompletableFuture<CourseDTO> findArchivedDTOById(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return Publishers.first(archiveDtos.find(Filters.eq("_id", new ObjectId(id))).first());
+    }
+
+    public CompletableFuture<CourseDTO> findArchivedDTOByCourseId(String courseId) {
+        return Publishers.first(archiveDtos.find(Filters.eq("courseId", courseId))
+                .sort(Sorts.descending("_id")).first());
+    }
+}
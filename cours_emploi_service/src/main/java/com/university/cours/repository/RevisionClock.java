@@ -0,0 +1,200 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out the catalog-wide revision numbers stamped on every course write,
+ * from a counter document so they keep increasing across restarts.
+ *
+ * Revisions are leased from the counter in blocks of leaseSize, so most writes take
+ * their revision from memory. A lease is only used for leaseMillis; revisions left over
+ * when it runs out or expires are skipped.
+ *
+ * A revision is visible to delta readers only once every write holding a lower
+ * revision has finished, so a reader never skips past a write still in flight, whichever
+ * instance makes it. Each instance keeps one document in revision_leases with the lowest
+ * revision it may still write, published before it takes a lease and refreshed every
+ * leaseMillis / 3 while it has a lease or a write in flight. The document expires (on the
+ * server's clock) leaseMillis after its last refresh, so an instance that died stops
+ * holding readers back.
+ *
+ * Every lease is also noted in revision_checkpoints by hour, which tells how old a
+ * revision is once the tombstones written before it may have expired.
+ */
+class RevisionClock {
+    private static final String COUNTER_ID = "courseRevision";
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final MongoCollection<Document> counters;
+    // _id (instance), low (lowest revision it may still write), expiresAt
+    private final MongoCollection<Document> leases;
+    // _id (hours since the epoch), at (start of the hour), first (lowest revision leased in it)
+    private final MongoCollection<Document> checkpoints;
+    private final int leaseSize;
+    private final long leaseMillis;
+    private final long retentionMillis;
+    private final String instance = UUID.randomUUID().toString();
+    // First revision of each reserved block whose write has not finished yet
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    // The lease being handed out: next revision, last one (0 before the first lease) and expiry
+    private long next = 1;
+    private long leaseEnd;
+    private long leaseExpiresAt;
+    private boolean published;
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * @param retentionMillis how long tombstones are kept, 0 for ever
+     */
+    RevisionClock(MongoDatabase database, int leaseSize, long leaseMillis, long retentionMillis) {
+        this.counters = database.getCollection("counters");
+        this.leases = database.getCollection("revision_leases");
+        this.checkpoints = database.getCollection("revision_checkpoints");
+        this.leaseSize = leaseSize;
+        this.leaseMillis = leaseMillis;
+        this.retentionMillis = retentionMillis;
+        leases.createIndex(Indexes.ascending("expiresAt"),
+                new IndexOptions().name("expiresAt_ttl").expireAfter(0L, TimeUnit.SECONDS));
+        // Kept a day longer than the tombstones, so the hour at the cutoff is still known
+        CourseRepository.ensureTtlIndex(checkpoints, "at",
+                retentionMillis > 0 ? TimeUnit.MILLISECONDS.toSeconds(retentionMillis) + 86_400 : 0);
+    }
+
+    /**
+     * Reserves count consecutive revisions and returns the first one.
+     * The caller must pass it to {@link #release} once the write is done.
+     */
+    synchronized long reserve(int count) {
+        if (next + count - 1 > leaseEnd || System.currentTimeMillis() >= leaseExpiresAt) {
+            lease(Math.max(count, leaseSize));
+        }
+        long first = next;
+        next += count;
+        inFlight.add(first);
+        return first;
+    }
+
+    synchronized void release(long first) {
+        inFlight.remove(first);
+    }
+
+    /**
+     * Highest revision below which every write has completed, in this instance and in
+     * every other one with a live lease document. Only reads MongoDB.
+     */
+    long highWaterMark() {
+        // The counter first: a lease taken after this read lies above it, and one taken
+        // before it was published before the counter moved, so the read below sees it
+        long mark = issued();
+        for (Document lease : leases.find(Filters.and(Filters.ne("_id", instance),
+                Filters.expr(new Document("$gt", List.of("$expiresAt", "$$NOW")))))) {
+            mark = Math.min(mark, ((Number) lease.get("low")).longValue() - 1);
+        }
+        synchronized (this) {
+            Long low = lowestUnfinished();
+            return low != null ? Math.min(mark, low - 1) : mark;
+        }
+    }
+
+    /**
+     * Lowest sinceRevision whose tombstones are all still kept: revisions leased before
+     * the retention cutoff (with an hour to spare for clock differences) may have lost theirs.
+     */
+    long oldestCompleteSince() {
+        if (retentionMillis <= 0) {
+            return 0;
+        }
+        Document first = checkpoints.find(Filters.gte("at",
+                        new Date(System.currentTimeMillis() - retentionMillis + HOUR)))
+                .sort(Sorts.ascending("first"))
+                .first();
+        // No lease since the cutoff: every revision issued so far is older than that
+        return first != null ? ((Number) first.get("first")).longValue() - 1 : issued();
+    }
+
+    private long issued() {
+        // Revisions leased but never used are gaps, so the whole counter can be counted as issued
+        Document counter = counters.find(Filters.eq("_id", COUNTER_ID)).first();
+        return counter != null ? ((Number) counter.get("seq")).longValue() : 0;
+    }
+
+    private void lease(int count) {
+        // Every revision of the next block is above what the counter held at the last lease
+        publish(inFlight.isEmpty() ? leaseEnd + 1 : Math.min(inFlight.first(), leaseEnd + 1));
+        Document previous = counters.findOneAndUpdate(Filters.eq("_id", COUNTER_ID),
+                Updates.inc("seq", (long) count),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.BEFORE));
+        long last = previous != null ? ((Number) previous.get("seq")).longValue() : 0;
+        next = last + 1;
+        leaseEnd = last + count;
+        leaseExpiresAt = System.currentTimeMillis() + leaseMillis;
+        publish(lowestUnfinished());
+
+        long hour = System.currentTimeMillis() / HOUR;
+        checkpoints.updateOne(Filters.eq("_id", hour),
+                Updates.combine(Updates.min("first", next), Updates.setOnInsert("at", new Date(hour * HOUR))),
+                new UpdateOptions().upsert(true));
+        if (heartbeat == null) {
+            heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "revision-lease");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, leaseMillis / 3);
+            heartbeat.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Under the lock, so a stale refresh cannot land after a newer publish
+    private synchronized void refresh() {
+        try {
+            publish(lowestUnfinished());
+        } catch (RuntimeException e) {
+            System.err.println("Could not refresh revision lease: " + e.getMessage());
+        }
+    }
+
+    // The lowest revision this instance may still write: one in flight or the rest of a live lease
+    private Long lowestUnfinished() {
+        Long low = inFlight.isEmpty() ? null : inFlight.first();
+        if (next <= leaseEnd && System.currentTimeMillis() < leaseExpiresAt) {
+            low = low == null ? next : Math.min(low, next);
+        }
+        return low;
+    }
+
+    private void publish(Long low) {
+        if (low == null) {
+            if (published) {
+                leases.deleteOne(Filters.eq("_id", instance));
+                published = false;
+            }
+            return;
+        }
+        leases.updateOne(Filters.eq("_id", instance), List.of(Aggregates.set(
+                        new Field<>("low", low),
+                        new Field<>("expiresAt", new Document("$add", List.of("$$NOW", leaseMillis))))),
+                new UpdateOptions().upsert(true));
+        published = true;
+    }
+}
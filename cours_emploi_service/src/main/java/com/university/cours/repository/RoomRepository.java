@@ -0,0 +1,28 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.model.Room;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RoomRepository {
+    private final MongoCollection<Document> collection;
+
+    public RoomRepository() {
+        MongoDatabase database = MongoDBConfig.getDatabase();
+        this.collection = database.getCollection("rooms");
+    }
+
+    public List<Room> findAll() {
+        List<Room> rooms = new ArrayList<>();
+        collection.find().forEach(doc -> {
+            Object capacity = doc.get("capacity");
+            rooms.add(new Room(doc.getString("name"), capacity instanceof Number n ? n.intValue() : 0));
+        });
+        return rooms;
+    }
+}
@@ -0,0 +1,91 @@
+package com.university.cours.schedule;
+
+import com.university.cours.model.Course;
+import com.university.cours.model.Room;
+import com.university.cours.repository.ConflictException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the occupancy index in step with course writes and rejects writes that would
+ * double-book a room or a professor.
+ *
+ * Writes that change the schedule run through {@link #write}, which serializes the
+ * check, the Mongo write and the index update so two admins cannot take the same slot.
+ * Only active courses occupy rooms and professors, and only in their own semester.
+ */
+public class CourseSchedule {
+    private final OccupancyIndex index = new OccupancyIndex();
+    private final boolean enforced;
+    private final Object writeLock = new Object();
+
+    public CourseSchedule(boolean enforced) {
+        this.enforced = enforced;
+    }
+
+    public void load(List<Room> rooms, List<Course> activeCourses) {
+        index.setRooms(rooms);
+        for (Course course : activeCourses) {
+            book(course);
+        }
+    }
+
+    public <T> T write(Supplier<T> action) {
+        synchronized (writeLock) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Returns the reasons the course cannot be scheduled as is, empty when it fits
+     * or when conflict checks are disabled.
+     */
+    public List<String> conflicts(Course course) {
+        if (!enforced || !course.isActive()) {
+            return List.of();
+        }
+        try {
+            return index.findConflicts(course.getSemester(), key(course), course.getProfessorId(),
+                    course.getTimeSlots());
+        } catch (IllegalArgumentException e) {
+            return List.of(e.getMessage());
+        }
+    }
+
+    public void check(Course course) {
+        List<String> conflicts = conflicts(course);
+        if (!conflicts.isEmpty()) {
+            throw new ConflictException("Schedule conflict: " + String.join("; ", conflicts));
+        }
+    }
+
+    /**
+     * Records the course's current slots, or drops them if it is no longer active.
+     */
+    public void book(Course course) {
+        if (course.getId() == null) {
+            return;
+        }
+        if (course.isActive()) {
+            index.put(course.getSemester(), key(course), course.getCourseId(), course.getProfessorId(),
+                    course.getTimeSlots());
+        } else {
+            index.remove(key(course));
+        }
+    }
+
+    public void release(String id) {
+        index.remove(id);
+    }
+
+    public List<Room> findFreeRooms(String semester, String dayOfWeek, String startTime, String endTime,
+            int minCapacity) {
+        return index.findFreeRooms(semester, WeekRange.parse(dayOfWeek, startTime, endTime), minCapacity);
+    }
+
+    // New courses have no id yet and cannot clash with their own bookings
+    private static String key(Course course) {
+        return course.getId() != null ? course.getId().toHexString() : "";
+    }
+}
@@ -0,0 +1,251 @@
+package com.university.cours.schedule;
+
+import com.university.cours.model.Room;
+import com.university.cours.model.TimeSlot;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory view of when each room and professor is busy, built from active courses.
+ *
+ * Each semester has its own timetable, since a weekly slot only clashes with courses
+ * taught in the same semester; courses without a semester share one. In a timetable,
+ * every room and professor has a bitset with one bit per minute of the week, so
+ * checking a slot is a single nextSetBit call. The bookings behind the bits are kept
+ * as well, to name the clashing course and to rebuild the bits when a course leaves.
+ */
+public class OccupancyIndex {
+
+    private static class Booking {
+        final String courseKey;
+        final String courseLabel;
+        final WeekRange range;
+
+        Booking(String courseKey, String courseLabel, WeekRange range) {
+            this.courseKey = courseKey;
+            this.courseLabel = courseLabel;
+            this.range = range;
+        }
+    }
+
+    private static class Resource {
+        final String name;
+        final BitSet occupied = new BitSet(WeekRange.MINUTES_PER_WEEK);
+        final List<Booking> bookings = new ArrayList<>();
+
+        Resource(String name) {
+            this.name = name;
+        }
+
+        void add(Booking booking) {
+            bookings.add(booking);
+            occupied.set(booking.range.getStart(), booking.range.getEnd());
+        }
+
+        void removeCourse(String courseKey) {
+            if (bookings.removeIf(b -> b.courseKey.equals(courseKey))) {
+                occupied.clear();
+                for (Booking b : bookings) {
+                    occupied.set(b.range.getStart(), b.range.getEnd());
+                }
+            }
+        }
+
+        // Returns the booking of another course overlapping range, or null when free
+        Booking clash(WeekRange range, String ignoredCourseKey) {
+            int next = occupied.nextSetBit(range.getStart());
+            if (next < 0 || next >= range.getEnd()) {
+                return null;
+            }
+            for (Booking b : bookings) {
+                if (!b.courseKey.equals(ignoredCourseKey) && b.range.overlaps(range)) {
+                    return b;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Timetable {
+        final Map<String, Resource> rooms = new HashMap<>();
+        final Map<String, Resource> professors = new HashMap<>();
+    }
+
+    private static final Timetable EMPTY = new Timetable();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Timetable> semesters = new HashMap<>();
+    private final Map<String, Integer> roomCapacities = new HashMap<>();
+    private final Map<String, String> roomNames = new HashMap<>();
+    // Resources each course is booked on, for removal
+    private final Map<String, Set<Resource>> courseResources = new HashMap<>();
+
+    public void setRooms(List<Room> roomList) {
+        lock.writeLock().lock();
+        try {
+            roomCapacities.clear();
+            roomNames.clear();
+            for (Room room : roomList) {
+                if (room.getName() != null) {
+                    roomCapacities.put(key(room.getName()), room.getCapacity());
+                    roomNames.put(key(room.getName()), room.getName().trim());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lists why the course cannot take these slots in the semester: clashes with other
+     * courses in the same room or with the same professor, and clashes between its own
+     * slots. The course's own current bookings are ignored, so this also works for updates.
+     *
+     * @throws IllegalArgumentException if a slot cannot be parsed
+     */
+    public List<String> findConflicts(String semester, String courseKey, String professorId, List<TimeSlot> slots) {
+        List<WeekRange> ranges = new ArrayList<>(slots.size());
+        for (TimeSlot slot : slots) {
+            ranges.add(WeekRange.parse(slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime()));
+        }
+
+        List<String> conflicts = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            for (int j = i + 1; j < ranges.size(); j++) {
+                if (ranges.get(i).overlaps(ranges.get(j))) {
+                    conflicts.add("Time slots " + ranges.get(i) + " and " + ranges.get(j) + " overlap");
+                }
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            Timetable timetable = semesters.getOrDefault(semesterKey(semester), EMPTY);
+            for (int i = 0; i < ranges.size(); i++) {
+                WeekRange range = ranges.get(i);
+                String room = slots.get(i).getRoom();
+                Resource roomResource = room != null ? timetable.rooms.get(key(room)) : null;
+                Booking roomClash = roomResource != null ? roomResource.clash(range, courseKey) : null;
+                if (roomClash != null) {
+                    conflicts.add("Room " + roomResource.name + " is already booked on " + range
+                            + " by course " + roomClash.courseLabel);
+                }
+
+                Resource professor = professorId != null ? timetable.professors.get(key(professorId)) : null;
+                Booking professorClash = professor != null ? professor.clash(range, courseKey) : null;
+                if (professorClash != null) {
+                    conflicts.add("Professor " + professor.name + " already teaches on " + range
+                            + " (course " + professorClash.courseLabel + ")");
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return conflicts;
+    }
+
+    /**
+     * Books the slots for a course in the semester, replacing its previous bookings in
+     * any semester. Slots that cannot be parsed are skipped, so legacy data never blocks startup.
+     */
+    public void put(String semester, String courseKey, String courseLabel, String professorId, List<TimeSlot> slots) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseKey);
+            Timetable timetable = semesters.computeIfAbsent(semesterKey(semester), k -> new Timetable());
+            Set<Resource> booked = new HashSet<>();
+            for (TimeSlot slot : slots) {
+                WeekRange range;
+                try {
+                    range = WeekRange.parse(slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime());
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                Booking booking = new Booking(courseKey, courseLabel, range);
+                if (slot.getRoom() != null && !slot.getRoom().isBlank()) {
+                    Resource room = timetable.rooms.computeIfAbsent(key(slot.getRoom()),
+                            k -> new Resource(slot.getRoom().trim()));
+                    room.add(booking);
+                    booked.add(room);
+                }
+                if (professorId != null && !professorId.isBlank()) {
+                    Resource professor = timetable.professors.computeIfAbsent(key(professorId),
+                            k -> new Resource(professorId));
+                    professor.add(booking);
+                    booked.add(professor);
+                }
+            }
+            if (!booked.isEmpty()) {
+                courseResources.put(courseKey, booked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String courseKey) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseKey);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(String courseKey) {
+        Set<Resource> booked = courseResources.remove(courseKey);
+        if (booked != null) {
+            for (Resource resource : booked) {
+                resource.removeCourse(courseKey);
+            }
+        }
+    }
+
+    /**
+     * Rooms with no booking overlapping range in the semester and at least minCapacity
+     * seats. Rooms only known from course time slots have capacity 0.
+     */
+    public List<Room> findFreeRooms(String semester, WeekRange range, int minCapacity) {
+        lock.readLock().lock();
+        try {
+            Map<String, Resource> rooms = semesters.getOrDefault(semesterKey(semester), EMPTY).rooms;
+            Set<String> candidates = new HashSet<>(roomCapacities.keySet());
+            candidates.addAll(rooms.keySet());
+
+            List<Room> free = new ArrayList<>();
+            for (String roomKey : candidates) {
+                int capacity = roomCapacities.getOrDefault(roomKey, 0);
+                if (capacity < minCapacity) {
+                    continue;
+                }
+                Resource resource = rooms.get(roomKey);
+                if (resource == null || resource.clash(range, null) == null) {
+                    String name = resource != null ? resource.name : roomNames.get(roomKey);
+                    free.add(new Room(name, capacity));
+                }
+            }
+            free.sort(Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getName));
+            return free;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String semesterKey(String semester) {
+        return semester != null ? key(semester) : "";
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,98 @@
+package com.university.cours.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * A time slot reduced to a half-open range of minutes in the week, Monday 00:00 being 0.
+ */
+public final class WeekRange {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final int start;
+    private final int end;
+
+    public WeekRange(int start, int end) {
+        if (start < 0 || end > MINUTES_PER_WEEK || start >= end) {
+            throw new IllegalArgumentException("Invalid week range: " + start + "-" + end);
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses a day name (MONDAY, Monday...) and two HH:mm times.
+     *
+     * @throws IllegalArgumentException if a value cannot be parsed or end is not after start
+     */
+    public static WeekRange parse(String dayOfWeek, String startTime, String endTime) {
+        if (dayOfWeek == null || startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Time slot needs dayOfWeek, startTime and endTime");
+        }
+        try {
+            DayOfWeek day = DayOfWeek.valueOf(dayOfWeek.trim().toUpperCase(Locale.ROOT));
+            int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY;
+            int from = LocalTime.parse(startTime.trim()).toSecondOfDay() / 60;
+            int to = LocalTime.parse(endTime.trim()).toSecondOfDay() / 60;
+            if (to <= from) {
+                throw new IllegalArgumentException("Time slot ends before it starts: "
+                        + dayOfWeek + " " + startTime + "-" + endTime);
+            }
+            return new WeekRange(dayStart + from, dayStart + to);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time in slot: " + dayOfWeek + " " + startTime + "-" + endTime);
+        }
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public boolean overlaps(WeekRange other) {
+        return start < other.end && other.start < end;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeekRange other && start == other.start && end == other.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start + end;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return DayOfWeek.of(start / MINUTES_PER_DAY + 1);
+    }
+
+    /**
+     * Start time as HH:mm, the format used by TimeSlot.
+     */
+    public String getStartTime() {
+        return formatTime(start % MINUTES_PER_DAY);
+    }
+
+    /**
+     * End time as HH:mm, the format used by TimeSlot.
+     */
+    public String getEndTime() {
+        return formatTime(end - (start / MINUTES_PER_DAY) * MINUTES_PER_DAY);
+    }
+
+    @Override
+    public String toString() {
+        return getDayOfWeek() + " " + getStartTime() + "-" + getEndTime();
+    }
+
+    private static String formatTime(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
@@ -0,0 +1,598 @@
+package com.university.cours.search;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.repository.CourseCatalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over course name, code, description and professor name.
+ *
+ * Query words match indexed words exactly, as a prefix ("algo" finds "algorithms") or,
+ * when a word is not in the index at all, within one or two typos ("algoritms").
+ * Results are ranked with BM25 over the weighted fields, favouring courses that match
+ * more of the query words. Accents and case are ignored.
+ *
+ * Registered as a {@link CourseCatalog.CourseListener}, it follows the catalog course by
+ * course and is rebuilt after a full reload. Removed courses
+ * are only marked dead in the postings, and the index compacts itself once enough of
+ * them pile up. Queries run concurrently under a read lock.
+ *
+ * Each posting keeps its BM25 term-frequency part precomputed against the average field
+ * lengths as of the last rebuild or compaction, so a query only multiplies it by the
+ * word's weight and idf; single updates barely move those averages.
+ */
+public class CourseTextIndex implements CourseCatalog.CourseListener {
+    private static final int NAME = 0;
+    private static final int CODE = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int PROFESSOR = 3;
+    private static final int FIELDS = 4;
+    private static final float[] FIELD_WEIGHTS = {3.0f, 4.0f, 1.0f, 1.5f};
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_WEIGHT = 0.7f;
+    private static final float[] TYPO_WEIGHTS = {1.0f, 0.6f, 0.35f};
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_QUERY_TERMS = 10;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentLinkedQueue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+    private Data data = new Data();
+
+    @Override
+    public void coursesChanged(Collection<String> ids, Map<String, CourseDTO> courses) {
+        if (ids == null) {
+            rebuild(courses.values());
+            return;
+        }
+        for (String id : ids) {
+            update(id, courses.get(id));
+        }
+    }
+
+    /**
+     * Replaces the whole index. The new one is built before the lock is taken.
+     */
+    public void rebuild(Collection<CourseDTO> courses) {
+        Data rebuilt = new Data();
+        courses.forEach(rebuilt::add);
+        rebuilt.refreshImpacts();
+        lock.writeLock().lock();
+        try {
+            data = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the current state of a course; null removes it.
+     */
+    public void update(String id, CourseDTO course) {
+        lock.writeLock().lock();
+        try {
+            data.remove(id);
+            if (course != null) {
+                data.add(course);
+            }
+            if (data.shouldCompact()) {
+                data = data.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit courses accepted by filter, best match first.
+     */
+    public List<CourseDTO> search(String query, Predicate<CourseDTO> filter, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokens(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (words.size() > MAX_QUERY_TERMS) {
+            words = words.subList(0, MAX_QUERY_TERMS);
+        }
+
+        Scratch scratch = scratches.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+        lock.readLock().lock();
+        try {
+            return data.search(words, filter, limit, scratch);
+        } finally {
+            lock.readLock().unlock();
+            scratches.offer(scratch);
+        }
+    }
+
+    /**
+     * Lower-cased words without accents, e.g. "Génie Logiciel" gives [genie, logiciel].
+     */
+    static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return normalizedTokens(text);
+            }
+            boolean letterOrDigit = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(text.substring(start).toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    // Slow path for text outside ASCII: strip accents, split on anything but letters and digits
+    private static List<String> normalizedTokens(String text) {
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(plain.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Optimal string alignment distance (a transposition counts as one edit), or
+     * max + 1 as soon as the distance is known to exceed max.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    // Words with digits are codes and numbers, where a near miss is a different course
+    private static int maxTypos(String word) {
+        if (word.length() < 4 || word.chars().anyMatch(Character::isDigit)) {
+            return 0;
+        }
+        return word.length() < 8 ? 1 : 2;
+    }
+
+    private static final class Term {
+        final String text;
+        int[] docs = new int[2];
+        // Occurrences per field, 8 bits each
+        int[] counts = new int[2];
+        // BM25 term-frequency part of the score, see refreshImpacts
+        float[] impacts = new float[2];
+        int size;
+        // Live documents containing the term
+        int df;
+
+        Term(String text) {
+            this.text = text;
+        }
+
+        void add(int doc, int packedCounts, float impact) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+                impacts = Arrays.copyOf(impacts, size * 2);
+            }
+            docs[size] = doc;
+            counts[size] = packedCounts;
+            impacts[size] = impact;
+            size++;
+            df++;
+        }
+    }
+
+    private record Expansion(Term term, float weight) {
+    }
+
+    private record Hit(float score, int doc) {
+    }
+
+    /**
+     * Per-query working arrays, reused across queries. Generation stamps stand in for
+     * clearing them between words and queries.
+     */
+    private static final class Scratch {
+        float[] total = new float[0];
+        float[] best = new float[0];
+        int[] matched = new int[0];
+        int[] queryStamp = new int[0];
+        int[] wordStamp = new int[0];
+        int[] queryDocs = new int[0];
+        int[] wordDocs = new int[0];
+        int generation;
+
+        void ensure(int docs) {
+            if (total.length < docs) {
+                int length = Math.max(docs, total.length * 2);
+                total = new float[length];
+                best = new float[length];
+                matched = new int[length];
+                queryStamp = new int[length];
+                wordStamp = new int[length];
+                queryDocs = new int[length];
+                wordDocs = new int[length];
+                generation = 0;
+            }
+            if (generation > Integer.MAX_VALUE - 2 * MAX_QUERY_TERMS) {
+                Arrays.fill(queryStamp, 0);
+                Arrays.fill(wordStamp, 0);
+                generation = 0;
+            }
+        }
+    }
+
+    private static final class Data {
+        final Map<String, Term> terms = new HashMap<>();
+        final NavigableMap<String, Term> sorted = new TreeMap<>();
+        // Each term under every form with one character deleted, for typo lookups
+        final Map<String, List<Term>> deletions = new HashMap<>();
+        final Map<String, Integer> docIds = new HashMap<>();
+        final BitSet live = new BitSet();
+        CourseDTO[] courses = new CourseDTO[16];
+        Term[][] docTerms = new Term[16][];
+        int[] lengths = new int[16 * FIELDS];
+        final long[] lengthSums = new long[FIELDS];
+        int maxDoc;
+        int dead;
+
+        void add(CourseDTO course) {
+            Map<String, int[]> counts = new HashMap<>();
+            int doc = maxDoc++;
+            grow(doc + 1);
+            count(counts, doc, NAME, tokens(course.getCourseName()));
+            List<String> code = tokens(course.getCourseCode());
+            if (code.size() > 1) {
+                // "INF-101" is also found as inf101
+                code = new ArrayList<>(code);
+                code.add(String.join("", code));
+            }
+            count(counts, doc, CODE, code);
+            count(counts, doc, DESCRIPTION, tokens(course.getDescription()));
+            count(counts, doc, PROFESSOR, tokens(course.getProfessorName()));
+
+            float[] averageLengths = averageLengths(docIds.size() + 1);
+            Term[] indexed = new Term[counts.size()];
+            int i = 0;
+            for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+                Term term = terms.computeIfAbsent(entry.getKey(), this::createTerm);
+                int packed = pack(entry.getValue());
+                term.add(doc, packed, bm25(packed, doc, averageLengths));
+                indexed[i++] = term;
+            }
+            courses[doc] = course;
+            docTerms[doc] = indexed;
+            live.set(doc);
+            docIds.put(course.getId(), doc);
+        }
+
+        private void count(Map<String, int[]> counts, int doc, int field, List<String> tokens) {
+            for (String token : tokens) {
+                counts.computeIfAbsent(token, k -> new int[FIELDS])[field]++;
+            }
+            lengths[doc * FIELDS + field] = tokens.size();
+            lengthSums[field] += tokens.size();
+        }
+
+        private static int pack(int[] counts) {
+            int packed = 0;
+            for (int field = 0; field < FIELDS; field++) {
+                packed |= Math.min(counts[field], 255) << (8 * field);
+            }
+            return packed;
+        }
+
+        private Term createTerm(String text) {
+            Term term = new Term(text);
+            sorted.put(text, term);
+            if (maxTypos(text) > 0) {
+                for (String deleted : deletionsOf(text)) {
+                    deletions.computeIfAbsent(deleted, k -> new ArrayList<>(2)).add(term);
+                }
+            }
+            return term;
+        }
+
+        private void grow(int docs) {
+            if (docs > courses.length) {
+                int length = Math.max(docs, courses.length * 2);
+                courses = Arrays.copyOf(courses, length);
+                docTerms = Arrays.copyOf(docTerms, length);
+                lengths = Arrays.copyOf(lengths, length * FIELDS);
+            }
+        }
+
+        void remove(String id) {
+            Integer doc = docIds.remove(id);
+            if (doc == null) {
+                return;
+            }
+            live.clear(doc);
+            for (Term term : docTerms[doc]) {
+                term.df--;
+            }
+            for (int field = 0; field < FIELDS; field++) {
+                lengthSums[field] -= lengths[doc * FIELDS + field];
+            }
+            courses[doc] = null;
+            docTerms[doc] = null;
+            dead++;
+        }
+
+        // Recomputes every posting's impact once all courses are in
+        void refreshImpacts() {
+            float[] averageLengths = averageLengths(docIds.size());
+            for (Term term : terms.values()) {
+                for (int p = 0; p < term.size; p++) {
+                    term.impacts[p] = bm25(term.counts[p], term.docs[p], averageLengths);
+                }
+            }
+        }
+
+        private float[] averageLengths(int docCount) {
+            float[] averageLengths = new float[FIELDS];
+            for (int field = 0; field < FIELDS; field++) {
+                averageLengths[field] = Math.max(1f, (float) lengthSums[field] / Math.max(1, docCount));
+            }
+            return averageLengths;
+        }
+
+        boolean shouldCompact() {
+            return dead > 1024 && dead > docIds.size() / 4;
+        }
+
+        Data compact() {
+            Data compacted = new Data();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.add(courses[doc]);
+            }
+            compacted.refreshImpacts();
+            return compacted;
+        }
+
+        List<CourseDTO> search(List<String> words, Predicate<CourseDTO> filter, int limit, Scratch s) {
+            int docCount = docIds.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            s.ensure(maxDoc);
+
+            int queryGeneration = ++s.generation;
+            int queryHits = 0;
+            boolean allLive = dead == 0;
+            for (String word : words) {
+                List<Expansion> expansions = expand(word);
+                if (expansions.size() == 1) {
+                    // A single form has one posting per course: add straight into the totals
+                    Term term = expansions.get(0).term();
+                    float weight = expansions.get(0).weight() * idf(term, docCount);
+                    int[] docs = term.docs;
+                    float[] impacts = term.impacts;
+                    for (int p = 0; p < term.size; p++) {
+                        int doc = docs[p];
+                        if (!allLive && !live.get(doc)) {
+                            continue;
+                        }
+                        if (s.queryStamp[doc] != queryGeneration) {
+                            s.queryStamp[doc] = queryGeneration;
+                            s.total[doc] = 0;
+                            s.matched[doc] = 0;
+                            s.queryDocs[queryHits++] = doc;
+                        }
+                        s.total[doc] += weight * impacts[p];
+                        s.matched[doc]++;
+                    }
+                    continue;
+                }
+
+                int wordGeneration = ++s.generation;
+                int wordHits = 0;
+                for (Expansion expansion : expansions) {
+                    Term term = expansion.term();
+                    float weight = expansion.weight() * idf(term, docCount);
+                    int[] docs = term.docs;
+                    float[] impacts = term.impacts;
+                    for (int p = 0; p < term.size; p++) {
+                        int doc = docs[p];
+                        if (!allLive && !live.get(doc)) {
+                            continue;
+                        }
+                        float score = weight * impacts[p];
+                        if (s.wordStamp[doc] != wordGeneration) {
+                            s.wordStamp[doc] = wordGeneration;
+                            s.best[doc] = score;
+                            s.wordDocs[wordHits++] = doc;
+                        } else if (score > s.best[doc]) {
+                            // A word counts once, through its best-scoring form
+                            s.best[doc] = score;
+                        }
+                    }
+                }
+                for (int i = 0; i < wordHits; i++) {
+                    int doc = s.wordDocs[i];
+                    if (s.queryStamp[doc] != queryGeneration) {
+                        s.queryStamp[doc] = queryGeneration;
+                        s.total[doc] = 0;
+                        s.matched[doc] = 0;
+                        s.queryDocs[queryHits++] = doc;
+                    }
+                    s.total[doc] += s.best[doc];
+                    s.matched[doc]++;
+                }
+            }
+
+            // Courses matching more of the words come first
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(a.score(), b.score()));
+            float floor = Float.NEGATIVE_INFINITY;
+            float perWord = 1f / words.size();
+            for (int i = 0; i < queryHits; i++) {
+                int doc = s.queryDocs[i];
+                float score = s.total[doc] * s.matched[doc] * perWord;
+                if (score <= floor) {
+                    continue;
+                }
+                if (filter != null && !filter.test(courses[doc])) {
+                    continue;
+                }
+                top.add(new Hit(score, doc));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+                if (top.size() == limit) {
+                    floor = top.peek().score();
+                }
+            }
+
+            CourseDTO[] results = new CourseDTO[top.size()];
+            for (int i = results.length - 1; i >= 0; i--) {
+                results[i] = courses[top.poll().doc()];
+            }
+            return List.of(results);
+        }
+
+        private static float idf(Term term, int docCount) {
+            return (float) Math.log(1 + (docCount - term.df + 0.5) / (term.df + 0.5));
+        }
+
+        private float bm25(int packedCounts, int doc, float[] averageLengths) {
+            float tf = 0;
+            for (int field = 0; field < FIELDS; field++) {
+                int count = (packedCounts >>> (8 * field)) & 0xFF;
+                if (count > 0) {
+                    float norm = 1 - B + B * lengths[doc * FIELDS + field] / averageLengths[field];
+                    tf += FIELD_WEIGHTS[field] * count / norm;
+                }
+            }
+            return tf * (K1 + 1) / (tf + K1);
+        }
+
+        // The indexed forms a query word stands for, with how much each counts
+        private List<Expansion> expand(String word) {
+            List<Expansion> expansions = new ArrayList<>();
+            Term exact = terms.get(word);
+            if (exact != null && exact.df > 0) {
+                expansions.add(new Expansion(exact, 1.0f));
+            }
+            if (word.length() >= 2) {
+                int added = 0;
+                for (Term term : sorted.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                    if (term.df > 0) {
+                        expansions.add(new Expansion(term, PREFIX_WEIGHT));
+                        if (++added == MAX_PREFIX_TERMS) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (exact == null && maxTypos(word) > 0) {
+                int max = maxTypos(word);
+                for (Term term : typoCandidates(word)) {
+                    int distance = distance(word, term.text, max);
+                    if (distance <= max && term.df > 0) {
+                        expansions.add(new Expansion(term, TYPO_WEIGHTS[distance]));
+                    }
+                }
+            }
+            return expansions;
+        }
+
+        // Terms one deletion away from the word, or sharing a form with one deletion
+        private Set<Term> typoCandidates(String word) {
+            Set<Term> candidates = new LinkedHashSet<>();
+            List<Term> inserted = deletions.get(word);
+            if (inserted != null) {
+                candidates.addAll(inserted);
+            }
+            for (String deleted : deletionsOf(word)) {
+                Term term = terms.get(deleted);
+                if (term != null) {
+                    candidates.add(term);
+                }
+                List<Term> substituted = deletions.get(deleted);
+                if (substituted != null) {
+                    candidates.addAll(substituted);
+                }
+            }
+            return candidates;
+        }
+
+        private static Set<String> deletionsOf(String word) {
+            Set<String> deleted = new LinkedHashSet<>();
+            for (int i = 0; i < word.length(); i++) {
+                deleted.add(word.substring(0, i) + word.substring(i + 1));
+            }
+            return deleted;
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package com.university.cours.security;
 
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.metrics.ServiceMetrics;
+import com.university.cours.metrics.TokenValidationEvent;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,6 +29,20 @@ public class JWTValidator {
             ? System.getenv("GATEWAY_URL")
             : "http://localhost:8080";
 
+    // "local" verifies the signature in-process, "remote" always asks the OAuth service
+    private static final String VALIDATION_MODE = MongoDBConfig.getProperty("jwt.validation.mode", "local");
+
+    // When local verification cannot decide (no secret, unknown signature), ask the OAuth service
+    private static final boolean REMOTE_FALLBACK = Boolean.parseBoolean(
+            MongoDBConfig.getProperty("jwt.validation.fallback", "true"));
+
+    private static final LocalTokenVerifier LOCAL_VERIFIER = createLocalVerifier();
+
+    // Validated tokens, so bursts of calls with the same token are checked once
+    private static final TokenCache CACHE = createCache();
+
+    private static final Pattern EXP_PATTERN = Pattern.compile("\"exp\"\\s*:\\s*(\\d+)");
+
     public static class UserInfo {
         public String token;
         public String email;
@@ -22,9 +50,119 @@ public class JWTValidator {
         public String lastName;
         public String role;
         public String userId;
+        // Token expiry in epoch millis, 0 when unknown
+        public long expiresAt;
     }
 
     public static UserInfo validateToken(String token) {
+        long start = System.nanoTime();
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            UserInfo userInfo = CACHE != null
+                    ? CACHE.get(token, t -> validateUncached(t, event))
+                    : validateUncached(token, event);
+            failed = false;
+            return userInfo;
+        } finally {
+            ServiceMetrics.TOKEN_VALIDATION.record(System.nanoTime() - start, failed, "sync");
+            event.record("sync", failed);
+        }
+    }
+
+    /**
+     * Validates without blocking the caller: local verification completes at once, and a
+     * remote validation completes when the gateway answers.
+     */
+    public static CompletableFuture<UserInfo> validateTokenAsync(String token) {
+        long start = System.nanoTime();
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        CompletableFuture<UserInfo> validation = CACHE != null
+                ? CACHE.getAsync(token, t -> validateUncachedAsync(t, event))
+                : validateUncachedAsync(token, event);
+        return validation.whenComplete((userInfo, error) -> {
+            ServiceMetrics.TOKEN_VALIDATION.record(System.nanoTime() - start, error != null, "async");
+            event.record("async", error != null);
+        });
+    }
+
+    public static TokenCache getCache() {
+        return CACHE;
+    }
+
+    private static UserInfo validateUncached(String token, TokenValidationEvent event) {
+        if (LOCAL_VERIFIER == null) {
+            event.setSource(TokenValidationEvent.REMOTE);
+            return validateRemotely(token);
+        }
+
+        try {
+            event.setSource(TokenValidationEvent.LOCAL);
+            return LOCAL_VERIFIER.verify(token);
+        } catch (ExpiredJwtException e) {
+            throw new SecurityException("Invalid or expired token");
+        } catch (JwtException | IllegalArgumentException e) {
+            if (REMOTE_FALLBACK) {
+                event.setSource(TokenValidationEvent.REMOTE);
+                return validateRemotely(token);
+            }
+            throw new SecurityException("Token validation failed: " + e.getMessage());
+        }
+    }
+
+    private static CompletableFuture<UserInfo> validateUncachedAsync(String token, TokenValidationEvent event) {
+        if (LOCAL_VERIFIER == null) {
+            event.setSource(TokenValidationEvent.REMOTE);
+            return validateRemotelyAsync(token);
+        }
+
+        try {
+            event.setSource(TokenValidationEvent.LOCAL);
+            return CompletableFuture.completedFuture(LOCAL_VERIFIER.verify(token));
+        } catch (ExpiredJwtException e) {
+            return CompletableFuture.failedFuture(new SecurityException("Invalid or expired token"));
+        } catch (JwtException | IllegalArgumentException e) {
+            if (REMOTE_FALLBACK) {
+                event.setSource(TokenValidationEvent.REMOTE);
+                return validateRemotelyAsync(token);
+            }
+            return CompletableFuture.failedFuture(new SecurityException("Token validation failed: " + e.getMessage()));
+        }
+    }
+
+    private static CompletableFuture<UserInfo> validateRemotelyAsync(String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(GATEWAY_URL + "/api/auth/validate?token="
+                        + URLEncoder.encode(token, StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        return RemoteClient.CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        throw new SecurityException("Token validation failed: "
+                                + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()));
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new SecurityException("Token validation failed: Invalid or expired token");
+                    }
+                    UserInfo userInfo = parseJson(response.body());
+                    userInfo.expiresAt = extractExpiry(token);
+                    return userInfo;
+                });
+    }
+
+    // Created on first use, so deployments that never validate remotely start no client threads
+    private static final class RemoteClient {
+        static final HttpClient CLIENT = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    private static UserInfo validateRemotely(String token) {
         try {
             String encodedToken = URLEncoder.encode(token, StandardCharsets.UTF_8.toString());
             URL url = new URL(GATEWAY_URL + "/api/auth/validate?token=" + encodedToken);
@@ -43,7 +181,9 @@ public class JWTValidator {
                 }
                 in.close();
 
-                return parseJson(response.toString());
+                UserInfo userInfo = parseJson(response.toString());
+                userInfo.expiresAt = extractExpiry(token);
+                return userInfo;
             } else {
                 throw new SecurityException("Invalid or expired token");
             }
@@ -52,6 +192,31 @@ public class JWTValidator {
         }
     }
 
+    private static LocalTokenVerifier createLocalVerifier() {
+        if (!"local".equalsIgnoreCase(VALIDATION_MODE)) {
+            return null;
+        }
+
+        String secret = MongoDBConfig.getProperty("jwt.secret");
+        if (secret == null || secret.isEmpty()) {
+            if (!REMOTE_FALLBACK) {
+                throw new IllegalStateException("jwt.secret is required for local token validation");
+            }
+            System.err.println("jwt.secret is not set, falling back to remote token validation");
+            return null;
+        }
+        return new LocalTokenVerifier(secret);
+    }
+
+    private static TokenCache createCache() {
+        if (!Boolean.parseBoolean(MongoDBConfig.getProperty("jwt.cache.enabled", "true"))) {
+            return null;
+        }
+        int maxSize = Integer.parseInt(MongoDBConfig.getProperty("jwt.cache.size", "10000"));
+        long ttlSeconds = Long.parseLong(MongoDBConfig.getProperty("jwt.cache.ttl", "300"));
+        return new TokenCache(maxSize, ttlSeconds * 1000);
+    }
+
     private static UserInfo parseJson(String json) {
         UserInfo userInfo = new UserInfo();
         userInfo.token = extractJsonValue(json, "token");
@@ -63,6 +228,18 @@ public class JWTValidator {
         return userInfo;
     }
 
+    // Reads the exp claim without verifying the signature; only used to bound the cache entry
+    private static long extractExpiry(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            Matcher matcher = EXP_PATTERN.matcher(payload);
+            return matcher.find() ? Long.parseLong(matcher.group(1)) * 1000 : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
     private static String extractJsonValue(String json, String key) {
         // Pattern to match "key":"value" or "key":null
         Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*(?:\"([^\"]*)\"|null)");
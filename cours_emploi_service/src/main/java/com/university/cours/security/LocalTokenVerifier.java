@@ -0,0 +1,47 @@
+package com.university.cours.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Verifies tokens issued by the OAuth service in-process, using the shared
+ * HMAC secret, so a SOAP call does not need a round trip through the gateway.
+ */
+public class LocalTokenVerifier {
+    private final JwtParser parser;
+
+    public LocalTokenVerifier(String base64Secret) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        this.parser = Jwts.parser().verifyWith(key).build();
+    }
+
+    /**
+     * Checks signature, expiry and role claim and returns the user carried by the token.
+     *
+     * @throws ExpiredJwtException if the token is expired
+     * @throws JwtException        if the token is malformed or the signature does not match
+     */
+    public JWTValidator.UserInfo verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+
+        String role = claims.get("role", String.class);
+        if (role == null || role.isEmpty()) {
+            // Refresh tokens carry no role and must not be accepted as access tokens
+            throw new JwtException("Token has no role claim");
+        }
+
+        JWTValidator.UserInfo userInfo = new JWTValidator.UserInfo();
+        userInfo.token = token;
+        userInfo.email = claims.getSubject();
+        userInfo.role = role;
+        userInfo.expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : 0;
+        return userInfo;
+    }
+}
@@ -0,0 +1,216 @@
+package com.university.cours.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of validated tokens, keyed by the SHA-256 of the token.
+ * An entry lives until the token's expiry or the configured TTL, whichever comes first.
+ * Concurrent misses for the same token share a single validation.
+ */
+public class TokenCache {
+
+    private static class Entry {
+        final CompletableFuture<JWTValidator.UserInfo> future = new CompletableFuture<>();
+        // Stays at MAX_VALUE while the validation is in flight
+        volatile long expiresAt = Long.MAX_VALUE;
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public JWTValidator.UserInfo get(String token, Function<String, JWTValidator.UserInfo> loader) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        Entry entry = current(key, now);
+        if (entry == null) {
+            Entry created = new Entry();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                misses.increment();
+                return load(key, created, token, loader, now);
+            }
+        }
+
+        hits.increment();
+        return await(entry);
+    }
+
+    /**
+     * Same as {@link #get}, for a loader that does not block. The returned future
+     * completes when the validation does, and is already complete on a hit.
+     */
+    public CompletableFuture<JWTValidator.UserInfo> getAsync(String token,
+            Function<String, CompletableFuture<JWTValidator.UserInfo>> loader) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        Entry entry = current(key, now);
+        if (entry == null) {
+            Entry created = new Entry();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                misses.increment();
+                loadAsync(key, created, token, loader, now);
+                return created.future;
+            }
+        }
+
+        hits.increment();
+        return entry.future;
+    }
+
+    // The live entry for key, dropping it if it has expired
+    private Entry current(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= now) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private void loadAsync(String key, Entry entry, String token,
+            Function<String, CompletableFuture<JWTValidator.UserInfo>> loader, long now) {
+        CompletableFuture<JWTValidator.UserInfo> loading;
+        try {
+            loading = loader.apply(token);
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((userInfo, error) -> {
+            if (error != null) {
+                entries.remove(key, entry);
+                entry.future.completeExceptionally(
+                        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            entry.expiresAt = expiresAt(userInfo, now);
+            entry.future.complete(userInfo);
+            if (entries.size() > maxSize) {
+                trim(now);
+            }
+        });
+    }
+
+    private long expiresAt(JWTValidator.UserInfo userInfo, long now) {
+        long expiresAt = now + ttlMillis;
+        if (userInfo.expiresAt > 0) {
+            expiresAt = Math.min(expiresAt, userInfo.expiresAt);
+        }
+        return expiresAt;
+    }
+
+    private JWTValidator.UserInfo load(String key, Entry entry, String token,
+            Function<String, JWTValidator.UserInfo> loader, long now) {
+        try {
+            JWTValidator.UserInfo userInfo = loader.apply(token);
+            entry.expiresAt = expiresAt(userInfo, now);
+            entry.future.complete(userInfo);
+        } catch (RuntimeException e) {
+            // Failed validations are not cached, only shared with concurrent callers
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+
+        if (entries.size() > maxSize) {
+            trim(now);
+        }
+        return entry.future.join();
+    }
+
+    private JWTValidator.UserInfo await(Entry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void trim(long now) {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Expired entries go first, then whatever is resolved until we are back under the bound
+            evictWhile(entry -> entry.expiresAt <= now);
+            if (entries.size() > maxSize) {
+                evictWhile(entry -> entries.size() > maxSize && entry.future.isDone());
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private void evictWhile(Predicate<Entry> condition) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (condition.test(it.next().getValue())) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
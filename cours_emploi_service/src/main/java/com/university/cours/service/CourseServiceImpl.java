@@ -1,69 +1,387 @@
 package com.university.cours.service;
 
+import com.university.cours.dto.CourseChangesDTO;
 import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.CourseFilterDTO;
+import com.university.cours.dto.CoursePageDTO;
+import com.university.cours.dto.CoursePatchDTO;
+import com.university.cours.dto.CourseResultDTO;
+import com.university.cours.dto.CourseTombstoneDTO;
+import com.university.cours.dto.EligibilityDTO;
+import com.university.cours.dto.EnrollmentResultDTO;
+import com.university.cours.dto.ImportResultDTO;
+import com.university.cours.dto.RolloverOptionsDTO;
+import com.university.cours.dto.RolloverResultDTO;
+import com.university.cours.dto.RoomDTO;
 import com.university.cours.dto.TimeSlotDTO;
+import com.university.cours.dto.TimetableResultDTO;
+import com.university.cours.enrollment.EnrollmentChange;
+import com.university.cours.enrollment.SurgeAdmission;
+import com.university.cours.importer.CourseImporter;
+import com.university.cours.importer.CourseSource;
+import com.university.cours.importer.CsvCourseSource;
+import com.university.cours.importer.XmlCourseSource;
+import com.university.cours.config.MongoDBConfig;
 import com.university.cours.model.Course;
 import com.university.cours.model.TimeSlot;
+import com.university.cours.prerequisite.CoursePrerequisites;
+import com.university.cours.repository.AvailabilityRepository;
+import com.university.cours.repository.BadRequestException;
+import com.university.cours.repository.CourseArchive;
+import com.university.cours.repository.CourseCatalog;
+import com.university.cours.repository.CourseQuery;
+import com.university.cours.repository.ConflictException;
 import com.university.cours.repository.CourseRepository;
+import com.university.cours.repository.EnrollmentRepository;
+import com.university.cours.repository.NotFoundException;
+import com.university.cours.repository.RoomRepository;
+import com.university.cours.schedule.CourseSchedule;
+import com.university.cours.search.CourseTextIndex;
+import com.university.cours.schedule.WeekRange;
 import com.university.cours.security.JWTValidator;
+import com.university.cours.solver.TimetableProblem;
+import com.university.cours.solver.TimetableSolution;
+import com.university.cours.solver.TimetableSolver;
 import jakarta.jws.WebService;
+import org.bson.types.ObjectId;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @WebService(endpointInterface = "com.university.cours.service.ICourseService")
 public class CourseServiceImpl implements ICourseService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of(
+            "courseId", "courseName", "courseCode", "credits", "description", "professorId",
+            "professorName", "timeSlots", "prerequisites", "maxStudents", "enrolledStudents", "semester", "active");
+
     private final CourseRepository repository = new CourseRepository();
+    private final CourseSchedule schedule = new CourseSchedule(
+            Boolean.parseBoolean(MongoDBConfig.getProperty("schedule.conflicts.enabled", "true")));
+    private final CourseCatalog catalog = new CourseCatalog(repository,
+            Boolean.parseBoolean(MongoDBConfig.getProperty("catalog.cache.enabled", "true")),
+            Long.parseLong(MongoDBConfig.getProperty("catalog.poll.seconds", "30")) * 1000);
+    private final EnrollmentRepository enrollments = new EnrollmentRepository();
+    private final SurgeAdmission surge = Boolean.parseBoolean(
+            MongoDBConfig.getProperty("enrollment.surge.enabled", "false")) ? createSurgeAdmission() : null;
+    // Built from the in-memory catalog, so only available while it is enabled
+    private final CourseTextIndex textIndex = catalog.isEnabled() && Boolean.parseBoolean(
+            MongoDBConfig.getProperty("search.text.enabled", "true")) ? new CourseTextIndex() : null;
+    private final CoursePrerequisites prerequisites = new CoursePrerequisites();
+    private final CourseArchive archive = new CourseArchive(repository,
+            Integer.parseInt(MongoDBConfig.getProperty("archive.cache.semesters", "4")),
+            Long.parseLong(MongoDBConfig.getProperty("archive.refresh.seconds", "60")) * 1000);
+
+    public CourseServiceImpl() {
+        schedule.load(new RoomRepository().findAll(), repository.findActive());
+        if (textIndex != null) {
+            // Before start, so the initial load is indexed too
+            catalog.addCourseListener(textIndex);
+        }
+        if (catalog.isEnabled()) {
+            catalog.addCourseListener(prerequisites);
+        } else {
+            // Then only this instance's own writes keep it current, as for the schedule
+            prerequisites.rebuild(repository.loadAllDTOs());
+        }
+        catalog.start();
+    }
+
+    public CourseCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Surge-mode enrollments accepted but not yet written; 0 outside surge mode.
+     */
+    public int getPendingEnrollmentCount() {
+        return surge != null ? surge.getPendingCount() : 0;
+    }
+
+    /**
+     * Stops following catalog changes; not part of the SOAP interface.
+     */
+    public void close() {
+        if (surge != null) {
+            surge.close();
+        }
+        catalog.close();
+    }
 
     @Override
     public List<CourseDTO> getAllCourses(String token) {
         validateAuthentication(token);
-        return repository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return catalog.findAll();
     }
 
     @Override
     public List<CourseDTO> getActiveCourses(String token) {
         validateAuthentication(token);
-        return repository.findActive().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return catalog.findActive();
+    }
+
+    /**
+     * Same access as {@link #getAllCourses} and {@link #getActiveCourses}, but hands the courses
+     * to the consumer one at a time so a caller can write them out as they come.
+     */
+    public void forEachCourse(String token, boolean activeOnly, Consumer<CourseDTO> consumer) {
+        validateAuthentication(token);
+        catalog.forEach(activeOnly, consumer);
     }
 
     @Override
     public CourseDTO getCourseById(String token, String id) {
         validateAuthentication(token);
-        Course course = repository.findById(id);
+        if (id == null || id.trim().isEmpty()) {
+            throw new BadRequestException("Course id is required");
+        }
+        CourseDTO course = catalog.findById(id);
+        if (course == null) {
+            course = archive.findById(id);
+        }
         if (course == null) {
-            throw new RuntimeException("Course not found with id: " + id);
+            throw new NotFoundException("Course not found with id: " + id);
         }
-        return toDTO(course);
+        return course;
     }
 
     @Override
     public CourseDTO getCourseByCourseId(String token, String courseId) {
         validateAuthentication(token);
-        Course course = repository.findByCourseId(courseId);
+        if (courseId == null || courseId.trim().isEmpty()) {
+            throw new BadRequestException("courseId is required");
+        }
+        CourseDTO course = catalog.findByCourseId(courseId);
+        if (course == null) {
+            course = archive.findByCourseId(courseId);
+        }
         if (course == null) {
-            throw new RuntimeException("Course not found with courseId: " + courseId);
+            throw new NotFoundException("Course not found with courseId: " + courseId);
         }
-        return toDTO(course);
+        return course;
     }
 
     @Override
-    public CourseDTO createCourse(String token, CourseDTO courseDTO) {
-        validateAdminAccess(token);
+    public CoursePageDTO searchCourses(String token, CourseFilterDTO filter, int pageSize,
+            String cursor, List<String> fields) {
+        validateAuthentication(token);
 
-        // Check if course ID already exists
-        if (repository.findByCourseId(courseDTO.getCourseId()) != null) {
-            throw new RuntimeException("Course with courseId " + courseDTO.getCourseId() + " already exists");
+        int limit = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        CourseQuery query = new CourseQuery().after(decodeCursor(cursor));
+        if (filter != null) {
+            query.semester(filter.getSemester())
+                    .professorId(filter.getProfessorId())
+                    .active(filter.getActive())
+                    .credits(filter.getMinCredits(), filter.getMaxCredits())
+                    .hasFreeSeats(filter.getHasFreeSeats());
         }
 
+        // Fetch one extra course to know whether another page follows. A closed semester
+        // is read from the archive, everything else from the hot collection
+        List<CourseDTO> courses = filter != null && archive.isArchived(filter.getSemester())
+                ? archive.search(query, limit + 1, toProjection(fields))
+                : repository.search(query, limit + 1, toProjection(fields));
+        String nextCursor = null;
+        if (courses.size() > limit) {
+            courses = new ArrayList<>(courses.subList(0, limit));
+            nextCursor = encodeCursor(new ObjectId(courses.get(limit - 1).getId()));
+        }
+        return new CoursePageDTO(courses, nextCursor);
+    }
+
+    @Override
+    public List<CourseDTO> searchCoursesText(String token, String query, CourseFilterDTO filter, int limit) {
+        validateAuthentication(token);
+        if (textIndex == null) {
+            throw new BadRequestException("Text search is not available: it requires catalog.cache.enabled=true");
+        }
+        if (query == null || query.trim().isEmpty()) {
+            throw new BadRequestException("Search query is required");
+        }
+        return textIndex.search(query, toPredicate(filter),
+                limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // Same criteria as CourseQuery, checked in memory
+    private static Predicate<CourseDTO> toPredicate(CourseFilterDTO filter) {
+        if (filter == null) {
+            return null;
+        }
+        return course -> (filter.getSemester() == null || filter.getSemester().equals(course.getSemester()))
+                && (filter.getProfessorId() == null || filter.getProfessorId().equals(course.getProfessorId()))
+                && (filter.getActive() == null || filter.getActive() == course.isActive())
+                && (filter.getMinCredits() == null || course.getCredits() >= filter.getMinCredits())
+                && (filter.getMaxCredits() == null || course.getCredits() <= filter.getMaxCredits())
+                && (filter.getHasFreeSeats() == null
+                        || filter.getHasFreeSeats() == course.getEnrolledStudents() < course.getMaxStudents());
+    }
+
+    @Override
+    public List<EligibilityDTO> checkEligibility(String token, List<String> completedCourseIds,
+            List<String> targetCourseIds) {
+        validateAuthentication(token);
+        validateBatchSize(targetCourseIds);
+        return prerequisites.checkEligibility(completedCourseIds != null ? completedCourseIds : List.of(),
+                targetCourseIds);
+    }
+
+    @Override
+    public CourseChangesDTO getCoursesChangedSince(String token, long sinceRevision) {
+        validateAuthentication(token);
+
+        long highWaterMark = repository.getRevisionHighWaterMark();
+        if (sinceRevision > 0 && sinceRevision < repository.getOldestDeltaRevision()) {
+            // Some removals since then may have expired: send everything for the client to start over
+            CourseChangesDTO all = new CourseChangesDTO(repository.findChangedSince(0, highWaterMark),
+                    new ArrayList<>(), highWaterMark);
+            all.setFullResync(true);
+            return all;
+        }
+        if (sinceRevision > 0 && sinceRevision >= highWaterMark) {
+            return new CourseChangesDTO(new ArrayList<>(), new ArrayList<>(), Math.max(sinceRevision, highWaterMark));
+        }
+
+        List<CourseDTO> changed = repository.findChangedSince(sinceRevision, highWaterMark);
+        Map<String, Long> changedRevisions = new HashMap<>();
+        changed.forEach(course -> changedRevisions.put(course.getId(), course.getRevision()));
+        // A course removed and then reactivated within the window only shows up as changed
+        List<CourseTombstoneDTO> removed = repository.findRemovedSince(sinceRevision, highWaterMark).stream()
+                .filter(t -> changedRevisions.getOrDefault(t.getId(), Long.MIN_VALUE) < t.getRevision())
+                .collect(Collectors.toList());
+        return new CourseChangesDTO(changed, removed, highWaterMark);
+    }
+
+    @Override
+    public EnrollmentResultDTO enroll(String token, String id) {
+        String student = authenticatedStudent(token);
+        checkSeatsWritable(id);
+        if (surge != null) {
+            return surge.enroll(id, student);
+        }
+
+        if (enrollments.exists(id, student)) {
+            throw new ConflictException("Already enrolled in course " + id);
+        }
+        CourseDTO course = repository.reserveSeat(id);
+        if (course == null) {
+            CourseDTO current = repository.findDTOById(id);
+            if (current == null) {
+                throw new NotFoundException("Course not found with id: " + id);
+            }
+            if (!current.isActive()) {
+                throw new ConflictException("Course " + id + " is not active");
+            }
+            return new EnrollmentResultDTO(id, EnrollmentResultDTO.FULL,
+                    current.getEnrolledStudents(), current.getMaxStudents());
+        }
+        if (!enrollments.insert(id, student)) {
+            // Lost a race with a concurrent request of the same student: give the seat back
+            catalog.update(repository.releaseSeat(id));
+            throw new ConflictException("Already enrolled in course " + id);
+        }
+        catalog.update(course);
+        return new EnrollmentResultDTO(id, EnrollmentResultDTO.ENROLLED,
+                course.getEnrolledStudents(), course.getMaxStudents());
+    }
+
+    @Override
+    public EnrollmentResultDTO unenroll(String token, String id) {
+        String student = authenticatedStudent(token);
+        checkSeatsWritable(id);
+        if (surge != null) {
+            return surge.unenroll(id, student);
+        }
+
+        if (!enrollments.delete(id, student)) {
+            throw new ConflictException("Not enrolled in course " + id);
+        }
+        CourseDTO course = repository.releaseSeat(id);
+        if (course == null) {
+            course = repository.findDTOById(id);
+            if (course == null) {
+                throw new NotFoundException("Course not found with id: " + id);
+            }
+        }
+        catalog.update(course);
+        return new EnrollmentResultDTO(id, EnrollmentResultDTO.UNENROLLED,
+                course.getEnrolledStudents(), course.getMaxStudents());
+    }
+
+    // Seat changes to a semester being archived would be lost with the courses being moved.
+    // Unknown courses are left to the enrollment path to report.
+    private void checkSeatsWritable(String id) {
+        CourseDTO course = catalog.findById(id);
+        if (course != null) {
+            archive.checkWritable(course.getSemester());
+        }
+    }
+
+    private SurgeAdmission createSurgeAdmission() {
+        return new SurgeAdmission(id -> {
+            CourseDTO course = repository.findDTOById(id);
+            if (course == null) {
+                throw new NotFoundException("Course not found with id: " + id);
+            }
+            if (!course.isActive()) {
+                throw new ConflictException("Course " + id + " is not active");
+            }
+            archive.checkWritable(course.getSemester());
+            return new SurgeAdmission.CourseSeats(course.getMaxStudents(), enrollments.findStudents(id));
+        }, changes -> {
+            // Retried whole on failure: both writes must be safe to repeat
+            enrollments.applyChanges(changes);
+            Set<String> courseIds = new HashSet<>();
+            for (EnrollmentChange change : changes) {
+                courseIds.add(change.courseId());
+            }
+            Map<ObjectId, Integer> counts = new HashMap<>();
+            enrollments.countStudents(courseIds).forEach((id, count) -> counts.put(new ObjectId(id), count));
+            repository.setEnrollmentCounts(counts);
+        }, catalog::invalidate,
+                Integer.parseInt(MongoDBConfig.getProperty("enrollment.surge.waitlist", "200")),
+                Integer.parseInt(MongoDBConfig.getProperty("enrollment.surge.stripes", "8")),
+                Integer.parseInt(MongoDBConfig.getProperty("enrollment.surge.batchSize", "1000")),
+                Long.parseLong(MongoDBConfig.getProperty("enrollment.surge.flushMillis", "100")));
+    }
+
+    @Override
+    public CourseDTO createCourse(String token, CourseDTO courseDTO) {
+        validateAdminAccess(token);
+
+        // Duplicate courseIds are rejected by the unique index on insert
         Course course = toEntity(courseDTO);
-        Course savedCourse = repository.save(course);
+        Course savedCourse = schedule.write(() -> {
+            archive.checkWritable(course.getSemester());
+            schedule.check(course);
+            prerequisites.check(course);
+            Course saved = repository.insert(course);
+            schedule.book(saved);
+            prerequisites.update(saved);
+            return saved;
+        });
+        catalog.invalidate(savedCourse.getId().toHexString());
         return toDTO(savedCourse);
     }
 
@@ -71,44 +389,646 @@ public class CourseServiceImpl implements ICourseService {
     public CourseDTO updateCourse(String token, String id, CourseDTO courseDTO) {
         validateAdminAccess(token);
 
-        Course existingCourse = repository.findById(id);
-        if (existingCourse == null) {
-            throw new RuntimeException("Course not found with id: " + id);
+        Course course = toEntity(courseDTO);
+        course.setId(new ObjectId(id));
+        CourseDTO updated = schedule.write(() -> {
+            archive.checkWritable(course.getSemester());
+            schedule.check(course);
+            prerequisites.check(course);
+            CourseDTO updatedCourse = repository.updateFields(id, courseDTO.getVersion(),
+                    CourseRepository.fieldsOf(course));
+            if (updatedCourse == null) {
+                throw notFoundOrConflict(id, courseDTO.getVersion());
+            }
+            Course stored = toStoredEntity(updatedCourse);
+            schedule.book(stored);
+            prerequisites.update(stored);
+            return updatedCourse;
+        });
+        catalog.invalidate(id);
+        return updated;
+    }
+
+    @Override
+    public CourseDTO patchCourse(String token, String id, CoursePatchDTO patch) {
+        validateAdminAccess(token);
+
+        if (patch != null && patch.getEnrolledStudents() != null) {
+            throw new BadRequestException("enrolledStudents cannot be patched, it only changes through enroll and unenroll");
+        }
+        Map<String, Object> changes = toChanges(patch);
+        if (changes.isEmpty()) {
+            throw new BadRequestException("Patch for course " + id + " contains no fields");
         }
 
-        Course course = toEntity(courseDTO);
-        Course updatedCourse = repository.update(id, course);
-        return toDTO(updatedCourse);
+        if (!changes.containsKey("professorId") && !changes.containsKey("timeSlots")
+                && !changes.containsKey("active") && !changes.containsKey("courseId")
+                && !changes.containsKey("prerequisites") && !changes.containsKey("semester")) {
+            CourseDTO patchedCourse = repository.updateFields(id, patch.getExpectedVersion(), changes);
+            if (patchedCourse == null) {
+                throw notFoundOrConflict(id, patch.getExpectedVersion());
+            }
+            catalog.invalidate(id);
+            return patchedCourse;
+        }
+
+        // The patch moves the course in the timetable, the prerequisite graph or to another
+        // semester: check the merged result first
+        CourseDTO patched = schedule.write(() -> {
+            if (changes.containsKey("semester")) {
+                archive.checkWritable((String) changes.get("semester"));
+            }
+            CourseDTO current = repository.findDTOById(id);
+            if (current == null) {
+                throw new NotFoundException("Course not found with id: " + id);
+            }
+            Course merged = toStoredEntity(current);
+            applyCheckedChanges(merged, changes);
+            schedule.check(merged);
+            prerequisites.check(merged);
+
+            CourseDTO patchedCourse = repository.updateFields(id, patch.getExpectedVersion(), changes);
+            if (patchedCourse == null) {
+                throw notFoundOrConflict(id, patch.getExpectedVersion());
+            }
+            Course stored = toStoredEntity(patchedCourse);
+            schedule.book(stored);
+            prerequisites.update(stored);
+            return patchedCourse;
+        });
+        catalog.invalidate(id);
+        return patched;
     }
 
     @Override
     public boolean deleteCourse(String token, String id) {
         validateAdminAccess(token);
 
-        Course existingCourse = repository.findById(id);
-        if (existingCourse == null) {
-            throw new RuntimeException("Course not found with id: " + id);
+        // The delete and the release are one step for concurrent schedule writes
+        schedule.write(() -> {
+            if (!repository.delete(id)) {
+                throw new NotFoundException("Course not found with id: " + id);
+            }
+            schedule.release(id);
+            prerequisites.remove(id);
+            return null;
+        });
+        catalog.invalidate(id);
+        return true;
+    }
+
+    @Override
+    public CourseDTO deactivateCourse(String token, String id) {
+        validateAdminAccess(token);
+
+        CourseDTO updatedCourse = schedule.write(() -> {
+            CourseDTO deactivated = repository.updateFields(id, null, Map.of("active", false));
+            if (deactivated == null) {
+                throw new NotFoundException("Course not found with id: " + id);
+            }
+            schedule.release(id);
+            return deactivated;
+        });
+        catalog.invalidate(id);
+        return updatedCourse;
+    }
+
+    @Override
+    public List<RoomDTO> findFreeRooms(String token, String semester, String dayOfWeek, String startTime,
+            String endTime, int minCapacity) {
+        validateAuthentication(token);
+        if (semester == null || semester.isBlank()) {
+            throw new BadRequestException("Semester is required");
         }
 
-        return repository.delete(id);
+        try {
+            return schedule.findFreeRooms(semester, dayOfWeek, startTime, endTime, minCapacity).stream()
+                    .map(room -> new RoomDTO(room.getName(), room.getCapacity()))
+                    .collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    // Only called after a write matched nothing, so the extra lookup stays off the happy path
+    private RuntimeException notFoundOrConflict(String id, Long expectedVersion) {
+        if (expectedVersion != null && repository.exists(id)) {
+            return new ConflictException("Course " + id + " was modified concurrently, expected version "
+                    + expectedVersion);
+        }
+        return new NotFoundException("Course not found with id: " + id);
+    }
+
+    private Map<String, Object> toChanges(CoursePatchDTO patch) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (patch == null) {
+            return changes;
+        }
+        putIfSet(changes, "courseId", patch.getCourseId());
+        putIfSet(changes, "courseName", patch.getCourseName());
+        putIfSet(changes, "courseCode", patch.getCourseCode());
+        putIfSet(changes, "credits", patch.getCredits());
+        putIfSet(changes, "description", patch.getDescription());
+        putIfSet(changes, "professorId", patch.getProfessorId());
+        putIfSet(changes, "professorName", patch.getProfessorName());
+        putIfSet(changes, "maxStudents", patch.getMaxStudents());
+        putIfSet(changes, "semester", patch.getSemester());
+        putIfSet(changes, "active", patch.getActive());
+        putIfSet(changes, "prerequisites", patch.getPrerequisites());
+        if (patch.getTimeSlots() != null) {
+            changes.put("timeSlots", patch.getTimeSlots().stream()
+                    .map(this::dtoToTimeSlot)
+                    .collect(Collectors.toList()));
+        }
+        return changes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void applyCheckedChanges(Course course, Map<String, Object> changes) {
+        if (changes.containsKey("courseId")) {
+            course.setCourseId((String) changes.get("courseId"));
+        }
+        if (changes.containsKey("prerequisites")) {
+            course.setPrerequisites((List<String>) changes.get("prerequisites"));
+        }
+        if (changes.containsKey("professorId")) {
+            course.setProfessorId((String) changes.get("professorId"));
+        }
+        if (changes.containsKey("timeSlots")) {
+            course.setTimeSlots((List<TimeSlot>) changes.get("timeSlots"));
+        }
+        if (changes.containsKey("active")) {
+            course.setActive((Boolean) changes.get("active"));
+        }
+    }
+
+    private static void putIfSet(Map<String, Object> changes, String field, Object value) {
+        if (value != null) {
+            changes.put(field, value);
+        }
     }
 
     @Override
-    public CourseDTO deactivateCourse(String token, String id) {
+    public List<CourseResultDTO> getCoursesByCourseIds(String token, List<String> courseIds) {
+        validateAuthentication(token);
+        validateBatchSize(courseIds);
+
+        Map<String, CourseDTO> found = new HashMap<>();
+        for (CourseDTO course : catalog.findByCourseIds(new HashSet<>(courseIds))) {
+            found.put(course.getCourseId(), course);
+        }
+
+        List<CourseResultDTO> results = new ArrayList<>(courseIds.size());
+        for (int i = 0; i < courseIds.size(); i++) {
+            String courseId = courseIds.get(i);
+            CourseDTO course = found.get(courseId);
+            results.add(course != null
+                    ? CourseResultDTO.success(i, courseId, course)
+                    : CourseResultDTO.failure(i, courseId, "Course not found with courseId: " + courseId));
+        }
+        return results;
+    }
+
+    @Override
+    public List<CourseResultDTO> createCourses(String token, List<CourseDTO> courseDTOs) {
         validateAdminAccess(token);
+        validateBatchSize(courseDTOs);
+        return insertCourses(courseDTOs);
+    }
 
-        Course course = repository.findById(id);
-        if (course == null) {
-            throw new RuntimeException("Course not found with id: " + id);
+    // createCourses once the caller is checked; also writes each batch of an import
+    private List<CourseResultDTO> insertCourses(List<CourseDTO> courseDTOs) {
+        Set<String> requestedIds = new HashSet<>();
+        for (CourseDTO dto : courseDTOs) {
+            if (dto != null && dto.getCourseId() != null) {
+                requestedIds.add(dto.getCourseId());
+            }
+        }
+        Set<String> existing = repository.findExistingCourseIds(requestedIds);
+
+        CourseResultDTO[] results = new CourseResultDTO[courseDTOs.size()];
+        List<CourseResultDTO> created = schedule.write(() -> {
+            List<Course> toInsert = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < courseDTOs.size(); i++) {
+                CourseDTO dto = courseDTOs.get(i);
+                String courseId = dto != null ? dto.getCourseId() : null;
+                if (courseId == null || courseId.isEmpty()) {
+                    results[i] = CourseResultDTO.failure(i, courseId, "courseId is required");
+                    continue;
+                }
+                if (existing.contains(courseId) || !seen.add(courseId)) {
+                    results[i] = CourseResultDTO.failure(i, courseId, "Course with courseId " + courseId + " already exists");
+                    continue;
+                }
+
+                // Ids are assigned up front so accepted courses can be booked, and clash
+                // with later items of the same batch, before the bulk write
+                Course course = toEntity(dto);
+                course.setId(new ObjectId());
+                if (archive.isArchived(course.getSemester())) {
+                    results[i] = CourseResultDTO.failure(i, courseId, "Semester " + course.getSemester() + " is archived and read-only");
+                    continue;
+                }
+                List<String> conflicts = schedule.conflicts(course);
+                if (!conflicts.isEmpty()) {
+                    results[i] = CourseResultDTO.failure(i, courseId, "Schedule conflict: " + String.join("; ", conflicts));
+                    continue;
+                }
+                List<String> problems = prerequisites.problems(course);
+                if (!problems.isEmpty()) {
+                    results[i] = CourseResultDTO.failure(i, courseId, "Invalid prerequisites: " + String.join("; ", problems));
+                    continue;
+                }
+                schedule.book(course);
+                toInsert.add(course);
+                positions.add(i);
+            }
+
+            // The unique index on courseId still catches courses created concurrently
+            Map<Integer, String> errors = repository.insertAll(toInsert);
+            errors.keySet().forEach(w -> schedule.release(toInsert.get(w).getId().toHexString()));
+            prerequisites.updateAll(written(toInsert, errors));
+            collectWriteResults(results, toInsert, positions, errors, Course::getCourseId);
+            return Arrays.asList(results);
+        });
+        catalog.invalidate(writtenIds(created));
+        return created;
+    }
+
+    /**
+     * Creates courses streamed from a CSV or XML export, checked and written like
+     * {@link #createCourses} one batch at a time, however large the input. Not part of the
+     * SOAP interface, since a whole export does not fit one SOAP message; served by the
+     * JSON endpoint.
+     */
+    public ImportResultDTO importCourses(String token, String format, InputStream input) {
+        validateAdminAccess(token);
+
+        String name = format != null ? format.toLowerCase() : "csv";
+        CourseSource source;
+        try {
+            source = switch (name) {
+                case "csv" -> new CsvCourseSource(new InputStreamReader(input, StandardCharsets.UTF_8));
+                case "xml" -> new XmlCourseSource(input);
+                default -> throw new BadRequestException("Unsupported import format: " + format + " (csv or xml)");
+            };
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid import: " + e.getMessage());
+        }
+
+        CourseImporter importer = new CourseImporter(
+                Math.min(Integer.parseInt(MongoDBConfig.getProperty("import.batchSize", "1000")), MAX_BATCH_SIZE),
+                Integer.parseInt(MongoDBConfig.getProperty("import.maxPendingBatches", "2")),
+                Integer.parseInt(MongoDBConfig.getProperty("import.maxErrors", "1000")));
+        ImportResultDTO result = importer.run(name, source, this::insertCourses);
+        System.out.printf("Imported %d of %d courses (%s) in %d ms, %.0f rows/s%n", result.getImportedCount(),
+                result.getRowCount(), name, result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    @Override
+    public List<CourseResultDTO> updateCourses(String token, List<CourseDTO> courseDTOs) {
+        validateAdminAccess(token);
+        validateBatchSize(courseDTOs);
+
+        Set<ObjectId> requestedIds = new HashSet<>();
+        for (CourseDTO dto : courseDTOs) {
+            if (dto != null && dto.getId() != null && ObjectId.isValid(dto.getId())) {
+                requestedIds.add(new ObjectId(dto.getId()));
+            }
+        }
+        Set<ObjectId> existing = repository.findExistingIds(requestedIds);
+
+        CourseResultDTO[] results = new CourseResultDTO[courseDTOs.size()];
+        List<CourseResultDTO> updated = schedule.write(() -> {
+            List<Course> toReplace = new ArrayList<>();
+            List<Long> expectedVersions = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < courseDTOs.size(); i++) {
+                CourseDTO dto = courseDTOs.get(i);
+                String id = dto != null ? dto.getId() : null;
+                if (id == null || !ObjectId.isValid(id)) {
+                    results[i] = CourseResultDTO.failure(i, id, "A valid course id is required");
+                    continue;
+                }
+                if (!existing.contains(new ObjectId(id))) {
+                    results[i] = CourseResultDTO.failure(i, id, "Course not found with id: " + id);
+                    continue;
+                }
+
+                Course course = toEntity(dto);
+                course.setId(new ObjectId(id));
+                if (archive.isArchived(course.getSemester())) {
+                    results[i] = CourseResultDTO.failure(i, id, "Semester " + course.getSemester() + " is archived and read-only");
+                    continue;
+                }
+                List<String> conflicts = schedule.conflicts(course);
+                if (!conflicts.isEmpty()) {
+                    results[i] = CourseResultDTO.failure(i, id, "Schedule conflict: " + String.join("; ", conflicts));
+                    continue;
+                }
+                List<String> problems = prerequisites.problems(course);
+                if (!problems.isEmpty()) {
+                    results[i] = CourseResultDTO.failure(i, id, "Invalid prerequisites: " + String.join("; ", problems));
+                    continue;
+                }
+                schedule.book(course);
+                toReplace.add(course);
+                expectedVersions.add(dto.getVersion());
+                positions.add(i);
+            }
+
+            Map<Integer, String> errors = repository.updateAll(toReplace, expectedVersions);
+            for (Integer w : errors.keySet()) {
+                // Put back what is actually stored for courses that were not updated
+                Course stored = repository.findById(toReplace.get(w).getId().toHexString());
+                if (stored != null) {
+                    schedule.book(stored);
+                } else {
+                    schedule.release(toReplace.get(w).getId().toHexString());
+                }
+            }
+            prerequisites.updateAll(written(toReplace, errors));
+            collectWriteResults(results, toReplace, positions, errors, c -> c.getId().toHexString());
+            return Arrays.asList(results);
+        });
+        catalog.invalidate(writtenIds(updated));
+        return updated;
+    }
+
+    @Override
+    public int archiveSemester(String token, String semester) {
+        validateAdminAccess(token);
+        if (semester == null || semester.isEmpty()) {
+            throw new BadRequestException("semester is required");
+        }
+
+        // Holding the write lock keeps this instance's writes to the semester out while it moves
+        List<String> moved = schedule.write(() -> {
+            long active = repository.countActive(semester);
+            if (active > 0) {
+                throw new ConflictException("Semester " + semester + " still has " + active
+                        + " active courses, deactivate them before archiving");
+            }
+            // Enrollment requests check this before changing seats
+            boolean marked = archive.markArchiving(semester);
+            if (surge != null && !surge.awaitFlushed(
+                    Long.parseLong(MongoDBConfig.getProperty("archive.surgeWaitSeconds", "30")) * 1000)) {
+                if (marked) {
+                    // Nothing was moved, so the semester goes back to taking writes
+                    archive.unmarkArchiving(semester);
+                }
+                throw new ConflictException("Enrollment changes are still being written, archive semester "
+                        + semester + " again later");
+            }
+            List<String> ids = archive.archive(semester,
+                    Integer.parseInt(MongoDBConfig.getProperty("archive.batchSize", "1000")));
+            ids.forEach(schedule::release);
+            prerequisites.removeAll(ids);
+            return ids;
+        });
+        catalog.invalidate(moved);
+        System.out.println("Archived " + moved.size() + " courses of semester " + semester);
+        return moved.size();
+    }
+
+    @Override
+    public RolloverResultDTO rolloverSemester(String token, String fromSemester, String toSemester,
+            RolloverOptionsDTO options) {
+        validateAdminAccess(token);
+        if (fromSemester == null || fromSemester.isEmpty() || toSemester == null || toSemester.isEmpty()) {
+            throw new BadRequestException("fromSemester and toSemester are required");
+        }
+        if (fromSemester.equals(toSemester)) {
+            throw new BadRequestException("fromSemester and toSemester must differ");
         }
+        RolloverOptionsDTO rules = options != null ? options : new RolloverOptionsDTO();
+        boolean fromArchive = archive.isArchived(fromSemester);
 
-        course.setActive(false);
-        Course updatedCourse = repository.save(course);
-        return toDTO(updatedCourse);
+        long start = System.nanoTime();
+        RolloverResultDTO result = new RolloverResultDTO();
+        result.setFromSemester(fromSemester);
+        result.setToSemester(toSemester);
+        List<Course> created = schedule.write(() -> {
+            archive.checkWritable(toSemester);
+            List<CourseDTO> copies = repository.previewRollover(fromSemester, toSemester, fromArchive,
+                    rules.isKeepTimeSlots(), rules.isKeepProfessors());
+            if (copies.isEmpty()) {
+                throw new NotFoundException("Semester " + fromSemester + " not found");
+            }
+            result.setSourceCount(copies.size());
+
+            Set<String> taken = repository.findExistingCourseIds(
+                    copies.stream().map(CourseDTO::getCourseId).collect(Collectors.toList()));
+            Set<String> seen = new HashSet<>();
+            List<String> activeIds = new ArrayList<>();
+            // Copies to activate are booked under a placeholder id so they also clash with each other.
+            // They are in toSemester, so their active sources in fromSemester are not in the way.
+            List<String> placeholders = new ArrayList<>();
+            try {
+                for (CourseDTO copy : copies) {
+                    if (taken.contains(copy.getCourseId()) || !seen.add(copy.getCourseId())) {
+                        result.getConflicts().add("Course with courseId " + copy.getCourseId() + " already exists");
+                        continue;
+                    }
+                    if (!rules.isActivate() || !copy.isActive()) {
+                        continue;
+                    }
+                    Course course = toEntity(copy);
+                    course.setId(new ObjectId());
+                    List<String> conflicts = schedule.conflicts(course);
+                    if (conflicts.isEmpty()) {
+                        schedule.book(course);
+                        placeholders.add(course.getId().toHexString());
+                        activeIds.add(copy.getId());
+                    } else {
+                        result.getScheduleConflicts().add(copy.getCourseId() + ": " + String.join("; ", conflicts));
+                    }
+                }
+                List<Course> rolled = repository.rolloverSemester(fromSemester, toSemester, fromArchive,
+                        rules.isKeepTimeSlots(), rules.isKeepProfessors(), activeIds);
+                // Booked before the placeholders go, so no other write sees the slots free in between
+                rolled.forEach(schedule::book);
+                prerequisites.updateAll(rolled);
+                return rolled;
+            } finally {
+                placeholders.forEach(schedule::release);
+            }
+        });
+
+        catalog.invalidate(created.stream().map(c -> c.getId().toHexString()).collect(Collectors.toList()));
+
+        result.setCreatedCount(created.size());
+        result.setActiveCount((int) created.stream().filter(Course::isActive).count());
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        System.out.println("Rolled over " + created.size() + " of " + result.getSourceCount() + " courses from "
+                + fromSemester + " to " + toSemester + " in " + result.getElapsedMillis() + " ms");
+        return result;
+    }
+
+    @Override
+    public TimetableResultDTO generateTimetable(String token, String semester, int timeBudgetSeconds, boolean apply) {
+        validateAdminAccess(token);
+        if (semester == null || semester.isBlank()) {
+            throw new BadRequestException("Semester is required");
+        }
+
+        int sessionMinutes = Integer.parseInt(MongoDBConfig.getProperty("timetable.sessionMinutes", "90"));
+        int maxBudget = Integer.parseInt(MongoDBConfig.getProperty("timetable.maxBudgetSeconds", "300"));
+        int budget = timeBudgetSeconds <= 0 ? 30 : Math.min(timeBudgetSeconds, maxBudget);
+
+        List<Course> courses = repository.findActiveBySemester(semester);
+        Map<String, Course> coursesById = new LinkedHashMap<>();
+        TimetableProblem.Builder builder = TimetableProblem.builder().periods(TimetableProblem.weeklyPeriods(
+                Arrays.stream(MongoDBConfig.getProperty("timetable.days", "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY")
+                        .split(",")).map(day -> DayOfWeek.valueOf(day.trim().toUpperCase())).toList(),
+                LocalTime.parse(MongoDBConfig.getProperty("timetable.dayStart", "08:00")),
+                LocalTime.parse(MongoDBConfig.getProperty("timetable.dayEnd", "18:00")),
+                sessionMinutes,
+                Integer.parseInt(MongoDBConfig.getProperty("timetable.breakMinutes", "15"))));
+        new RoomRepository().findAll().forEach(room -> builder.room(room.getName(), room.getCapacity()));
+        for (Course course : courses) {
+            // Keep the current number of weekly sessions, otherwise derive it from the credits
+            int sessions = course.getTimeSlots() != null && !course.getTimeSlots().isEmpty()
+                    ? course.getTimeSlots().size()
+                    : Math.max(1, Math.round(course.getCredits() * 60f / sessionMinutes));
+            String key = course.getId().toHexString();
+            coursesById.put(key, course);
+            builder.course(key, course.getProfessorId(), sessions, course.getMaxStudents());
+        }
+        new AvailabilityRepository().findAll().forEach((professorId, slots) -> builder.availability(professorId,
+                slots.stream().map(slot -> WeekRange.parse(slot.getDayOfWeek(), slot.getStartTime(),
+                        slot.getEndTime())).toList()));
+
+        TimetableProblem problem;
+        try {
+            problem = builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cannot generate timetable: " + e.getMessage());
+        }
+
+        TimetableSolution solution;
+        try (TimetableSolver solver = new TimetableSolver()) {
+            solution = solver.solve(problem, Duration.ofSeconds(budget),
+                    improved -> System.out.println("Timetable " + semester + ": " + improved));
+        }
+
+        Map<String, List<TimeSlot>> timeSlots = solution.toTimeSlots();
+        TimetableResultDTO result = new TimetableResultDTO();
+        boolean applied = apply && solution.isComplete();
+        if (applied) {
+            // The search ran on a snapshot: courses changed since then keep what they have now
+            List<String> conflicts = schedule.write(() -> {
+                Map<ObjectId, List<TimeSlot>> updates = new LinkedHashMap<>();
+                Map<ObjectId, Long> versions = new HashMap<>();
+                timeSlots.forEach((key, slots) -> {
+                    updates.put(new ObjectId(key), slots);
+                    versions.put(new ObjectId(key), coursesById.get(key).getVersion());
+                });
+                Map<String, Course> stored = new HashMap<>();
+                repository.updateTimeSlots(semester, updates, versions)
+                        .forEach(course -> stored.put(course.getId().toHexString(), course));
+
+                List<String> notApplied = new ArrayList<>();
+                timeSlots.forEach((key, slots) -> {
+                    Course course = stored.get(key);
+                    if (course == null) {
+                        schedule.release(key);
+                        notApplied.add("Course not found with id: " + key);
+                        return;
+                    }
+                    schedule.book(course);
+                    if (!course.isActive() || !semester.equals(course.getSemester())
+                            || !sameTimeSlots(course.getTimeSlots(), slots)) {
+                        notApplied.add("Course " + course.getCourseId()
+                                + " was modified concurrently, expected version " + coursesById.get(key).getVersion());
+                    }
+                });
+                return notApplied;
+            });
+            result.setConflicts(conflicts);
+            catalog.invalidate(timeSlots.keySet());
+        }
+
+        result.setSemester(semester);
+        result.setCourseCount(problem.getCourseCount());
+        result.setSessionCount(problem.getSessionCount());
+        result.setUnassignedSessions(solution.getUnassignedCount());
+        result.setPenalty(solution.getPenalty());
+        result.setElapsedMillis(solution.getElapsedMillis());
+        result.setApplied(applied);
+        result.setUnassignedCourseIds(solution.getUnassignedCourseKeys().stream()
+                .map(key -> coursesById.get(key).getCourseId()).collect(Collectors.toList()));
+        timeSlots.forEach((key, slots) -> {
+            Course course = coursesById.get(key);
+            CourseDTO dto = new CourseDTO();
+            dto.setId(key);
+            dto.setCourseId(course.getCourseId());
+            dto.setTimeSlots(slots.stream().map(this::timeSlotToDTO).collect(Collectors.toList()));
+            result.getCourses().add(dto);
+        });
+        return result;
+    }
+
+    private static boolean sameTimeSlots(List<TimeSlot> stored, List<TimeSlot> generated) {
+        if (stored == null || stored.size() != generated.size()) {
+            return false;
+        }
+        for (int i = 0; i < stored.size(); i++) {
+            TimeSlot a = stored.get(i);
+            TimeSlot b = generated.get(i);
+            if (!Objects.equals(a.getDayOfWeek(), b.getDayOfWeek())
+                    || !Objects.equals(a.getStartTime(), b.getStartTime())
+                    || !Objects.equals(a.getEndTime(), b.getEndTime())
+                    || !Objects.equals(a.getRoom(), b.getRoom())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void validateBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("At least one item is required");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch too large: " + items.size() + " items (max " + MAX_BATCH_SIZE + ")");
+        }
+    }
+
+    // The courses of a bulk write that were actually written
+    private static List<Course> written(List<Course> courses, Map<Integer, String> errors) {
+        List<Course> written = new ArrayList<>(courses.size() - errors.size());
+        for (int w = 0; w < courses.size(); w++) {
+            if (!errors.containsKey(w)) {
+                written.add(courses.get(w));
+            }
+        }
+        return written;
+    }
+
+    private static List<String> writtenIds(List<CourseResultDTO> results) {
+        return results.stream().filter(CourseResultDTO::isSuccess)
+                .map(result -> result.getCourse().getId()).collect(Collectors.toList());
+    }
+
+    // Maps bulk write errors (indexed by position in the write list) back to request positions
+    private void collectWriteResults(CourseResultDTO[] results, List<Course> written, List<Integer> positions,
+            Map<Integer, String> errors, Function<Course, String> keyOf) {
+        for (int w = 0; w < written.size(); w++) {
+            int i = positions.get(w);
+            Course course = written.get(w);
+            String key = keyOf.apply(course);
+            results[i] = errors.containsKey(w)
+                    ? CourseResultDTO.failure(i, key, errors.get(w))
+                    : CourseResultDTO.success(i, key, toDTO(course));
+        }
     }
 
     // Security validation methods
-    private void validateAuthentication(String token) {
+    private JWTValidator.UserInfo validateAuthentication(String token) {
         if (token == null || token.trim().isEmpty()) {
             throw new SecurityException("Authentication token is required");
         }
@@ -120,11 +1040,21 @@ public class CourseServiceImpl implements ICourseService {
             if (!JWTValidator.isAuthenticated(role)) {
                 throw new SecurityException("Invalid user role");
             }
+            return userInfo;
         } catch (Exception e) {
             throw new SecurityException("Authentication failed: " + e.getMessage());
         }
     }
 
+    // Enrollments are recorded under the email of the caller
+    private String authenticatedStudent(String token) {
+        String email = JWTValidator.extractUsername(validateAuthentication(token));
+        if (email == null || email.isEmpty()) {
+            throw new SecurityException("Token does not identify a user");
+        }
+        return email;
+    }
+
     private void validateAdminAccess(String token) {
         if (token == null || token.trim().isEmpty()) {
             throw new SecurityException("Authentication token is required");
@@ -144,6 +1074,42 @@ public class CourseServiceImpl implements ICourseService {
         }
     }
 
+    // Search helpers
+    private List<String> toProjection(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        List<String> projection = new ArrayList<>();
+        for (String field : fields) {
+            if ("id".equals(field)) {
+                continue; // _id is always returned
+            }
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown course field: " + field);
+            }
+            projection.add(field);
+        }
+        if (projection.isEmpty()) {
+            projection.add("_id");
+        }
+        return projection;
+    }
+
+    private String encodeCursor(ObjectId lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toByteArray());
+    }
+
+    private ObjectId decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new ObjectId(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
     // Conversion methods
     private CourseDTO toDTO(Course course) {
         CourseDTO dto = new CourseDTO();
@@ -159,11 +1125,13 @@ public class CourseServiceImpl implements ICourseService {
         dto.setEnrolledStudents(course.getEnrolledStudents());
         dto.setSemester(course.getSemester());
         dto.setActive(course.isActive());
+        dto.setVersion(course.getVersion());
 
         List<TimeSlotDTO> timeSlotDTOs = course.getTimeSlots().stream()
                 .map(this::timeSlotToDTO)
                 .collect(Collectors.toList());
         dto.setTimeSlots(timeSlotDTOs);
+        dto.setPrerequisites(new ArrayList<>(course.getPrerequisites()));
 
         return dto;
     }
@@ -186,7 +1154,15 @@ public class CourseServiceImpl implements ICourseService {
                 .map(this::dtoToTimeSlot)
                 .collect(Collectors.toList());
         course.setTimeSlots(timeSlots);
+        course.setPrerequisites(dto.getPrerequisites() != null ? new ArrayList<>(dto.getPrerequisites()) : new ArrayList<>());
+
+        return course;
+    }
 
+    // For DTOs read back from the database, which always carry their id
+    private Course toStoredEntity(CourseDTO dto) {
+        Course course = toEntity(dto);
+        course.setId(new ObjectId(dto.getId()));
         return course;
     }
 
@@ -1,6 +1,17 @@
 package com.university.cours.service;
 
+import com.university.cours.dto.CourseChangesDTO;
 import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.CourseFilterDTO;
+import com.university.cours.dto.CoursePageDTO;
+import com.university.cours.dto.CoursePatchDTO;
+import com.university.cours.dto.CourseResultDTO;
+import com.university.cours.dto.EligibilityDTO;
+import com.university.cours.dto.EnrollmentResultDTO;
+import com.university.cours.dto.RolloverOptionsDTO;
+import com.university.cours.dto.RolloverResultDTO;
+import com.university.cours.dto.RoomDTO;
+import com.university.cours.dto.TimetableResultDTO;
 import jakarta.jws.WebMethod;
 import jakarta.jws.WebParam;
 import jakarta.jws.WebService;
@@ -38,6 +49,92 @@ public interface ICourseService {
             @WebParam(name = "token") String token,
             @WebParam(name = "courseId") String courseId);
 
+    /**
+     * Search courses one page at a time (accessible by all authenticated users).
+     * Pass the nextCursor of the previous page to get the following one; fields
+     * optionally limits which course fields are returned.
+     */
+    @WebMethod
+    CoursePageDTO searchCourses(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "filter") CourseFilterDTO filter,
+            @WebParam(name = "pageSize") int pageSize,
+            @WebParam(name = "cursor") String cursor,
+            @WebParam(name = "fields") List<String> fields);
+
+    /**
+     * Full-text search over course name, code, description and professor name
+     * (accessible by all authenticated users). Words may be prefixes or carry a typo;
+     * returns up to limit courses matching the filter, best match first.
+     */
+    @WebMethod
+    List<CourseDTO> searchCoursesText(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "query") String query,
+            @WebParam(name = "filter") CourseFilterDTO filter,
+            @WebParam(name = "limit") int limit);
+
+    /**
+     * Get several courses by course ID in one call (accessible by all authenticated users).
+     * Returns one result per requested courseId, in request order.
+     */
+    @WebMethod
+    List<CourseResultDTO> getCoursesByCourseIds(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "courseId") List<String> courseIds);
+
+    /**
+     * Rooms free for the whole given weekly slot in a semester, with at least minCapacity
+     * seats (accessible by all authenticated users). Times use HH:mm.
+     */
+    @WebMethod
+    List<RoomDTO> findFreeRooms(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "semester") String semester,
+            @WebParam(name = "dayOfWeek") String dayOfWeek,
+            @WebParam(name = "startTime") String startTime,
+            @WebParam(name = "endTime") String endTime,
+            @WebParam(name = "minCapacity") int minCapacity);
+
+    /**
+     * Check which of targetCourseIds a student who completed completedCourseIds may take
+     * (accessible by all authenticated users). One result per target, in order, listing
+     * the prerequisites still missing.
+     */
+    @WebMethod
+    List<EligibilityDTO> checkEligibility(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "completedCourseId") List<String> completedCourseIds,
+            @WebParam(name = "targetCourseId") List<String> targetCourseIds);
+
+    /**
+     * Get the active courses written, and the courses deleted or deactivated, after sinceRevision.
+     * Start with 0 for a full copy, then pass the returned highWaterMark on each following call.
+     * When sinceRevision is older than the tombstone retention, fullResync is set and changed
+     * holds the whole active catalog.
+     */
+    @WebMethod
+    CourseChangesDTO getCoursesChangedSince(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "sinceRevision") long sinceRevision);
+
+    /**
+     * Enroll the calling user in a course. Returns FULL when no seat is left; in surge mode
+     * a full course puts the caller on its waitlist (WAITLISTED) while there is room.
+     */
+    @WebMethod
+    EnrollmentResultDTO enroll(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "id") String id);
+
+    /**
+     * Unenroll the calling user from a course, or take them off its waitlist.
+     */
+    @WebMethod
+    EnrollmentResultDTO unenroll(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "id") String id);
+
     /**
      * Create a new course (admin only)
      */
@@ -47,7 +144,9 @@ public interface ICourseService {
             @WebParam(name = "course") CourseDTO courseDTO);
 
     /**
-     * Update an existing course (admin only)
+     * Update an existing course (admin only).
+     * If course.version is set, the update fails when the course has been changed since.
+     * enrolledStudents is ignored; it only changes through enroll and unenroll.
      */
     @WebMethod
     CourseDTO updateCourse(
@@ -55,6 +154,17 @@ public interface ICourseService {
             @WebParam(name = "id") String id,
             @WebParam(name = "course") CourseDTO courseDTO);
 
+    /**
+     * Update only the fields set in the patch (admin only).
+     * Fails if expectedVersion is given and the course has been changed since,
+     * or if the patch sets enrolledStudents.
+     */
+    @WebMethod
+    CourseDTO patchCourse(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "id") String id,
+            @WebParam(name = "patch") CoursePatchDTO patch);
+
     /**
      * Delete a course (admin only)
      */
@@ -70,4 +180,60 @@ public interface ICourseService {
     CourseDTO deactivateCourse(
             @WebParam(name = "token") String token,
             @WebParam(name = "id") String id);
+
+    /**
+     * Create several courses in one call (admin only).
+     * Returns one result per course, in request order; one failure does not stop the others.
+     */
+    @WebMethod
+    List<CourseResultDTO> createCourses(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "course") List<CourseDTO> courseDTOs);
+
+    /**
+     * Update several courses, each addressed by its id, in one call (admin only).
+     * A course sent with a version is only updated if it still has that version.
+     * As in updateCourse, enrolledStudents is ignored.
+     * Returns one result per course, in request order; one failure does not stop the others.
+     */
+    @WebMethod
+    List<CourseResultDTO> updateCourses(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "course") List<CourseDTO> courseDTOs);
+
+    /**
+     * Move the courses of a closed semester to the archive (admin only). The semester stays
+     * readable through the same operations but rejects further writes. Returns the number
+     * of courses moved.
+     */
+    @WebMethod
+    int archiveSemester(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "semester") String semester);
+
+    /**
+     * Copy every course of fromSemester into toSemester inside MongoDB (admin only).
+     * courseIds are rewritten for the new semester and enrolled students reset; options
+     * choose whether time slots and professors carry over and whether copies start
+     * active. Copies whose courseId already exists are reported and skipped.
+     */
+    @WebMethod
+    RolloverResultDTO rolloverSemester(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "fromSemester") String fromSemester,
+            @WebParam(name = "toSemester") String toSemester,
+            @WebParam(name = "options") RolloverOptionsDTO options);
+
+    /**
+     * Generate a timetable for the active courses of a semester (admin only).
+     * Searches for up to timeBudgetSeconds; with apply=true a complete timetable replaces the
+     * courses' time slots, otherwise the proposal is only returned. Courses changed, deactivated
+     * or removed during the search keep what they have and are listed in conflicts.
+     */
+    @WebMethod
+    TimetableResultDTO generateTimetable(
+            @WebParam(name = "token") String token,
+            @WebParam(name = "semester") String semester,
+            @WebParam(name = "timeBudgetSeconds") int timeBudgetSeconds,
+            @WebParam(name = "apply") boolean apply);
 }
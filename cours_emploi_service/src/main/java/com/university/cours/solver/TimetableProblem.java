@@ -0,0 +1,216 @@
+package com.university.cours.solver;
+
+import com.university.cours.schedule.WeekRange;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable input of the timetable solver: the teaching periods of a week, the rooms,
+ * and the courses with how many sessions each needs.
+ *
+ * Everything is reduced to dense int indexes so the solver works on arrays and bitsets.
+ * Rooms are sorted by capacity, so "a room with at least n seats" is the first free
+ * index at or after a precomputed position.
+ */
+public class TimetableProblem {
+    final WeekRange[] periods;
+    final String[] roomNames;
+    final int[] roomCapacity;
+    final String[] courseKeys;
+    final int[] courseProfessor;
+    final String[] professorIds;
+    final BitSet[] professorAvailable;
+
+    // One entry per session to place
+    final int[] sessionCourse;
+    final int[] sessionMinRoom;
+
+    private TimetableProblem(Builder b) {
+        this.periods = b.periods.toArray(new WeekRange[0]);
+
+        List<Integer> roomOrder = new ArrayList<>();
+        for (int i = 0; i < b.roomNames.size(); i++) {
+            roomOrder.add(i);
+        }
+        roomOrder.sort(Comparator.comparingInt(b.roomCapacities::get));
+        this.roomNames = new String[roomOrder.size()];
+        this.roomCapacity = new int[roomOrder.size()];
+        for (int i = 0; i < roomOrder.size(); i++) {
+            roomNames[i] = b.roomNames.get(roomOrder.get(i));
+            roomCapacity[i] = b.roomCapacities.get(roomOrder.get(i));
+        }
+
+        this.professorIds = b.professorIndex.keySet().toArray(new String[0]);
+        Map<String, Integer> professorIndex = new HashMap<>();
+        for (int i = 0; i < professorIds.length; i++) {
+            professorIndex.put(professorIds[i], i);
+        }
+        this.professorAvailable = new BitSet[professorIds.length];
+        for (int i = 0; i < professorIds.length; i++) {
+            List<WeekRange> availability = b.availability.get(professorIds[i]);
+            BitSet available = new BitSet(periods.length);
+            for (int p = 0; p < periods.length; p++) {
+                if (availability == null || covers(availability, periods[p])) {
+                    available.set(p);
+                }
+            }
+            professorAvailable[i] = available;
+        }
+
+        int courseCount = b.courseKeys.size();
+        this.courseKeys = b.courseKeys.toArray(new String[0]);
+        this.courseProfessor = new int[courseCount];
+        List<Integer> sessions = new ArrayList<>();
+        List<Integer> minRooms = new ArrayList<>();
+        for (int c = 0; c < courseCount; c++) {
+            courseProfessor[c] = professorIndex.get(b.courseProfessors.get(c));
+            int minRoom = firstRoomWithCapacity(b.courseDemand.get(c));
+            for (int k = 0; k < b.courseSessions.get(c); k++) {
+                sessions.add(c);
+                minRooms.add(minRoom);
+            }
+        }
+        this.sessionCourse = sessions.stream().mapToInt(Integer::intValue).toArray();
+        this.sessionMinRoom = minRooms.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Back-to-back periods of sessionMinutes, separated by breakMinutes, between
+     * dayStart and dayEnd on each of the given days.
+     */
+    public static List<WeekRange> weeklyPeriods(List<DayOfWeek> days, LocalTime dayStart, LocalTime dayEnd,
+            int sessionMinutes, int breakMinutes) {
+        List<WeekRange> periods = new ArrayList<>();
+        int first = dayStart.toSecondOfDay() / 60;
+        int last = dayEnd.toSecondOfDay() / 60;
+        for (DayOfWeek day : days) {
+            int offset = (day.getValue() - 1) * WeekRange.MINUTES_PER_DAY;
+            for (int start = first; start + sessionMinutes <= last; start += sessionMinutes + breakMinutes) {
+                periods.add(new WeekRange(offset + start, offset + start + sessionMinutes));
+            }
+        }
+        return periods;
+    }
+
+    public int getPeriodCount() {
+        return periods.length;
+    }
+
+    public int getRoomCount() {
+        return roomNames.length;
+    }
+
+    public int getCourseCount() {
+        return courseKeys.length;
+    }
+
+    public int getSessionCount() {
+        return sessionCourse.length;
+    }
+
+    public String getCourseKey(int course) {
+        return courseKeys[course];
+    }
+
+    public WeekRange getPeriod(int period) {
+        return periods[period];
+    }
+
+    public String getRoomName(int room) {
+        return roomNames[room];
+    }
+
+    int dayOf(int period) {
+        return periods[period].getStart() / WeekRange.MINUTES_PER_DAY;
+    }
+
+    // Index of the smallest room with at least demand seats, or roomCount if none is big enough
+    private int firstRoomWithCapacity(int demand) {
+        int index = Arrays.binarySearch(roomCapacity, demand);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && roomCapacity[index - 1] == demand) {
+            index--;
+        }
+        return index;
+    }
+
+    private static boolean covers(List<WeekRange> availability, WeekRange period) {
+        for (WeekRange range : availability) {
+            if (range.getStart() <= period.getStart() && period.getEnd() <= range.getEnd()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Builder {
+        private List<WeekRange> periods = List.of();
+        private final List<String> roomNames = new ArrayList<>();
+        private final List<Integer> roomCapacities = new ArrayList<>();
+        private final List<String> courseKeys = new ArrayList<>();
+        private final List<String> courseProfessors = new ArrayList<>();
+        private final List<Integer> courseSessions = new ArrayList<>();
+        private final List<Integer> courseDemand = new ArrayList<>();
+        private final Map<String, Integer> professorIndex = new LinkedHashMap<>();
+        private final Map<String, List<WeekRange>> availability = new HashMap<>();
+
+        public Builder periods(List<WeekRange> periods) {
+            this.periods = periods;
+            return this;
+        }
+
+        public Builder room(String name, int capacity) {
+            roomNames.add(name);
+            roomCapacities.add(capacity);
+            return this;
+        }
+
+        /**
+         * Adds a course needing the given number of weekly sessions in a room of at least minCapacity.
+         * Courses without a professor each get their own placeholder so they never block each other.
+         */
+        public Builder course(String key, String professorId, int sessions, int minCapacity) {
+            String professor = professorId != null && !professorId.isBlank() ? professorId : "#" + key;
+            courseKeys.add(key);
+            courseProfessors.add(professor);
+            courseSessions.add(sessions);
+            courseDemand.add(minCapacity);
+            professorIndex.putIfAbsent(professor, professorIndex.size());
+            return this;
+        }
+
+        /**
+         * Restricts a professor to periods fully inside one of the given ranges.
+         * Professors without availability can teach in any period.
+         */
+        public Builder availability(String professorId, List<WeekRange> ranges) {
+            availability.computeIfAbsent(professorId, k -> new ArrayList<>()).addAll(ranges);
+            return this;
+        }
+
+        public TimetableProblem build() {
+            if (periods.isEmpty()) {
+                throw new IllegalArgumentException("Timetable needs at least one period");
+            }
+            if (roomNames.isEmpty()) {
+                throw new IllegalArgumentException("Timetable needs at least one room");
+            }
+            return new TimetableProblem(this);
+        }
+    }
+}
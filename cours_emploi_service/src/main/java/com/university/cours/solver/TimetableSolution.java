@@ -0,0 +1,125 @@
+package com.university.cours.solver;
+
+import com.university.cours.model.TimeSlot;
+import com.university.cours.schedule.WeekRange;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A (possibly partial) assignment of every session to a period and a room.
+ * Hard constraints always hold; sessions that could not be placed stay unassigned.
+ * The penalty counts sessions of a course that share a day with another of its sessions.
+ */
+public class TimetableSolution {
+    private final TimetableProblem problem;
+    private final int[] periodOf;
+    private final int[] roomOf;
+    private final int unassignedCount;
+    private final int penalty;
+    private final long elapsedMillis;
+
+    TimetableSolution(TimetableProblem problem, int[] periodOf, int[] roomOf, int unassignedCount,
+            int penalty, long elapsedMillis) {
+        this.problem = problem;
+        this.periodOf = periodOf;
+        this.roomOf = roomOf;
+        this.unassignedCount = unassignedCount;
+        this.penalty = penalty;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isComplete() {
+        return unassignedCount == 0;
+    }
+
+    public int getUnassignedCount() {
+        return unassignedCount;
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    /**
+     * Time since the solver started when this solution was found.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    boolean betterThan(TimetableSolution other) {
+        if (other == null) {
+            return true;
+        }
+        if (unassignedCount != other.unassignedCount) {
+            return unassignedCount < other.unassignedCount;
+        }
+        return penalty < other.penalty;
+    }
+
+    /**
+     * Assigned time slots per course key, in session order. Unassigned sessions are left out.
+     */
+    public Map<String, List<TimeSlot>> toTimeSlots() {
+        Map<String, List<TimeSlot>> slots = new LinkedHashMap<>();
+        for (int s = 0; s < periodOf.length; s++) {
+            if (periodOf[s] < 0) {
+                continue;
+            }
+            WeekRange period = problem.getPeriod(periodOf[s]);
+            slots.computeIfAbsent(problem.getCourseKey(problem.sessionCourse[s]), k -> new ArrayList<>())
+                    .add(new TimeSlot(period.getDayOfWeek().name(), period.getStartTime(), period.getEndTime(),
+                            problem.getRoomName(roomOf[s])));
+        }
+        return slots;
+    }
+
+    public Set<String> getUnassignedCourseKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int s = 0; s < periodOf.length; s++) {
+            if (periodOf[s] < 0) {
+                keys.add(problem.getCourseKey(problem.sessionCourse[s]));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Recounts hard-constraint violations from scratch; always 0 for solver output.
+     */
+    int countViolations() {
+        int violations = 0;
+        Set<Long> usedRooms = new HashSet<>();
+        Set<Long> usedProfessors = new HashSet<>();
+        for (int s = 0; s < periodOf.length; s++) {
+            int p = periodOf[s];
+            if (p < 0) {
+                continue;
+            }
+            int course = problem.sessionCourse[s];
+            int professor = problem.courseProfessor[course];
+            if (!usedRooms.add((long) p * problem.getRoomCount() + roomOf[s])) {
+                violations++;
+            }
+            if (!usedProfessors.add((long) professor * problem.getPeriodCount() + p)) {
+                violations++;
+            }
+            if (roomOf[s] < problem.sessionMinRoom[s] || !problem.professorAvailable[professor].get(p)) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        return "TimetableSolution{unassigned=" + unassignedCount + ", penalty=" + penalty
+                + ", elapsed=" + elapsedMillis + "ms}";
+    }
+}
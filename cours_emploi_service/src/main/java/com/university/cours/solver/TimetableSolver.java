@@ -0,0 +1,373 @@
+package com.university.cours.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Builds conflict-free timetables: no room and no professor is used twice in a period,
+ * rooms are big enough and professors are only placed when available.
+ *
+ * Each worker of the fork-join pool runs its own randomized search (greedy construction,
+ * then ejection-chain repair of unplaced sessions, then moves that spread a course's
+ * sessions over different days). Workers share the best solution found so far; every
+ * improvement is handed to the caller as it happens. The search stops at the time budget,
+ * or as soon as a worker finds a complete solution with no penalty.
+ */
+public class TimetableSolver implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    public TimetableSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public TimetableSolver(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public TimetableSolution solve(TimetableProblem problem, Duration budget,
+            Consumer<TimetableSolution> onImprovement) {
+        Shared shared = new Shared(onImprovement, System.nanoTime(), System.nanoTime() + budget.toNanos());
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        long seed = System.nanoTime();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            long workerSeed = seed + i * 0x9E3779B97F4A7C15L;
+            tasks.add(pool.submit(() -> new Search(problem, shared, workerSeed).run()));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return shared.best;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static final class Shared {
+        final Consumer<TimetableSolution> onImprovement;
+        final long startNanos;
+        final long deadlineNanos;
+        final AtomicBoolean done = new AtomicBoolean();
+        volatile TimetableSolution best;
+
+        Shared(Consumer<TimetableSolution> onImprovement, long startNanos, long deadlineNanos) {
+            this.onImprovement = onImprovement;
+            this.startNanos = startNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        boolean running() {
+            return !done.get() && System.nanoTime() < deadlineNanos;
+        }
+
+        synchronized void offer(TimetableSolution candidate) {
+            if (!candidate.betterThan(best)) {
+                return;
+            }
+            best = candidate;
+            if (candidate.isComplete() && candidate.getPenalty() == 0) {
+                done.set(true);
+            }
+            if (onImprovement != null) {
+                onImprovement.accept(candidate);
+            }
+        }
+    }
+
+    /**
+     * One randomized search. All state is local to the worker, so no locking is needed.
+     */
+    private static final class Search {
+        private static final int DAYS = 7;
+
+        final TimetableProblem problem;
+        final Shared shared;
+        final SplittableRandom random;
+        final int periods;
+        final int rooms;
+
+        final int[] periodOf;
+        final int[] roomOf;
+        final int[] roomSlot;       // period * rooms + room -> session, -1 when free
+        final BitSet[] freeRooms;   // per period, bit set when the room is free
+        final int[] professorSlot;  // professor * periods + period -> session, -1 when free
+        final int[] courseDayCount; // course * DAYS + day -> sessions of the course that day
+        int unassigned;
+        int penalty;
+
+        Search(TimetableProblem problem, Shared shared, long seed) {
+            this.problem = problem;
+            this.shared = shared;
+            this.random = new SplittableRandom(seed);
+            this.periods = problem.periods.length;
+            this.rooms = problem.roomNames.length;
+
+            int sessions = problem.sessionCourse.length;
+            this.periodOf = new int[sessions];
+            this.roomOf = new int[sessions];
+            Arrays.fill(periodOf, -1);
+            Arrays.fill(roomOf, -1);
+            this.roomSlot = new int[periods * rooms];
+            Arrays.fill(roomSlot, -1);
+            this.freeRooms = new BitSet[periods];
+            for (int p = 0; p < periods; p++) {
+                freeRooms[p] = new BitSet(rooms);
+                freeRooms[p].set(0, rooms);
+            }
+            this.professorSlot = new int[problem.professorIds.length * periods];
+            Arrays.fill(professorSlot, -1);
+            this.courseDayCount = new int[problem.courseKeys.length * DAYS];
+            this.unassigned = sessions;
+        }
+
+        void run() {
+            construct();
+            publish();
+
+            int rounds = 0;
+            while (shared.running()) {
+                if (unassigned > 0) {
+                    repairRound();
+                } else if (penalty > 0) {
+                    spreadRound();
+                } else {
+                    break;
+                }
+                // Publishing copies the assignment, so only do it every few rounds
+                if (++rounds % 4 == 0 || unassigned == 0) {
+                    publish();
+                }
+            }
+            publish();
+        }
+
+        // Hardest sessions first: busy professors with few available periods, then big rooms
+        void construct() {
+            int sessions = problem.sessionCourse.length;
+            int[] load = new int[problem.professorIds.length];
+            for (int s = 0; s < sessions; s++) {
+                load[professorOf(s)]++;
+            }
+
+            double[] difficulty = new double[sessions];
+            Integer[] order = new Integer[sessions];
+            for (int s = 0; s < sessions; s++) {
+                int professor = professorOf(s);
+                int slack = problem.professorAvailable[professor].cardinality() - load[professor];
+                difficulty[s] = slack * 1000.0 - problem.sessionMinRoom[s] + random.nextDouble();
+                order[s] = s;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(difficulty[a], difficulty[b]));
+
+            for (int s : order) {
+                place(s, -1);
+            }
+        }
+
+        void repairRound() {
+            List<Integer> open = new ArrayList<>();
+            for (int s = 0; s < periodOf.length; s++) {
+                if (periodOf[s] < 0 && problem.sessionMinRoom[s] < rooms) {
+                    open.add(s);
+                }
+            }
+            if (open.isEmpty()) {
+                // Only sessions no room is big enough for are left
+                shared.done.set(true);
+                return;
+            }
+            for (int i = open.size() - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = open.get(i);
+                open.set(i, open.get(j));
+                open.set(j, tmp);
+            }
+            for (int s : open) {
+                if (!shared.running()) {
+                    return;
+                }
+                if (periodOf[s] < 0 && !place(s, -1)) {
+                    eject(s);
+                }
+            }
+        }
+
+        /**
+         * Places s in a period where it displaces at most one room occupant and one session
+         * of the same professor, then tries to re-place those elsewhere. The move is kept if
+         * everyone found a place, or sometimes when it only swaps which session is left out,
+         * so the search can leave plateaus.
+         */
+        void eject(int s) {
+            int professor = professorOf(s);
+            int minRoom = problem.sessionMinRoom[s];
+            int offset = random.nextInt(periods);
+            for (int i = 0; i < periods; i++) {
+                int p = (offset + i) % periods;
+                if (!problem.professorAvailable[professor].get(p)) {
+                    continue;
+                }
+                int r = freeRooms[p].nextSetBit(minRoom);
+                if (r < 0) {
+                    r = minRoom + random.nextInt(rooms - minRoom);
+                }
+
+                int roomVictim = roomSlot[p * rooms + r];
+                int professorVictim = professorSlot[professor * periods + p];
+                int victimPeriod1 = roomVictim >= 0 ? periodOf[roomVictim] : -1;
+                int victimRoom1 = roomVictim >= 0 ? roomOf[roomVictim] : -1;
+                int victimPeriod2 = professorVictim >= 0 ? periodOf[professorVictim] : -1;
+                int victimRoom2 = professorVictim >= 0 ? roomOf[professorVictim] : -1;
+
+                if (roomVictim >= 0) {
+                    unassign(roomVictim);
+                }
+                if (professorVictim >= 0 && professorVictim != roomVictim) {
+                    unassign(professorVictim);
+                }
+                assign(s, p, r);
+
+                boolean roomVictimPlaced = roomVictim < 0 || place(roomVictim, p);
+                boolean professorVictimPlaced = professorVictim < 0 || professorVictim == roomVictim
+                        || place(professorVictim, p);
+                if (roomVictimPlaced && professorVictimPlaced) {
+                    return;
+                }
+
+                int leftOut = (roomVictimPlaced ? 0 : 1) + (professorVictimPlaced ? 0 : 1);
+                if (leftOut == 1 && random.nextInt(10) == 0) {
+                    return;
+                }
+
+                // Undo the move
+                if (roomVictim >= 0 && roomVictimPlaced) {
+                    unassign(roomVictim);
+                }
+                if (professorVictim >= 0 && professorVictim != roomVictim && professorVictimPlaced) {
+                    unassign(professorVictim);
+                }
+                unassign(s);
+                if (roomVictim >= 0) {
+                    assign(roomVictim, victimPeriod1, victimRoom1);
+                }
+                if (professorVictim >= 0 && professorVictim != roomVictim) {
+                    assign(professorVictim, victimPeriod2, victimRoom2);
+                }
+                if (i > 8) {
+                    return;
+                }
+            }
+        }
+
+        // Moves sessions that share a day with another session of their course to a free day
+        void spreadRound() {
+            int sessions = periodOf.length;
+            for (int n = 0; n < sessions && shared.running(); n++) {
+                int s = random.nextInt(sessions);
+                int p = periodOf[s];
+                if (p < 0 || courseDayCount[courseOf(s) * DAYS + problem.dayOf(p)] < 2) {
+                    continue;
+                }
+                int r = roomOf[s];
+                unassign(s);
+                if (!placeOnFreeDay(s)) {
+                    assign(s, p, r);
+                }
+            }
+        }
+
+        boolean place(int s, int excludedPeriod) {
+            return placeOnFreeDay(s) || placeAnywhere(s, excludedPeriod);
+        }
+
+        boolean placeOnFreeDay(int s) {
+            int course = courseOf(s);
+            int offset = random.nextInt(periods);
+            for (int i = 0; i < periods; i++) {
+                int p = (offset + i) % periods;
+                if (courseDayCount[course * DAYS + problem.dayOf(p)] == 0 && tryPeriod(s, p)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean placeAnywhere(int s, int excludedPeriod) {
+            int offset = random.nextInt(periods);
+            for (int i = 0; i < periods; i++) {
+                int p = (offset + i) % periods;
+                if (p != excludedPeriod && tryPeriod(s, p)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean tryPeriod(int s, int p) {
+            int professor = professorOf(s);
+            if (!problem.professorAvailable[professor].get(p) || professorSlot[professor * periods + p] >= 0) {
+                return false;
+            }
+            int r = freeRooms[p].nextSetBit(problem.sessionMinRoom[s]);
+            if (r < 0) {
+                return false;
+            }
+            assign(s, p, r);
+            return true;
+        }
+
+        void assign(int s, int p, int r) {
+            periodOf[s] = p;
+            roomOf[s] = r;
+            roomSlot[p * rooms + r] = s;
+            freeRooms[p].clear(r);
+            professorSlot[professorOf(s) * periods + p] = s;
+            if (++courseDayCount[courseOf(s) * DAYS + problem.dayOf(p)] > 1) {
+                penalty++;
+            }
+            unassigned--;
+        }
+
+        void unassign(int s) {
+            int p = periodOf[s];
+            int r = roomOf[s];
+            roomSlot[p * rooms + r] = -1;
+            freeRooms[p].set(r);
+            professorSlot[professorOf(s) * periods + p] = -1;
+            if (--courseDayCount[courseOf(s) * DAYS + problem.dayOf(p)] > 0) {
+                penalty--;
+            }
+            periodOf[s] = -1;
+            roomOf[s] = -1;
+            unassigned++;
+        }
+
+        void publish() {
+            TimetableSolution best = shared.best;
+            if (best != null && (unassigned > best.getUnassignedCount()
+                    || (unassigned == best.getUnassignedCount() && penalty >= best.getPenalty()))) {
+                return;
+            }
+            shared.offer(new TimetableSolution(problem, periodOf.clone(), roomOf.clone(), unassigned, penalty,
+                    (System.nanoTime() - shared.startNanos) / 1_000_000));
+        }
+
+        int courseOf(int s) {
+            return problem.sessionCourse[s];
+        }
+
+        int professorOf(int s) {
+            return problem.courseProfessor[problem.sessionCourse[s]];
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.university.cours.codec;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.TimeSlotDTO;
+import com.university.cours.model.Course;
+import com.university.cours.model.TimeSlot;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Decodes the same course documents, as raw BSON like the driver receives them, in three
+ * ways and reports the time per course: through a Document mapped to a CourseDTO (the read
+ * path before the codecs), with CourseCodec into Course entities, and with CourseDTOCodec
+ * straight into DTOs. Also reports encoding with CourseCodec.
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.codec.CodecBenchmark [courses] [rounds]
+ */
+public class CodecBenchmark {
+    private static final DecoderContext DECODE = DecoderContext.builder().build();
+    private static final EncoderContext ENCODE = EncoderContext.builder().build();
+    // Keeps the JIT from dropping decodes whose result is unused
+    private static long sink;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        List<Course> courses = synthetic(size, 42);
+        CourseCodec courseCodec = new CourseCodec();
+        List<byte[]> documents = new ArrayList<>(size);
+        for (Course course : courses) {
+            documents.add(encode(courseCodec, course));
+        }
+        long bytes = documents.stream().mapToLong(b -> b.length).sum();
+        System.out.printf("%d courses, %d bytes of BSON (%d per course), best of %d rounds%n",
+                size, bytes, bytes / size, rounds);
+
+        DocumentCodec documentCodec = new DocumentCodec();
+        CourseDTOCodec dtoCodec = new CourseDTOCodec();
+        System.out.printf("%-26s %12s%n", "path", "ns/course");
+        report("Document -> CourseDTO", rounds, size, () -> {
+            for (byte[] document : documents) {
+                sink += toDTO(decode(documentCodec, document)).getCredits();
+            }
+        });
+        report("CourseCodec -> Course", rounds, size, () -> {
+            for (byte[] document : documents) {
+                sink += decode(courseCodec, document).getCredits();
+            }
+        });
+        report("CourseDTOCodec -> CourseDTO", rounds, size, () -> {
+            for (byte[] document : documents) {
+                sink += decode(dtoCodec, document).getCredits();
+            }
+        });
+        report("CourseCodec encode", rounds, size, () -> {
+            for (Course course : courses) {
+                sink += encode(courseCodec, course).length;
+            }
+        });
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static void report(String path, int rounds, int size, Runnable round) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            round.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-26s %12.0f%n", path, (double) best / size);
+    }
+
+    private static <T> byte[] encode(Codec<T> codec, T value) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        codec.encode(new BsonBinaryWriter(buffer), value, ENCODE);
+        return buffer.toByteArray();
+    }
+
+    private static <T> T decode(Codec<T> codec, byte[] document) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(document))) {
+            return codec.decode(reader, DECODE);
+        }
+    }
+
+    // The Document mapping the repository used before the codecs
+    private static CourseDTO toDTO(Document doc) {
+        CourseDTO dto = new CourseDTO();
+        dto.setId(doc.getObjectId("_id").toHexString());
+        dto.setCourseId(doc.getString("courseId"));
+        dto.setCourseName(doc.getString("courseName"));
+        dto.setCourseCode(doc.getString("courseCode"));
+        dto.setCredits(doc.getInteger("credits", 0));
+        dto.setDescription(doc.getString("description"));
+        dto.setProfessorId(doc.getString("professorId"));
+        dto.setProfessorName(doc.getString("professorName"));
+        dto.setMaxStudents(doc.getInteger("maxStudents", 0));
+        dto.setEnrolledStudents(doc.getInteger("enrolledStudents", 0));
+        dto.setSemester(doc.getString("semester"));
+        dto.setActive(doc.getBoolean("active", true));
+        dto.setVersion(doc.getLong("version"));
+        dto.setRevision(doc.getLong("revision"));
+        dto.setLastModified(doc.getDate("lastModified"));
+        List<TimeSlotDTO> timeSlots = new ArrayList<>();
+        for (Document slot : doc.getList("timeSlots", Document.class, new ArrayList<>())) {
+            TimeSlotDTO ts = new TimeSlotDTO();
+            ts.setDayOfWeek(slot.getString("dayOfWeek"));
+            ts.setStartTime(slot.getString("startTime"));
+            ts.setEndTime(slot.getString("endTime"));
+            ts.setRoom(slot.getString("room"));
+            timeSlots.add(ts);
+        }
+        dto.setTimeSlots(timeSlots);
+        dto.setPrerequisites(new ArrayList<>(doc.getList("prerequisites", String.class, new ArrayList<>())));
+        return dto;
+    }
+
+    static List<Course> synthetic(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+        List<Course> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Course course = new Course();
+            course.setId(new ObjectId());
+            course.setCourseId("C" + i);
+            course.setCourseName("Course " + i + " on topic " + random.nextInt(500));
+            course.setCourseCode("CODE-" + i);
+            course.setCredits(1 + random.nextInt(8));
+            course.setDescription("Description of course " + i + ", covering several chapters in some depth.");
+            course.setProfessorId("prof-" + random.nextInt(400));
+            course.setProfessorName("Professor " + random.nextInt(400));
+            course.setMaxStudents(20 + random.nextInt(200));
+            course.setEnrolledStudents(random.nextInt(20));
+            course.setSemester("2026-FALL");
+            course.setActive(random.nextInt(10) > 0);
+            course.setVersion(random.nextInt(20));
+            course.setRevision(i);
+            course.setLastModified(new Date());
+            List<TimeSlot> slots = new ArrayList<>();
+            for (int s = 0; s < 2; s++) {
+                TimeSlot slot = new TimeSlot();
+                slot.setDayOfWeek(days[random.nextInt(days.length)]);
+                slot.setStartTime(String.format("%02d:00", 8 + random.nextInt(9)));
+                slot.setEndTime(String.format("%02d:30", 9 + random.nextInt(9)));
+                slot.setRoom("R" + random.nextInt(150));
+                slots.add(slot);
+            }
+            course.setTimeSlots(slots);
+            course.setPrerequisites(random.nextInt(3) == 0 ? new ArrayList<>(List.of("C" + random.nextInt(size)))
+                    : new ArrayList<>());
+            courses.add(course);
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,110 @@
+package com.university.cours.codec;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.model.Course;
+import com.university.cours.model.TimeSlot;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseCodecTest {
+
+    static Course course() {
+        Course course = new Course();
+        course.setId(new ObjectId());
+        course.setCourseId("CS101");
+        course.setCourseName("Algorithms");
+        course.setCourseCode("INF-101");
+        course.setCredits(6);
+        course.setDescription(null);
+        course.setProfessorId("prof-1");
+        course.setProfessorName("Dubois");
+        course.setMaxStudents(120);
+        course.setEnrolledStudents(87);
+        course.setSemester("2026-FALL");
+        course.setActive(true);
+        course.setVersion(4);
+        course.setRevision(1287);
+        course.setLastModified(new Date(1_790_000_000_000L));
+        TimeSlot slot = new TimeSlot();
+        slot.setDayOfWeek("MONDAY");
+        slot.setStartTime("08:00");
+        slot.setEndTime("09:30");
+        slot.setRoom("A101");
+        course.setTimeSlots(new ArrayList<>(List.of(slot)));
+        course.setPrerequisites(new ArrayList<>(List.of("MA100", "CS100")));
+        return course;
+    }
+
+    static <T> BsonDocument encode(Codec<T> codec, T value) {
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), value, EncoderContext.builder().build());
+        return document;
+    }
+
+    static <T> T decode(Codec<T> codec, BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    @Test
+    void dtoCodecReadsWhatCourseCodecWritesAndWritesItBackUnchanged() {
+        Course course = course();
+        BsonDocument document = encode(new CourseCodec(), course);
+
+        CourseDTO dto = decode(new CourseDTOCodec(), document);
+        assertEquals(course.getId().toHexString(), dto.getId());
+        assertEquals("CS101", dto.getCourseId());
+        assertNull(dto.getDescription());
+        assertEquals(87, dto.getEnrolledStudents());
+        assertEquals(4L, dto.getVersion());
+        assertEquals(1287L, dto.getRevision());
+        assertEquals(course.getLastModified(), dto.getLastModified());
+        assertEquals("A101", dto.getTimeSlots().get(0).getRoom());
+        assertEquals(List.of("MA100", "CS100"), dto.getPrerequisites());
+
+        assertEquals(document, encode(new CourseDTOCodec(), dto));
+        assertEquals(document, encode(new CourseCodec(), decode(new CourseCodec(), document)));
+    }
+
+    @Test
+    void missingAndMistypedFieldsFallBackToDefaults() {
+        BsonDocument document = BsonDocument.parse("{_id: 'not-an-object-id', courseId: 7, credits: {$numberLong: '5'},"
+                + " maxStudents: 30.0, timeSlots: 'none', prerequisites: ['CS100', 3]}");
+
+        for (Codec<?> codec : List.of(new CourseCodec(), new CourseDTOCodec())) {
+            Object decoded = decode(codec, document);
+            if (decoded instanceof Course course) {
+                assertNull(course.getId());
+                assertNull(course.getCourseId());
+                assertEquals(5, course.getCredits());
+                assertEquals(30, course.getMaxStudents());
+                assertTrue(course.isActive());
+                assertTrue(course.getTimeSlots().isEmpty());
+                assertEquals(List.of("CS100"), course.getPrerequisites());
+            } else {
+                CourseDTO dto = (CourseDTO) decoded;
+                assertNull(dto.getId());
+                assertNull(dto.getCourseId());
+                assertEquals(5, dto.getCredits());
+                assertEquals(30, dto.getMaxStudents());
+                assertTrue(dto.isActive());
+                assertEquals(0L, dto.getVersion());
+                assertTrue(dto.getTimeSlots().isEmpty());
+                assertEquals(List.of("CS100"), dto.getPrerequisites());
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.university.cours.enrollment;
+
+import com.university.cours.dto.EnrollmentResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires concurrent enrollment attempts at one course in surge mode and checks that the
+ * course is never oversold: in memory, in what the flusher writes, and after waitlist
+ * promotions. MongoDB is replaced by an in-memory writer that records any inconsistent batch.
+ */
+class EnrollmentLoadTest {
+    private static final String COURSE_ID = "load-test-course";
+
+    /**
+     * Keeps what the flusher wrote and records it when a batch enrolls a student twice,
+     * removes one that is not enrolled, or goes over the seats.
+     */
+    private static final class CheckingWriter implements Consumer<List<EnrollmentChange>> {
+        final Set<String> written = ConcurrentHashMap.newKeySet();
+        final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+        final int seats;
+
+        CheckingWriter(int seats) {
+            this.seats = seats;
+        }
+
+        @Override
+        public void accept(List<EnrollmentChange> changes) {
+            for (EnrollmentChange change : changes) {
+                boolean consistent = change.enroll() ? written.add(change.student()) : written.remove(change.student());
+                if (!consistent) {
+                    violations.add("Inconsistent change " + change);
+                }
+            }
+            if (written.size() > seats) {
+                violations.add("Oversold: " + written.size() + " of " + seats);
+            }
+        }
+    }
+
+    @Test
+    void distinctStudentsNeverOversell() throws Exception {
+        int attempts = 10_000;
+        int seats = 30;
+        int waitlist = 200;
+        CheckingWriter writer = new CheckingWriter(seats);
+        SurgeAdmission surge = new SurgeAdmission(id -> new SurgeAdmission.CourseSeats(seats, List.of()),
+                writer, ids -> { }, waitlist, 8, 1000, 20);
+
+        Map<String, Integer> statuses = new ConcurrentHashMap<>();
+        List<String> admitted = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<EnrollmentResultDTO>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                String student = "student" + i + "@university.edu";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    EnrollmentResultDTO result = surge.enroll(COURSE_ID, student);
+                    if (EnrollmentResultDTO.ENROLLED.equals(result.getStatus())) {
+                        synchronized (admitted) {
+                            admitted.add(student);
+                        }
+                    }
+                    return result;
+                }));
+            }
+            start.countDown();
+            for (Future<EnrollmentResultDTO> result : results) {
+                statuses.merge(result.get().getStatus(), 1, Integer::sum);
+            }
+        }
+
+        int dropouts = 10;
+        for (String student : admitted.subList(0, dropouts)) {
+            surge.unenroll(COURSE_ID, student);
+        }
+        surge.close();
+
+        assertEquals(List.of(), writer.violations);
+        assertEquals(seats, statuses.getOrDefault(EnrollmentResultDTO.ENROLLED, 0));
+        assertEquals(waitlist, statuses.getOrDefault(EnrollmentResultDTO.WAITLISTED, 0));
+        assertEquals(0, surge.getPendingCount());
+        // The dropouts' seats went to the head of the waitlist
+        assertEquals(seats, writer.written.size());
+        Set<String> dropped = new HashSet<>(admitted.subList(0, dropouts));
+        assertTrue(writer.written.stream().noneMatch(dropped::contains), "a dropout is still written as enrolled");
+    }
+
+    /**
+     * Each student enrolls and unenrolls from two threads at once, over and over, on a
+     * course with fewer seats than students. Whatever interleaving wins, the writer must
+     * see each student's changes in an order that makes sense, and the course must never
+     * be oversold. Once everyone has left, nobody may remain written as enrolled.
+     */
+    @Test
+    void sameStudentEnrollAndUnenrollRace() throws Exception {
+        int seats = 5;
+        int students = 40;
+        int rounds = 300;
+        CheckingWriter writer = new CheckingWriter(seats);
+        SurgeAdmission surge = new SurgeAdmission(id -> new SurgeAdmission.CourseSeats(seats, List.of()),
+                writer, ids -> { }, students, 4, 64, 1);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < students; i++) {
+                String student = "student" + i + "@university.edu";
+                tasks.add(executor.submit(() -> repeat(start, rounds, () -> surge.enroll(COURSE_ID, student))));
+                tasks.add(executor.submit(() -> repeat(start, rounds, () -> surge.unenroll(COURSE_ID, student))));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Leaving may admit someone from the waitlist, so go round until nobody is left
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < students; i++) {
+                try {
+                    surge.unenroll(COURSE_ID, "student" + i + "@university.edu");
+                    changed = true;
+                } catch (RuntimeException e) {
+                    // Not enrolled
+                }
+            }
+        }
+        surge.close();
+
+        assertEquals(List.of(), writer.violations);
+        assertEquals(Set.of(), writer.written);
+    }
+
+    private static Void repeat(CountDownLatch start, int rounds, Runnable request) throws InterruptedException {
+        start.await();
+        for (int r = 0; r < rounds; r++) {
+            try {
+                request.run();
+            } catch (RuntimeException e) {
+                // Already enrolled / not enrolled: the other thread got there first
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.university.cours.enrollment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatCounterTest {
+
+    @Test
+    void grantsExactlyTheFreeSeats() {
+        SeatCounter seats = new SeatCounter(5, 4);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(seats.tryAcquire());
+        }
+        assertFalse(seats.tryAcquire());
+        assertEquals(0, seats.available());
+
+        seats.release();
+        assertEquals(1, seats.available());
+        assertTrue(seats.tryAcquire());
+    }
+
+    @Test
+    void concurrentAcquiresNeverOversell() {
+        SeatCounter seats = new SeatCounter(100, 8);
+        AtomicInteger granted = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5_000; i++) {
+                executor.submit(() -> {
+                    if (seats.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+        }
+        assertEquals(100, granted.get());
+        assertEquals(0, seats.available());
+    }
+
+    @Test
+    void noFreeSeats() {
+        SeatCounter seats = new SeatCounter(0, 8);
+        assertFalse(seats.tryAcquire());
+        assertEquals(0, seats.available());
+    }
+}
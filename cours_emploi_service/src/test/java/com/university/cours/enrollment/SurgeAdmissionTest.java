@@ -0,0 +1,91 @@
+package com.university.cours.enrollment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SurgeAdmissionTest {
+
+    @Test
+    void collapseDropsChangesThatCancelOut() {
+        List<EnrollmentChange> changes = List.of(
+                new EnrollmentChange("c1", "a", true),
+                new EnrollmentChange("c1", "b", true),
+                new EnrollmentChange("c1", "a", false),
+                new EnrollmentChange("c2", "a", true));
+
+        assertEquals(List.of(new EnrollmentChange("c1", "b", true), new EnrollmentChange("c2", "a", true)),
+                SurgeAdmission.collapse(changes));
+    }
+
+    @Test
+    void collapseKeepsTheLastOfAnEnrollUnenrollEnrollRun() {
+        List<EnrollmentChange> changes = List.of(
+                new EnrollmentChange("c1", "a", true),
+                new EnrollmentChange("c1", "a", false),
+                new EnrollmentChange("c1", "a", true));
+
+        assertEquals(List.of(new EnrollmentChange("c1", "a", true)), SurgeAdmission.collapse(changes));
+    }
+
+    @Test
+    void aFailedBatchIsWrittenAgainAndOnlyThenReported() throws InterruptedException {
+        List<List<EnrollmentChange>> attempts = Collections.synchronizedList(new ArrayList<>());
+        List<Set<String>> reported = Collections.synchronizedList(new ArrayList<>());
+        SurgeAdmission surge = new SurgeAdmission(id -> new SurgeAdmission.CourseSeats(10, List.of()), batch -> {
+            attempts.add(batch);
+            if (attempts.size() == 1) {
+                throw new RuntimeException("connection reset");
+            }
+        }, courseIds -> {
+            reported.add(courseIds);
+            // Not retried: the batch is already written
+            throw new RuntimeException("catalog unavailable");
+        }, 10, 2, 100, 200);
+
+        surge.enroll("c1", "a");
+        surge.enroll("c2", "b");
+        // Both are queued well before the first flush; it fails, the next one writes the same batch
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (reported.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        surge.close();
+
+        assertEquals(0, surge.getPendingCount());
+        assertEquals(2, attempts.size());
+        assertEquals(List.of(new EnrollmentChange("c1", "a", true), new EnrollmentChange("c2", "b", true)),
+                attempts.get(1));
+        assertEquals(attempts.get(0), attempts.get(1));
+        assertEquals(List.of(Set.of("c1", "c2")), reported);
+    }
+
+    @Test
+    void awaitFlushedWaitsForWhatWasGrantedBefore() {
+        List<EnrollmentChange> written = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean failing = new AtomicBoolean(true);
+        SurgeAdmission surge = new SurgeAdmission(id -> new SurgeAdmission.CourseSeats(10, List.of()), batch -> {
+            if (failing.get()) {
+                throw new RuntimeException("connection reset");
+            }
+            written.addAll(batch);
+        }, courseIds -> { }, 10, 2, 100, 10_000);
+
+        surge.enroll("c1", "a");
+        surge.enroll("c1", "b");
+        // Woken early by awaitFlushed, the flusher keeps failing until the writer recovers
+        assertFalse(surge.awaitFlushed(100));
+        failing.set(false);
+        assertTrue(surge.awaitFlushed(10_000));
+        assertEquals(List.of(new EnrollmentChange("c1", "a", true), new EnrollmentChange("c1", "b", true)), written);
+        surge.close();
+    }
+}
@@ -0,0 +1,174 @@
+package com.university.cours.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.university.cours.dto.CourseDTO;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends concurrent getCourseById calls to a local server whose store answers after a fixed
+ * delay, and compares three ways of serving them:
+ * - blocking: the request thread waits for the store, on a small fixed pool
+ * - virtual: the request thread waits for the store, one virtual thread per request
+ * - async: the request thread returns at once and the response is sent from the store's callback
+ *
+ * The store is simulated so the run does not depend on MongoDB; the SOAP parsing and
+ * marshalling are the ones the service uses. Thread counts are platform threads started
+ * during the run, on top of those already alive; virtual threads are not counted.
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.http.AsyncPathBenchmark [requests] [latencyMillis] [poolThreads]
+ */
+public class AsyncPathBenchmark {
+    private static final String REQUEST = "<S:Envelope xmlns:S=\"" + SoapEnvelopes.SOAP_ENV + "\"><S:Body>"
+            + "<ns2:getCourseById xmlns:ns2=\"" + SoapEnvelopes.SERVICE_NS + "\">"
+            + "<token>benchmark</token><id>%d</id></ns2:getCourseById></S:Body></S:Envelope>";
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        int poolThreads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        ScheduledExecutorService store = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "simulated-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        System.out.printf("%d concurrent requests, %d ms store latency%n", requests, latencyMillis);
+        System.out.printf("%-10s %-22s %12s %10s %22s%n",
+                "mode", "executor", "elapsed(ms)", "req/s", "platform threads added");
+        run("blocking", "pool(" + poolThreads + ")", Executors.newFixedThreadPool(poolThreads),
+                new BlockingFilter(latencyMillis), requests);
+        run("virtual", "virtual", Executors.newVirtualThreadPerTaskExecutor(),
+                new BlockingFilter(latencyMillis), requests);
+        run("async", "pool(" + poolThreads + ")", Executors.newFixedThreadPool(poolThreads),
+                new CallbackFilter(store, latencyMillis), requests);
+        store.shutdownNow();
+    }
+
+    private static void run(String mode, String executorName, ExecutorService executor, SoapOperationFilter filter,
+            int requests) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), requests);
+        server.setExecutor(executor);
+        server.createContext("/courses", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        }).getFilters().add(filter);
+        server.start();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/courses");
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try (client) {
+            send(client, uri, 0, 1).join();
+            threads.resetPeakThreadCount();
+            int baseline = threads.getThreadCount();
+
+            long start = System.nanoTime();
+            send(client, uri, 1, requests).join();
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%-10s %-22s %12d %10.0f %22d%n", mode, executorName, elapsed,
+                    requests * 1000.0 / Math.max(1, elapsed), threads.getPeakThreadCount() - baseline);
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+            clientExecutor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+            clientExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static CompletableFuture<Void> send(HttpClient client, URI uri, int from, int count) {
+        List<CompletableFuture<?>> calls = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", SoapEnvelopes.CONTENT_TYPE)
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(REQUEST, i)))
+                    .build();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenAccept(response -> {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Unexpected status " + response.statusCode());
+                }
+            }));
+        }
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private static CourseDTO course(String id) {
+        CourseDTO course = new CourseDTO();
+        course.setId(id);
+        course.setCourseId("BENCH-" + id);
+        course.setCourseName("Benchmark course " + id);
+        return course;
+    }
+
+    private static final class BlockingFilter extends SoapOperationFilter {
+        private final long latencyMillis;
+
+        BlockingFilter(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        protected boolean handle(HttpExchange exchange, SoapCall call) throws IOException {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+            send(exchange, 200, SoapEnvelopes.response(call.operation(), course(call.param("id"))), null);
+            return true;
+        }
+
+        @Override
+        public String description() {
+            return "Blocking simulated store";
+        }
+    }
+
+    private static final class CallbackFilter extends SoapOperationFilter {
+        private final ScheduledExecutorService store;
+        private final long latencyMillis;
+
+        CallbackFilter(ScheduledExecutorService store, long latencyMillis) {
+            this.store = store;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        protected boolean handle(HttpExchange exchange, SoapCall call) {
+            CompletableFuture<CourseDTO> found = new CompletableFuture<>();
+            store.schedule(() -> found.complete(course(call.param("id"))), latencyMillis, TimeUnit.MILLISECONDS);
+            found.thenAccept(course -> {
+                try {
+                    send(exchange, 200, SoapEnvelopes.response(call.operation(), course), null);
+                } catch (IOException e) {
+                    exchange.close();
+                }
+            });
+            return true;
+        }
+
+        @Override
+        public String description() {
+            return "Callback simulated store";
+        }
+    }
+}
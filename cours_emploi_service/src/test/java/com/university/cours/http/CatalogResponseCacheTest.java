@@ -0,0 +1,88 @@
+package com.university.cours.http;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.repository.CourseCatalog;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResponseCacheTest {
+
+    private static CourseDTO course(String id, String courseId, long version) {
+        CourseDTO course = new CourseDTO();
+        course.setId(id);
+        course.setCourseId(courseId);
+        course.setVersion(version);
+        course.setActive(true);
+        return course;
+    }
+
+    @Test
+    void servesTheLastResponseUntilOneRebuildCatchesUp() throws InterruptedException {
+        // Only update() is used, which never goes to the repository
+        CourseCatalog catalog = new CourseCatalog(null, true, 60_000);
+        catalog.update(course("a", "CS101", 0));
+        CatalogResponseCache cache = new CatalogResponseCache(catalog, false, false, 1000);
+        cache.start();
+        try {
+            CatalogResponseCache.CachedResponse first = cache.get("getAllCourses");
+            catalog.update(course("b", "CS102", 0));
+            CatalogResponseCache.CachedResponse rebuilt = awaitCurrent(cache, catalog);
+
+            // Within the interval of the last rebuild: both changes wait for a single later one
+            catalog.update(course("c", "CS103", 0));
+            catalog.update(course("d", "CS104", 0));
+            assertSame(rebuilt, cache.get("getAllCourses"));
+
+            CatalogResponseCache.CachedResponse latest = awaitCurrent(cache, catalog);
+            String body = new String(latest.body, StandardCharsets.UTF_8);
+            assertTrue(body.contains("CS103") && body.contains("CS104"), body);
+            assertTrue(first.version < rebuilt.version && rebuilt.version < latest.version);
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    void keepsAFastInfosetCopyOnlyWhenEnabled() throws XMLStreamException {
+        CourseCatalog catalog = new CourseCatalog(null, true, 60_000);
+        catalog.update(course("a", "CS101", 0));
+        catalog.update(course("b", "CS102", 0));
+
+        CatalogResponseCache xmlOnly = new CatalogResponseCache(catalog, true, false, 1000);
+        CatalogResponseCache.CachedResponse plain = xmlOnly.get("getAllCourses");
+        assertNull(plain.fastInfoset);
+        assertNull(plain.fastInfosetGzipped);
+        xmlOnly.close();
+
+        CatalogResponseCache both = new CatalogResponseCache(catalog, true, true, 1000);
+        CatalogResponseCache.CachedResponse response = both.get("getAllCourses");
+        both.close();
+        assertTrue(response.fastInfoset.length < response.body.length);
+        List<CourseDTO> courses = SoapEnvelopes.readResponse(
+                new StAXDocumentParser(new ByteArrayInputStream(response.fastInfoset)));
+        assertEquals(List.of("CS101", "CS102"), courses.stream().map(CourseDTO::getCourseId).sorted().toList());
+        assertTrue(response.fastInfosetGzipped != null);
+    }
+
+    private static CatalogResponseCache.CachedResponse awaitCurrent(CatalogResponseCache cache, CourseCatalog catalog)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        CatalogResponseCache.CachedResponse response = cache.get("getAllCourses");
+        while (response.version < catalog.getVersion() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            response = cache.get("getAllCourses");
+        }
+        assertEquals(catalog.getVersion(), response.version);
+        return response;
+    }
+}
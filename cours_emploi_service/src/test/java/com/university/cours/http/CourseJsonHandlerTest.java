@@ -0,0 +1,24 @@
+package com.university.cours.http;
+
+import com.mongodb.MongoTimeoutException;
+import com.university.cours.repository.BadRequestException;
+import com.university.cours.repository.ConflictException;
+import com.university.cours.repository.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CourseJsonHandlerTest {
+
+    @Test
+    void statusFollowsTheExceptionTypeNotItsWording() {
+        assertEquals(404, CourseJsonHandler.statusOf(new NotFoundException("Semester 2025-FALL not found")));
+        assertEquals(409, CourseJsonHandler.statusOf(new ConflictException("Course with courseId CS101 already exists")));
+        assertEquals(409, CourseJsonHandler.statusOf(new ConflictException("Already enrolled in course 42")));
+        // A rejection that happens to mention "not found" is still a bad request
+        assertEquals(400, CourseJsonHandler.statusOf(new BadRequestException("Prerequisite CS100 not found in catalog")));
+        // Driver failures carry a message too, but are not the client's fault
+        assertEquals(500, CourseJsonHandler.statusOf(new MongoTimeoutException("Timed out waiting for a server")));
+        assertEquals(500, CourseJsonHandler.statusOf(new NullPointerException()));
+    }
+}
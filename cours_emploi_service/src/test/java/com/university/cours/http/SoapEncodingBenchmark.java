@@ -0,0 +1,183 @@
+package com.university.cours.http;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.TimeSlotDTO;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the getAllCourses response as text XML and as Fast Infoset, each with and
+ * without gzip, on synthetic catalogs of 1,000 and 10,000 courses: bytes on the wire,
+ * and the time to marshal and to unmarshal one response (JAXB over StAX, as JAX-WS does).
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.http.SoapEncodingBenchmark [iterations] [sizes...]
+ */
+public class SoapEncodingBenchmark {
+    private static final String OPERATION = "getAllCourses";
+    private static final XMLInputFactory XML_INPUT = XMLInputFactory.newFactory();
+
+    private enum Encoding {
+        XML("text/xml", false),
+        XML_GZIP("text/xml+gzip", true),
+        FAST_INFOSET("fastinfoset", false),
+        FAST_INFOSET_GZIP("fastinfoset+gzip", true);
+
+        final String label;
+        final boolean gzip;
+
+        Encoding(String label, boolean gzip) {
+            this.label = label;
+            this.gzip = gzip;
+        }
+
+        boolean fastInfoset() {
+            return this == FAST_INFOSET || this == FAST_INFOSET_GZIP;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            sizes.add(Integer.parseInt(args[i]));
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(1_000, 10_000);
+        }
+
+        System.out.printf("%8s %-18s %12s %8s %14s %16s%n",
+                "courses", "encoding", "bytes", "ratio", "marshal(ms)", "unmarshal(ms)");
+        for (int size : sizes) {
+            List<CourseDTO> courses = synthetic(size, 42);
+            long xmlBytes = encode(courses, Encoding.XML).length;
+            for (Encoding encoding : Encoding.values()) {
+                run(courses, encoding, iterations, xmlBytes);
+            }
+        }
+    }
+
+    private static void run(List<CourseDTO> courses, Encoding encoding, int iterations, long xmlBytes)
+            throws Exception {
+        byte[] body = encode(courses, encoding);
+        if (decode(body, encoding).size() != courses.size()) {
+            throw new IllegalStateException(encoding.label + " did not round-trip " + courses.size() + " courses");
+        }
+
+        // Warm up the JIT before timing
+        for (int i = 0; i < iterations; i++) {
+            decode(encode(courses, encoding), encoding);
+        }
+
+        long marshalNanos = 0;
+        long unmarshalNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            byte[] encoded = encode(courses, encoding);
+            long encodedAt = System.nanoTime();
+            decode(encoded, encoding);
+            long end = System.nanoTime();
+            marshalNanos += encodedAt - start;
+            unmarshalNanos += end - encodedAt;
+        }
+
+        System.out.printf("%8d %-18s %12d %8.3f %14.2f %16.2f%n",
+                courses.size(), encoding.label, body.length, (double) body.length / xmlBytes,
+                marshalNanos / 1e6 / iterations, unmarshalNanos / 1e6 / iterations);
+    }
+
+    private static byte[] encode(List<CourseDTO> courses, Encoding encoding) throws IOException, XMLStreamException {
+        if (!encoding.fastInfoset() && !encoding.gzip) {
+            return SoapEnvelopes.response(OPERATION, courses);
+        }
+
+        byte[] plain;
+        if (encoding.fastInfoset()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(courses.size() * 128);
+            StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+            writeDocument(writer, courses);
+            plain = out.toByteArray();
+        } else {
+            plain = SoapEnvelopes.response(OPERATION, courses);
+        }
+        if (!encoding.gzip) {
+            return plain;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(plain);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeDocument(XMLStreamWriter writer, List<CourseDTO> courses) throws XMLStreamException {
+        writer.writeStartDocument();
+        SoapEnvelopes.writeResponse(writer, OPERATION, courses);
+        writer.close();
+    }
+
+    private static List<CourseDTO> decode(byte[] body, Encoding encoding) throws IOException, XMLStreamException {
+        InputStream in = new ByteArrayInputStream(body);
+        if (encoding.gzip) {
+            in = new GZIPInputStream(in, 8192);
+        }
+        XMLStreamReader reader = encoding.fastInfoset()
+                ? new StAXDocumentParser(in)
+                : XML_INPUT.createXMLStreamReader(in);
+        try {
+            return SoapEnvelopes.readResponse(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static List<CourseDTO> synthetic(int size, long seed) {
+        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+        String[] subjects = {"Algorithms", "Databases", "Networks", "Compilers", "Statistics", "Physics"};
+        SplittableRandom random = new SplittableRandom(seed);
+        List<CourseDTO> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CourseDTO course = new CourseDTO();
+            course.setId(String.format("%024x", i));
+            course.setCourseId("CRS-" + i);
+            course.setCourseName(subjects[i % subjects.length] + " " + (100 + i % 400));
+            course.setCourseCode("C" + i);
+            course.setCredits(2 + random.nextInt(5));
+            course.setDescription("Introduction to " + subjects[random.nextInt(subjects.length)].toLowerCase()
+                    + ", lectures and lab sessions.");
+            course.setProfessorId("prof-" + random.nextInt(size / 10 + 1));
+            course.setProfessorName("Professor " + random.nextInt(size / 10 + 1));
+            List<TimeSlotDTO> slots = new ArrayList<>();
+            for (int s = 0; s < 2; s++) {
+                int hour = 8 + random.nextInt(8);
+                slots.add(new TimeSlotDTO(days[random.nextInt(days.length)], String.format("%02d:00", hour),
+                        String.format("%02d:30", hour + 1), "R" + random.nextInt(200)));
+            }
+            course.setTimeSlots(slots);
+            course.setMaxStudents(30 + random.nextInt(170));
+            course.setEnrolledStudents(random.nextInt(30));
+            course.setSemester(i % 2 == 0 ? "2026-FALL" : "2027-SPRING");
+            course.setActive(random.nextInt(10) != 0);
+            course.setVersion((long) random.nextInt(20));
+            course.setRevision((long) i);
+            course.setLastModified(new Date(1_790_000_000_000L + i * 1000L));
+            courses.add(course);
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,73 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseResultDTO;
+import com.university.cours.dto.ImportResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseImporterTest {
+
+    private static CsvCourseSource csv(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("courseId,credits\n");
+        for (int i = 1; i <= rows; i++) {
+            csv.append("C").append(i).append(',').append(i % 10 == 0 ? "x" : "3").append('\n');
+        }
+        return new CsvCourseSource(new StringReader(csv.toString()));
+    }
+
+    @Test
+    void reportsErrorsInInputOrder() throws IOException {
+        List<Integer> batchSizes = new ArrayList<>();
+        ImportResultDTO result = new CourseImporter(7, 2, 100).run("csv", csv(50), courses -> {
+            batchSizes.add(courses.size());
+            List<CourseResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < courses.size(); i++) {
+                results.add(courses.get(i).getCourseId().equals("C15")
+                        ? CourseResultDTO.failure(i, "C15", "Course with courseId C15 already exists")
+                        : CourseResultDTO.success(i, courses.get(i).getCourseId(), courses.get(i)));
+            }
+            return results;
+        });
+
+        assertNull(result.getError());
+        assertEquals(50, result.getRowCount());
+        assertEquals(44, result.getImportedCount());
+        assertEquals(6, result.getFailedCount());
+        List<Integer> failedRows = result.getErrors().stream().map(e -> e.getRow()).toList();
+        assertEquals(List.of(10, 15, 20, 30, 40, 50), failedRows);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 7));
+    }
+
+    @Test
+    void capsTheErrorList() throws IOException {
+        ImportResultDTO result = new CourseImporter(10, 2, 2).run("csv", csv(50), courses -> {
+            List<CourseResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < courses.size(); i++) {
+                results.add(CourseResultDTO.success(i, courses.get(i).getCourseId(), courses.get(i)));
+            }
+            return results;
+        });
+        assertEquals(5, result.getFailedCount());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+    }
+
+    @Test
+    void aFailedWriteStopsTheImport() throws IOException {
+        ImportResultDTO result = new CourseImporter(5, 1, 10).run("csv", csv(1_000), courses -> {
+            throw new RuntimeException("connection lost");
+        });
+        assertNotNull(result.getError());
+        assertTrue(result.getError().contains("connection lost"));
+        assertEquals(0, result.getImportedCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.university.cours.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvCourseSourceTest {
+
+    private static List<CourseRow> read(String csv) throws IOException {
+        CsvCourseSource source = new CsvCourseSource(new StringReader(csv));
+        List<CourseRow> rows = new ArrayList<>();
+        CourseRow row;
+        while ((row = source.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void readsQuotedAndMultilineFields() throws IOException {
+        List<CourseRow> rows = read("\uFEFFCourseId,courseName,description,credits,timeSlots,prerequisites,ignored\r\n"
+                + "CS101,\"Intro, part 1\",\"Says \"\"hello\"\"\nover two lines\",3,"
+                + "MONDAY 09:00-10:30 Room 101; thursday 14:00-15:30 Room 2,CS100;MATH100,x\r\n"
+                + "\n"
+                + "CS102,Second,,4,,,\n");
+
+        assertEquals(2, rows.size());
+        CourseRow first = rows.get(0);
+        assertNull(first.error());
+        assertEquals(1, first.row());
+        assertEquals("CS101", first.course().getCourseId());
+        assertEquals("Intro, part 1", first.course().getCourseName());
+        assertEquals("Says \"hello\"\nover two lines", first.course().getDescription());
+        assertEquals(3, first.course().getCredits());
+        assertEquals(2, first.course().getTimeSlots().size());
+        assertEquals("THURSDAY", first.course().getTimeSlots().get(1).getDayOfWeek());
+        assertEquals("15:30", first.course().getTimeSlots().get(1).getEndTime());
+        assertEquals(List.of("CS100", "MATH100"), first.course().getPrerequisites());
+        assertTrue(first.course().isActive());
+        assertEquals(2, rows.get(1).row());
+    }
+
+    @Test
+    void reportsBadRowsWithoutStopping() throws IOException {
+        List<CourseRow> rows = read("courseId,credits,active\nCS101,three,true\nCS102,3,no\nCS103,3,true,extra\n");
+
+        assertNotNull(rows.get(0).error());
+        assertNull(rows.get(1).error());
+        assertFalse(rows.get(1).course().isActive());
+        assertNotNull(rows.get(2).error());
+    }
+
+    @Test
+    void rejectsInputItCannotRead() {
+        assertThrows(IOException.class, () -> read(""));
+        assertThrows(IOException.class, () -> read("courseName,credits\nIntro,3\n"));
+        assertThrows(IOException.class, () -> read("courseId,courseName\nCS101,\"unterminated\n"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.university.cours.importer;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.CourseResultDTO;
+import com.university.cours.dto.ImportResultDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a synthetic export (1,000,000 courses by default), generated as it is read so the
+ * input never exists in memory, in CSV and in XML. Batches go to a writer that only takes a
+ * fixed time per batch (writeMillis, 0 by default) in place of MongoDB.
+ *
+ * Reports rows/s and the heap in use after a full GC at each quarter of the input, which
+ * should stay flat however many rows are imported. One row in 1,000 is invalid.
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.importer.ImportBenchmark [rows] [writeMillis]
+ */
+public class ImportBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long writeMillis = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        // Warm up both parsers
+        run("csv", 100_000, 0, false);
+        run("xml", 100_000, 0, false);
+
+        System.out.printf("%-4s %9s %9s %7s %9s  %s%n", "", "rows", "imported", "failed", "rows/s", "heap after GC (MB)");
+        run("csv", rows, writeMillis, true);
+        run("xml", rows, writeMillis, true);
+    }
+
+    private static void run(String format, int rows, long writeMillis, boolean print) throws IOException {
+        List<String> heap = new ArrayList<>();
+        int quarter = Math.max(1, (rows + BATCH_SIZE - 1) / BATCH_SIZE / 4);
+        int[] batches = {0};
+        CourseImporter.BatchWriter writer = courses -> {
+            List<CourseResultDTO> results = new ArrayList<>(courses.size());
+            for (int i = 0; i < courses.size(); i++) {
+                CourseDTO course = courses.get(i);
+                results.add(CourseResultDTO.success(i, course.getCourseId(), course));
+            }
+            sleep(writeMillis);
+            if (print && ++batches[0] % quarter == 0) {
+                heap.add(String.format("%.1f", heapAfterGc() / 1e6));
+            }
+            return results;
+        };
+
+        InputStream input = format.equals("csv") ? generate(csvHeader(), rows, ImportBenchmark::csvRow, "")
+                : generate("<courses>\n", rows, ImportBenchmark::xmlRow, "</courses>\n");
+        CourseSource source = format.equals("csv")
+                ? new CsvCourseSource(new InputStreamReader(input, StandardCharsets.UTF_8))
+                : new XmlCourseSource(input);
+        ImportResultDTO result = new CourseImporter(BATCH_SIZE, 2, 100).run(format, source, writer);
+        if (result.getError() != null) {
+            throw new IllegalStateException(result.getError());
+        }
+        if (print) {
+            System.out.printf("%-4s %9d %9d %7d %9.0f  %s%n", format, result.getRowCount(), result.getImportedCount(),
+                    result.getFailedCount(), result.getRowsPerSecond(), String.join(" ", heap));
+        }
+    }
+
+    private interface RowWriter {
+        void append(StringBuilder out, int row);
+    }
+
+    // Renders rows chunk by chunk as the stream is read
+    private static InputStream generate(String header, int rows, RowWriter rowWriter, String footer) {
+        Enumeration<InputStream> chunks = new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                StringBuilder out = new StringBuilder();
+                if (next < 0) {
+                    out.append(header);
+                    next = 0;
+                }
+                int end = Math.min(next + 500, rows);
+                for (; next < end; next++) {
+                    rowWriter.append(out, next);
+                }
+                if (next == rows) {
+                    out.append(footer);
+                    next++;
+                }
+                return new ByteArrayInputStream(out.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(chunks);
+    }
+
+    private static String csvHeader() {
+        return "courseId,courseName,courseCode,credits,description,professorId,professorName,"
+                + "timeSlots,prerequisites,maxStudents,semester,active\n";
+    }
+
+    private static void csvRow(StringBuilder out, int row) {
+        out.append("IMP-").append(row).append(",\"Introduction to Topic ").append(row % 97).append(", part ")
+                .append(row % 3 + 1).append("\",TOP-").append(row % 9000).append(',')
+                .append(row % 1000 == 999 ? "three" : String.valueOf(2 + row % 4))
+                .append(",\"Covers the \"\"basics\"\" of topic ").append(row % 97).append(".\",prof-")
+                .append(row % 500).append(",Prof. Martin,MONDAY 09:00-10:30 Room ").append(row % 40)
+                .append("; THURSDAY 14:00-15:30 Room ").append(row % 40).append(',');
+        if (row > 0 && row % 5 == 0) {
+            out.append("IMP-").append(row - 1);
+        }
+        out.append(',').append(30 + row % 170).append(",2027-FALL,true\n");
+    }
+
+    private static void xmlRow(StringBuilder out, int row) {
+        out.append("  <course>\n    <courseId>IMP-").append(row).append("</courseId>\n")
+                .append("    <courseName>Introduction to Topic ").append(row % 97).append(" &amp; more</courseName>\n")
+                .append("    <courseCode>TOP-").append(row % 9000).append("</courseCode>\n")
+                .append("    <credits>").append(row % 1000 == 999 ? "three" : String.valueOf(2 + row % 4))
+                .append("</credits>\n")
+                .append("    <description>Covers the basics of topic ").append(row % 97).append(".</description>\n")
+                .append("    <professorId>prof-").append(row % 500).append("</professorId>\n")
+                .append("    <professorName>Prof. Martin</professorName>\n")
+                .append("    <timeSlots><dayOfWeek>MONDAY</dayOfWeek><startTime>09:00</startTime>")
+                .append("<endTime>10:30</endTime><room>Room ").append(row % 40).append("</room></timeSlots>\n");
+        if (row > 0 && row % 5 == 0) {
+            out.append("    <prerequisites>IMP-").append(row - 1).append("</prerequisites>\n");
+        }
+        out.append("    <maxStudents>").append(30 + row % 170).append("</maxStudents>\n")
+                .append("    <semester>2027-FALL</semester>\n  </course>\n");
+    }
+
+    private static long heapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
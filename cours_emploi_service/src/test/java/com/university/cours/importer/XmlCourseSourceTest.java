@@ -0,0 +1,61 @@
+package com.university.cours.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XmlCourseSourceTest {
+
+    private static List<CourseRow> read(String xml) throws IOException {
+        XmlCourseSource source = new XmlCourseSource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        List<CourseRow> rows = new ArrayList<>();
+        CourseRow row;
+        while ((row = source.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void readsCoursesAtAnyDepth() throws IOException {
+        List<CourseRow> rows = read("<export><courses>"
+                + "<course><id>skipped</id><courseId>CS101</courseId><courseName>Intro &amp; more</courseName>"
+                + "<timeSlots><dayOfWeek>MONDAY</dayOfWeek><startTime>09:00</startTime>"
+                + "<endTime>10:30</endTime><room>Room 101</room></timeSlots>"
+                + "<prerequisites>CS100</prerequisites><prerequisites>MATH100</prerequisites>"
+                + "<unknown><nested>ignored</nested></unknown><credits>3</credits></course>"
+                + "<course><courseId>CS102</courseId><credits>three</credits></course>"
+                + "</courses></export>");
+
+        assertEquals(2, rows.size());
+        CourseRow first = rows.get(0);
+        assertNull(first.error());
+        assertEquals("Intro & more", first.course().getCourseName());
+        assertEquals("Room 101", first.course().getTimeSlots().get(0).getRoom());
+        assertEquals(List.of("CS100", "MATH100"), first.course().getPrerequisites());
+        assertEquals(3, first.course().getCredits());
+        assertNotNull(rows.get(1).error());
+        assertEquals(2, rows.get(1).row());
+    }
+
+    @Test
+    void doesNotResolveEntities() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE courses [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                + "<courses><course><courseId>&x;</courseId></course></courses>";
+        assertThrows(IOException.class, () -> read(xml));
+    }
+
+    @Test
+    void malformedXmlStopsTheImport() {
+        assertThrows(IOException.class, () -> read("<courses><course><courseId>CS101</courseId></courses>"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.university.cours.prerequisite;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.dto.EligibilityDTO;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Registration-day load on the prerequisite graph: a synthetic catalog of 10,000 courses
+ * over five levels, each with up to three prerequisites from lower levels, and students
+ * who each completed about twenty courses and check ten targets in one call.
+ *
+ * Reports the graph build time and the latency of one checkEligibility call, next to a
+ * recursive walk of the same prerequisites per target as the baseline.
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.prerequisite.EligibilityBenchmark [courses] [students]
+ */
+public class EligibilityBenchmark {
+    private static final int LEVELS = 5;
+    private static final int TARGETS = 10;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        SplittableRandom random = new SplittableRandom(11);
+        List<CourseDTO> courses = catalog(size, random);
+        Map<String, List<String>> edges = new HashMap<>();
+        for (CourseDTO course : courses) {
+            edges.put(course.getCourseId(), course.getPrerequisites());
+        }
+
+        CoursePrerequisites prerequisites = new CoursePrerequisites();
+        long start = System.nanoTime();
+        prerequisites.rebuild(courses);
+        System.out.printf("Graph of %d courses built in %.1f ms%n", size, (System.nanoTime() - start) / 1e6);
+
+        List<List<String>> completed = new ArrayList<>();
+        List<List<String>> targets = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            completed.add(transcript(courses, edges, random));
+            List<String> wanted = new ArrayList<>();
+            for (int t = 0; t < TARGETS; t++) {
+                wanted.add(courses.get(random.nextInt(size)).getCourseId());
+            }
+            targets.add(wanted);
+        }
+
+        // Warm up both paths before measuring
+        for (int i = 0; i < 50_000; i++) {
+            prerequisites.checkEligibility(completed.get(i % 1_000), targets.get(i % 1_000));
+            recursive(edges, completed.get(i % 1_000), targets.get(i % 1_000));
+        }
+
+        Histogram bitsets = new Histogram(3_600_000_000L, 3);
+        Histogram walks = new Histogram(3_600_000_000L, 3);
+        long eligible = 0;
+        long began = System.nanoTime();
+        for (int i = 0; i < students; i++) {
+            long t0 = System.nanoTime();
+            List<EligibilityDTO> results = prerequisites.checkEligibility(completed.get(i % 1_000),
+                    targets.get(i % 1_000));
+            bitsets.recordValue(System.nanoTime() - t0);
+            eligible += results.stream().filter(EligibilityDTO::isEligible).count();
+        }
+        double bitsetSeconds = (System.nanoTime() - began) / 1e9;
+        for (int i = 0; i < students; i++) {
+            long t0 = System.nanoTime();
+            recursive(edges, completed.get(i % 1_000), targets.get(i % 1_000));
+            walks.recordValue(System.nanoTime() - t0);
+        }
+
+        System.out.printf("%d students x %d targets, %.0f%% eligible, %.0f checks/s with bitsets%n",
+                students, TARGETS, 100.0 * eligible / students / TARGETS, students * TARGETS / bitsetSeconds);
+        System.out.printf("%-10s %9s %9s %9s %9s%n", "per call", "p50(us)", "p99(us)", "p99.9(us)", "max(us)");
+        print("bitsets", bitsets);
+        print("recursive", walks);
+    }
+
+    private static void print(String label, Histogram histogram) {
+        System.out.printf("%-10s %9.2f %9.2f %9.2f %9.1f%n", label, histogram.getValueAtPercentile(50) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3);
+    }
+
+    private static List<CourseDTO> catalog(int size, SplittableRandom random) {
+        List<CourseDTO> courses = new ArrayList<>(size);
+        int perLevel = size / LEVELS;
+        for (int i = 0; i < size; i++) {
+            int level = Math.min(i / perLevel, LEVELS - 1);
+            CourseDTO course = new CourseDTO();
+            course.setId(String.format("%024x", i));
+            course.setCourseId("C" + i);
+            if (level > 0) {
+                int count = random.nextInt(4);
+                for (int p = 0; p < count; p++) {
+                    // Mostly the level just below, in a nearby "department"
+                    int from = Math.max(0, level - 1 - (random.nextInt(4) == 0 ? 1 : 0)) * perLevel;
+                    int near = Math.floorMod(i % perLevel + random.nextInt(200) - 100, perLevel);
+                    course.getPrerequisites().add("C" + (from + near));
+                }
+            }
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    // Courses taken in an order that respects the prerequisites
+    private static List<String> transcript(List<CourseDTO> courses, Map<String, List<String>> edges,
+            SplittableRandom random) {
+        Set<String> taken = new LinkedHashSet<>();
+        int attempts = 0;
+        while (taken.size() < 20 && attempts++ < 10_000) {
+            String candidate = courses.get(random.nextInt(courses.size() * 3 / LEVELS)).getCourseId();
+            if (taken.containsAll(edges.get(candidate))) {
+                taken.add(candidate);
+            }
+        }
+        return new ArrayList<>(taken);
+    }
+
+    // What checking without the closure costs: walk every target's prerequisites
+    private static int recursive(Map<String, List<String>> edges, List<String> completed, List<String> targets) {
+        Set<String> satisfied = new HashSet<>();
+        for (String course : completed) {
+            collect(edges, course, satisfied);
+        }
+        int eligible = 0;
+        for (String target : targets) {
+            Set<String> required = new HashSet<>();
+            for (String prerequisite : edges.get(target)) {
+                collect(edges, prerequisite, required);
+            }
+            if (satisfied.containsAll(required)) {
+                eligible++;
+            }
+        }
+        return eligible;
+    }
+
+    private static void collect(Map<String, List<String>> edges, String course, Set<String> into) {
+        if (into.add(course)) {
+            for (String prerequisite : edges.get(course)) {
+                collect(edges, prerequisite, into);
+            }
+        }
+    }
+}
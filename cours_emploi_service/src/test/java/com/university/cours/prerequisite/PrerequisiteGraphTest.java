@@ -0,0 +1,59 @@
+package com.university.cours.prerequisite;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrerequisiteGraphTest {
+    // CS301 needs CS201, which needs CS101; MATH201 needs MATH101
+    private final PrerequisiteGraph graph = new PrerequisiteGraph(Map.of(
+            "CS201", List.of("CS101"),
+            "CS301", List.of("CS201", "MATH201"),
+            "MATH201", List.of("MATH101")));
+
+    @Test
+    void closureIsTransitive() {
+        assertTrue(graph.requires("CS301", "CS101"));
+        assertTrue(graph.requires("CS301", "MATH101"));
+        assertFalse(graph.requires("CS201", "MATH101"));
+        assertFalse(graph.requires("CS101", "CS201"));
+    }
+
+    @Test
+    void completedCoursesSatisfyWhatTheyRequired() {
+        long[] satisfied = graph.satisfied(List.of("CS201", "MATH201"));
+        assertTrue(graph.isEligible("CS301", satisfied));
+
+        long[] partial = graph.satisfied(List.of("CS101"));
+        assertFalse(graph.isEligible("CS301", partial));
+        assertTrue(graph.isEligible("CS201", partial));
+        assertEquals(List.of("CS201", "MATH201"), graph.missing("CS301", partial));
+        assertEquals(Set.of("CS201", "MATH201", "MATH101"), Set.copyOf(graph.remaining("CS301", partial)));
+    }
+
+    @Test
+    void coursesOutsideTheGraphHaveNoPrerequisites() {
+        long[] none = graph.satisfied(List.of());
+        assertTrue(graph.isEligible("ART100", none));
+        assertEquals(List.of(), graph.missing("ART100", none));
+    }
+
+    @Test
+    void cyclesAreReportedAndBroken() {
+        PrerequisiteGraph cyclic = new PrerequisiteGraph(Map.of(
+                "A", List.of("B"),
+                "B", List.of("C"),
+                "C", List.of("A")));
+        assertFalse(cyclic.getCycles().isEmpty());
+        // Whatever edge was dropped, no course ends up requiring itself
+        for (String course : List.of("A", "B", "C")) {
+            assertFalse(cyclic.requires(course, course));
+        }
+    }
+}
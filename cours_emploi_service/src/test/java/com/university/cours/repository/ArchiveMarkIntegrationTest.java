@@ -0,0 +1,28 @@
+package com.university.cours.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveMarkIntegrationTest {
+
+    @Test
+    void onlyAnArchivingMarkIsTakenBack() {
+        CourseRepository repository = MongoTestSupport.freshRepository();
+        CourseArchive archive = new CourseArchive(repository, 2, 60_000);
+
+        assertTrue(archive.markArchiving("2024-FALL"));
+        assertFalse(archive.markArchiving("2024-FALL"));
+        archive.unmarkArchiving("2024-FALL");
+        assertFalse(archive.isArchived("2024-FALL"));
+
+        assertTrue(archive.markArchiving("2024-SPRING"));
+        assertEquals(List.of(), archive.archive("2024-SPRING", 100));
+        archive.unmarkArchiving("2024-SPRING");
+        assertEquals(CourseRepository.ARCHIVED, archive.getSemesters().get("2024-SPRING"));
+    }
+}
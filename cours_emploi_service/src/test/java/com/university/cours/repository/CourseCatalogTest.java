@@ -0,0 +1,63 @@
+package com.university.cours.repository;
+
+import com.university.cours.dto.CourseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CourseCatalogTest {
+
+    private static CourseDTO course(String id, String courseId, long version, boolean active) {
+        CourseDTO course = new CourseDTO();
+        course.setId(id);
+        course.setCourseId(courseId);
+        course.setVersion(version);
+        course.setRevision(version);
+        course.setActive(active);
+        return course;
+    }
+
+    // Only update() is used, which never goes to the repository
+    private static CourseCatalog catalog() {
+        return new CourseCatalog(null, true, 60_000);
+    }
+
+    @Test
+    void echoesAndStaleVersionsAreNotPublished() {
+        CourseCatalog catalog = catalog();
+        List<Collection<String>> changes = new ArrayList<>();
+        catalog.addCourseListener((ids, courses) -> changes.add(List.copyOf(ids)));
+
+        CourseDTO written = course("a", "CS101", 2, true);
+        catalog.update(written);
+        long version = catalog.getVersion();
+        catalog.update(course("a", "CS101", 2, true));
+        catalog.update(course("a", "CS101", 1, false));
+
+        assertEquals(version, catalog.getVersion());
+        assertEquals(List.of(List.of("a")), changes);
+        assertSame(written, catalog.findById("a"));
+    }
+
+    @Test
+    void viewsFollowEachSnapshot() {
+        CourseCatalog catalog = catalog();
+        catalog.update(course("b", "CS102", 0, true));
+        catalog.update(course("a", "CS101", 0, false));
+        assertEquals(List.of("a", "b"), catalog.findAll().stream().map(CourseDTO::getId).toList());
+        assertEquals(List.of("b"), catalog.findActive().stream().map(CourseDTO::getId).toList());
+
+        catalog.update(course("a", "CS101", 1, true));
+        catalog.update(course("b", "CS202", 1, true));
+        assertEquals(List.of("a", "b"), catalog.findActive().stream().map(CourseDTO::getId).toList());
+        assertEquals("b", catalog.findByCourseId("CS202").getId());
+        assertNull(catalog.findByCourseId("CS102"));
+        assertEquals(2, catalog.size());
+    }
+}
@@ -0,0 +1,48 @@
+package com.university.cours.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseRepositoryTest {
+
+    private static Document ixscan(String indexName, String field, String bounds) {
+        return new Document("stage", "IXSCAN")
+                .append("indexName", indexName)
+                .append("indexBounds", new Document(field, List.of(bounds)));
+    }
+
+    private static Document fetch(Document input) {
+        return new Document("stage", "FETCH").append("filter", new Document("semester", "x"))
+                .append("inputStage", input);
+    }
+
+    @Test
+    void flagsCollectionScans() {
+        assertTrue(CourseRepository.readsWholeCollection(new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "COLLSCAN"))));
+    }
+
+    @Test
+    void flagsAFullWalkOfTheIdIndex() {
+        // What a filter no index serves looks like when the query sorts by _id
+        assertTrue(CourseRepository.readsWholeCollection(fetch(ixscan("_id_", "_id", "[MinKey, MaxKey]"))));
+        // Same inside the plan of the slot-based engine, and in an OR branch
+        assertTrue(CourseRepository.readsWholeCollection(new Document("queryPlan", new Document("stage", "OR")
+                .append("inputStages", List.of(ixscan("revision", "revision", "(1, 2]"),
+                        fetch(ixscan("_id_", "_id", "[MinKey, MaxKey]")))))));
+    }
+
+    @Test
+    void acceptsBoundedScans() {
+        assertFalse(CourseRepository.readsWholeCollection(fetch(ixscan("_id_", "_id",
+                "(ObjectId('65a000000000000000000000'), ObjectId('ffffffffffffffffffffffff')]"))));
+        assertFalse(CourseRepository.readsWholeCollection(fetch(ixscan("semester_active_id", "semester",
+                "[\"2026-FALL\", \"2026-FALL\"]"))));
+        assertFalse(CourseRepository.readsWholeCollection(new Document("stage", "EOF")));
+    }
+}
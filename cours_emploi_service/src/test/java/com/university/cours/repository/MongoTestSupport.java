@@ -0,0 +1,53 @@
+package com.university.cours.repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.university.cours.config.MongoDBConfig;
+import org.bson.Document;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * For tests that run against the mongod of mongodb.uri (or MONGODB_URI). They are
+ * skipped when none answers. Surefire points MONGODB_DB_NAME at courses_db_test, which
+ * each test drops before it starts.
+ */
+final class MongoTestSupport {
+    private static Boolean reachable;
+
+    private MongoTestSupport() {
+    }
+
+    /**
+     * A repository over an empty test database, or skips the calling test.
+     */
+    static CourseRepository freshRepository() {
+        assumeTrue(isReachable(), "No mongod reachable, skipping");
+        assumeTrue("courses_db_test".equals(MongoDBConfig.getDatabase().getName()),
+                "Not running against courses_db_test, skipping");
+        MongoDBConfig.getDatabase().drop();
+        return new CourseRepository();
+    }
+
+    private static synchronized boolean isReachable() {
+        if (reachable == null) {
+            MongoClientSettings settings = MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString(
+                            MongoDBConfig.getProperty("mongodb.uri", "mongodb://localhost:27017")))
+                    .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(1, TimeUnit.SECONDS))
+                    .build();
+            try (MongoClient client = MongoClients.create(settings)) {
+                client.getDatabase("admin").runCommand(new Document("ping", 1));
+                reachable = true;
+            } catch (MongoException e) {
+                reachable = false;
+            }
+        }
+        return reachable;
+    }
+}
@@ -0,0 +1,70 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.FindIterable;
+import com.university.cours.config.MongoDBConfig;
+import com.university.cours.model.Course;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs explain() on every repository query against a real mongod and fails on a COLLSCAN
+ * or a full _id index walk, except for the shapes listed as known scans.
+ */
+class QueryPlanIntegrationTest {
+    private CourseRepository repository;
+    private EnrollmentRepository enrollments;
+
+    @BeforeEach
+    void seed() {
+        repository = MongoTestSupport.freshRepository();
+        enrollments = new EnrollmentRepository();
+        for (int i = 0; i < 40; i++) {
+            Course course = new Course();
+            course.setCourseId("CS" + i);
+            course.setSemester(i % 2 == 0 ? "2026-FALL" : "2027-SPRING");
+            course.setProfessorId("prof-" + i % 5);
+            course.setCredits(1 + i % 6);
+            course.setMaxStudents(30);
+            course.setActive(i % 4 != 0);
+            repository.insert(course);
+            enrollments.insert(course.getId().toHexString(), "student" + i + "@university.edu");
+        }
+        MongoDBConfig.getDatabase().getCollection("courses_archive")
+                .insertOne(new Document("courseId", "CS0-2025").append("semester", "2025-FALL"));
+    }
+
+    @Test
+    void everyQueryUsesAnIndex() {
+        List<String> scans = new ArrayList<>();
+        collectScans(repository.queryShapes(), scans);
+        collectScans(enrollments.queryShapes(), scans);
+        assertEquals(List.of(), scans);
+        repository.verifyQueryPlans();
+    }
+
+    @Test
+    void knownScansStillScan() {
+        // Once an index serves one of them, it should come off the list
+        Map<String, FindIterable<Document>> shapes = repository.queryShapes();
+        for (String name : CourseRepository.KNOWN_SCANS) {
+            assertTrue(CourseRepository.readsWholeCollection(CourseRepository.winningPlan(shapes.get(name))), name);
+        }
+    }
+
+    private static void collectScans(Map<String, FindIterable<Document>> shapes, List<String> scans) {
+        shapes.forEach((name, query) -> {
+            if (!CourseRepository.KNOWN_SCANS.contains(name)
+                    && CourseRepository.readsWholeCollection(CourseRepository.winningPlan(query))) {
+                scans.add(name);
+            }
+        });
+    }
+}
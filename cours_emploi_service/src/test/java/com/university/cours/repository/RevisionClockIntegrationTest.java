@@ -0,0 +1,63 @@
+package com.university.cours.repository;
+
+import com.mongodb.client.MongoDatabase;
+import com.university.cours.config.MongoDBConfig;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevisionClockIntegrationTest {
+    private MongoDatabase database;
+
+    @BeforeEach
+    void freshDatabase() {
+        MongoTestSupport.freshRepository();
+        database = MongoDBConfig.getDatabase();
+    }
+
+    @Test
+    void anOlderLeaseOfAThirdInstanceHoldsTheMarkBack() throws InterruptedException {
+        RevisionClock a = new RevisionClock(database, 10, 300, 0);
+        RevisionClock b = new RevisionClock(database, 10, 300, 0);
+        RevisionClock reader = new RevisionClock(database, 10, 300, 0);
+
+        long slow = a.reserve(1);
+        // b leases after a, so the counter's last lease is b's
+        long fast = b.reserve(1);
+        b.release(fast);
+        assertTrue(fast > slow);
+        assertTrue(reader.highWaterMark() < slow);
+
+        // Still held back once b's lease has expired, while a's write is in flight
+        Thread.sleep(1000);
+        assertTrue(reader.highWaterMark() < slow);
+
+        a.release(slow);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reader.highWaterMark() < fast && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(reader.highWaterMark() >= fast);
+    }
+
+    @Test
+    void readersBehindTheRetainedCheckpointsMustResync() {
+        long retention = TimeUnit.DAYS.toMillis(30);
+        long oldHour = (System.currentTimeMillis() - retention) / TimeUnit.HOURS.toMillis(1) - 1;
+        database.getCollection("revision_checkpoints").insertOne(new Document("_id", oldHour)
+                .append("at", new Date(oldHour * TimeUnit.HOURS.toMillis(1))).append("first", 1L));
+        database.getCollection("counters").insertOne(new Document("_id", "courseRevision").append("seq", 500L));
+
+        RevisionClock clock = new RevisionClock(database, 10, 300, retention);
+        long first = clock.reserve(1);
+        clock.release(first);
+        assertEquals(501, first);
+        assertEquals(500, clock.oldestCompleteSince());
+    }
+}
@@ -0,0 +1,54 @@
+package com.university.cours.repository;
+
+import com.university.cours.dto.CourseDTO;
+import com.university.cours.model.Course;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SeatCountIntegrationTest {
+
+    @Test
+    void staleFullUpdatesDoNotOverwriteSeatsTakenMeanwhile() throws Exception {
+        CourseRepository repository = MongoTestSupport.freshRepository();
+        Course course = new Course();
+        course.setCourseId("CS101");
+        course.setCourseName("Algorithms");
+        course.setSemester("2026-FALL");
+        course.setMaxStudents(1000);
+        repository.insert(course);
+        String id = course.getId().toHexString();
+        // The copy an admin read before any seat was taken
+        assertFalse(CourseRepository.fieldsOf(course).containsKey("enrolledStudents"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> seats = new ArrayList<>();
+            List<Future<?>> updates = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                seats.add(pool.submit(() -> repository.reserveSeat(id) != null));
+                updates.add(pool.submit(() -> repository.updateFields(id, null, CourseRepository.fieldsOf(course))));
+            }
+            int taken = 0;
+            for (Future<Boolean> seat : seats) {
+                taken += seat.get() ? 1 : 0;
+            }
+            for (Future<?> update : updates) {
+                update.get();
+            }
+
+            CourseDTO stored = repository.findDTOById(id);
+            assertEquals(200, taken);
+            assertEquals(taken, stored.getEnrolledStudents());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.university.cours.schedule;
+
+import com.university.cours.model.Course;
+import com.university.cours.model.Room;
+import com.university.cours.model.TimeSlot;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseScheduleTest {
+
+    private static Course course(String courseId, String semester, String professorId, String day, String room) {
+        Course course = new Course();
+        course.setId(new ObjectId());
+        course.setCourseId(courseId);
+        course.setSemester(semester);
+        course.setProfessorId(professorId);
+        course.setActive(true);
+        course.setTimeSlots(new ArrayList<>(List.of(new TimeSlot(day, "09:00", "10:30", room))));
+        return course;
+    }
+
+    // A copy as rolloverSemester makes it: new courseId and semester, same slots and professor
+    private static Course copy(Course source, String toSemester) {
+        return course(source.getCourseId() + "-" + toSemester, toSemester, source.getProfessorId(),
+                source.getTimeSlots().get(0).getDayOfWeek(), source.getTimeSlots().get(0).getRoom());
+    }
+
+    @Test
+    void activeRolloverCopiesDoNotClashWithTheirSources() {
+        List<Course> fall = List.of(
+                course("CS101", "2026-FALL", "prof1", "MONDAY", "Room 101"),
+                course("CS102", "2026-FALL", "prof2", "MONDAY", "Room 102"),
+                course("CS103", "2026-FALL", "prof3", "TUESDAY", "Room 101"));
+        CourseSchedule schedule = new CourseSchedule(true);
+        schedule.load(List.of(new Room("Room 101", 40), new Room("Room 102", 40)), fall);
+
+        // Same steps as rolloverSemester with activate=true and keepTimeSlots=true
+        List<String> placeholders = new ArrayList<>();
+        for (Course source : fall) {
+            Course copy = copy(source, "2027-FALL");
+            assertEquals(List.of(), schedule.conflicts(copy), copy.getCourseId());
+            schedule.book(copy);
+            placeholders.add(copy.getId().toHexString());
+        }
+
+        // The copies now clash with each other in 2027-FALL, and the sources still in 2026-FALL
+        assertEquals(1, schedule.conflicts(course("MATH101", "2027-FALL", "prof9", "MONDAY", "Room 101")).size());
+        assertEquals(1, schedule.conflicts(course("MATH101", "2026-FALL", "prof9", "MONDAY", "Room 101")).size());
+
+        placeholders.forEach(schedule::release);
+        assertEquals(List.of(), schedule.conflicts(course("MATH101", "2027-FALL", "prof9", "MONDAY", "Room 101")));
+    }
+
+    @Test
+    void checksAreOnlyEnforcedForActiveCoursesWhenEnabled() {
+        Course booked = course("CS101", "2026-FALL", "prof1", "MONDAY", "Room 101");
+        Course clashing = course("CS201", "2026-FALL", "prof1", "MONDAY", "Room 101");
+
+        CourseSchedule enforced = new CourseSchedule(true);
+        enforced.load(List.of(), List.of(booked));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> enforced.check(clashing));
+        assertTrue(e.getMessage().startsWith("Schedule conflict: "));
+        clashing.setActive(false);
+        enforced.check(clashing);
+
+        CourseSchedule relaxed = new CourseSchedule(false);
+        relaxed.load(List.of(), List.of(booked));
+        clashing.setActive(true);
+        relaxed.check(clashing);
+    }
+
+    @Test
+    void findsFreeRoomsPerSemester() {
+        CourseSchedule schedule = new CourseSchedule(true);
+        schedule.load(List.of(new Room("Room 101", 40), new Room("Room 102", 80)),
+                List.of(course("CS101", "2026-FALL", "prof1", "MONDAY", "Room 101")));
+
+        assertEquals(1, schedule.findFreeRooms("2026-FALL", "MONDAY", "09:00", "10:00", 0).size());
+        assertEquals(2, schedule.findFreeRooms("2027-SPRING", "MONDAY", "09:00", "10:00", 0).size());
+    }
+}
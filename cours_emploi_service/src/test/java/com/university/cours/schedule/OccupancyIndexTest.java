@@ -0,0 +1,82 @@
+package com.university.cours.schedule;
+
+import com.university.cours.model.Room;
+import com.university.cours.model.TimeSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccupancyIndexTest {
+
+    private static TimeSlot slot(String day, String start, String end, String room) {
+        return new TimeSlot(day, start, end, room);
+    }
+
+    private static List<String> names(List<Room> rooms) {
+        return rooms.stream().map(Room::getName).collect(Collectors.toList());
+    }
+
+    private OccupancyIndex index() {
+        OccupancyIndex index = new OccupancyIndex();
+        index.setRooms(List.of(new Room("Room 101", 40), new Room("Room 102", 80), new Room("Amphi A", 200)));
+        index.put("2026-FALL", "c1", "CS101", "prof1", List.of(slot("MONDAY", "09:00", "10:30", "Room 101")));
+        return index;
+    }
+
+    @Test
+    void findsRoomAndProfessorClashesInTheSameSemester() {
+        OccupancyIndex index = index();
+
+        List<String> conflicts = index.findConflicts("2026-FALL", "c2", "prof1",
+                List.of(slot("MONDAY", "10:00", "11:00", " room 101 ")));
+        assertEquals(2, conflicts.size(), conflicts.toString());
+        assertTrue(conflicts.get(0).contains("CS101"));
+
+        assertEquals(List.of(), index.findConflicts("2026-FALL", "c2", "prof1",
+                List.of(slot("MONDAY", "10:30", "12:00", "Room 101"))));
+    }
+
+    @Test
+    void semestersDoNotClash() {
+        OccupancyIndex index = index();
+
+        assertEquals(List.of(), index.findConflicts("2027-SPRING", "c2", "prof1",
+                List.of(slot("MONDAY", "09:00", "10:30", "Room 101"))));
+        assertEquals(List.of("Room 101", "Room 102"),
+                names(index.findFreeRooms("2027-SPRING", WeekRange.parse("MONDAY", "09:00", "10:00"), 10)).subList(0, 2));
+        assertEquals(List.of("Room 102", "Amphi A"),
+                names(index.findFreeRooms("2026-FALL", WeekRange.parse("MONDAY", "09:00", "10:00"), 10)));
+    }
+
+    @Test
+    void updatesIgnoreTheCourseItselfAndCanMoveItToAnotherSemester() {
+        OccupancyIndex index = index();
+        assertEquals(List.of(), index.findConflicts("2026-FALL", "c1", "prof1",
+                List.of(slot("MONDAY", "09:30", "11:00", "Room 101"))));
+
+        index.put("2027-SPRING", "c1", "CS101", "prof1", List.of(slot("MONDAY", "09:00", "10:30", "Room 101")));
+        assertEquals(List.of(), index.findConflicts("2026-FALL", "c2", "prof1",
+                List.of(slot("MONDAY", "09:00", "10:30", "Room 101"))));
+        assertEquals(2, index.findConflicts("2027-SPRING", "c2", "prof1",
+                List.of(slot("MONDAY", "09:00", "10:30", "Room 101"))).size());
+
+        index.remove("c1");
+        assertEquals(List.of(), index.findConflicts("2027-SPRING", "c2", "prof1",
+                List.of(slot("MONDAY", "09:00", "10:30", "Room 101"))));
+    }
+
+    @Test
+    void rejectsOverlappingOwnSlotsAndBadTimes() {
+        OccupancyIndex index = index();
+        assertEquals(1, index.findConflicts("2026-FALL", "c2", "prof2", List.of(
+                slot("TUESDAY", "09:00", "10:30", "Room 102"),
+                slot("TUESDAY", "10:00", "11:00", "Room 101"))).size());
+        assertThrows(IllegalArgumentException.class, () -> index.findConflicts("2026-FALL", "c2", "prof2",
+                List.of(slot("FUNDAY", "09:00", "10:30", "Room 102"))));
+    }
+}
@@ -0,0 +1,67 @@
+package com.university.cours.search;
+
+import com.university.cours.dto.CourseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseTextIndexTest {
+
+    private static CourseDTO course(String id, String name, String code, String professor, boolean active) {
+        CourseDTO course = new CourseDTO();
+        course.setId(id);
+        course.setCourseId(code);
+        course.setCourseName(name);
+        course.setCourseCode(code);
+        course.setProfessorName(professor);
+        course.setDescription("");
+        course.setActive(active);
+        return course;
+    }
+
+    private static List<String> ids(List<CourseDTO> courses) {
+        return courses.stream().map(CourseDTO::getId).collect(Collectors.toList());
+    }
+
+    private CourseTextIndex index() {
+        CourseTextIndex index = new CourseTextIndex();
+        index.rebuild(List.of(
+                course("1", "Génie Logiciel", "GL101", "Prof. Martin", true),
+                course("2", "Algorithms and Data Structures", "CS201", "Prof. Dubois", true),
+                course("3", "Advanced Algorithms", "CS401", "Prof. Martin", false)));
+        return index;
+    }
+
+    @Test
+    void tokensAreLowerCasedWithoutAccents() {
+        assertEquals(List.of("genie", "logiciel"), CourseTextIndex.tokens("Génie Logiciel"));
+    }
+
+    @Test
+    void distanceCountsEdits() {
+        assertEquals(1, CourseTextIndex.distance("algoritms", "algorithms", 2));
+        assertTrue(CourseTextIndex.distance("algebra", "algorithms", 2) > 2);
+    }
+
+    @Test
+    void findsByWordPrefixAndTypo() {
+        CourseTextIndex index = index();
+        assertEquals(List.of("1"), ids(index.search("genie", course -> true, 10)));
+        assertTrue(ids(index.search("algo", course -> true, 10)).containsAll(List.of("2", "3")));
+        assertTrue(ids(index.search("algoritms", course -> true, 10)).contains("2"));
+    }
+
+    @Test
+    void appliesTheFilterAndFollowsUpdates() {
+        CourseTextIndex index = index();
+        assertEquals(List.of("2"), ids(index.search("algorithms", CourseDTO::isActive, 10)));
+
+        index.update("2", null);
+        assertEquals(List.of(), ids(index.search("algorithms", CourseDTO::isActive, 10)));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,125 @@
+package com.university.cours.search;
+
+import com.university.cours.dto.CourseDTO;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Builds a {@link CourseTextIndex} over a synthetic catalog (50,000 courses by default)
+ * and reports query latency per kind of query, plus build and incremental update times.
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.search.TextSearchBenchmark [courses] [queries per kind]
+ */
+public class TextSearchBenchmark {
+    private static final String[] SUBJECTS = {"Algorithms", "Databases", "Networks", "Compilers", "Statistics",
+            "Physics", "Chemistry", "Biology", "Economics", "Philosophy", "Linguistics", "Mathematics",
+            "Thermodynamics", "Cryptography", "Robotics", "Genetics", "Accounting", "Marketing", "Sociology",
+            "Psychology", "Astronomy", "Geology", "Architecture", "Électronique", "Génie Logiciel", "Optimisation"};
+    private static final String[] LEVELS = {"Introduction to", "Advanced", "Applied", "Topics in", "Foundations of",
+            "Seminar in", "Principles of", "Computational"};
+    private static final String[] TOPICS = {"graphs", "probability", "learning", "systems", "design", "analysis",
+            "modelling", "security", "distributed", "parallel", "numerical", "theory", "practice", "ethics",
+            "history", "methods", "structures", "signals", "control", "markets", "cells", "energy", "language",
+            "vision", "storage", "queries", "transactions", "proofs", "logic", "geometry", "algebra", "calculus"};
+    private static final String[] SURNAMES = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "Benali",
+            "Haddad", "Nguyen", "Schmidt", "Rossi", "Kowalski", "Okafor", "Tanaka", "Silva"};
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        SplittableRandom random = new SplittableRandom(7);
+        List<CourseDTO> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            courses.add(course(i, random));
+        }
+
+        CourseTextIndex index = new CourseTextIndex();
+        long start = System.nanoTime();
+        index.rebuild(courses);
+        System.out.printf("Indexed %d courses in %.0f ms%n", index.size(), (System.nanoTime() - start) / 1e6);
+
+        Map<String, String[]> kinds = new LinkedHashMap<>();
+        kinds.put("one word", new String[]{"algorithms", "probability", "genetics", "calculus", "robotics"});
+        kinds.put("two words", new String[]{"distributed systems", "numerical analysis", "applied statistics",
+                "database transactions", "computer vision"});
+        kinds.put("prefix", new String[]{"algo", "crypt", "thermo", "stat", "ling"});
+        kinds.put("typo", new String[]{"algoritms", "probabilty", "cryptograhpy", "thermodynamcs", "sociolgy"});
+        kinds.put("professor", new String[]{"dubois", "nguyen", "prof okafor", "rossi", "haddad"});
+        kinds.put("code", new String[]{"ALG-1042", "phy", "gen-301", "inf101", "STA-2"});
+        kinds.put("accents", new String[]{"electronique", "génie logiciel", "genie", "optimisation", "logi"});
+
+        // Warm up every path before measuring
+        for (int round = 0; round < 3; round++) {
+            for (String[] samples : kinds.values()) {
+                for (int i = 0; i < queries / 4; i++) {
+                    index.search(samples[i % samples.length], null, 20);
+                }
+            }
+        }
+
+        System.out.printf("%-10s %8s %9s %9s %9s %9s %9s%n",
+                "query", "hits", "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)");
+        for (Map.Entry<String, String[]> kind : kinds.entrySet()) {
+            Histogram histogram = new Histogram(3_600_000_000L, 3);
+            long hits = 0;
+            for (int i = 0; i < queries; i++) {
+                String query = kind.getValue()[i % kind.getValue().length];
+                long t0 = System.nanoTime();
+                hits += index.search(query, null, 20).size();
+                histogram.recordValue(System.nanoTime() - t0);
+            }
+            print(kind.getKey(), hits / queries, histogram);
+        }
+
+        // One course changed at a time, as the catalog change stream delivers them
+        Histogram updates = new Histogram(3_600_000_000L, 3);
+        for (int i = 0; i < 10_000; i++) {
+            CourseDTO changed = course(random.nextInt(size), random);
+            long t0 = System.nanoTime();
+            index.update(changed.getId(), changed);
+            updates.recordValue(System.nanoTime() - t0);
+        }
+        print("update", 1, updates);
+    }
+
+    private static void print(String label, long hits, Histogram histogram) {
+        System.out.printf("%-10s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", label, hits,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3);
+    }
+
+    private static CourseDTO course(int i, SplittableRandom random) {
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        CourseDTO course = new CourseDTO();
+        course.setId(String.format("%024x", i));
+        course.setCourseId("CRS-" + i);
+        course.setCourseName(LEVELS[random.nextInt(LEVELS.length)] + " " + subject + " "
+                + TOPICS[random.nextInt(TOPICS.length)]);
+        course.setCourseCode(subject.substring(0, 3).toUpperCase() + "-" + (100 + random.nextInt(9900)));
+        StringBuilder description = new StringBuilder("This course covers ");
+        int words = 10 + random.nextInt(30);
+        for (int w = 0; w < words; w++) {
+            // Skewed towards the first topics, like real vocabulary
+            int topic = (int) (TOPICS.length * Math.pow(random.nextDouble(), 2));
+            description.append(TOPICS[topic]).append(w % 7 == 6 ? ". " : " ");
+        }
+        description.append("with applications in ").append(SUBJECTS[random.nextInt(SUBJECTS.length)]).append('.');
+        course.setDescription(description.toString());
+        course.setProfessorId("prof-" + random.nextInt(2000));
+        course.setProfessorName("Prof. " + SURNAMES[random.nextInt(SURNAMES.length)]);
+        course.setCredits(2 + random.nextInt(5));
+        course.setMaxStudents(30 + random.nextInt(170));
+        course.setEnrolledStudents(random.nextInt(60));
+        course.setSemester(i % 2 == 0 ? "2026-FALL" : "2027-SPRING");
+        course.setActive(random.nextInt(10) != 0);
+        return course;
+    }
+}
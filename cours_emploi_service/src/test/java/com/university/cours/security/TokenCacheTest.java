@@ -0,0 +1,94 @@
+package com.university.cours.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenCacheTest {
+
+    private static JWTValidator.UserInfo user(String email, long expiresAt) {
+        JWTValidator.UserInfo userInfo = new JWTValidator.UserInfo();
+        userInfo.email = email;
+        userInfo.expiresAt = expiresAt;
+        return userInfo;
+    }
+
+    @Test
+    void validatesATokenOnce() {
+        TokenCache cache = new TokenCache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        JWTValidator.UserInfo first = cache.get("t1", token -> {
+            loads.incrementAndGet();
+            return user("a@university.edu", 0);
+        });
+        JWTValidator.UserInfo second = cache.get("t1", token -> {
+            loads.incrementAndGet();
+            return user("b@university.edu", 0);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        TokenCache cache = new TokenCache(10, 60_000);
+        assertThrows(RuntimeException.class, () -> cache.get("bad", token -> {
+            throw new RuntimeException("Invalid or expired token");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals("a@university.edu", cache.get("bad", token -> user("a@university.edu", 0)).email);
+    }
+
+    @Test
+    void expiredTokensAreValidatedAgain() {
+        TokenCache cache = new TokenCache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        long expired = System.currentTimeMillis() - 1;
+        cache.get("t1", token -> {
+            loads.incrementAndGet();
+            return user("a@university.edu", expired);
+        });
+        cache.get("t1", token -> {
+            loads.incrementAndGet();
+            return user("a@university.edu", 0);
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void staysWithinItsBound() {
+        TokenCache cache = new TokenCache(100, 60_000);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("t" + i, token -> user(token, 0));
+        }
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+    }
+
+    @Test
+    void asyncMissesShareOneValidation() {
+        TokenCache cache = new TokenCache(10, 60_000);
+        CompletableFuture<JWTValidator.UserInfo> validation = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<JWTValidator.UserInfo> first = cache.getAsync("t1", token -> {
+            loads.incrementAndGet();
+            return validation;
+        });
+        CompletableFuture<JWTValidator.UserInfo> second = cache.getAsync("t1", token -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(user("other", 0));
+        });
+
+        validation.complete(user("a@university.edu", 0));
+        assertEquals(1, loads.get());
+        assertSame(first.join(), second.join());
+    }
+}
@@ -0,0 +1,98 @@
+package com.university.cours.solver;
+
+import com.university.cours.schedule.WeekRange;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Runs the solver on synthetic semesters of 500, 5,000 and 20,000 courses, once on a
+ * single worker and once on all cores, and prints how long the first complete timetable
+ * took and the final quality.
+ *
+ * Usage: java -cp target/classes:target/test-classes:lib/* com.university.cours.solver.TimetableBenchmark [budgetSeconds] [sizes...]
+ */
+public class TimetableBenchmark {
+
+    public static void main(String[] args) {
+        int budgetSeconds = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            sizes.add(Integer.parseInt(args[i]));
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(500, 5_000, 20_000);
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s %8s %8s %8s %12s %12s %8s %10s%n",
+                "courses", "sessions", "rooms", "workers", "complete(ms)", "total(ms)", "unplaced", "penalty");
+        for (int size : sizes) {
+            TimetableProblem problem = synthetic(size, 42);
+            for (int workers : cores > 1 ? List.of(1, cores) : List.of(1)) {
+                run(problem, workers, budgetSeconds);
+            }
+        }
+    }
+
+    private static void run(TimetableProblem problem, int workers, int budgetSeconds) {
+        long[] firstComplete = {-1};
+        long start = System.nanoTime();
+        TimetableSolution solution;
+        try (TimetableSolver solver = new TimetableSolver(workers)) {
+            solution = solver.solve(problem, Duration.ofSeconds(budgetSeconds), improved -> {
+                if (improved.isComplete() && firstComplete[0] < 0) {
+                    firstComplete[0] = improved.getElapsedMillis();
+                }
+            });
+        }
+        long total = (System.nanoTime() - start) / 1_000_000;
+
+        if (solution.countViolations() != 0) {
+            throw new IllegalStateException("Solver produced " + solution.countViolations() + " violations");
+        }
+        System.out.printf("%8d %8d %8d %8d %12s %12d %8d %10d%n",
+                problem.getCourseCount(), problem.getSessionCount(), problem.getRoomCount(), workers,
+                firstComplete[0] < 0 ? "-" : String.valueOf(firstComplete[0]), total,
+                solution.getUnassignedCount(), solution.getPenalty());
+    }
+
+    /**
+     * About one room per 11 courses and three courses per professor, 1-3 sessions per
+     * course, and a quarter of the professors only available in the mornings.
+     * Generous enough that a complete timetable always exists.
+     */
+    static TimetableProblem synthetic(int courses, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<WeekRange> periods = TimetableProblem.weeklyPeriods(
+                List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY),
+                LocalTime.of(8, 0), LocalTime.of(18, 0), 90, 15);
+
+        TimetableProblem.Builder builder = TimetableProblem.builder().periods(periods);
+        int rooms = Math.max(4, courses / 11);
+        for (int r = 0; r < rooms; r++) {
+            int capacity = r % 10 == 0 ? 200 : r % 3 == 0 ? 80 : 40;
+            builder.room("Room " + r, capacity);
+        }
+
+        int professors = Math.max(2, courses / 3);
+        for (int f = 0; f < professors; f += 4) {
+            List<WeekRange> mornings = new ArrayList<>();
+            for (int day = 0; day < 5; day++) {
+                int offset = day * WeekRange.MINUTES_PER_DAY;
+                mornings.add(new WeekRange(offset + 8 * 60, offset + 13 * 60));
+            }
+            builder.availability("PROF" + f, mornings);
+        }
+
+        for (int c = 0; c < courses; c++) {
+            int students = random.nextInt(10) == 0 ? 150 : random.nextInt(4) == 0 ? 60 : 30;
+            builder.course("C" + c, "PROF" + (c % professors), 1 + random.nextInt(3), students);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.university.cours.solver;
+
+import com.university.cours.model.TimeSlot;
+import com.university.cours.schedule.WeekRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimetableSolverTest {
+
+    @Test
+    void solvesASyntheticSemesterWithoutViolations() {
+        TimetableProblem problem = TimetableBenchmark.synthetic(500, 42);
+        List<TimetableSolution> improvements = new ArrayList<>();
+        TimetableSolution solution;
+        try (TimetableSolver solver = new TimetableSolver(2)) {
+            solution = solver.solve(problem, Duration.ofSeconds(20), improvements::add);
+        }
+
+        assertEquals(0, solution.countViolations());
+        assertTrue(solution.isComplete(), solution.toString());
+        assertTrue(solution.getUnassignedCourseKeys().isEmpty());
+        assertFalse(improvements.isEmpty());
+    }
+
+    @Test
+    void respectsProfessorAvailability() {
+        List<WeekRange> periods = TimetableProblem.weeklyPeriods(List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY),
+                LocalTime.of(8, 0), LocalTime.of(18, 0), 90, 15);
+        WeekRange mondayMorning = new WeekRange(8 * 60, 12 * 60);
+        TimetableProblem problem = TimetableProblem.builder()
+                .periods(periods)
+                .room("Room 1", 40)
+                .availability("PROF1", List.of(mondayMorning))
+                .course("C1", "PROF1", 2, 30)
+                .course("C2", "PROF2", 2, 30)
+                .build();
+
+        TimetableSolution solution;
+        try (TimetableSolver solver = new TimetableSolver(1)) {
+            solution = solver.solve(problem, Duration.ofSeconds(1), improved -> { });
+        }
+
+        assertEquals(0, solution.countViolations());
+        Map<String, List<TimeSlot>> slots = solution.toTimeSlots();
+        for (TimeSlot slot : slots.getOrDefault("C1", List.of())) {
+            assertEquals("MONDAY", slot.getDayOfWeek());
+            assertTrue(slot.getEndTime().compareTo("12:00") <= 0, slot.getEndTime());
+        }
+    }
+}